@@ -3,9 +3,11 @@ package com.emre.holidayapi;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.emre.holidayapi.repository")
+@EnableScheduling
 public class HolidayapiApplication {
 
 	public static void main(String[] args) {
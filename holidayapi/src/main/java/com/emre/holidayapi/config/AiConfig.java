@@ -1,14 +1,32 @@
 package com.emre.holidayapi.config;
 
+import com.emre.holidayapi.service.HashingEmbedder;
+import com.emre.holidayapi.service.HolidayEmbedder;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
 public class AiConfig {
 
     @Bean
     public ChatClient chatClient(ChatClient.Builder builder) {
         return builder.build();
     }
+
+    // Retrieval is lexical only unless holiday.ai.retrieval.embedder names an embedder
+    @Bean
+    @ConditionalOnProperty(name = "holiday.ai.retrieval.embedder", havingValue = "model")
+    public HolidayEmbedder modelHolidayEmbedder(EmbeddingModel embeddingModel) {
+        return embeddingModel::embed;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "holiday.ai.retrieval.embedder", havingValue = "hashing")
+    public HolidayEmbedder hashingHolidayEmbedder() {
+        return new HashingEmbedder();
+    }
 }
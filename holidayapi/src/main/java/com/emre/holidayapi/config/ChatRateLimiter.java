@@ -0,0 +1,128 @@
+package com.emre.holidayapi.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+// Per-client rate limits and global admission for /api/chat. Each budget is a token bucket kept as
+// one "theoretical arrival time" per stripe (GCRA), so checking and charging a client is a single CAS.
+// Clients are hashed onto a fixed number of stripes; two clients sharing a stripe share a bucket,
+// which only ever makes the limit stricter for them.
+@Component
+public class ChatRateLimiter {
+    static final int STRIPES = 4096;
+
+    private final Budget modelBudget;
+    private final Budget ruleBudget;
+    private final int maxConcurrentModelCalls;
+    private final AtomicInteger modelCallsInFlight = new AtomicInteger();
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public ChatRateLimiter(@Value("${holiday.chat.rate-limit.model.per-minute:10}") int modelPerMinute,
+                           @Value("${holiday.chat.rate-limit.model.burst:5}") int modelBurst,
+                           @Value("${holiday.chat.rate-limit.rules.per-minute:120}") int rulesPerMinute,
+                           @Value("${holiday.chat.rate-limit.rules.burst:30}") int rulesBurst,
+                           @Value("${holiday.chat.max-concurrent-model-calls:4}") int maxConcurrentModelCalls) {
+        this(modelPerMinute, modelBurst, rulesPerMinute, rulesBurst, maxConcurrentModelCalls, System::nanoTime);
+    }
+
+    ChatRateLimiter(int modelPerMinute, int modelBurst, int rulesPerMinute, int rulesBurst,
+                    int maxConcurrentModelCalls, LongSupplier nanoClock) {
+        if (modelPerMinute < 1 || modelBurst < 1 || rulesPerMinute < 1 || rulesBurst < 1 || maxConcurrentModelCalls < 1) {
+            throw new IllegalArgumentException("Chat rate limits and concurrency must be at least 1");
+        }
+        this.modelBudget = new Budget(modelPerMinute, modelBurst);
+        this.ruleBudget = new Budget(rulesPerMinute, rulesBurst);
+        this.maxConcurrentModelCalls = maxConcurrentModelCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    // A granted model admission holds a concurrency slot that must be handed back with release()
+    public Admission tryAcquire(String clientKey, boolean usesModel) {
+        if (!usesModel) {
+            return ruleBudget.tryTake(clientKey, nanoClock.getAsLong());
+        }
+        if (!tryEnter()) {
+            // Saturated rather than over quota: the client can retry as soon as a call finishes
+            return Admission.rejected(Duration.ofSeconds(1));
+        }
+        Admission admission = modelBudget.tryTake(clientKey, nanoClock.getAsLong());
+        if (!admission.granted()) {
+            modelCallsInFlight.decrementAndGet();
+        }
+        return admission;
+    }
+
+    public void release() {
+        modelCallsInFlight.decrementAndGet();
+    }
+
+    int modelCallsInFlight() {
+        return modelCallsInFlight.get();
+    }
+
+    private boolean tryEnter() {
+        while (true) {
+            int current = modelCallsInFlight.get();
+            if (current >= maxConcurrentModelCalls) {
+                return false;
+            }
+            if (modelCallsInFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public record Admission(boolean granted, Duration retryAfter) {
+        static final Admission GRANTED = new Admission(true, Duration.ZERO);
+
+        static Admission rejected(Duration retryAfter) {
+            return new Admission(false, retryAfter);
+        }
+
+        // Retry-After carries whole seconds, rounded up so clients never come back too early
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfter.toNanos() + 999_999_999L) / 1_000_000_000L);
+        }
+    }
+
+    private static final class Budget {
+        private final long emissionIntervalNanos;
+        private final long toleranceNanos;
+        private final AtomicLongArray arrivalTimes = new AtomicLongArray(STRIPES);
+
+        Budget(int perMinute, int burst) {
+            this.emissionIntervalNanos = Duration.ofMinutes(1).toNanos() / perMinute;
+            this.toleranceNanos = emissionIntervalNanos * burst;
+        }
+
+        Admission tryTake(String clientKey, long now) {
+            int stripe = stripe(clientKey);
+            while (true) {
+                long stored = arrivalTimes.get(stripe);
+                // Zero marks a stripe that has never been used
+                long arrival = stored == 0 || stored - now < 0 ? now : stored;
+                long next = arrival + emissionIntervalNanos;
+                long wait = next - toleranceNanos - now;
+                if (wait > 0) {
+                    return Admission.rejected(Duration.ofNanos(wait));
+                }
+                if (arrivalTimes.compareAndSet(stripe, stored, next)) {
+                    return Admission.GRANTED;
+                }
+            }
+        }
+
+        private static int stripe(String clientKey) {
+            int hash = clientKey == null ? 0 : clientKey.hashCode();
+            hash ^= hash >>> 16;
+            return hash & (STRIPES - 1);
+        }
+    }
+}
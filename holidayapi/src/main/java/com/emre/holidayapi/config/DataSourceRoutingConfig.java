@@ -0,0 +1,64 @@
+package com.emre.holidayapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+// Only active when a replica is configured; otherwise Boot's single auto-configured pool is used.
+// Both pools are beans with their own pool names, so Hikari metrics are reported per route
+// (hikaricp.connections.*{pool="primary"} / {pool="replica"}).
+@Configuration
+@ConditionalOnProperty(name = "holiday.datasource.replica.url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+        return createPool(properties, environment, "spring.datasource.hikari", ReadWriteRoutingDataSource.PRIMARY);
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(Environment environment) {
+        DataSourceProperties properties = Binder.get(environment)
+            .bind("holiday.datasource.replica", DataSourceProperties.class)
+            .orElseThrow(() -> new IllegalArgumentException("holiday.datasource.replica is not configured"));
+        return createPool(properties, environment, "holiday.datasource.replica.hikari", ReadWriteRoutingDataSource.REPLICA);
+    }
+
+    // The lazy proxy defers fetching a connection until the first statement, by which point the
+    // transaction's read-only flag is known to the router
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 @Value("${holiday.datasource.replica.lag-window:5s}") Duration lagWindow) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(lagWindow, Clock.systemUTC());
+        routing.setTargetDataSources(Map.of(
+            ReadWriteRoutingDataSource.PRIMARY, primaryDataSource,
+            ReadWriteRoutingDataSource.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static HikariDataSource createPool(DataSourceProperties properties, Environment environment,
+                                               String hikariPrefix, String poolName) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind(hikariPrefix, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        return pool;
+    }
+}
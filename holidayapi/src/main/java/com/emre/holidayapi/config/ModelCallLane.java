@@ -0,0 +1,105 @@
+package com.emre.holidayapi.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Dedicated, bounded lane for chat work that calls the model. Rule-based answers stay on the request
+// thread, so they never wait behind a generation. Waiting model calls from configured priority keys run
+// first; everyone else, including callers sending a key that is not configured, waits FIFO behind them.
+@Component
+public class ModelCallLane {
+    static final int PRIORITY_KEY = 0;
+    static final int ANONYMOUS = 1;
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final Set<String> priorityKeys;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ModelCallLane(@Value("${holiday.chat.model-lane.threads:2}") int threads,
+                         @Value("${holiday.chat.model-lane.queue-capacity:50}") int queueCapacity,
+                         @Value("${holiday.chat.model-lane.priority-keys:}") String priorityKeys) {
+        if (threads < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Model lane needs at least one thread and a non-negative queue capacity");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        // A PriorityBlockingQueue is unbounded, so the capacity is enforced by the queued counter instead
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "model-lane-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.queueCapacity = queueCapacity;
+        this.priorityKeys = Arrays.stream(priorityKeys.split(","))
+            .map(String::trim)
+            .filter(key -> !key.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Throws RejectedExecutionException when the lane is full, so callers can answer 429 straight away
+    public <T> CompletableFuture<T> submit(String apiKey, Supplier<T> task) {
+        if (queued.incrementAndGet() > queueCapacity + executor.getMaximumPoolSize()) {
+            queued.decrementAndGet();
+            throw new RejectedExecutionException("Model lane is full");
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(new PrioritizedTask(priorityOf(apiKey), sequence.incrementAndGet(), () -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                queued.decrementAndGet();
+            }
+        }));
+        return future;
+    }
+
+    // Any client can send X-API-Key, so only configured keys are trusted to identify a caller
+    public boolean isKnownKey(String apiKey) {
+        return apiKey != null && priorityKeys.contains(apiKey);
+    }
+
+    int priorityOf(String apiKey) {
+        return isKnownKey(apiKey) ? PRIORITY_KEY : ANONYMOUS;
+    }
+
+    int pending() {
+        return queued.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record PrioritizedTask(int priority, long sequence, Runnable work)
+        implements Runnable, Comparable<PrioritizedTask> {
+
+        @Override
+        public void run() {
+            work.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
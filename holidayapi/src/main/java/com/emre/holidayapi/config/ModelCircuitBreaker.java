@@ -0,0 +1,246 @@
+package com.emre.holidayapi.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Circuit breaker around calls to the chat model. The outcomes of the last few calls are kept in a
+// ring; once enough calls are recorded and too many of them failed or were slow, the breaker opens
+// and calls go straight to their fallback instead of waiting on a backend that is down. After the
+// open period a few probe calls are let through (half-open): if they all succeed the breaker
+// closes, if any fails or is slow it opens again. Each call is bounded by call-timeout: a call that
+// has not returned by then is interrupted, counted as failed and slow, and answered by the fallback,
+// so a hung backend opens the breaker instead of holding the caller's thread. Calls run on a pool of
+// at most max-concurrent-model-calls threads; when every thread is still busy (typically with calls
+// that timed out but never returned) the call is counted as failed and answered by the fallback.
+@Component
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
+public class ModelCircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(ModelCircuitBreaker.class);
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final int slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final long callTimeoutNanos;
+    private final int maxConcurrentCalls;
+    private final LongSupplier nanoClock;
+    private final ExecutorService modelCalls;
+
+    // Guarded by this
+    private final byte[] outcomes;
+    private int recorded;
+    private int nextSlot;
+    private int failures;
+    private int slowCalls;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+    private long rejectedCalls;
+
+    @Autowired
+    public ModelCircuitBreaker(@Value("${holiday.ai.circuit.window-size:20}") int windowSize,
+                               @Value("${holiday.ai.circuit.minimum-calls:5}") int minimumCalls,
+                               @Value("${holiday.ai.circuit.failure-rate-threshold:50}") int failureRateThreshold,
+                               @Value("${holiday.ai.circuit.slow-call-duration:20s}") Duration slowCallDuration,
+                               @Value("${holiday.ai.circuit.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+                               @Value("${holiday.ai.circuit.open-duration:30s}") Duration openDuration,
+                               @Value("${holiday.ai.circuit.half-open-calls:2}") int halfOpenCalls,
+                               @Value("${holiday.ai.circuit.call-timeout:60s}") Duration callTimeout,
+                               @Value("${holiday.chat.max-concurrent-model-calls:4}") int maxConcurrentCalls) {
+        this(windowSize, minimumCalls, failureRateThreshold, slowCallDuration, slowCallRateThreshold,
+            openDuration, halfOpenCalls, callTimeout, maxConcurrentCalls, System::nanoTime);
+    }
+
+    ModelCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration slowCallDuration,
+                        int slowCallRateThreshold, Duration openDuration, int halfOpenCalls, Duration callTimeout,
+                        int maxConcurrentCalls, LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Circuit window, minimum calls and half-open calls must be at least 1, minimum calls at most the window");
+        }
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Max concurrent model calls must be at least 1");
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100 || slowCallRateThreshold < 1 || slowCallRateThreshold > 100) {
+            throw new IllegalArgumentException("Circuit rate thresholds must be percentages between 1 and 100");
+        }
+        if (callTimeout.compareTo(slowCallDuration) < 0) {
+            throw new IllegalArgumentException("Circuit call timeout must be at least the slow-call duration");
+        }
+        this.outcomes = new byte[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.callTimeoutNanos = callTimeout.toNanos();
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.nanoClock = nanoClock;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // No queue: a call either gets a thread right away or is rejected
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls,
+            60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "chat-model-call-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        this.modelCalls = pool;
+    }
+
+    // Runs the model call when the breaker lets it through, otherwise the fallback. A call that throws
+    // or runs past the call timeout is recorded as failed and also answered by the fallback.
+    public <T> T call(Supplier<T> modelCall, Supplier<T> fallback) {
+        if (!tryAcquire()) {
+            return fallback.get();
+        }
+        long start = nanoClock.getAsLong();
+        Future<T> future;
+        try {
+            future = modelCalls.submit(modelCall::get);
+        } catch (RejectedExecutionException e) {
+            // Every model thread is taken, so earlier calls are still stuck on the backend
+            record(0, true);
+            log.warn("All {} chat model threads are busy, answering without the model", maxConcurrentCalls);
+            return fallback.get();
+        }
+        try {
+            T result = future.get(callTimeoutNanos, TimeUnit.NANOSECONDS);
+            record(nanoClock.getAsLong() - start, false);
+            return result;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            record(nanoClock.getAsLong() - start, true);
+            log.warn("Chat model call failed, answering without it: {}", e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            // The client may not react to the interrupt; the thread is left to finish on its own
+            future.cancel(true);
+            record(Math.max(nanoClock.getAsLong() - start, slowCallNanos + 1), true);
+            log.warn("Chat model call timed out after {} ms, answering without it",
+                TimeUnit.NANOSECONDS.toMillis(callTimeoutNanos));
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            record(nanoClock.getAsLong() - start, true);
+        }
+        return fallback.get();
+    }
+
+    // Whether a call made now could reach the model; does not use up a half-open probe
+    public synchronized boolean allowsCalls() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> nanoClock.getAsLong() - openedAt >= openNanos;
+            case HALF_OPEN -> probesStarted < halfOpenCalls;
+        };
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && probesStarted < halfOpenCalls) {
+            probesStarted++;
+            return true;
+        }
+        rejectedCalls++;
+        return false;
+    }
+
+    synchronized void record(long elapsedNanos, boolean failed) {
+        byte outcome = (byte) ((failed ? FAILED : 0) | (elapsedNanos > slowCallNanos ? SLOW : 0));
+        switch (state) {
+            case HALF_OPEN -> {
+                if (outcome != 0) {
+                    open();
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    state = State.CLOSED;
+                    clearWindow();
+                }
+            }
+            case CLOSED -> {
+                if (recorded == outcomes.length) {
+                    forget(outcomes[nextSlot]);
+                } else {
+                    recorded++;
+                }
+                outcomes[nextSlot] = outcome;
+                nextSlot = (nextSlot + 1) % outcomes.length;
+                failures += (outcome & FAILED) != 0 ? 1 : 0;
+                slowCalls += (outcome & SLOW) != 0 ? 1 : 0;
+                if (recorded >= minimumCalls && (failures * 100 >= failureRateThreshold * recorded
+                    || slowCalls * 100 >= slowCallRateThreshold * recorded)) {
+                    open();
+                }
+            }
+            // A call let through before the breaker opened; the open period already accounts for it
+            case OPEN -> { }
+        }
+    }
+
+    public synchronized Status status() {
+        return new Status(state, recorded,
+            recorded == 0 ? 0 : failures * 100f / recorded,
+            recorded == 0 ? 0 : slowCalls * 100f / recorded,
+            rejectedCalls);
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        clearWindow();
+    }
+
+    private void forget(byte outcome) {
+        failures -= (outcome & FAILED) != 0 ? 1 : 0;
+        slowCalls -= (outcome & SLOW) != 0 ? 1 : 0;
+    }
+
+    private void clearWindow() {
+        recorded = 0;
+        nextSlot = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        modelCalls.shutdownNow();
+    }
+
+    // Rates are percentages of the calls in the window; rejected calls are counted since startup
+    public record Status(State state, int bufferedCalls, float failureRate, float slowCallRate, long rejectedCalls) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.emre.holidayapi.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/chatmodel: the model circuit breaker's state, failure and slow-call rates over its
+// window, and how many calls it has answered from the fallback. Needs to be listed in
+// management.endpoints.web.exposure.include like any non-default endpoint.
+@Component
+@Endpoint(id = "chatmodel")
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
+public class ModelCircuitBreakerEndpoint {
+    private final ModelCircuitBreaker modelCircuitBreaker;
+
+    public ModelCircuitBreakerEndpoint(ModelCircuitBreaker modelCircuitBreaker) {
+        this.modelCircuitBreaker = modelCircuitBreaker;
+    }
+
+    @ReadOperation
+    public ModelCircuitBreaker.Status circuit() {
+        return modelCircuitBreaker.status();
+    }
+}
@@ -0,0 +1,81 @@
+package com.emre.holidayapi.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sends read-only transactions to the replica and everything else to the primary. For a short window
+// after any write commits, reads also go to the primary so callers can read what they just wrote
+// while the replica catches up. Code that must see another node's write, which this node's lag window
+// knows nothing about, can run inside onPrimary().
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final Object WRITE_MARKER = new Object();
+    private static final ThreadLocal<Boolean> PRIMARY_HINT = new ThreadLocal<>();
+
+    private final Duration lagWindow;
+    private final Clock clock;
+    private final AtomicLong lastWriteMillis = new AtomicLong(Long.MIN_VALUE);
+
+    public ReadWriteRoutingDataSource(Duration lagWindow, Clock clock) {
+        this.lagWindow = lagWindow;
+        this.clock = clock;
+    }
+
+    // Reads made by the action on this thread go to the primary, whatever their read-only flag.
+    // Nested calls keep the outer hint.
+    public static void onPrimary(Runnable action) {
+        if (PRIMARY_HINT.get() != null) {
+            action.run();
+            return;
+        }
+        PRIMARY_HINT.set(Boolean.TRUE);
+        try {
+            action.run();
+        } finally {
+            PRIMARY_HINT.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY_HINT.get() != null || withinLagWindow() ? PRIMARY : REPLICA;
+        }
+        registerWriteTracking();
+        return PRIMARY;
+    }
+
+    boolean withinLagWindow() {
+        long lastWrite = lastWriteMillis.get();
+        return lastWrite != Long.MIN_VALUE && clock.millis() - lastWrite < lagWindow.toMillis();
+    }
+
+    void recordWrite() {
+        lastWriteMillis.accumulateAndGet(clock.millis(), Math::max);
+    }
+
+    // Marks the end of a read-write transaction; registered once per transaction
+    private void registerWriteTracking() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_MARKER)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_MARKER, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_MARKER);
+                if (status == STATUS_COMMITTED) {
+                    recordWrite();
+                }
+            }
+        });
+    }
+}
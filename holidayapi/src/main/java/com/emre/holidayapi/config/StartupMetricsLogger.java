@@ -0,0 +1,57 @@
+package com.emre.holidayapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// One line per start with startup time and memory, so the API-only and full profiles can be compared
+@Component
+@Lazy(false)
+public class StartupMetricsLogger {
+    private static final Logger log = LoggerFactory.getLogger(StartupMetricsLogger.class);
+    private final Environment environment;
+
+    public StartupMetricsLogger(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        log.info("Startup metrics: ai={}, ready in {} ms, beans={}, heap used={} MB, non-heap used={} MB, rss={}",
+            environment.getProperty("holiday.ai.enabled", "true"),
+            event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+            event.getApplicationContext().getBeanDefinitionCount(),
+            heap.getUsed() / (1024 * 1024),
+            nonHeap.getUsed() / (1024 * 1024),
+            residentSetSize());
+    }
+
+    // VmRSS from /proc on Linux; other platforms only get the JVM figures
+    private static String residentSetSize() {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return "n/a";
+        }
+        try {
+            return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> line.substring("VmRSS:".length()).trim())
+                .findFirst()
+                .orElse("n/a");
+        } catch (IOException e) {
+            return "n/a";
+        }
+    }
+}
@@ -1,38 +1,140 @@
 package com.emre.holidayapi.controller;
 
+import com.emre.holidayapi.config.ChatRateLimiter;
+import com.emre.holidayapi.config.ModelCallLane;
+import com.emre.holidayapi.service.ChatBatchService;
+import com.emre.holidayapi.service.ChatSession;
+import com.emre.holidayapi.service.ChatSessionStore;
 import com.emre.holidayapi.service.HolidayAiService;
+import com.emre.holidayapi.service.MessageAnalyzer.Analysis;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
 @RestController
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
 @RequestMapping("/api")
 public class ChatController {
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     private final HolidayAiService holidayAiService;
+    private final ChatRateLimiter chatRateLimiter;
+    private final ModelCallLane modelCallLane;
+    private final ChatSessionStore chatSessionStore;
+    private final ChatBatchService chatBatchService;
 
-    public ChatController(HolidayAiService holidayAiService) {
+    public ChatController(HolidayAiService holidayAiService, ChatRateLimiter chatRateLimiter, ModelCallLane modelCallLane,
+                          ChatSessionStore chatSessionStore, ChatBatchService chatBatchService) {
         this.holidayAiService = holidayAiService;
+        this.chatRateLimiter = chatRateLimiter;
+        this.modelCallLane = modelCallLane;
+        this.chatSessionStore = chatSessionStore;
+        this.chatBatchService = chatBatchService;
     }
 
+    // Rule-based answers are computed on the request thread and come back as an already-completed future;
+    // only model-bound questions are handed to the model lane, so they never hold up the fast path.
+    // Replies carry a sessionId; sending it back with the next message continues the conversation.
     @PostMapping("/chat")
-    public Map<String, String> chat(@RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<Map<String, String>>> chat(@RequestBody Map<String, String> request,
+                                                                       @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+                                                                       HttpServletRequest httpRequest) {
         String userMessage = request.get("message");
-        String countryCode = request.getOrDefault("country", "TR");
         String language = request.getOrDefault("language", "en");
         
         if (userMessage == null || userMessage.trim().isEmpty()) {
             String emptyMessage = "en".equals(language) 
                 ? "Please provide a message to get started! I'm here to provide deep insights about holidays, cultural patterns, and historical significance."
                 : "Başlamak için lütfen bir mesaj gönderin! Tatiller, kültürel desenler ve tarihsel önem hakkında derinlemesine bilgiler sunmak için buradayım.";
-            return Map.of("reply", emptyMessage);
+            return CompletableFuture.completedFuture(ResponseEntity.ok(Map.of("reply", emptyMessage)));
+        }
+
+        // Country defaults to the session's, so follow-ups need not repeat it
+        ChatSession session = chatSessionStore.open(request.get("sessionId"), request.get("country"));
+
+        // Rule-based intents never reach the model, so they draw on a separate, larger budget. The message
+        // is analyzed once; the routing check and the answer read the same result
+        Analysis message = holidayAiService.analyze(userMessage, language);
+        boolean usesModel = holidayAiService.requiresModel(message, session);
+        String clientKey = clientKey(apiKey, httpRequest);
+        ChatRateLimiter.Admission admission = chatRateLimiter.tryAcquire(clientKey, usesModel);
+        if (!admission.granted()) {
+            return CompletableFuture.completedFuture(tooManyRequests(language, admission.retryAfterSeconds()));
+        }
+
+        if (!usesModel) {
+            return CompletableFuture.completedFuture(answer(message, session, language));
         }
-        
         try {
-            String aiResponse = holidayAiService.processHolidayQuery(userMessage, countryCode, language);
-            return Map.of("reply", aiResponse);
+            return modelCallLane.submit(apiKey, () -> answer(message, session, language))
+                .whenComplete((response, error) -> chatRateLimiter.release());
+        } catch (RejectedExecutionException e) {
+            chatRateLimiter.release();
+            return CompletableFuture.completedFuture(tooManyRequests(language, 1));
+        }
+    }
+
+    // Independent questions without sessions, e.g. one per country for a digest. The whole batch costs one
+    // rule-based token, taken up front so an exhausted client gets 429 before streaming starts; rule-based
+    // questions are then free, and each distinct model call is charged to the model budget ("Rate limited" if over).
+    // Answers stream back as NDJSON lines in completion order: {"index":..,"reply":..,"model":..} or {"index":..,"error":..}
+    @PostMapping("/chat/batch")
+    public ResponseEntity<StreamingResponseBody> chatBatch(@RequestBody List<Map<String, String>> request,
+                                                           @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+                                                           HttpServletRequest httpRequest) {
+        // Validate before the body starts streaming; afterwards the status line is already committed
+        if (request.isEmpty() || request.size() > chatBatchService.maxItems()) {
+            return ResponseEntity.badRequest().build();
+        }
+        String clientKey = clientKey(apiKey, httpRequest);
+        ChatRateLimiter.Admission admission = chatRateLimiter.tryAcquire(clientKey, false);
+        if (!admission.granted()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(admission.retryAfterSeconds()))
+                .build();
+        }
+
+        List<ChatBatchService.Item> items = request.stream()
+            .map(item -> item == null ? new ChatBatchService.Item(null, null, null)
+                : new ChatBatchService.Item(item.get("message"), item.get("country"), item.get("language")))
+            .toList();
+        StreamingResponseBody body = out -> chatBatchService.answer(items, apiKey, clientKey, out);
+        return ResponseEntity.ok()
+            .contentType(APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    // Only configured keys get their own budget; a random key per request would otherwise get a fresh one each time
+    private String clientKey(String apiKey, HttpServletRequest httpRequest) {
+        return modelCallLane.isKnownKey(apiKey) ? "key:" + apiKey : "ip:" + httpRequest.getRemoteAddr();
+    }
+
+    private ResponseEntity<Map<String, String>> answer(Analysis message, ChatSession session, String language) {
+        try {
+            String aiResponse = holidayAiService.processHolidayQuery(message, session, language);
+            return ResponseEntity.ok(Map.of("reply", aiResponse, "sessionId", session.id()));
         } catch (Exception e) {
-            return Map.of("reply", "I'm sorry, I encountered an error while processing your request. Please try again.");
+            return ResponseEntity.ok(Map.of("reply", "I'm sorry, I encountered an error while processing your request. Please try again.",
+                "sessionId", session.id()));
         }
     }
+
+    private static ResponseEntity<Map<String, String>> tooManyRequests(String language, long retryAfterSeconds) {
+        String busyMessage = "en".equals(language)
+            ? "Too many requests right now. Please wait a moment and try again."
+            : "Şu anda çok fazla istek var. Lütfen biraz bekleyip tekrar deneyin.";
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(Map.of("reply", busyMessage));
+    }
 }
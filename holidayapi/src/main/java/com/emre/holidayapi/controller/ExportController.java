@@ -0,0 +1,63 @@
+package com.emre.holidayapi.controller;
+
+import com.emre.holidayapi.service.HolidayExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
+@RestController
+@RequestMapping("/api/admin/export")
+public class ExportController {
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final HolidayExportService holidayExportService;
+
+    public ExportController(HolidayExportService holidayExportService) {
+        this.holidayExportService = holidayExportService;
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+        @RequestParam(required = false, defaultValue = "csv") String format,
+        @RequestParam(required = false) String from,
+        @RequestParam(required = false) String to
+    ) {
+        // Validate before the body starts streaming; afterwards the status line is already committed
+        if (!HolidayExportService.isSupportedFormat(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+        LocalDate fromDate = date("from", from);
+        LocalDate toDate = date("to", to);
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        boolean csv = "csv".equalsIgnoreCase(format);
+
+        StreamingResponseBody body = out -> holidayExportService.export(format, fromDate, toDate, out);
+        return ResponseEntity.ok()
+            .contentType(csv ? TEXT_CSV : APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"holidays." + format.toLowerCase() + "\"")
+            .body(body);
+    }
+
+    private static LocalDate date(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be an ISO date (yyyy-MM-dd)", e);
+        }
+    }
+}
@@ -2,35 +2,54 @@ package com.emre.holidayapi.controller;
 
 import com.emre.holidayapi.model.*;
 import com.emre.holidayapi.service.HolidayService;
+import com.emre.holidayapi.service.AudienceFilter;
 import com.emre.holidayapi.service.AudienceService;
-import com.emre.holidayapi.repository.TranslationRepository;
-import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.service.HolidayCalendarIndex;
+import com.emre.holidayapi.service.HolidayDtoMapper;
+import com.emre.holidayapi.service.HolidayNameIndex;
+import com.emre.holidayapi.service.ReferenceDataRegistry;
+import com.emre.holidayapi.service.TodayHolidayIndex;
 import com.emre.holidayapi.dto.HolidayDto;
 import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.dto.BusinessDayQuery;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.Set;
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
 @RestController
 @RequestMapping("/api/holidays")
 public class HolidayController {
+    static final int MAX_SEARCH_RESULTS = 100;
 
     private final HolidayService holidayService;
     private final AudienceService audienceService;
-    private final TranslationRepository translationRepository;
-    private final HolidayTemplateRepository holidayTemplateRepository;
+    private final HolidayDtoMapper holidayDtoMapper;
+    private final TodayHolidayIndex todayHolidayIndex;
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final ReferenceDataRegistry referenceData;
+    private final HolidayNameIndex holidayNameIndex;
 
     public HolidayController(HolidayService holidayService, AudienceService audienceService, 
-                           TranslationRepository translationRepository, HolidayTemplateRepository holidayTemplateRepository) {
+                           HolidayDtoMapper holidayDtoMapper, TodayHolidayIndex todayHolidayIndex,
+                           HolidayCalendarIndex holidayCalendarIndex, ReferenceDataRegistry referenceData,
+                           HolidayNameIndex holidayNameIndex) {
         this.holidayService = holidayService;
         this.audienceService = audienceService;
-        this.translationRepository = translationRepository;
-        this.holidayTemplateRepository = holidayTemplateRepository;
+        this.holidayDtoMapper = holidayDtoMapper;
+        this.todayHolidayIndex = todayHolidayIndex;
+        this.holidayCalendarIndex = holidayCalendarIndex;
+        this.referenceData = referenceData;
+        this.holidayNameIndex = holidayNameIndex;
     }
 
     @GetMapping
@@ -44,16 +63,8 @@ public class HolidayController {
         @RequestParam(required = false, defaultValue = "en") String language
     ) {
         List<HolidayDefinition> defs = holidayService.getHolidaysByCountry(countryCode);
-        return defs.stream().map(def -> {
-            HolidayDto dto = new HolidayDto();
-            dto.name = getHolidayName(def.getTemplate(), language);
-            dto.date = def.getHolidayDate().toString();
-            dto.countryCode = countryCode;
-            dto.type = def.getTemplate().getType();
-            dto.audiences = getAudiencesForHoliday(def.getTemplate().getId());
-            // Set other fields as needed (fixed, global, counties, launchYear)
-            return dto;
-        }).toList();
+        // Set other fields as needed (fixed, global, counties, launchYear)
+        return holidayDtoMapper.toDtos(defs, countryCode, language);
     }
 
     @GetMapping("/country/{countryCode}/year/{year}")
@@ -63,7 +74,7 @@ public class HolidayController {
 
     @GetMapping("/types")
     public List<String> getHolidayTypes() {
-        return holidayService.getHolidayTypes();
+        return referenceData.types();
     }
 
     @GetMapping("/types/translated")
@@ -159,68 +170,7 @@ public class HolidayController {
 
     @GetMapping("/audiences/translated")
     public List<AudienceDto> getTranslatedAudiences(@RequestParam(required = false, defaultValue = "en") String language) {
-        List<Audience> audiences = audienceService.getAllAudiences();
-        return audiences.stream().map(audience -> {
-            String translatedName;
-            
-            // Simple translation mapping - in a full app, this would be stored in the database
-            if ("tr".equals(language)) {
-                switch (audience.getCode()) {
-                    case "general":
-                        translatedName = "Genel Halk";
-                        break;
-                    case "government":
-                        translatedName = "Devlet";
-                        break;
-                    case "religious":
-                        translatedName = "Dini";
-                        break;
-                    case "educational":
-                        translatedName = "Eğitim";
-                        break;
-                    case "workers":
-                        translatedName = "İşçiler";
-                        break;
-                    case "all":
-                        translatedName = "Tüm Çalışanlar";
-                        break;
-                    case "blue_collar":
-                        translatedName = "Mavi Yakalı Çalışanlar";
-                        break;
-                    default:
-                        translatedName = audience.getAudienceName();
-                }
-            } else {
-                // Default to English
-                switch (audience.getCode()) {
-                    case "general":
-                        translatedName = "General Public";
-                        break;
-                    case "government":
-                        translatedName = "Government";
-                        break;
-                    case "religious":
-                        translatedName = "Religious";
-                        break;
-                    case "educational":
-                        translatedName = "Educational";
-                        break;
-                    case "workers":
-                        translatedName = "Workers";
-                        break;
-                    case "all":
-                        translatedName = "All Employees";
-                        break;
-                    case "blue_collar":
-                        translatedName = "Blue Collar Workers";
-                        break;
-                    default:
-                        translatedName = audience.getAudienceName();
-                }
-            }
-            
-            return new AudienceDto(audience.getCode(), translatedName);
-        }).toList();
+        return referenceData.audiences(language);
     }
 
     @PostMapping("/audiences")
@@ -242,25 +192,64 @@ public class HolidayController {
     public List<HolidayDto> getTodayHolidays(
         @RequestParam String country,
         @RequestParam(required = false) String audience,
+        @RequestParam(required = false) String audiences,
+        @RequestParam(required = false) String match,
         @RequestParam(required = false, defaultValue = "en") String language
     ) {
-        LocalDate today = LocalDate.now();
-        List<HolidayDefinition> defs;
-        // Enable audience filtering for today's holidays
-        if (audience != null && !audience.isEmpty()) {
-            defs = holidayService.getHolidaysByCountryDateRangeAndAudience(country, today, today, audience);
-        } else {
-            defs = holidayService.getHolidaysByCountryAndDateRange(country, today, today);
+        // Served from the precomputed index that is rebuilt at midnight and on writes touching today
+        return todayHolidayIndex.getTodayHolidaysMatching(country, audienceFilter(country, audience, audiences, match), language);
+    }
+
+    @GetMapping("/next")
+    public List<HolidayDto> getNextHolidays(
+        @RequestParam String country,
+        @RequestParam(required = false) String audience,
+        @RequestParam(required = false) String from,
+        @RequestParam(required = false, defaultValue = "1") int count,
+        @RequestParam(required = false, defaultValue = "en") String language
+    ) {
+        if (count < 1 || count > HolidayCalendarIndex.MAX_LOOKUP_COUNT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "count must be between 1 and " + HolidayCalendarIndex.MAX_LOOKUP_COUNT);
         }
-        return defs.stream().map(def -> {
-            HolidayDto dto = new HolidayDto();
-            dto.name = getHolidayName(def.getTemplate(), language);
-            dto.date = def.getHolidayDate().toString();
-            dto.countryCode = country;
-            dto.type = def.getTemplate().getType();
-            dto.audiences = getAudiencesForHoliday(def.getTemplate().getId());
-            return dto;
-        }).toList();
+        LocalDate fromDate = from != null ? parseDate(from, "from") : LocalDate.now();
+        return toDtos(holidayCalendarIndex.next(country.trim().toUpperCase(), audience, fromDate, count), language);
+    }
+
+    @GetMapping("/previous")
+    public List<HolidayDto> getPreviousHolidays(
+        @RequestParam String country,
+        @RequestParam(required = false) String audience,
+        @RequestParam(required = false) String from,
+        @RequestParam(required = false, defaultValue = "1") int count,
+        @RequestParam(required = false, defaultValue = "en") String language
+    ) {
+        if (count < 1 || count > HolidayCalendarIndex.MAX_LOOKUP_COUNT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "count must be between 1 and " + HolidayCalendarIndex.MAX_LOOKUP_COUNT);
+        }
+        LocalDate fromDate = from != null ? parseDate(from, "from") : LocalDate.now();
+        return toDtos(holidayCalendarIndex.previous(country.trim().toUpperCase(), audience, fromDate, count), language);
+    }
+
+    @GetMapping("/search")
+    public List<HolidayDto> searchHolidays(
+        @RequestParam String q,
+        @RequestParam(required = false) String country,
+        @RequestParam(required = false) String start,
+        @RequestParam(required = false) String end,
+        @RequestParam(required = false, defaultValue = "20") int limit,
+        @RequestParam(required = false, defaultValue = "en") String language
+    ) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        // Defaults to this year and next; results are ranked by how well the name matches, then by date
+        LocalDate startDate = start != null ? LocalDate.parse(start) : LocalDate.now().withDayOfYear(1);
+        LocalDate endDate = end != null ? LocalDate.parse(end) : startDate.plusYears(2).minusDays(1);
+        // The calendar is keyed by upper-case country codes
+        String countryCode = country != null && !country.isBlank() ? country.trim().toUpperCase() : null;
+        return toDtos(holidayNameIndex.search(q, countryCode, startDate, endDate, limit), language);
     }
 
     @GetMapping("/range")
@@ -269,29 +258,62 @@ public class HolidayController {
         @RequestParam String end,
         @RequestParam(required = false) String country,
         @RequestParam(required = false) String audience,
+        @RequestParam(required = false) String audiences,
+        @RequestParam(required = false) String match,
         @RequestParam(required = false, defaultValue = "en") String language
     ) {
         LocalDate startDate = LocalDate.parse(start);
         LocalDate endDate = LocalDate.parse(end);
+        AudienceFilter filter = audienceFilter(country, audience, audiences, match);
         List<HolidayDefinition> defs;
         if (country != null && !country.isEmpty()) {
-            if (audience != null && !audience.isEmpty()) {
-                defs = holidayService.getHolidaysByCountryDateRangeAndAudience(country, startDate, endDate, audience);
+            if (!filter.isEmpty()) {
+                // Audience filters are bit tests on the in-memory calendar rather than a join over holiday_audience
+                return toDtos(holidayCalendarIndex.range(country, filter, startDate, endDate), language);
             } else {
                 defs = holidayService.getHolidaysByCountryAndDateRange(country, startDate, endDate);
             }
         } else {
-            defs = holidayService.getHolidaysInRange(startDate, endDate);
+            // Without a country filter every holiday is reported once per country it belongs to
+            return holidayDtoMapper.toDtos(holidayService.getHolidaysWithCountryInRange(startDate, endDate), language)
+                .values().stream()
+                .flatMap(List::stream)
+                .toList();
+        }
+        return holidayDtoMapper.toDtos(defs, country, language);
+    }
+
+    @GetMapping(value = "/range", params = "countries")
+    public Map<String, List<HolidayDto>> getHolidaysInRangeForCountries(
+        @RequestParam String start,
+        @RequestParam String end,
+        @RequestParam String countries,
+        @RequestParam(required = false) String audience,
+        @RequestParam(required = false) String audiences,
+        @RequestParam(required = false) String match,
+        @RequestParam(required = false, defaultValue = "en") String language
+    ) {
+        LocalDate startDate = LocalDate.parse(start);
+        LocalDate endDate = LocalDate.parse(end);
+        List<String> countryCodes = Arrays.stream(countries.split(","))
+            .map(String::trim)
+            .filter(code -> !code.isEmpty())
+            .map(String::toUpperCase)
+            .distinct()
+            .toList();
+
+        AudienceFilter filter = audienceFilter(countries, audience, audiences, match);
+        if (filter.codes().size() > 1) {
+            // The batched query only knows a single audience; several are resolved from the calendar index
+            Map<String, List<HolidayDto>> result = new LinkedHashMap<>();
+            countryCodes.forEach(code -> result.put(code, toDtos(holidayCalendarIndex.range(code, filter, startDate, endDate), language)));
+            return result;
         }
-        return defs.stream().map(def -> {
-            HolidayDto dto = new HolidayDto();
-            dto.name = getHolidayName(def.getTemplate(), language);
-            dto.date = def.getHolidayDate().toString();
-            dto.countryCode = country != null ? country : def.getTemplate().getCode();
-            dto.type = def.getTemplate().getType();
-            dto.audiences = getAudiencesForHoliday(def.getTemplate().getId());
-            return dto;
-        }).toList();
+
+        Map<String, List<HolidayDefinition>> byCountry =
+            holidayService.getHolidaysByCountriesAndDateRange(countryCodes, startDate, endDate, audience);
+        // Names and audiences for every country are resolved in one pass
+        return holidayDtoMapper.toDtos(byCountry, language);
     }
 
     @GetMapping("/debug")
@@ -317,65 +339,55 @@ public class HolidayController {
     //     return Map.of("reply", aiReply);
     // }
 
-    private String getHolidayName(HolidayTemplate template, String language) {
-        // Try to get translation from database first
-        return translationRepository.findByTemplateIdAndLanguageCode(template.getId(), language)
-            .map(Translation::getTranslatedName)
-            .orElse(template.getDefaultName()); // Fallback to default name if no translation found
+    // Missing fields, unparsable dates and day counts that leave the supported date range are the caller's error
+    private Map<String, Object> resolveBusinessDays(BusinessDayQuery query) {
+        if (query == null || query.date == null || query.country == null || query.country.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "date and country are required");
+        }
+        LocalDate resultDate;
+        try {
+            resultDate = holidayCalendarIndex.addBusinessDays(
+                query.country, query.audience, LocalDate.parse(query.date), query.days);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("date", query.date);
+        result.put("days", query.days);
+        result.put("country", query.country);
+        result.put("result", resultDate.toString());
+        return result;
     }
 
-    private List<String> getAudiencesForHoliday(Long templateId) {
-        // This method uses template ID instead of holiday code
-        // For now, we'll fall back to the holiday code-based method
-        // TODO: Implement proper many-to-many relationship between HolidayTemplate and Audience
-        
-        // We need to get the template first to get its code
-        return holidayTemplateRepository.findById(templateId)
-            .map(template -> getAudiencesForHoliday(template.getCode()))
-            .orElse(List.of("General Public")); // Default fallback
+    private static LocalDate parseDate(String value, String name) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a date like 2025-01-31", e);
+        }
     }
 
-    private List<String> getAudiencesForHoliday(String holidayCode) {
-        // This is a temporary implementation. In a real system, this would query 
-        // a proper many-to-many relationship table between holidays and audiences.
-        // For now, we'll provide some sample audience mappings based on holiday types.
-        
-        List<String> audiences = new ArrayList<>();
-        
-        // Example mappings - replace with actual database queries when schema is ready
-        switch (holidayCode) {
-            case "new_year":
-                audiences.add("General Public");
-                audiences.add("Government");
-                break;
-            case "eid_al_fitr":
-            case "eid_al_adha":
-                audiences.add("General Public");
-                audiences.add("Religious");
-                break;
-            case "national_sovereignty_day":
-            case "victory_day":
-            case "republic_day":
-                audiences.add("General Public");
-                audiences.add("Government");
-                audiences.add("Educational");
-                break;
-            case "labour_day":
-                audiences.add("General Public");
-                audiences.add("Workers");
-                break;
-            case "ataturk_memorial_day":
-            case "democracy_day":
-                audiences.add("General Public");
-                audiences.add("Government");
-                audiences.add("Educational");
-                break;
-            default:
-                audiences.add("General Public");
-                break;
+    // Filters are answered per country, so without one they would be silently dropped; for the newer
+    // audiences/match parameters that and an unknown match value are the caller's error. A plain
+    // audience without a country keeps its original meaning of "ignored".
+    private static AudienceFilter audienceFilter(String country, String audience, String audiences, String match) {
+        boolean hasCountry = country != null && !country.isBlank();
+        if (!hasCountry && (audiences != null && !audiences.isBlank() || match != null && !match.isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "audiences and match need a country");
         }
-        
-        return audiences;
+        try {
+            return AudienceFilter.parse(audience, audiences, match);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private List<HolidayDto> toDtos(List<HolidayCalendarIndex.CalendarEntry> entries, String language) {
+        return entries.stream()
+            .map(entry -> holidayDtoMapper.toDto(entry, holidayCalendarIndex.nameOf(entry.template(), language),
+                holidayDtoMapper.audienceNames(holidayCalendarIndex.audiencesOf(entry.definitionId()), language)))
+            .toList();
     }
 
     @GetMapping("/working-days")
@@ -384,41 +396,47 @@ public class HolidayController {
         @RequestParam String end,
         @RequestParam(required = false) String country,
         @RequestParam(required = false) String audience,
+        @RequestParam(required = false) String audiences,
+        @RequestParam(required = false) String match,
         @RequestParam(required = false, defaultValue = "en") String language,
         @RequestParam(required = false, defaultValue = "true") boolean includeEndDate
     ) {
         LocalDate startDate = LocalDate.parse(start);
         LocalDate endDate = LocalDate.parse(end);
-        
-        // Get holidays in the date range
-        List<HolidayDefinition> holidays;
-        if (country != null && !country.isEmpty()) {
-            if (audience != null && !audience.isEmpty()) {
-                holidays = holidayService.getHolidaysByCountryDateRangeAndAudience(country, startDate, endDate, audience);
-            } else {
-                holidays = holidayService.getHolidaysByCountryAndDateRange(country, startDate, endDate);
-            }
-        } else {
-            holidays = holidayService.getHolidaysInRange(startDate, endDate);
-        }
+        AudienceFilter filter = audienceFilter(country, audience, audiences, match);
         
         // Calculate days - adjust end date based on includeEndDate parameter
         LocalDate calculationEndDate = includeEndDate ? endDate : endDate.minusDays(1);
         long totalDays = java.time.temporal.ChronoUnit.DAYS.between(startDate, calculationEndDate) + 1;
         
-        // Filter holidays to match the calculation range
-        List<HolidayDefinition> filteredHolidays = holidays.stream()
-            .filter(holiday -> !holiday.getHolidayDate().isAfter(calculationEndDate))
-            .collect(java.util.stream.Collectors.toList());
+        // Get holidays in the calculation range
+        List<HolidayDto> holidayDtos;
+        Set<LocalDate> holidayDates;
+        if (country != null && !country.isEmpty() && !filter.isEmpty()) {
+            List<HolidayCalendarIndex.CalendarEntry> entries =
+                holidayCalendarIndex.range(country, filter, startDate, calculationEndDate);
+            holidayDtos = toDtos(entries, language);
+            holidayDates = entries.stream()
+                .map(HolidayCalendarIndex.CalendarEntry::date)
+                .collect(java.util.stream.Collectors.toSet());
+        } else {
+            List<HolidayDefinition> holidays = country != null && !country.isEmpty()
+                ? holidayService.getHolidaysByCountryAndDateRange(country, startDate, endDate)
+                : holidayService.getHolidaysInRange(startDate, endDate);
+            List<HolidayDefinition> filteredHolidays = holidays.stream()
+                .filter(holiday -> !holiday.getHolidayDate().isAfter(calculationEndDate))
+                .collect(java.util.stream.Collectors.toList());
+            holidayDtos = holidayDtoMapper.toDtos(filteredHolidays, country != null ? country : "GLOBAL", language);
+            holidayDates = filteredHolidays.stream()
+                .map(HolidayDefinition::getHolidayDate)
+                .collect(java.util.stream.Collectors.toSet());
+        }
             
-        int holidayDays = filteredHolidays.size();
+        int holidayDays = holidayDtos.size();
         
         // Calculate working days (excluding weekends and holidays)
         long workingDays = 0;
         LocalDate currentDate = startDate;
-        Set<LocalDate> holidayDates = filteredHolidays.stream()
-            .map(HolidayDefinition::getHolidayDate)
-            .collect(java.util.stream.Collectors.toSet());
             
         while (!currentDate.isAfter(calculationEndDate)) {
             // Check if it's not weekend (Saturday=6, Sunday=7) and not a holiday
@@ -428,17 +446,6 @@ public class HolidayController {
             currentDate = currentDate.plusDays(1);
         }
         
-        // Convert filtered holidays to DTOs
-        List<HolidayDto> holidayDtos = filteredHolidays.stream().map(def -> {
-            HolidayDto dto = new HolidayDto();
-            dto.name = getHolidayName(def.getTemplate(), language);
-            dto.date = def.getHolidayDate().toString();
-            dto.countryCode = country != null ? country : "GLOBAL";
-            dto.type = def.getTemplate().getType();
-            dto.audiences = getAudiencesForHoliday(def.getTemplate().getId());
-            return dto;
-        }).collect(java.util.stream.Collectors.toList());
-        
         // Create result map
         Map<String, Object> result = new java.util.HashMap<>();
         result.put("totalDays", totalDays);
@@ -448,4 +455,24 @@ public class HolidayController {
         
         return result;
     }
+
+    @GetMapping("/business-days/add")
+    public Map<String, Object> addBusinessDays(
+        @RequestParam String date,
+        @RequestParam long days,
+        @RequestParam String country,
+        @RequestParam(required = false) String audience
+    ) {
+        BusinessDayQuery query = new BusinessDayQuery();
+        query.date = date;
+        query.days = days;
+        query.country = country;
+        query.audience = audience;
+        return resolveBusinessDays(query);
+    }
+
+    @PostMapping("/business-days/add")
+    public List<Map<String, Object>> addBusinessDaysBatch(@RequestBody List<BusinessDayQuery> queries) {
+        return queries.stream().map(this::resolveBusinessDays).toList();
+    }
 }
\ No newline at end of file
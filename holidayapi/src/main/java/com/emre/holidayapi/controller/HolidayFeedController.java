@@ -0,0 +1,61 @@
+package com.emre.holidayapi.controller;
+
+import com.emre.holidayapi.service.HolidayFeedService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175"})
+@RestController
+@RequestMapping("/api/holidays/feed")
+public class HolidayFeedController {
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private final HolidayFeedService holidayFeedService;
+
+    public HolidayFeedController(HolidayFeedService holidayFeedService) {
+        this.holidayFeedService = holidayFeedService;
+    }
+
+    @GetMapping("/{country}.ics")
+    public ResponseEntity<byte[]> getFeed(
+        @PathVariable String country,
+        @RequestParam(required = false) String audience,
+        @RequestParam(required = false, defaultValue = "en") String language,
+        @RequestParam(required = false) String years,
+        WebRequest request
+    ) {
+        Set<Integer> yearSet;
+        try {
+            yearSet = years == null || years.isBlank() ? null : Arrays.stream(years.split(","))
+                .map(String::trim)
+                .filter(year -> !year.isEmpty())
+                .map(Integer::valueOf)
+                .collect(Collectors.toSet());
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "years must be a comma-separated list of years", e);
+        }
+
+        HolidayFeedService.Feed feed = holidayFeedService.getFeed(country.toUpperCase(), audience, language, yearSet);
+
+        // Polling calendar clients send If-None-Match; answer those with an empty 304
+        if (request.checkNotModified(feed.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(feed.etag()).build();
+        }
+        return ResponseEntity.ok()
+            .contentType(TEXT_CALENDAR)
+            .eTag(feed.etag())
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+            .body(feed.body());
+    }
+}
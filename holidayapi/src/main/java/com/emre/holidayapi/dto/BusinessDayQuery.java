@@ -0,0 +1,8 @@
+package com.emre.holidayapi.dto;
+
+public class BusinessDayQuery {
+    public String date;
+    public long days;
+    public String country;
+    public String audience;
+}
@@ -0,0 +1,46 @@
+package com.emre.holidayapi.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Table behind the JDBC outbox change-event transport; mapped so schema management creates it
+@Entity
+@Table(name = "change_event_outbox", indexes = {
+    @Index(name = "idx_change_event_outbox_created", columnList = "created_at")
+})
+public class ChangeEventOutbox {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+}
@@ -2,8 +2,19 @@ package com.emre.holidayapi.repository;
 
 import com.emre.holidayapi.model.HolidayAudience;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface HolidayAudienceRepository extends JpaRepository<HolidayAudience, Long> {
+
+    // Returns [definitionId, audienceCode] pairs without loading the entities
+    @Query("SELECT ha.definition.id, ha.audience.code FROM HolidayAudience ha WHERE ha.definition.id IN :definitionIds")
+    List<Object[]> findAudienceCodesByDefinitionIds(Collection<Long> definitionIds);
+
+    @Query("SELECT ha.definition.id, ha.audience.code FROM HolidayAudience ha")
+    List<Object[]> findAllAudienceCodes();
 }
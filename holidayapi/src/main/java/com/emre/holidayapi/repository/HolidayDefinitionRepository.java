@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface HolidayDefinitionRepository extends JpaRepository<HolidayDefinition, Long> {
@@ -41,4 +42,24 @@ public interface HolidayDefinitionRepository extends JpaRepository<HolidayDefini
 
     @Query("SELECT h FROM HolidayDefinition h JOIN h.template t JOIN CountryHoliday ch ON ch.template = t WHERE ch.country.countryCode = :countryCode AND h.holidayDate = :date")
     List<HolidayDefinition> findByHolidayDateAndCountryCode(LocalDate date, String countryCode);
+
+    // Multi-country lookups return [countryCode, HolidayDefinition] pairs so each row keeps its country attribution
+    @Query("SELECT ch.country.countryCode, h FROM HolidayDefinition h JOIN h.template t JOIN CountryHoliday ch ON ch.template = t WHERE ch.country.countryCode IN :countryCodes AND h.holidayDate BETWEEN :start AND :end ORDER BY h.holidayDate")
+    List<Object[]> findByCountryCodesAndDateRange(Collection<String> countryCodes, LocalDate start, LocalDate end);
+
+    @Query("SELECT DISTINCT ch.country.countryCode, h FROM HolidayDefinition h JOIN h.template t JOIN CountryHoliday ch ON ch.template = t JOIN HolidayAudience ha ON ha.definition = h WHERE ch.country.countryCode IN :countryCodes AND h.holidayDate BETWEEN :start AND :end AND ha.audience.code = :audienceCode ORDER BY h.holidayDate")
+    List<Object[]> findByCountryCodesDateRangeAndAudience(Collection<String> countryCodes, LocalDate start, LocalDate end, String audienceCode);
+
+    @Query("SELECT ch.country.countryCode, h FROM HolidayDefinition h JOIN h.template t JOIN CountryHoliday ch ON ch.template = t WHERE h.holidayDate BETWEEN :start AND :end ORDER BY h.holidayDate")
+    List<Object[]> findWithCountryByDateRange(LocalDate start, LocalDate end);
+
+    // Scalar projection used to build the in-memory calendar: [countryCode, definitionId, holidayDate, templateId]
+    @Query("SELECT ch.country.countryCode, h.id, h.holidayDate, t.id FROM HolidayDefinition h JOIN h.template t JOIN CountryHoliday ch ON ch.template = t ORDER BY ch.country.countryCode, h.holidayDate, h.id")
+    List<Object[]> findCalendarRows();
+
+    @Query("SELECT ch.country.countryCode, h.id, h.holidayDate, t.id FROM HolidayDefinition h JOIN h.template t JOIN CountryHoliday ch ON ch.template = t WHERE ch.country.countryCode IN :countryCodes ORDER BY ch.country.countryCode, h.holidayDate, h.id")
+    List<Object[]> findCalendarRowsByCountryCodes(Collection<String> countryCodes);
+
+    @Query("SELECT ch.country.countryCode FROM CountryHoliday ch WHERE ch.template.id = :templateId")
+    List<String> findCountryCodesByTemplateId(Long templateId);
 }
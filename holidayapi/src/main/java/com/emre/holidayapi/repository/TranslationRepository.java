@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +15,15 @@ public interface TranslationRepository extends JpaRepository<Translation, Long>
     
     @Query("SELECT t FROM Translation t WHERE t.template.id = :templateId AND t.languageCode = :languageCode")
     Optional<Translation> findByTemplateIdAndLanguageCode(@Param("templateId") Long templateId, @Param("languageCode") String languageCode);
+
+    // Returns [templateId, languageCode, translatedName] rows for bulk name resolution
+    @Query("SELECT t.template.id, t.languageCode, t.translatedName FROM Translation t WHERE t.template.id IN :templateIds")
+    List<Object[]> findNamesByTemplateIds(@Param("templateIds") Collection<Long> templateIds);
+
+    // Returns [templateId, translatedName] rows in one language
+    @Query("SELECT t.template.id, t.translatedName FROM Translation t WHERE t.template.id IN :templateIds AND t.languageCode = :language")
+    List<Object[]> findNamesByTemplateIdsAndLanguage(@Param("templateIds") Collection<Long> templateIds, @Param("language") String language);
+
+    @Query("SELECT t.template.id, t.languageCode, t.translatedName FROM Translation t")
+    List<Object[]> findAllNames();
 }
@@ -0,0 +1,66 @@
+package com.emre.holidayapi.service;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Audience restriction for calendar queries: no codes means "everyone", otherwise a holiday must
+// carry any (or all) of the listed audiences. A single code is always stored as ANY, since both agree.
+public record AudienceFilter(Set<String> codes, Match match) {
+    public static final AudienceFilter NONE = new AudienceFilter(Set.of(), Match.ANY);
+
+    public enum Match {
+        ANY, ALL
+    }
+
+    public AudienceFilter {
+        codes = codes == null ? Set.of() : Set.copyOf(codes);
+        match = match == null || codes.size() < 2 ? Match.ANY : match;
+    }
+
+    public static AudienceFilter of(String audienceCode) {
+        return audienceCode == null || audienceCode.isBlank() ? NONE : new AudienceFilter(Set.of(audienceCode.trim()), Match.ANY);
+    }
+
+    // Combines the single `audience` parameter with a comma-separated `audiences` list
+    public static AudienceFilter parse(String audience, String audiences, String match) {
+        Set<String> codes = new HashSet<>();
+        if (audience != null && !audience.isBlank()) {
+            codes.add(audience.trim());
+        }
+        if (audiences != null) {
+            Arrays.stream(audiences.split(","))
+                .map(String::trim)
+                .filter(code -> !code.isEmpty())
+                .forEach(codes::add);
+        }
+        Match parsedMatch;
+        if (match == null || match.isBlank() || "any".equalsIgnoreCase(match)) {
+            parsedMatch = Match.ANY;
+        } else if ("all".equalsIgnoreCase(match)) {
+            parsedMatch = Match.ALL;
+        } else {
+            throw new IllegalArgumentException("match must be 'any' or 'all'");
+        }
+        return new AudienceFilter(codes, parsedMatch);
+    }
+
+    public boolean isEmpty() {
+        return codes.isEmpty();
+    }
+
+    public boolean matches(Set<String> audiences) {
+        if (codes.isEmpty()) {
+            return true;
+        }
+        return match == Match.ALL
+            ? audiences.containsAll(codes)
+            : codes.stream().anyMatch(audiences::contains);
+    }
+
+    // Stable across equal filters, for use in cache keys
+    String key() {
+        return codes.isEmpty() ? "" : match + ":" + String.join(",", new TreeSet<>(codes));
+    }
+}
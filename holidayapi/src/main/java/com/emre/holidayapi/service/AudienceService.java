@@ -3,32 +3,47 @@ package com.emre.holidayapi.service;
 import com.emre.holidayapi.model.Audience;
 import com.emre.holidayapi.dto.AudienceDto;
 import com.emre.holidayapi.repository.AudienceRepository;
+import com.emre.holidayapi.service.DomainChangeEvent.EntityType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class AudienceService {
     private final AudienceRepository repository;
+    private final ChangeEventBus changeEventBus;
 
-    public AudienceService(AudienceRepository repository) {
+    public AudienceService(AudienceRepository repository, ChangeEventBus changeEventBus) {
         this.repository = repository;
+        this.changeEventBus = changeEventBus;
     }
 
     public List<Audience> getAllAudiences() {
         return repository.findAll();
     }
 
+    // Proxy for associating an audience without loading it
+    public Audience getReference(String audienceCode) {
+        return repository.getReferenceById(audienceCode);
+    }
+
+    @Transactional
     public Audience addAudience(Audience audience) {
         // Check if audience with the same code already exists
         if (repository.existsById(audience.getCode())) {
             throw new IllegalArgumentException("Audience with code " + audience.getCode() + " already exists.");
         }
-        return repository.save(audience);
+        Audience saved = repository.save(audience);
+        publishChange(audience.getCode());
+        return saved;
     }
 
+    @Transactional
     public Audience updateAudience(String audienceId, Audience audience) {
         // Check if audience exists
         Optional<Audience> existingAudience = repository.findById(audienceId);
@@ -36,57 +51,27 @@ public class AudienceService {
             throw new IllegalArgumentException("Audience with id " + audienceId + " does not exist.");
         }
         audience.setCode(audienceId);
-        return repository.save(audience);
+        Audience saved = repository.save(audience);
+        publishChange(audienceId);
+        return saved;
     }
 
+    @Transactional
     public void deleteAudience(String audienceId) {
         repository.deleteById(audienceId);
+        publishChange(audienceId);
+    }
+
+    private void publishChange(String audienceCode) {
+        changeEventBus.publish(DomainChangeEvent.of(EntityType.AUDIENCE, Set.of(audienceCode)));
     }
 
+    // Reads the table on every call; hot paths should use ReferenceDataRegistry.audiences(language)
     public List<AudienceDto> getAllAudiencesTranslated(String language) {
         List<Audience> audiences = getAllAudiences();
-        return audiences.stream().map(audience -> {
-            String translatedName;
-            
-            // Simple translation mapping - in a full app, this would be stored in the database
-            if ("tr".equals(language)) {
-                switch (audience.getCode()) {
-                    case "general":
-                        translatedName = "Genel Halk";
-                        break;
-                    case "government":
-                        translatedName = "Devlet";
-                        break;
-                    case "religious":
-                        translatedName = "Dini";
-                        break;
-                    case "educational":
-                        translatedName = "Eğitim";
-                        break;
-                    case "military":
-                        translatedName = "Askeri";
-                        break;
-                    case "banking":
-                        translatedName = "Bankacılık";
-                        break;
-                    case "health":
-                        translatedName = "Sağlık";
-                        break;
-                    case "private_sector":
-                        translatedName = "Özel Sektör";
-                        break;
-                    case "students":
-                        translatedName = "Öğrenciler";
-                        break;
-                    default:
-                        translatedName = audience.getAudienceName();
-                        break;
-                }
-            } else {
-                translatedName = audience.getAudienceName();
-            }
-            
-            return new AudienceDto(audience.getCode(), translatedName);
-        }).collect(Collectors.toList());
+        return audiences.stream()
+            .map(audience -> new AudienceDto(audience.getCode(),
+                ReferenceDataRegistry.translateAudience(audience.getCode(), audience.getAudienceName(), language)))
+            .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.emre.holidayapi.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Working-day arithmetic for one country/audience. Weekdays are counted in closed form and the
+// holidays falling on weekdays are kept sorted together with their working-day ordinal, so both
+// rank (date -> ordinal) and select (ordinal -> date) are a single binary search.
+final class BusinessCalendar {
+    // 1970-01-05 was a Monday; weekday ordinals are counted from there
+    private static final long MONDAY_EPOCH_DAY = 4;
+
+    private final int[] holidayDays;
+    // ordinals[k] = working days before holidayDays[k]; non-decreasing since holidays are distinct weekdays
+    private final long[] ordinals;
+
+    BusinessCalendar(int[] sortedEpochDays) {
+        this.holidayDays = Arrays.stream(sortedEpochDays)
+            .filter(day -> !isWeekend(day))
+            .distinct()
+            .toArray();
+        this.ordinals = new long[holidayDays.length];
+        for (int k = 0; k < holidayDays.length; k++) {
+            ordinals[k] = weekdayRank(holidayDays[k]) - k;
+        }
+    }
+
+    // Excel WORKDAY semantics: the |days|-th working day strictly after (or before) the date;
+    // zero returns the date unchanged
+    LocalDate addBusinessDays(LocalDate date, long days) {
+        if (days == 0) {
+            return date;
+        }
+        long epochDay = date.toEpochDay();
+        long target = days > 0 ? rank(epochDay + 1) + days - 1 : rank(epochDay) + days;
+        return LocalDate.ofEpochDay(select(target));
+    }
+
+    boolean isBusinessDay(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        return !isWeekend(epochDay) && Arrays.binarySearch(holidayDays, (int) epochDay) < 0;
+    }
+
+    // Working days strictly before the given epoch day
+    long rank(long epochDay) {
+        return weekdayRank(epochDay) - holidaysBefore(epochDay);
+    }
+
+    // Epoch day of the working day with the given ordinal
+    long select(long ordinal) {
+        // Skip every holiday whose ordinal is not past the target; each one shifts the answer by a weekday
+        int low = 0;
+        int high = ordinals.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ordinals[mid] <= ordinal) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return weekdaySelect(ordinal + low);
+    }
+
+    private int holidaysBefore(long epochDay) {
+        int low = 0;
+        int high = holidayDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (holidayDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isWeekend(long epochDay) {
+        return Math.floorMod(epochDay - MONDAY_EPOCH_DAY, 7) >= 5;
+    }
+
+    private static long weekdayRank(long epochDay) {
+        long offset = epochDay - MONDAY_EPOCH_DAY;
+        return Math.floorDiv(offset, 7) * 5 + Math.min(Math.floorMod(offset, 7), 5);
+    }
+
+    private static long weekdaySelect(long ordinal) {
+        return MONDAY_EPOCH_DAY + Math.floorDiv(ordinal, 5) * 7 + Math.floorMod(ordinal, 5);
+    }
+}
@@ -0,0 +1,278 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+// Immutable, database-free view of every holiday: per country, parallel arrays sorted by epoch day.
+// Lookups binary-search the date array, so "next/previous holiday" costs O(log n) plus the entries returned.
+// Each definition's audiences are also kept as a bitmask over the audience dictionary, parallel to the
+// per-country arrays, so audience filters are AND/OR tests on a few longs instead of set lookups.
+final class CalendarSnapshot {
+    static final CalendarSnapshot EMPTY = new CalendarSnapshot(Map.of(), Map.of(), Map.of(), Map.of());
+    private static final BusinessCalendar NO_HOLIDAYS = new BusinessCalendar(new int[0]);
+
+    private final Map<String, CountryCalendar> countries;
+    private final Map<Long, TemplateInfo> templates;
+    private final Map<Long, Map<String, String>> translations;
+    private final Map<Long, Set<String>> audiencesByDefinition;
+    private final Set<String> languages;
+    private final Map<String, Integer> audienceBits;
+    private final int maskWords;
+    // Per country, maskWords longs per entry in calendar order
+    private final Map<String, long[]> audienceMasks;
+    // Keyed by country|audience; the audience-less calendars are built up front, filtered ones on first use
+    private final Map<String, BusinessCalendar> businessCalendars = new ConcurrentHashMap<>();
+
+    CalendarSnapshot(Map<String, CountryCalendar> countries,
+                     Map<Long, TemplateInfo> templates,
+                     Map<Long, Map<String, String>> translations,
+                     Map<Long, Set<String>> audiencesByDefinition) {
+        this.countries = countries;
+        this.templates = templates;
+        this.translations = translations;
+        this.audiencesByDefinition = audiencesByDefinition;
+        this.languages = Set.copyOf(translations.values().stream().flatMap(names -> names.keySet().stream()).toList());
+
+        List<String> dictionary = new ArrayList<>(new TreeSet<>(audiencesByDefinition.values().stream()
+            .flatMap(Set::stream).toList()));
+        Map<String, Integer> bits = new HashMap<>(dictionary.size() * 2);
+        for (int i = 0; i < dictionary.size(); i++) {
+            bits.put(dictionary.get(i), i);
+        }
+        this.audienceBits = Map.copyOf(bits);
+        this.maskWords = Math.max(1, (dictionary.size() + 63) / 64);
+
+        Map<Long, long[]> maskByDefinition = new HashMap<>(audiencesByDefinition.size() * 2);
+        audiencesByDefinition.forEach((definitionId, codes) -> {
+            long[] mask = new long[maskWords];
+            for (String code : codes) {
+                int bit = bits.get(code);
+                mask[bit >>> 6] |= 1L << (bit & 63);
+            }
+            maskByDefinition.put(definitionId, mask);
+        });
+        Map<String, long[]> masks = new HashMap<>(countries.size() * 2);
+        countries.forEach((code, calendar) -> {
+            long[] countryMasks = new long[calendar.size() * maskWords];
+            for (int i = 0; i < calendar.size(); i++) {
+                long[] mask = maskByDefinition.get(calendar.definitionIds[i]);
+                if (mask != null) {
+                    System.arraycopy(mask, 0, countryMasks, i * maskWords, maskWords);
+                }
+            }
+            masks.put(code, countryMasks);
+            businessCalendars.put(code + "|", new BusinessCalendar(calendar.epochDays));
+        });
+        this.audienceMasks = Map.copyOf(masks);
+    }
+
+    List<CalendarEntry> next(String countryCode, AudienceFilter audiences, LocalDate from, int count) {
+        CountryCalendar calendar = countries.get(countryCode);
+        List<CalendarEntry> result = new ArrayList<>();
+        AudienceMatcher matcher = matcher(countryCode, audiences);
+        if (calendar == null || matcher == null) {
+            return result;
+        }
+        for (int i = calendar.lowerBound(from.toEpochDay()); i < calendar.size() && result.size() < count; i++) {
+            if (matcher.test(i)) {
+                result.add(entry(countryCode, calendar, i));
+            }
+        }
+        return result;
+    }
+
+    List<CalendarEntry> previous(String countryCode, AudienceFilter audiences, LocalDate before, int count) {
+        CountryCalendar calendar = countries.get(countryCode);
+        List<CalendarEntry> result = new ArrayList<>();
+        AudienceMatcher matcher = matcher(countryCode, audiences);
+        if (calendar == null || matcher == null) {
+            return result;
+        }
+        for (int i = calendar.lowerBound(before.toEpochDay()) - 1; i >= 0 && result.size() < count; i--) {
+            if (matcher.test(i)) {
+                result.add(entry(countryCode, calendar, i));
+            }
+        }
+        return result;
+    }
+
+    // Holidays from start to end inclusive, earliest first
+    List<CalendarEntry> range(String countryCode, AudienceFilter audiences, LocalDate start, LocalDate end) {
+        CountryCalendar calendar = countries.get(countryCode);
+        List<CalendarEntry> result = new ArrayList<>();
+        AudienceMatcher matcher = matcher(countryCode, audiences);
+        if (calendar == null || matcher == null) {
+            return result;
+        }
+        long endDay = end.toEpochDay();
+        for (int i = calendar.lowerBound(start.toEpochDay()); i < calendar.size() && calendar.epochDays[i] <= endDay; i++) {
+            if (matcher.test(i)) {
+                result.add(entry(countryCode, calendar, i));
+            }
+        }
+        return result;
+    }
+
+    List<CalendarEntry> entries(String countryCode) {
+        CountryCalendar calendar = countries.get(countryCode);
+        List<CalendarEntry> result = new ArrayList<>();
+        if (calendar != null) {
+            for (int i = 0; i < calendar.size(); i++) {
+                result.add(entry(countryCode, calendar, i));
+            }
+        }
+        return result;
+    }
+
+    // Only country/audience combinations present in the snapshot are cached, so unknown codes from
+    // request parameters can't grow the cache
+    BusinessCalendar businessCalendar(String countryCode, AudienceFilter audiences) {
+        if (!countries.containsKey(countryCode)) {
+            return NO_HOLIDAYS;
+        }
+        if (!audienceBits.keySet().containsAll(audiences.codes())) {
+            return buildBusinessCalendar(countryCode, audiences);
+        }
+        return businessCalendars.computeIfAbsent(countryCode + "|" + audiences.key(),
+            key -> buildBusinessCalendar(countryCode, audiences));
+    }
+
+    int cachedBusinessCalendars() {
+        return businessCalendars.size();
+    }
+
+    private BusinessCalendar buildBusinessCalendar(String countryCode, AudienceFilter audiences) {
+        CountryCalendar calendar = countries.get(countryCode);
+        AudienceMatcher matcher = matcher(countryCode, audiences);
+        if (matcher == null) {
+            return NO_HOLIDAYS;
+        }
+        return new BusinessCalendar(IntStream.range(0, calendar.size())
+            .filter(matcher::test)
+            .map(i -> calendar.epochDays[i])
+            .toArray());
+    }
+
+    // Whether any template has a name in this language; other languages only ever get default names
+    boolean hasLanguage(String language) {
+        return languages.contains(language);
+    }
+
+    boolean hasAudience(String audienceCode) {
+        return audienceBits.containsKey(audienceCode);
+    }
+
+    String nameOf(TemplateInfo template, String language) {
+        return translations.getOrDefault(template.id(), Map.of()).getOrDefault(language, template.defaultName());
+    }
+
+    Map<String, CountryCalendar> countries() {
+        return countries;
+    }
+
+    Map<Long, TemplateInfo> templates() {
+        return templates;
+    }
+
+    Map<Long, Map<String, String>> translations() {
+        return translations;
+    }
+
+    Map<Long, Set<String>> audiencesByDefinition() {
+        return audiencesByDefinition;
+    }
+
+    // Null when the filter can't match anything in this snapshot (e.g. ALL with an unknown audience)
+    private AudienceMatcher matcher(String countryCode, AudienceFilter audiences) {
+        if (audiences == null || audiences.isEmpty()) {
+            return i -> true;
+        }
+        long[] required = new long[maskWords];
+        boolean any = false;
+        for (String code : audiences.codes()) {
+            Integer bit = audienceBits.get(code);
+            if (bit == null) {
+                if (audiences.match() == AudienceFilter.Match.ALL) {
+                    return null;
+                }
+                continue;
+            }
+            required[bit >>> 6] |= 1L << (bit & 63);
+            any = true;
+        }
+        if (!any) {
+            return null;
+        }
+        long[] masks = audienceMasks.getOrDefault(countryCode, new long[0]);
+        int words = maskWords;
+        if (audiences.match() == AudienceFilter.Match.ALL) {
+            return i -> {
+                for (int w = 0; w < words; w++) {
+                    if ((masks[i * words + w] & required[w]) != required[w]) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        return i -> {
+            for (int w = 0; w < words; w++) {
+                if ((masks[i * words + w] & required[w]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @FunctionalInterface
+    private interface AudienceMatcher {
+        boolean test(int index);
+    }
+
+    private CalendarEntry entry(String countryCode, CountryCalendar calendar, int i) {
+        return new CalendarEntry(countryCode, calendar.definitionIds[i],
+            LocalDate.ofEpochDay(calendar.epochDays[i]), templates.get(calendar.templateIds[i]));
+    }
+
+    static final class CountryCalendar {
+        final int[] epochDays;
+        final long[] definitionIds;
+        final long[] templateIds;
+
+        CountryCalendar(int[] epochDays, long[] definitionIds, long[] templateIds) {
+            this.epochDays = epochDays;
+            this.definitionIds = definitionIds;
+            this.templateIds = templateIds;
+        }
+
+        int size() {
+            return epochDays.length;
+        }
+
+        // Index of the first holiday on or after the given day
+        int lowerBound(long epochDay) {
+            int low = 0;
+            int high = epochDays.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
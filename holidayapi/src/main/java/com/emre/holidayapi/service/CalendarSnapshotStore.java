@@ -0,0 +1,282 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.CalendarSnapshot.CountryCalendar;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Binary copy of the calendar snapshot so a node can answer calendar reads at startup without the database.
+// Layout (big-endian): magic, version, template dictionary, language table, translations,
+// audience table, per-definition audience bitmasks, then per-country epoch-day/definition/template arrays.
+@Component
+public class CalendarSnapshotStore {
+    private static final Logger log = LoggerFactory.getLogger(CalendarSnapshotStore.class);
+    static final int MAGIC = 0x4843414C; // "HCAL"
+    static final int VERSION = 1;
+
+    private final Path path;
+
+    public CalendarSnapshotStore(@Value("${holiday.snapshot.path:}") String path) {
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    Optional<CalendarSnapshot> load() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(read(buffer));
+        } catch (IOException | RuntimeException e) {
+            // A missing, truncated or older-format file just means a cold start from the database
+            log.warn("Could not load calendar snapshot from {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    void save(CalendarSnapshot snapshot) {
+        if (path == null || snapshot == null) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Write beside the target and rename, so readers never map a half-written file
+            temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                write(snapshot, out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save calendar snapshot to {}", path, e);
+            deleteQuietly(temp);
+        }
+    }
+
+    static void write(CalendarSnapshot snapshot, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        out.writeInt(snapshot.templates().size());
+        for (TemplateInfo template : snapshot.templates().values()) {
+            out.writeLong(template.id());
+            writeString(out, template.code());
+            writeString(out, template.defaultName());
+            writeString(out, template.type());
+        }
+
+        List<String> languages = new ArrayList<>(new TreeSet<>(snapshot.translations().values().stream()
+            .flatMap(names -> names.keySet().stream()).toList()));
+        Map<String, Integer> languageIndex = indexOf(languages);
+        writeStrings(out, languages);
+        int translationCount = snapshot.translations().values().stream().mapToInt(Map::size).sum();
+        out.writeInt(translationCount);
+        for (Map.Entry<Long, Map<String, String>> template : snapshot.translations().entrySet()) {
+            for (Map.Entry<String, String> name : template.getValue().entrySet()) {
+                out.writeLong(template.getKey());
+                out.writeInt(languageIndex.get(name.getKey()));
+                writeString(out, name.getValue());
+            }
+        }
+
+        List<String> audiences = new ArrayList<>(new TreeSet<>(snapshot.audiencesByDefinition().values().stream()
+            .flatMap(Set::stream).toList()));
+        Map<String, Integer> audienceIndex = indexOf(audiences);
+        writeStrings(out, audiences);
+        int words = Math.max(1, (audiences.size() + 63) / 64);
+        out.writeInt(words);
+        out.writeInt(snapshot.audiencesByDefinition().size());
+        for (Map.Entry<Long, Set<String>> definition : snapshot.audiencesByDefinition().entrySet()) {
+            long[] mask = new long[words];
+            for (String audience : definition.getValue()) {
+                int bit = audienceIndex.get(audience);
+                mask[bit >>> 6] |= 1L << (bit & 63);
+            }
+            out.writeLong(definition.getKey());
+            for (long word : mask) {
+                out.writeLong(word);
+            }
+        }
+
+        out.writeInt(snapshot.countries().size());
+        for (Map.Entry<String, CountryCalendar> country : snapshot.countries().entrySet()) {
+            CountryCalendar calendar = country.getValue();
+            writeString(out, country.getKey());
+            out.writeInt(calendar.size());
+            for (int day : calendar.epochDays) {
+                out.writeInt(day);
+            }
+            for (long id : calendar.definitionIds) {
+                out.writeLong(id);
+            }
+            for (long id : calendar.templateIds) {
+                out.writeLong(id);
+            }
+        }
+    }
+
+    // Every count is checked against the bytes left before anything is allocated, so a corrupt or
+    // truncated file fails with an exception instead of an OutOfMemoryError
+    static CalendarSnapshot read(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalArgumentException("not a calendar snapshot of version " + VERSION);
+        }
+
+        int templateCount = count(buffer, Long.BYTES + 3 * Integer.BYTES);
+        Map<Long, TemplateInfo> templates = new HashMap<>(templateCount * 2);
+        for (int i = 0; i < templateCount; i++) {
+            long id = buffer.getLong();
+            templates.put(id, new TemplateInfo(id, readString(buffer), readString(buffer), readString(buffer)));
+        }
+
+        List<String> languages = readStrings(buffer);
+        int translationCount = count(buffer, Long.BYTES + 2 * Integer.BYTES);
+        Map<Long, Map<String, String>> translations = new HashMap<>();
+        for (int i = 0; i < translationCount; i++) {
+            long templateId = buffer.getLong();
+            String language = languages.get(buffer.getInt());
+            translations.computeIfAbsent(templateId, id -> new HashMap<>()).put(language, readString(buffer));
+        }
+
+        List<String> audiences = readStrings(buffer);
+        int words = buffer.getInt();
+        if (words < 1 || words > Math.max(1, (audiences.size() + 63) / 64)) {
+            throw new IllegalArgumentException("corrupt calendar snapshot: " + words + " mask words");
+        }
+        int definitionCount = count(buffer, Long.BYTES * (1 + words));
+        Map<Long, Set<String>> audiencesByDefinition = new HashMap<>(definitionCount * 2);
+        for (int i = 0; i < definitionCount; i++) {
+            long definitionId = buffer.getLong();
+            Set<String> codes = new HashSet<>();
+            for (int w = 0; w < words; w++) {
+                long word = buffer.getLong();
+                while (word != 0) {
+                    codes.add(audiences.get(w * 64 + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+            audiencesByDefinition.put(definitionId, Set.copyOf(codes));
+        }
+
+        int countryCount = count(buffer, 2 * Integer.BYTES);
+        Map<String, CountryCalendar> countries = new HashMap<>(countryCount * 2);
+        for (int i = 0; i < countryCount; i++) {
+            String countryCode = readString(buffer);
+            int size = count(buffer, Integer.BYTES + 2 * Long.BYTES);
+            int[] epochDays = new int[size];
+            long[] definitionIds = new long[size];
+            long[] templateIds = new long[size];
+            // Bulk copies straight out of the mapping instead of one call per element
+            buffer.asIntBuffer().get(epochDays);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            buffer.asLongBuffer().get(definitionIds);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            buffer.asLongBuffer().get(templateIds);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            countries.put(countryCode, new CountryCalendar(epochDays, definitionIds, templateIds));
+        }
+
+        Map<Long, Map<String, String>> immutableTranslations = new HashMap<>();
+        translations.forEach((id, names) -> immutableTranslations.put(id, Map.copyOf(names)));
+        return new CalendarSnapshot(Map.copyOf(countries), Map.copyOf(templates),
+            Map.copyOf(immutableTranslations), Map.copyOf(audiencesByDefinition));
+    }
+
+    // Reads an element count and checks the remaining bytes can hold that many elements of at least bytesEach
+    private static int count(ByteBuffer buffer, int bytesEach) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / bytesEach) {
+            throw new IllegalArgumentException("corrupt calendar snapshot: count " + count + " with "
+                + buffer.remaining() + " bytes left");
+        }
+        return count;
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", temp, e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> indexOf(List<String> values) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            index.put(values.get(i), i);
+        }
+        return index;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer) {
+        int count = count(buffer, Integer.BYTES);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(buffer));
+        }
+        return values;
+    }
+
+    // Length-prefixed UTF-8; -1 marks null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("corrupt calendar snapshot: string of " + length + " bytes");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,29 @@
+package com.emre.holidayapi.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Entry point for services that change holiday data. Subscribers are plain @EventListener methods
+// taking a DomainChangeEvent; they only ever see changes that have committed.
+@Service
+public class ChangeEventBus {
+    private final ChangeEventTransport transport;
+
+    public ChangeEventBus(ChangeEventTransport transport) {
+        this.transport = transport;
+    }
+
+    public void publish(DomainChangeEvent event) {
+        if (transport.isTransactional() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            transport.send(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transport.send(event);
+            }
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.emre.holidayapi.service;
+
+// Carries domain change events to subscribers; the in-process transport only reaches this node,
+// the JDBC outbox reaches every node sharing the database
+public interface ChangeEventTransport {
+
+    void send(DomainChangeEvent event);
+
+    // Transactional transports are called inside the writing transaction so the event commits (or rolls
+    // back) with the change; the others are called once the transaction has committed
+    default boolean isTransactional() {
+        return false;
+    }
+}
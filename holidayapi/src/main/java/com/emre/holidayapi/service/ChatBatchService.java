@@ -0,0 +1,249 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.config.ChatRateLimiter;
+import com.emre.holidayapi.config.ModelCallLane;
+import com.emre.holidayapi.service.MessageAnalyzer.Analysis;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Answers many independent chat questions in one request, for tools that build digests. Identical
+// questions (same country, language and folded text) are answered once. The batch itself costs the client
+// one rule-based token (taken by the controller), so rule-based questions are bounded only by max-items and
+// the batch pool, and are answered in parallel on it. Each distinct model-bound question is charged to the
+// client's model budget and takes a model slot from the rate limiter like a /api/chat call, then goes
+// through the model lane, at most model-concurrency of one batch at a time, so batches share the global
+// cap on model calls and cannot fill the lane ahead of interactive chat.
+// Results are written as NDJSON lines in the order they complete, each with the index of its item.
+@Service
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
+public class ChatBatchService {
+    static final String RATE_LIMITED = "Rate limited";
+
+    private final HolidayAiService holidayAiService;
+    private final ModelCallLane modelCallLane;
+    private final ChatRateLimiter chatRateLimiter;
+    private final int maxItems;
+    private final int modelConcurrency;
+    private final ExecutorService rulePool;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ChatBatchService(HolidayAiService holidayAiService,
+                            ModelCallLane modelCallLane,
+                            ChatRateLimiter chatRateLimiter,
+                            @Value("${holiday.chat.batch.max-items:500}") int maxItems,
+                            @Value("${holiday.chat.batch.threads:4}") int threads,
+                            @Value("${holiday.chat.batch.model-concurrency:2}") int modelConcurrency) {
+        if (maxItems < 1 || threads < 1 || modelConcurrency < 1) {
+            throw new IllegalArgumentException("Chat batch size, threads and model concurrency must be at least 1");
+        }
+        this.holidayAiService = holidayAiService;
+        this.modelCallLane = modelCallLane;
+        this.chatRateLimiter = chatRateLimiter;
+        this.maxItems = maxItems;
+        this.modelConcurrency = modelConcurrency;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.rulePool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "chat-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int maxItems() {
+        return maxItems;
+    }
+
+    // Blocks until every item has been written. The API key sets the priority of the batch's model calls and
+    // clientKey is the rate-limit identity they are charged to; model calls over budget come back "Rate limited".
+    public void answer(List<Item> items, String apiKey, String clientKey, OutputStream out) throws IOException {
+        BlockingQueue<Answer> answers = new LinkedBlockingQueue<>();
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item.message() == null || item.message().isBlank()) {
+                answers.add(new Answer(List.of(i), null, false, "Empty message"));
+            } else {
+                groups.computeIfAbsent(item.key(), key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        AtomicBoolean abandoned = new AtomicBoolean();
+        ModelQueue modelQueue = new ModelQueue(apiKey, clientKey, answers, abandoned);
+        for (List<Integer> indices : groups.values()) {
+            Item item = items.get(indices.get(0));
+            rulePool.execute(() -> {
+                if (abandoned.get()) {
+                    return;
+                }
+                try {
+                    // Analyzed once here; the routing check and the answer read the same result
+                    Analysis message = holidayAiService.analyze(item.message(), item.language());
+                    if (holidayAiService.requiresModel(message)) {
+                        modelQueue.add(new Group(item, message, indices));
+                    } else {
+                        answers.add(new Answer(indices,
+                            holidayAiService.processHolidayQuery(message, item.country(), item.language()), false, null));
+                    }
+                } catch (RuntimeException e) {
+                    answers.add(new Answer(indices, null, false, "Could not answer this question"));
+                }
+            });
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator generator = jsonFactory.createGenerator(writer);
+        // Keep the underlying writer open; the servlet container owns the response stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        try {
+            for (int written = 0; written < items.size(); ) {
+                Answer answer = answers.take();
+                for (int index : answer.indices()) {
+                    write(generator, writer, index, answer);
+                    written++;
+                }
+                // Each completed answer reaches the client straight away
+                writer.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandoned.set(true);
+        } catch (IOException e) {
+            // The client went away; questions not started yet are skipped
+            abandoned.set(true);
+            throw e;
+        }
+    }
+
+    private static void write(JsonGenerator generator, Writer writer, int index, Answer answer) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        if (answer.error() != null) {
+            generator.writeStringField("error", answer.error());
+        } else {
+            generator.writeStringField("reply", answer.reply());
+            generator.writeBooleanField("model", answer.model());
+        }
+        generator.writeEndObject();
+        generator.flush();
+        writer.write('\n');
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rulePool.shutdownNow();
+    }
+
+    // Country and language default like /api/chat
+    public record Item(String message, String country, String language) {
+        public Item {
+            country = country != null && !country.isBlank() ? country : ChatSessionStore.DEFAULT_COUNTRY;
+            language = language != null && !language.isBlank() ? language : "en";
+        }
+
+        String key() {
+            return country + "|" + language + "|" + HolidayNameIndex.fold(message);
+        }
+    }
+
+    private record Group(Item item, Analysis message, List<Integer> indices) {
+    }
+
+    private record Answer(List<Integer> indices, String reply, boolean model, String error) {
+    }
+
+    // Hands one batch's model-bound questions to the lane, keeping at most modelConcurrency in flight
+    private final class ModelQueue {
+        private final String apiKey;
+        private final String clientKey;
+        private final BlockingQueue<Answer> answers;
+        private final AtomicBoolean abandoned;
+        private final Queue<Group> waiting = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger running = new AtomicInteger();
+
+        private ModelQueue(String apiKey, String clientKey, BlockingQueue<Answer> answers, AtomicBoolean abandoned) {
+            this.apiKey = apiKey;
+            this.clientKey = clientKey;
+            this.answers = answers;
+            this.abandoned = abandoned;
+        }
+
+        void add(Group group) {
+            waiting.add(group);
+            drain();
+        }
+
+        private void drain() {
+            while (!waiting.isEmpty()) {
+                int current = running.get();
+                if (current >= modelConcurrency) {
+                    // A running call drains again when it completes
+                    return;
+                }
+                if (!running.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+                Group group = waiting.poll();
+                if (group == null) {
+                    running.decrementAndGet();
+                    continue;
+                }
+                start(group);
+            }
+        }
+
+        private void start(Group group) {
+            if (abandoned.get()) {
+                running.decrementAndGet();
+                return;
+            }
+            // Same admission as /api/chat: the client's model budget and a slot under the global in-flight cap
+            if (!chatRateLimiter.tryAcquire(clientKey, true).granted()) {
+                answers.add(new Answer(group.indices(), null, true, RATE_LIMITED));
+                running.decrementAndGet();
+                return;
+            }
+            Item item = group.item();
+            try {
+                modelCallLane.submit(apiKey, () -> holidayAiService.processHolidayQuery(group.message(), item.country(), item.language()))
+                    .whenComplete((reply, error) -> {
+                        chatRateLimiter.release();
+                        answers.add(error == null
+                            ? new Answer(group.indices(), reply, true, null)
+                            : new Answer(group.indices(), null, true, "Could not answer this question"));
+                        running.decrementAndGet();
+                        drain();
+                    });
+            } catch (RejectedExecutionException e) {
+                // The lane is full of interactive calls; the client can send these items again later
+                chatRateLimiter.release();
+                answers.add(new Answer(group.indices(), null, true, "Model lane is full"));
+                running.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.emre.holidayapi.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// What the assistant remembers between turns of one conversation: the country and year it settled on,
+// a question it is waiting on an answer to, and a few condensed earlier turns for model prompts.
+// Instances live in ChatSessionStore; turns of one conversation may arrive on different threads.
+public class ChatSession {
+    static final int MAX_TURNS = 4;
+    private static final int MAX_QUESTION_CHARS = 120;
+    private static final int MAX_REPLY_CHARS = 160;
+
+    public enum PendingQuestion { NONE, VACATION_DAYS }
+
+    private final String id;
+    private final Deque<String> turns = new ArrayDeque<>(MAX_TURNS);
+    private String countryCode;
+    private Integer year;
+    private PendingQuestion pending = PendingQuestion.NONE;
+    // Maintained by ChatSessionStore for TTL eviction
+    long lastAccessNanos;
+
+    ChatSession(String id, String countryCode) {
+        this.id = id;
+        this.countryCode = countryCode;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public synchronized String countryCode() {
+        return countryCode;
+    }
+
+    synchronized void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+
+    public synchronized Integer year() {
+        return year;
+    }
+
+    public synchronized void setYear(int year) {
+        this.year = year;
+    }
+
+    public synchronized PendingQuestion pending() {
+        return pending;
+    }
+
+    public synchronized void setPending(PendingQuestion pending) {
+        this.pending = pending;
+    }
+
+    // Keeps the last few turns, each cut down to a line, so prompts grow by a bounded amount
+    public synchronized void remember(String question, String reply) {
+        if (turns.size() == MAX_TURNS) {
+            turns.removeFirst();
+        }
+        turns.addLast("User: " + condense(question, MAX_QUESTION_CHARS) + " | Assistant: " + condense(reply, MAX_REPLY_CHARS));
+    }
+
+    public synchronized List<String> turns() {
+        return List.copyOf(turns);
+    }
+
+    private static String condense(String text, int maxChars) {
+        String line = text == null ? "" : text.replaceAll("\\s+", " ").trim();
+        return line.length() <= maxChars ? line : line.substring(0, maxChars - 3) + "...";
+    }
+}
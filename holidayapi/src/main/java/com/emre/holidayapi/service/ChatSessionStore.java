@@ -0,0 +1,83 @@
+package com.emre.holidayapi.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+// Server-side chat sessions, bounded in both count and age. The map is kept in access order, so the
+// least recently used session is the one dropped when the store is full, and expired sessions are
+// always at the head where the sweep can stop at the first live one.
+@Component
+public class ChatSessionStore {
+    static final String DEFAULT_COUNTRY = "TR";
+
+    private final long ttlNanos;
+    private final int maxSessions;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<String, ChatSession> sessions;
+
+    @Autowired
+    public ChatSessionStore(@Value("${holiday.chat.session.ttl:30m}") Duration ttl,
+                            @Value("${holiday.chat.session.max-sessions:10000}") int maxSessions) {
+        this(ttl, maxSessions, System::nanoTime);
+    }
+
+    ChatSessionStore(Duration ttl, int maxSessions, LongSupplier nanoClock) {
+        if (ttl.isNegative() || ttl.isZero() || maxSessions < 1) {
+            throw new IllegalArgumentException("Chat session TTL and capacity must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxSessions = maxSessions;
+        this.nanoClock = nanoClock;
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ChatSession> eldest) {
+                return size() > ChatSessionStore.this.maxSessions;
+            }
+        };
+    }
+
+    // Returns the live session with this id, or a new one when the id is missing, unknown or expired.
+    // A country sent with the request replaces the one the session had.
+    public ChatSession open(String sessionId, String countryCode) {
+        long now = nanoClock.getAsLong();
+        ChatSession session;
+        synchronized (sessions) {
+            session = sessionId != null ? sessions.get(sessionId) : null;
+            if (session == null || now - session.lastAccessNanos > ttlNanos) {
+                session = new ChatSession(UUID.randomUUID().toString(),
+                    countryCode != null && !countryCode.isBlank() ? countryCode : DEFAULT_COUNTRY);
+                sessions.put(session.id(), session);
+            } else if (countryCode != null && !countryCode.isBlank()) {
+                session.setCountryCode(countryCode);
+            }
+            session.lastAccessNanos = now;
+        }
+        return session;
+    }
+
+    @Scheduled(fixedDelayString = "${holiday.chat.session.sweep-interval:60000}")
+    public void evictExpired() {
+        long now = nanoClock.getAsLong();
+        synchronized (sessions) {
+            Iterator<ChatSession> iterator = sessions.values().iterator();
+            while (iterator.hasNext() && now - iterator.next().lastAccessNanos > ttlNanos) {
+                iterator.remove();
+            }
+        }
+    }
+
+    int size() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+}
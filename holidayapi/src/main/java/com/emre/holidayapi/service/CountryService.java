@@ -3,10 +3,12 @@ package com.emre.holidayapi.service;
 import com.emre.holidayapi.model.Country;
 import com.emre.holidayapi.repository.CountryRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 public class CountryService {
     private final CountryRepository repository;
 
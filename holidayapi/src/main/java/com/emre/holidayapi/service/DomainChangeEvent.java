@@ -0,0 +1,31 @@
+package com.emre.holidayapi.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Describes a committed change to holiday data so caches on every node can evict just what it touched.
+// Empty countryCodes or a null date range mean "unknown", and subscribers must treat them as "everything".
+public record DomainChangeEvent(EntityType entityType, Set<String> ids, Set<String> countryCodes,
+                                LocalDate from, LocalDate to) {
+
+    public enum EntityType {
+        HOLIDAY, HOLIDAY_AUDIENCE, TEMPLATE, TRANSLATION, AUDIENCE
+    }
+
+    public DomainChangeEvent {
+        ids = ids == null ? Set.of() : Set.copyOf(ids);
+        countryCodes = countryCodes == null ? Set.of() : Set.copyOf(countryCodes);
+    }
+
+    public static DomainChangeEvent of(EntityType entityType, Set<String> ids) {
+        return new DomainChangeEvent(entityType, ids, Set.of(), null, null);
+    }
+
+    public boolean affects(LocalDate date) {
+        return from == null || to == null || (!date.isBefore(from) && !date.isAfter(to));
+    }
+
+    public boolean affectsCountry(String countryCode) {
+        return countryCodes.isEmpty() || countryCodes.contains(countryCode);
+    }
+}
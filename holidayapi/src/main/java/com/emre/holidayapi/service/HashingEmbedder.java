@@ -0,0 +1,40 @@
+package com.emre.holidayapi.service;
+
+// Deterministic, model-free embedder: hashes the folded words of a text and their trigrams into a
+// fixed number of signed buckets and normalizes the result. Texts sharing words or word fragments
+// ("bayram", "bayramı") land close together, so it stands in for a real model in tests and offline use.
+public class HashingEmbedder implements HolidayEmbedder {
+    static final int DIMENSIONS = 256;
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[DIMENSIONS];
+        String folded = text == null ? "" : HolidayNameIndex.fold(text);
+        if (folded.isEmpty()) {
+            return vector;
+        }
+        for (String word : folded.split(" ")) {
+            add(vector, "w:" + word, 2f);
+            for (String trigram : HolidayNameIndex.trigrams(word)) {
+                add(vector, "t:" + trigram, 1f);
+            }
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    // The low bits pick the bucket and the top bit the sign, so unrelated features tend to cancel out
+    private static void add(float[] vector, String feature, float weight) {
+        int hash = feature.hashCode() * 0x9E3779B1;
+        vector[Math.floorMod(hash, DIMENSIONS)] += hash < 0 ? -weight : weight;
+    }
+}
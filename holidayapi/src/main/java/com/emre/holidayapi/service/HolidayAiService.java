@@ -2,111 +2,293 @@ package com.emre.holidayapi.service;
 
 import com.emre.holidayapi.model.*;
 import com.emre.holidayapi.repository.*;
+import com.emre.holidayapi.config.ModelCircuitBreaker;
 import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.MessageAnalyzer.Analysis;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 @Service
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
 public class HolidayAiService {
+    private static final int HOLIDAY_NAME_MATCH_LIMIT = 10;
+    private static final int CACHED_ANSWERS = 256;
+    // The planner tries every day count up to the limit around every holiday, so both are bounded
+    static final int MAX_VACATION_DAYS = 366;
+    static final int MIN_PLAN_YEAR = 1900;
+    static final int MAX_PLAN_YEAR = 2100;
 
     private final ChatClient chatClient;
     private final HolidayService holidayService;
     private final HolidayTemplateService holidayTemplateService;
     private final AudienceService audienceService;
-    private final CountryRepository countryRepository;
+    private final ReferenceDataRegistry referenceData;
     private final TranslationRepository translationRepository;
     private final HolidayAudienceRepository holidayAudienceRepository;
+    private final ChangeEventBus changeEventBus;
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final HolidayNameIndex holidayNameIndex;
+    private final MessageAnalyzer messageAnalyzer;
+    private final PromptBuilder promptBuilder;
+    private final HolidayRetrievalIndex holidayRetrievalIndex;
+    private final ModelCircuitBreaker modelCircuitBreaker;
+    // Recent model answers to first-turn questions, replayed when the model is unavailable
+    private final Map<String, String> cachedAnswers = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > CACHED_ANSWERS;
+        }
+    };
 
     public HolidayAiService(ChatClient.Builder chatClientBuilder, 
                            HolidayService holidayService, 
                            HolidayTemplateService holidayTemplateService,
                            AudienceService audienceService,
-                           CountryRepository countryRepository,
+                           ReferenceDataRegistry referenceData,
                            TranslationRepository translationRepository,
-                           HolidayAudienceRepository holidayAudienceRepository) {
+                           HolidayAudienceRepository holidayAudienceRepository,
+                           ChangeEventBus changeEventBus,
+                           HolidayCalendarIndex holidayCalendarIndex,
+                           HolidayNameIndex holidayNameIndex,
+                           MessageAnalyzer messageAnalyzer,
+                           PromptBuilder promptBuilder,
+                           HolidayRetrievalIndex holidayRetrievalIndex,
+                           ModelCircuitBreaker modelCircuitBreaker) {
         this.chatClient = chatClientBuilder.build();
         this.holidayService = holidayService;
         this.holidayTemplateService = holidayTemplateService;
         this.audienceService = audienceService;
-        this.countryRepository = countryRepository;
+        this.referenceData = referenceData;
         this.translationRepository = translationRepository;
         this.holidayAudienceRepository = holidayAudienceRepository;
+        this.changeEventBus = changeEventBus;
+        this.holidayCalendarIndex = holidayCalendarIndex;
+        this.holidayNameIndex = holidayNameIndex;
+        this.messageAnalyzer = messageAnalyzer;
+        this.promptBuilder = promptBuilder;
+        this.holidayRetrievalIndex = holidayRetrievalIndex;
+        this.modelCircuitBreaker = modelCircuitBreaker;
+    }
+
+    // Callers that route on requiresModel first analyze the message once and pass the result to both
+    public Analysis analyze(String userMessage, String language) {
+        return userMessage == null ? null : messageAnalyzer.analyze(userMessage, language);
     }
 
     public String processHolidayQuery(String userMessage, String countryCode, String language) {
         try {
-            String lowerMessage = userMessage.toLowerCase();
-            
-            // Check if requesting to add/create a holiday FIRST (highest priority)
-            if (containsHolidayCreationKeywords(lowerMessage)) {
-                return handleHolidayCreationQuery(userMessage, countryCode, language);
-            }
-            
-            // Check if asking about today's holiday (but not creating a holiday)
-            if (lowerMessage.contains("today") && lowerMessage.contains("holiday")) {
-                return handleTodayHolidayQuery(countryCode, language);
-            }
-            
-            // Check if asking about holidays between dates
-            if (containsDateRange(lowerMessage)) {
-                return handleDateRangeQuery(userMessage, countryCode, language);
-            }
-            
-            // Check for specific holiday name recognition
-            if (containsHolidayNameQuery(lowerMessage)) {
-                return handleHolidayNameQuery(userMessage, countryCode, language);
-            }
-            
-            // Check for specific year queries
-            if (containsSpecificYear(lowerMessage)) {
-                return handleSpecificYearQuery(userMessage, countryCode, language);
-            }
-            
-            // Check for holiday statistics queries
-            if (containsStatisticsKeywords(lowerMessage)) {
-                return handleStatisticsQuery(userMessage, countryCode, language);
-            }
-            
-            // Check for holiday type queries (religious, official, etc.)
-            if (containsHolidayTypeKeywords(lowerMessage)) {
-                return handleHolidayTypeQuery(userMessage, countryCode, language);
-            }
-            
-            // Check for vacation optimization queries
-            if (containsVacationOptimizationKeywords(lowerMessage)) {
-                return handleVacationOptimizationQuery(userMessage, countryCode, language);
-            }
-            
-            // Check if asking about annual holidays
-            if (lowerMessage.contains("year") && (lowerMessage.contains("holiday") || lowerMessage.contains("how many"))) {
-                return handleAnnualHolidayQuery(countryCode, language);
+            return processHolidayQuery(messageAnalyzer.analyze(userMessage, language), countryCode, language);
+        } catch (Exception e) {
+            return getLocalizedErrorMessage(language);
+        }
+    }
+
+    // The message is parsed once; every handler reads the same analysis
+    public String processHolidayQuery(Analysis message, String countryCode, String language) {
+        try {
+            return answer(classify(message), message, countryCode, language, null, List.of());
+        } catch (Exception e) {
+            return getLocalizedErrorMessage(language);
+        }
+    }
+
+    // One turn of a conversation. A reply to the question asked last turn is answered straight from the
+    // session without classifying it again; everything else is classified as usual, with the session's
+    // year as the default and its condensed turns given to the model instead of the full history.
+    public String processHolidayQuery(String userMessage, ChatSession session, String language) {
+        Analysis message;
+        try {
+            message = messageAnalyzer.analyze(userMessage, language);
+        } catch (Exception e) {
+            String reply = getLocalizedErrorMessage(language);
+            session.remember(userMessage, reply);
+            return reply;
+        }
+        return processHolidayQuery(message, session, language);
+    }
+
+    public String processHolidayQuery(Analysis message, ChatSession session, String language) {
+        String reply;
+        try {
+            if (message.requestedYear() != -1) {
+                session.setYear(message.requestedYear());
             }
-            
-            // Check if asking about audience-specific holidays
-            if (containsAudienceKeywords(lowerMessage)) {
-                return handleAudienceSpecificQuery(userMessage, countryCode, language);
+            int followUpDays = session.pending() == ChatSession.PendingQuestion.VACATION_DAYS ? followUpDays(message) : -1;
+            if (followUpDays > 0) {
+                session.setPending(ChatSession.PendingQuestion.NONE);
+                reply = handleVacationOptimizationQuery(resolveYear(message, session.year()), followUpDays,
+                    session.countryCode(), language);
+            } else {
+                QueryIntent intent = classify(message);
+                session.setPending(intent == QueryIntent.VACATION_OPTIMIZATION && message.vacationDays() == -1
+                    ? ChatSession.PendingQuestion.VACATION_DAYS : ChatSession.PendingQuestion.NONE);
+                reply = answer(intent, message, session.countryCode(), language, session.year(), session.turns());
             }
-            
-            // For general queries, use AI with context
-            return handleGeneralQuery(userMessage, countryCode, language);
-            
+        } catch (Exception e) {
+            reply = getLocalizedErrorMessage(language);
+        }
+        session.remember(message.text(), reply);
+        return reply;
+    }
+
+    // Only general questions reach the model; every other intent is answered from the database by rules
+    // While the model circuit is open, general questions are answered from the fallback right away
+    public boolean requiresModel(String userMessage) {
+        return requiresModel(analyze(userMessage, "en"));
+    }
+
+    public boolean requiresModel(Analysis message) {
+        return message != null && classify(message) == QueryIntent.GENERAL && modelCircuitBreaker.allowsCalls();
+    }
+
+    // The answer processHolidayQuery would give with the model unavailable
+    public String answerWithoutModel(String userMessage, String countryCode, String language) {
+        try {
+            Analysis message = messageAnalyzer.analyze(userMessage, language);
+            QueryIntent intent = classify(message);
+            return intent == QueryIntent.GENERAL
+                ? answerGeneralWithoutModel(message, countryCode, language)
+                : answer(intent, message, countryCode, language, null, List.of());
         } catch (Exception e) {
             return getLocalizedErrorMessage(language);
         }
     }
 
+    // The vacation suggestions the rule-based assistant gives, for callers that already know the day budget
+    public String planVacation(int year, int vacationDays, String countryCode, String language) {
+        if (vacationDays < 1 || vacationDays > MAX_VACATION_DAYS) {
+            throw new IllegalArgumentException("Vacation days must be between 1 and " + MAX_VACATION_DAYS);
+        }
+        if (year < MIN_PLAN_YEAR || year > MAX_PLAN_YEAR) {
+            throw new IllegalArgumentException("Year must be between " + MIN_PLAN_YEAR + " and " + MAX_PLAN_YEAR);
+        }
+        return handleVacationOptimizationQuery(year, vacationDays, countryCode, language);
+    }
+
+    // An answer to a pending question is never sent to the model, whatever it would classify as
+    public boolean requiresModel(String userMessage, ChatSession session) {
+        return requiresModel(analyze(userMessage, "en"), session);
+    }
+
+    public boolean requiresModel(Analysis message, ChatSession session) {
+        if (message != null && session.pending() == ChatSession.PendingQuestion.VACATION_DAYS
+            && followUpDays(message) > 0) {
+            return false;
+        }
+        return requiresModel(message);
+    }
+
+    private String answer(QueryIntent intent, Analysis message, String countryCode, String language,
+                          Integer sessionYear, List<String> earlierTurns) {
+        return switch (intent) {
+            case CREATE_HOLIDAY -> handleHolidayCreationQuery(message, countryCode, language);
+            case TODAY -> handleTodayHolidayQuery(countryCode, language);
+            case DATE_RANGE -> handleDateRangeQuery(message, countryCode, language);
+            case HOLIDAY_NAME -> handleHolidayNameQuery(message, countryCode, language);
+            case SPECIFIC_YEAR -> handleSpecificYearQuery(message, countryCode, language);
+            case STATISTICS -> handleStatisticsQuery(message, countryCode, language);
+            case HOLIDAY_TYPE -> handleHolidayTypeQuery(message, countryCode, language);
+            case VACATION_OPTIMIZATION -> handleVacationOptimizationQuery(resolveYear(message, sessionYear),
+                message.vacationDays(), countryCode, language);
+            case ANNUAL -> handleAnnualHolidayQuery(countryCode, language);
+            case AUDIENCE -> handleAudienceSpecificQuery(message, countryCode, language);
+            // For general queries, use AI with context
+            case GENERAL -> handleGeneralQuery(message, countryCode, language, earlierTurns);
+        };
+    }
+
+    // "5", "5 days" or "maximum 5" after the assistant asked how many vacation days the user has
+    private static int followUpDays(Analysis message) {
+        int days = message.vacationDays();
+        if (days == -1 && !message.quantities().isEmpty()) {
+            days = message.quantities().get(0).value();
+        }
+        return days;
+    }
+
+    private static int resolveYear(Analysis message, Integer sessionYear) {
+        if (message.requestedYear() != -1) {
+            return message.requestedYear();
+        }
+        return sessionYear != null ? sessionYear : LocalDate.now().getYear();
+    }
+
+    // The intent processHolidayQuery routes this message to, for the routing benchmark
+    QueryIntent intentOf(String userMessage, String language) {
+        return classify(messageAnalyzer.analyze(userMessage, language));
+    }
+
+    private QueryIntent classify(Analysis message) {
+        String lowerMessage = message.lower();
+        // Check if requesting to add/create a holiday FIRST (highest priority)
+        if (containsHolidayCreationKeywords(lowerMessage)) {
+            return QueryIntent.CREATE_HOLIDAY;
+        }
+        
+        // Check if asking about today's holiday (but not creating a holiday)
+        if (lowerMessage.contains("today") && lowerMessage.contains("holiday")) {
+            return QueryIntent.TODAY;
+        }
+        
+        // Check if asking about holidays between dates
+        if (containsDateRange(message)) {
+            return QueryIntent.DATE_RANGE;
+        }
+        
+        // Check for specific holiday name recognition
+        if (containsHolidayNameQuery(lowerMessage)) {
+            return QueryIntent.HOLIDAY_NAME;
+        }
+        
+        // Check for specific year queries
+        if (containsSpecificYear(message)) {
+            return QueryIntent.SPECIFIC_YEAR;
+        }
+        
+        // Check for holiday statistics queries
+        if (containsStatisticsKeywords(lowerMessage)) {
+            return QueryIntent.STATISTICS;
+        }
+        
+        // Check for holiday type queries (religious, official, etc.)
+        if (containsHolidayTypeKeywords(lowerMessage)) {
+            return QueryIntent.HOLIDAY_TYPE;
+        }
+        
+        // Check for vacation optimization queries
+        if (containsVacationOptimizationKeywords(lowerMessage)) {
+            return QueryIntent.VACATION_OPTIMIZATION;
+        }
+        
+        // Check if asking about annual holidays
+        if (lowerMessage.contains("year") && (lowerMessage.contains("holiday") || lowerMessage.contains("how many"))) {
+            return QueryIntent.ANNUAL;
+        }
+        
+        // Check if asking about audience-specific holidays
+        if (containsAudienceKeywords(lowerMessage)) {
+            return QueryIntent.AUDIENCE;
+        }
+        
+        return QueryIntent.GENERAL;
+    }
+
+    enum QueryIntent {
+        CREATE_HOLIDAY, TODAY, DATE_RANGE, HOLIDAY_NAME, SPECIFIC_YEAR, STATISTICS,
+        HOLIDAY_TYPE, VACATION_OPTIMIZATION, ANNUAL, AUDIENCE, GENERAL
+    }
+
     private String handleTodayHolidayQuery(String countryCode, String language) {
         LocalDate today = LocalDate.now();
         List<HolidayDefinition> todayHolidays = holidayService.getHolidaysByDate(today, countryCode);
@@ -126,9 +308,8 @@ public class HolidayAiService {
         }
     }
 
-    private String handleDateRangeQuery(String userMessage, String countryCode, String language) {
-        // Extract dates from message
-        List<LocalDate> dates = extractDatesFromMessage(userMessage);
+    private String handleDateRangeQuery(Analysis message, String countryCode, String language) {
+        List<LocalDate> dates = message.dates();
         if (dates.size() < 2) {
             return "I couldn't find valid date range in your message. Please use format like '01/01/2025 - 31/01/2025' or 'between 01/01/2025 and 31/01/2025'.";
         }
@@ -137,8 +318,8 @@ public class HolidayAiService {
         LocalDate endDate = dates.get(1);
         
         // Check if asking about working days calculation
-        if (userMessage.toLowerCase().contains("working") || userMessage.toLowerCase().contains("calculate")) {
-            return handleWorkingDaysCalculation(startDate, endDate, countryCode, userMessage.toLowerCase().contains("weekend"));
+        if (message.contains("working") || message.contains("calculate")) {
+            return handleWorkingDaysCalculation(startDate, endDate, countryCode, message.contains("weekend"));
         }
         
         // Get holidays in date range
@@ -210,9 +391,8 @@ public class HolidayAiService {
             currentYear, getCountryName(countryCode), yearlyHolidays.size());
     }
 
-    private String handleAudienceSpecificQuery(String userMessage, String countryCode, String language) {
-        // Extract audience from message
-        String audience = extractAudienceFromMessage(userMessage, language);
+    private String handleAudienceSpecificQuery(Analysis message, String countryCode, String language) {
+        String audience = message.audience();
         if (audience == null) {
             return "I couldn't identify the specific audience you're asking about. Please mention a specific group like 'students', 'government employees', 'private sector', etc.";
         }
@@ -242,10 +422,10 @@ public class HolidayAiService {
         return response.toString();
     }
 
-    private String handleHolidayCreationQuery(String userMessage, String countryCode, String language) {
+    private String handleHolidayCreationQuery(Analysis message, String countryCode, String language) {
         try {
             // Extract holiday information from the message
-            HolidayCreationInfo creationInfo = extractHolidayCreationInfo(userMessage, language);
+            HolidayCreationInfo creationInfo = extractHolidayCreationInfo(message);
             
             if (creationInfo == null) {
                 return getLocalizedMessage(language,
@@ -288,92 +468,83 @@ public class HolidayAiService {
         }
     }
 
-    private String handleGeneralQuery(String userMessage, String countryCode, String language) {
-        // Create context about the holiday system
-        String context = createHolidayContext(countryCode, language);
-        
-        String systemPrompt = String.format("""
-            You are an intelligent and friendly holiday assistant designed to help users with country-specific holiday-related questions for %s. 
-            You are connected to a backend system that provides detailed information about public holidays, working days, and audience-specific holidays.
-
-            Your job is to interpret the user's natural language input, and — based on provided context or API output — respond with clear, informative answers in %s.
-
-            You support the following functionalities:
-
-            1. ✅ **Today's Holidays**: If the user asks "Is there a holiday today?" or similar, respond with whether today is a holiday in the selected country and what holidays are being observed.
-
-            2. ✅ **Date Range Queries**: If the user asks about holidays between two dates (e.g., "What holidays are there from 01/01/2025 to 15/01/2025?"), list all holidays within that range.
-
-            3. ✅ **Working Day Calculations**: If the user asks "How many working days between 01/01/2025 and 31/01/2025?", return the number of working days, excluding holidays and optionally weekends.
-
-            4. ✅ **Annual Holiday Count**: If the user asks "How many holidays are there this year in %s?", return the total number of holidays in the current year for that country.
-
-            5. ✅ **Audience-Specific Holidays**: If the user includes audience types like "students", "government employees", "private sector" etc., return holidays that are only valid for that group.
-
-            6. ✅ **General Questions**: If a question doesn't match the patterns above, try to answer it by using the provided country context and year statistics.
-
-            7. 🔄 **Holiday Name Recognition**: If the user asks a question like "When is Ramazan Bayramı?" or "Tell me about 23 Nisan", extract the holiday name and return its date and description if available.
-
-            8. 📅 **Holidays in a Specific Year**: If the user specifies a year like "2024" or asks "What are the holidays in 2024 in %s?", return a list of holidays for that year.
-
-            9. 📊 **Holiday Statistics**: Support questions like:
-               - "Which month has the most holidays?"
-               - "What's the longest holiday this year?"
-               - "How many holidays fall on weekends?"
-
-            10. 🕌 **Holiday Type Classification**: If the user asks for "religious holidays" or "official public holidays", filter results based on the type of holiday.
-
-            11. 📆 **Holiday Duration Analysis**: If a holiday spans multiple days or extends into a weekend, highlight its total duration (e.g., "Ramazan Bayramı lasts for 3 days").
-
-            12. ✨ **Holiday Creation**: If the user asks to "add a holiday", "create a holiday", or "add a holiday for [audience]", the system can create new holidays for specific audiences or all people.
-
-            13. 🌍 **Language-Aware Responses**: Always respond in %s. Adjust your tone and phrasing accordingly.
+    // The model gets short instructions, the question, and only the context the question touches,
+    // kept within the prompt budget. Context is added most important first: the year summary, then
+    // the holidays retrieved for the question, audiences, and earlier turns, which are the first to be cut.
+    private String handleGeneralQuery(Analysis message, String countryCode, String language, List<String> earlierTurns) {
+        String countryName = getCountryName(countryCode);
+        LocalDate today = LocalDate.now();
+        int currentYear = today.getYear();
+        int yearTotal = holidayCalendarIndex.range(countryCode, AudienceFilter.NONE,
+            LocalDate.of(currentYear, 1, 1), LocalDate.of(currentYear, 12, 31)).size();
+
+        PromptBuilder.Draft draft = promptBuilder.draft("general")
+            .required(String.format("""
+                You are a holiday assistant for %s, answering from the holiday database below.
+                Answer in %s, concisely and politely, with dates as dd/MM/yyyy.
+                If the context does not answer the question, suggest asking about holidays today, \
+                holidays between dates, yearly totals or holidays for an audience (students, employees, ...).""",
+                countryName, "tr".equals(language) ? "Turkish" : "English"))
+            .section("Context:", List.of(
+                "Country: " + countryName + " (" + countryCode + ")",
+                "Today: " + today.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                "Holidays in " + currentYear + ": " + yearTotal));
+        draft.section("Relevant holidays (date|name|type):", PromptBuilder.holidayRows(
+            holidayRetrievalIndex.retrieve(message, countryCode),
+            h -> holidayCalendarIndex.nameOf(h.template(), language)));
+        if (message.audience() != null || containsAudienceKeywords(message.lower())) {
+            draft.section("Audiences:", List.of(referenceData.audiences(language).stream()
+                .map(a -> a.getCode() + "=" + a.getName())
+                .collect(Collectors.joining(", "))));
+        }
+        PromptBuilder.Result prompt = draft
+            .history("Earlier in this conversation (condensed):", earlierTurns)
+            .required("User question: " + message.text())
+            .build();
+
+        // A Prompt built from plain text is not rendered as a template, so braces in the question are safe
+        return modelCircuitBreaker.call(() -> {
+            String reply = chatClient.prompt(new Prompt(prompt.text())).call().content();
+            if (earlierTurns.isEmpty() && reply != null) {
+                synchronized (cachedAnswers) {
+                    cachedAnswers.put(answerKey(message, countryCode, language), reply);
+                }
+            }
+            return reply;
+        }, () -> answerGeneralWithoutModel(message, countryCode, language));
+    }
 
-            Current context:
-            %s
-            
-            Instructions:
-            - Be concise, but informative and polite
-            - Use date format dd/MM/yyyy in your responses  
-            - Always tailor your answer to the country and year provided
-            - If you cannot find an exact answer, suggest users ask about:
-              * Holidays today
-              * Holidays between specific dates
-              * Yearly holiday totals
-              * Holidays for specific audiences (students, employees, etc.)
-            - Act as a true holiday expert for %s
-            """, getCountryName(countryCode), language, getCountryName(countryCode), getCountryName(countryCode), language, context, getCountryName(countryCode));
-        
-        PromptTemplate template = new PromptTemplate(systemPrompt + "\n\nUser question: {question}");
-        Prompt prompt = template.create(Map.of("question", userMessage));
-        
-        return chatClient.prompt(prompt).call().content();
+    // A cached model answer to the same question, otherwise the holidays retrieved for it
+    private String answerGeneralWithoutModel(Analysis message, String countryCode, String language) {
+        synchronized (cachedAnswers) {
+            String cached = cachedAnswers.get(answerKey(message, countryCode, language));
+            if (cached != null) {
+                return cached;
+            }
+        }
+        StringBuilder response = new StringBuilder(getLocalizedMessage(language,
+            "The AI assistant is unavailable right now, so here is what the holiday calendar says for your question:\n\n",
+            "Yapay zeka asistanına şu anda ulaşılamıyor; sorunuzla ilgili tatil takviminde şunlar var:\n\n"));
+        for (CalendarEntry holiday : holidayRetrievalIndex.retrieve(message, countryCode)) {
+            response.append(String.format("• %s - %s (%s)\n",
+                holiday.date().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                holidayCalendarIndex.nameOf(holiday.template(), language),
+                holiday.template().type()));
+        }
+        response.append(getLocalizedMessage(language,
+            "\nYou can still ask about holidays today, between two dates, in a specific year or for an audience.",
+            "\nBugünkü tatilleri, iki tarih arasındaki tatilleri, belirli bir yılın tatillerini veya bir kitleye özel tatilleri sormaya devam edebilirsiniz."));
+        return response.toString();
     }
 
-    private String createHolidayContext(String countryCode, String language) {
-        int currentYear = LocalDate.now().getYear();
-        LocalDate startOfYear = LocalDate.of(currentYear, 1, 1);
-        LocalDate endOfYear = LocalDate.of(currentYear, 12, 31);
-        
-        List<HolidayDefinition> yearHolidays = holidayService.getHolidaysByDateRange(startOfYear, endOfYear, countryCode);
-        List<AudienceDto> audiences = audienceService.getAllAudiencesTranslated(language);
-        
-        StringBuilder context = new StringBuilder();
-        context.append(String.format("Country: %s\n", getCountryName(countryCode)));
-        context.append(String.format("Total holidays this year (%d): %d\n", currentYear, yearHolidays.size()));
-        context.append("Available audience types: ");
-        context.append(audiences.stream()
-            .map(AudienceDto::getName)
-            .collect(Collectors.joining(", ")));
-        
-        return context.toString();
+    private static String answerKey(Analysis message, String countryCode, String language) {
+        return countryCode + "|" + language + "|" + HolidayNameIndex.fold(message.text());
     }
 
     // Helper methods
-    private boolean containsDateRange(String message) {
+    private boolean containsDateRange(Analysis message) {
         // Look for date patterns like "01/01/2025 - 31/01/2025" or "between ... and ..."
-        Pattern dateRangePattern = Pattern.compile("\\d{1,2}/\\d{1,2}/\\d{4}.*\\d{1,2}/\\d{1,2}/\\d{4}");
-        return dateRangePattern.matcher(message).find() || 
+        return message.dates().size() >= 2 || 
                (message.contains("between") && message.contains("and"));
     }
 
@@ -383,47 +554,8 @@ public class HolidayAiService {
                message.contains("audience") || message.contains("group");
     }
 
-    private List<LocalDate> extractDatesFromMessage(String message) {
-        List<LocalDate> dates = new ArrayList<>();
-        Pattern datePattern = Pattern.compile("\\d{1,2}/\\d{1,2}/\\d{4}");
-        Matcher matcher = datePattern.matcher(message);
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        
-        while (matcher.find()) {
-            try {
-                LocalDate date = LocalDate.parse(matcher.group(), formatter);
-                dates.add(date);
-            } catch (DateTimeParseException e) {
-                // Ignore invalid dates
-            }
-        }
-        
-        return dates;
-    }
-
-    private String extractAudienceFromMessage(String message, String language) {
-        List<AudienceDto> audiences = audienceService.getAllAudiencesTranslated(language);
-        
-        for (AudienceDto audience : audiences) {
-            if (message.toLowerCase().contains(audience.getName().toLowerCase()) ||
-                message.toLowerCase().contains(audience.getCode().toLowerCase())) {
-                return audience.getCode();
-            }
-        }
-        
-        // Fallback to common keywords
-        if (message.toLowerCase().contains("student")) return "STUDENTS";
-        if (message.toLowerCase().contains("government")) return "GOVERNMENT";
-        if (message.toLowerCase().contains("private")) return "PRIVATE_SECTOR";
-        
-        return null;
-    }
-
     private String getCountryName(String countryCode) {
-        return countryRepository.findByCountryCode(countryCode)
-            .map(Country::getCountryName)
-            .orElse(countryCode);
+        return referenceData.countryName(countryCode);
     }
 
     private String getHolidayName(HolidayTemplate template, String language) {
@@ -446,9 +578,9 @@ public class HolidayAiService {
                (message.contains("last") && !message.contains("called"));
     }
 
-    private boolean containsSpecificYear(String message) {
-        Pattern yearPattern = Pattern.compile("\\b(19|20)\\d{2}\\b");
-        return yearPattern.matcher(message).find() || message.contains("this year") || message.contains("next year");
+    private boolean containsSpecificYear(Analysis message) {
+        return !message.years().isEmpty() || message.has(MessageAnalyzer.RelativeWord.THIS_YEAR)
+            || message.has(MessageAnalyzer.RelativeWord.NEXT_YEAR);
     }
 
     private boolean containsStatisticsKeywords(String message) {
@@ -485,9 +617,8 @@ public class HolidayAiService {
                message.contains("tatil oluştur");
     }
 
-    private String handleHolidayNameQuery(String userMessage, String countryCode, String language) {
-        // Extract potential holiday name from the message
-        String potentialHolidayName = extractHolidayNameFromMessage(userMessage, language);
+    private String handleHolidayNameQuery(Analysis message, String countryCode, String language) {
+        String potentialHolidayName = message.holidayName();
         
         if (potentialHolidayName == null) {
             return getLocalizedMessage(language, 
@@ -500,13 +631,9 @@ public class HolidayAiService {
         LocalDate startDate = LocalDate.of(currentYear, 1, 1);
         LocalDate endDate = LocalDate.of(currentYear + 1, 12, 31);
         
-        List<HolidayDefinition> holidays = holidayService.getHolidaysByDateRange(startDate, endDate, countryCode);
-        
-        // Find matching holidays by name
-        List<HolidayDefinition> matchingHolidays = holidays.stream()
-            .filter(h -> getHolidayName(h.getTemplate(), language).toLowerCase()
-                        .contains(potentialHolidayName.toLowerCase()))
-            .collect(Collectors.toList());
+        // Same ranked trigram lookup as /api/holidays/search, so "bayrami" finds "Bayramı"
+        List<CalendarEntry> matchingHolidays = holidayNameIndex.search(potentialHolidayName, countryCode,
+            startDate, endDate, HOLIDAY_NAME_MATCH_LIMIT);
 
         if (matchingHolidays.isEmpty()) {
             return getLocalizedMessage(language,
@@ -517,11 +644,11 @@ public class HolidayAiService {
         }
 
         // Check if asking about duration specifically
-        boolean askingAboutDuration = userMessage.toLowerCase().contains("how long") || 
-                                    userMessage.toLowerCase().contains("duration") || 
-                                    userMessage.toLowerCase().contains("last") ||
-                                    userMessage.toLowerCase().contains("kaç gün") ||
-                                    userMessage.toLowerCase().contains("ne kadar");
+        boolean askingAboutDuration = message.contains("how long") || 
+                                    message.contains("duration") || 
+                                    message.contains("last") ||
+                                    message.contains("kaç gün") ||
+                                    message.contains("ne kadar");
 
         if (askingAboutDuration) {
             // Use the detailed duration analysis for duration questions
@@ -529,14 +656,14 @@ public class HolidayAiService {
         }
 
         StringBuilder response = new StringBuilder();
-        for (HolidayDefinition holiday : matchingHolidays) {
-            String holidayName = getHolidayName(holiday.getTemplate(), language);
-            String dateStr = holiday.getHolidayDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        for (CalendarEntry holiday : matchingHolidays) {
+            String holidayName = holidayCalendarIndex.nameOf(holiday.template(), language);
+            String dateStr = holiday.date().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
             
             response.append(String.format("%s is on %s", holidayName, dateStr));
             
             // Add duration analysis
-            String duration = analyzeDuration(holiday, countryCode);
+            String duration = analyzeDuration(holiday);
             if (!duration.isEmpty()) {
                 response.append(duration);
             }
@@ -546,8 +673,8 @@ public class HolidayAiService {
         return response.toString().trim();
     }
 
-    private String handleSpecificYearQuery(String userMessage, String countryCode, String language) {
-        int requestedYear = extractYearFromMessage(userMessage);
+    private String handleSpecificYearQuery(Analysis message, String countryCode, String language) {
+        int requestedYear = message.requestedYear();
         if (requestedYear == -1) {
             requestedYear = LocalDate.now().getYear();
         }
@@ -577,14 +704,14 @@ public class HolidayAiService {
         return response.toString();
     }
 
-    private String handleStatisticsQuery(String userMessage, String countryCode, String language) {
+    private String handleStatisticsQuery(Analysis message, String countryCode, String language) {
         int currentYear = LocalDate.now().getYear();
         LocalDate startOfYear = LocalDate.of(currentYear, 1, 1);
         LocalDate endOfYear = LocalDate.of(currentYear, 12, 31);
         
         List<HolidayDefinition> yearHolidays = holidayService.getHolidaysByDateRange(startOfYear, endOfYear, countryCode);
         
-        String lowerMessage = userMessage.toLowerCase();
+        String lowerMessage = message.lower();
         
         if (lowerMessage.contains("which month") && lowerMessage.contains("most")) {
             return analyzeMonthlyDistribution(yearHolidays, language, countryCode);
@@ -602,8 +729,8 @@ public class HolidayAiService {
         return generateGeneralStatistics(yearHolidays, language, countryCode, currentYear);
     }
 
-    private String handleHolidayTypeQuery(String userMessage, String countryCode, String language) {
-        String lowerMessage = userMessage.toLowerCase();
+    private String handleHolidayTypeQuery(Analysis message, String countryCode, String language) {
+        String lowerMessage = message.lower();
         String requestedType = null;
         
         if (lowerMessage.contains("religious")) requestedType = "RELIGIOUS";
@@ -612,26 +739,20 @@ public class HolidayAiService {
         else if (lowerMessage.contains("national")) requestedType = "NATIONAL";
         
         // Check if this is a combined date range + type query
-        List<LocalDate> dates = extractDatesFromMessage(userMessage);
+        List<LocalDate> dates = message.dates();
+        int[] monthRange = message.monthRange();
         LocalDate startDate, endDate;
         
         if (dates.size() >= 2) {
             // Date range specified
             startDate = dates.get(0);
             endDate = dates.get(1);
-        } else if (containsMonthNames(lowerMessage)) {
+        } else if (monthRange != null) {
             // Month names specified (like "between June and August")
             int currentYear = LocalDate.now().getYear();
-            int[] monthRange = extractMonthRange(lowerMessage);
-            if (monthRange != null) {
-                startDate = LocalDate.of(currentYear, monthRange[0], 1);
-                endDate = LocalDate.of(currentYear, monthRange[1], 
-                    LocalDate.of(currentYear, monthRange[1], 1).lengthOfMonth());
-            } else {
-                // Default to current year
-                startDate = LocalDate.of(currentYear, 1, 1);
-                endDate = LocalDate.of(currentYear, 12, 31);
-            }
+            startDate = LocalDate.of(currentYear, monthRange[0], 1);
+            endDate = LocalDate.of(currentYear, monthRange[1], 
+                LocalDate.of(currentYear, monthRange[1], 1).lengthOfMonth());
         } else {
             // Default to current year
             int currentYear = LocalDate.now().getYear();
@@ -646,7 +767,7 @@ public class HolidayAiService {
         
         StringBuilder response = new StringBuilder();
         if (requestedType != null) {
-            if (dates.size() >= 2 || containsMonthNames(lowerMessage)) {
+            if (dates.size() >= 2 || monthRange != null) {
                 response.append(getLocalizedMessage(language,
                     String.format("%s holidays between %s and %s in %s:\n\n", 
                         requestedType.toLowerCase(), 
@@ -685,17 +806,8 @@ public class HolidayAiService {
         return response.toString();
     }
 
-    private String handleVacationOptimizationQuery(String userMessage, String countryCode, String language) {
+    private String handleVacationOptimizationQuery(int requestedYear, int maxVacationDays, String countryCode, String language) {
         try {
-            // Extract year and period preferences from the message
-            int requestedYear = extractYearFromMessage(userMessage);
-            if (requestedYear == -1) {
-                requestedYear = LocalDate.now().getYear();
-            }
-            
-            // Check if user has specified vacation days in their message
-            int maxVacationDays = extractMaxVacationDays(userMessage);
-            
             // If no vacation days specified, ask the user first
             if (maxVacationDays == -1) {
                 return getLocalizedMessage(language,
@@ -708,6 +820,14 @@ public class HolidayAiService {
                         "Limitinizi söyledikten sonra, izin günlerinizi tatiller ve hafta sonları ile birleştirerek en uzun tatil süresini elde etmenin en iyi yollarını hesaplayacağım.",
                         requestedYear, getCountryName(countryCode)));
             }
+            // Day counts come from free text (up to nine digits) or the model, so they are checked before planning
+            if (maxVacationDays < 1 || maxVacationDays > MAX_VACATION_DAYS || requestedYear < MIN_PLAN_YEAR || requestedYear > MAX_PLAN_YEAR) {
+                return getLocalizedMessage(language,
+                    String.format("I can plan between 1 and %d vacation days for a year from %d to %d. Please tell me a number of days and a year in that range.",
+                        MAX_VACATION_DAYS, MIN_PLAN_YEAR, MAX_PLAN_YEAR),
+                    String.format("%d ile %d yılları arasındaki bir yıl için 1 ile %d arasında izin günü planlayabilirim. Lütfen bu aralıkta bir gün sayısı ve yıl söyleyin.",
+                        MIN_PLAN_YEAR, MAX_PLAN_YEAR, MAX_VACATION_DAYS));
+            }
             
             LocalDate startOfYear = LocalDate.of(requestedYear, 1, 1);
             LocalDate endOfYear = LocalDate.of(requestedYear, 12, 31);
@@ -1003,145 +1123,11 @@ public class HolidayAiService {
         return date.getDayOfWeek().getValue() >= 6; // Saturday = 6, Sunday = 7
     }
 
-    private int extractMaxVacationDays(String message) {
-        String lowerMessage = message.toLowerCase();
-        
-        // Look for "maximum X days" pattern first
-        Pattern maxPattern = Pattern.compile("maximum\\s+(\\d+)\\s*(?:vacation\\s+)?(?:day|days|gün)");
-        Matcher matcher = maxPattern.matcher(lowerMessage);
-        
-        if (matcher.find()) {
-            try {
-                return Integer.parseInt(matcher.group(1));
-            } catch (NumberFormatException e) {
-                // Ignore and continue checking other patterns
-            }
-        }
-        
-        // Look for patterns like "5 days", "3 vacation days", etc.
-        Pattern daysPattern = Pattern.compile("(\\d+)\\s*(?:vacation\\s+)?(?:day|days|gün)");
-        matcher = daysPattern.matcher(lowerMessage);
-        
-        if (matcher.find()) {
-            try {
-                return Integer.parseInt(matcher.group(1));
-            } catch (NumberFormatException e) {
-                // Ignore and continue checking other patterns
-            }
-        }
-        
-        // Look for "I can take X days" patterns
-        Pattern canTakePattern = Pattern.compile("(?:i can take|kullanabilirim)\\s+(\\d+)");
-        matcher = canTakePattern.matcher(lowerMessage);
-        
-        if (matcher.find()) {
-            try {
-                return Integer.parseInt(matcher.group(1));
-            } catch (NumberFormatException e) {
-                // Ignore and continue
-            }
-        }
-        
-        // Look for "X izin günü" (Turkish pattern)
-        Pattern turkishPattern = Pattern.compile("(\\d+)\\s*izin\\s*gün");
-        matcher = turkishPattern.matcher(lowerMessage);
-        
-        if (matcher.find()) {
-            try {
-                return Integer.parseInt(matcher.group(1));
-            } catch (NumberFormatException e) {
-                // Ignore and continue
-            }
-        }
-        
-        // Look for "with X days" pattern
-        Pattern withPattern = Pattern.compile("with\\s+(\\d+)\\s*(?:vacation\\s+)?(?:day|days|gün)");
-        matcher = withPattern.matcher(lowerMessage);
-        
-        if (matcher.find()) {
-            try {
-                return Integer.parseInt(matcher.group(1));
-            } catch (NumberFormatException e) {
-                // Ignore and continue
-            }
-        }
-        
-        // Return -1 if no vacation days specified (to trigger asking the user)
-        return -1;
-    }
-
     // Helper methods for new functionality
 
-    private String extractHolidayNameFromMessage(String message, String language) {
-        // Simple extraction - look for quoted strings or common patterns
-        Pattern quotedPattern = Pattern.compile("\"([^\"]+)\"");
-        Matcher matcher = quotedPattern.matcher(message);
-        if (matcher.find()) {
-            return matcher.group(1);
-        }
-        
-        // Look for "when is X" pattern
-        Pattern whenIsPattern = Pattern.compile("when is ([a-zA-ZığüşöçĞÜŞÖÇ\\s]+)");
-        matcher = whenIsPattern.matcher(message.toLowerCase());
-        if (matcher.find()) {
-            return matcher.group(1).trim();
-        }
-        
-        // Look for "tell me about X" pattern
-        Pattern tellMePattern = Pattern.compile("tell me about ([a-zA-ZığüşöçĞÜŞÖÇ\\s]+)");
-        matcher = tellMePattern.matcher(message.toLowerCase());
-        if (matcher.find()) {
-            return matcher.group(1).trim();
-        }
-        
-        // Look for "how long does X last" pattern
-        Pattern howLongPattern = Pattern.compile("how long does ([a-zA-ZığüşöçĞÜŞÖÇ\\s]+) last");
-        matcher = howLongPattern.matcher(message.toLowerCase());
-        if (matcher.find()) {
-            return matcher.group(1).trim();
-        }
-        
-        // Look for "X kaç gün" pattern (Turkish)
-        Pattern turkishDurationPattern = Pattern.compile("([a-zA-ZığüşöçĞÜŞÖÇ\\s]+) kaç gün");
-        matcher = turkishDurationPattern.matcher(message.toLowerCase());
-        if (matcher.find()) {
-            return matcher.group(1).trim();
-        }
-        
-        // Common holiday names that might appear without specific patterns
-        String lowerMessage = message.toLowerCase();
-        if (lowerMessage.contains("ramazan")) return "ramazan";
-        if (lowerMessage.contains("bayram")) return "bayram";
-        if (lowerMessage.contains("kurban")) return "kurban";
-        if (lowerMessage.contains("christmas")) return "christmas";
-        if (lowerMessage.contains("easter")) return "easter";
-        if (lowerMessage.contains("new year")) return "new year";
-        if (lowerMessage.contains("republic")) return "republic";
-        if (lowerMessage.contains("victory")) return "victory";
-        if (lowerMessage.contains("independence")) return "independence";
-        if (lowerMessage.contains("labour")) return "labour";
-        if (lowerMessage.contains("atatürk") || lowerMessage.contains("ataturk")) return "atatürk";
-        
-        return null;
-    }
-
-    private int extractYearFromMessage(String message) {
-        Pattern yearPattern = Pattern.compile("\\b(19|20)\\d{2}\\b");
-        Matcher matcher = yearPattern.matcher(message);
-        if (matcher.find()) {
-            return Integer.parseInt(matcher.group());
-        }
-        
-        if (message.toLowerCase().contains("next year")) {
-            return LocalDate.now().getYear() + 1;
-        }
-        
-        return -1; // Current year
-    }
-
-    private String analyzeDuration(HolidayDefinition holiday, String countryCode) {
+    private String analyzeDuration(CalendarEntry holiday) {
         // Enhanced duration analysis
-        String holidayName = holiday.getTemplate().getDefaultName().toLowerCase();
+        String holidayName = holiday.template().defaultName().toLowerCase();
         
         // Check for known multi-day holidays
         if (holidayName.contains("ramazan") || holidayName.contains("eid al-fitr") || 
@@ -1154,7 +1140,7 @@ public class HolidayAiService {
         }
         
         // Check if holiday falls on weekend and extends
-        int dayOfWeek = holiday.getHolidayDate().getDayOfWeek().getValue();
+        int dayOfWeek = holiday.date().getDayOfWeek().getValue();
         if (dayOfWeek == 6 || dayOfWeek == 7) { // Saturday or Sunday
             return " (falls on weekend)";
         } else if (dayOfWeek == 5) { // Friday
@@ -1261,60 +1247,6 @@ public class HolidayAiService {
         }
     }
 
-    private boolean containsMonthNames(String message) {
-        String lowerMessage = message.toLowerCase();
-        return lowerMessage.contains("january") || lowerMessage.contains("february") || 
-               lowerMessage.contains("march") || lowerMessage.contains("april") || 
-               lowerMessage.contains("may") || lowerMessage.contains("june") || 
-               lowerMessage.contains("july") || lowerMessage.contains("august") || 
-               lowerMessage.contains("september") || lowerMessage.contains("october") || 
-               lowerMessage.contains("november") || lowerMessage.contains("december") ||
-               lowerMessage.contains("ocak") || lowerMessage.contains("şubat") || 
-               lowerMessage.contains("mart") || lowerMessage.contains("nisan") || 
-               lowerMessage.contains("mayıs") || lowerMessage.contains("haziran") || 
-               lowerMessage.contains("temmuz") || lowerMessage.contains("ağustos") || 
-               lowerMessage.contains("eylül") || lowerMessage.contains("ekim") || 
-               lowerMessage.contains("kasım") || lowerMessage.contains("aralık");
-    }
-
-    private int[] extractMonthRange(String message) {
-        String lowerMessage = message.toLowerCase();
-        
-        // Map month names to numbers
-        Map<String, Integer> monthMap = Map.ofEntries(
-            Map.entry("january", 1), Map.entry("ocak", 1),
-            Map.entry("february", 2), Map.entry("şubat", 2),
-            Map.entry("march", 3), Map.entry("mart", 3),
-            Map.entry("april", 4), Map.entry("nisan", 4),
-            Map.entry("may", 5), Map.entry("mayıs", 5),
-            Map.entry("june", 6), Map.entry("haziran", 6),
-            Map.entry("july", 7), Map.entry("temmuz", 7),
-            Map.entry("august", 8), Map.entry("ağustos", 8),
-            Map.entry("september", 9), Map.entry("eylül", 9),
-            Map.entry("october", 10), Map.entry("ekim", 10),
-            Map.entry("november", 11), Map.entry("kasım", 11),
-            Map.entry("december", 12), Map.entry("aralık", 12)
-        );
-        
-        List<Integer> foundMonths = new ArrayList<>();
-        for (Map.Entry<String, Integer> entry : monthMap.entrySet()) {
-            if (lowerMessage.contains(entry.getKey())) {
-                foundMonths.add(entry.getValue());
-            }
-        }
-        
-        if (foundMonths.size() >= 2) {
-            foundMonths.sort(Integer::compareTo);
-            return new int[]{foundMonths.get(0), foundMonths.get(foundMonths.size() - 1)};
-        } else if (foundMonths.size() == 1) {
-            // Single month specified
-            int month = foundMonths.get(0);
-            return new int[]{month, month};
-        }
-        
-        return null;
-    }
-
     private List<HolidayDefinition> filterHolidaysByType(List<HolidayDefinition> holidays, String requestedType, String language) {
         if (requestedType == null) {
             return holidays;
@@ -1451,63 +1383,20 @@ public class HolidayAiService {
             "Üzgünüm, isteğinizi işlerken bir hata oluştu. Lütfen tekrar deneyin veya sorunuzu yeniden ifade edin.");
     }
 
-    private HolidayCreationInfo extractHolidayCreationInfo(String message, String language) {
-        // Extract holiday name (look for quoted text or patterns like "called X" or "named X")
-        String holidayName = extractHolidayNameFromCreationMessage(message);
+    private HolidayCreationInfo extractHolidayCreationInfo(Analysis message) {
+        // Holiday name comes from quoted text or patterns like "called X" or "named X"
+        String holidayName = message.creationName();
         if (holidayName == null) {
             return null;
         }
         
-        // Extract date
-        LocalDate holidayDate = extractDateFromCreationMessage(message);
+        LocalDate holidayDate = message.creationDate();
         if (holidayDate == null) {
             return null;
         }
         
-        // Extract audience (optional)
-        String audience = extractAudienceFromMessage(message, language);
-        
-        return new HolidayCreationInfo(holidayName, holidayDate, audience);
-    }
-
-    private String extractHolidayNameFromCreationMessage(String message) {
-        // Look for quoted text first
-        Pattern quotedPattern = Pattern.compile("[\"\']([^\"\']+)[\"\']");
-        Matcher quotedMatcher = quotedPattern.matcher(message);
-        if (quotedMatcher.find()) {
-            return quotedMatcher.group(1);
-        }
-        
-        // Look for patterns like "called X" or "named X"
-        Pattern calledPattern = Pattern.compile("(?:called|named)\\s+([A-Za-z0-9\\s]+?)(?:\\s+for|\\s+on|\\s+in|$)", Pattern.CASE_INSENSITIVE);
-        Matcher calledMatcher = calledPattern.matcher(message);
-        if (calledMatcher.find()) {
-            return calledMatcher.group(1).trim();
-        }
-        
-        return null;
-    }
-
-    private LocalDate extractDateFromCreationMessage(String message) {
-        String lowerMessage = message.toLowerCase();
-        
-        // Check for "today"
-        if (lowerMessage.contains("today") || lowerMessage.contains("bugün")) {
-            return LocalDate.now();
-        }
-        
-        // Check for "tomorrow"
-        if (lowerMessage.contains("tomorrow") || lowerMessage.contains("yarın")) {
-            return LocalDate.now().plusDays(1);
-        }
-        
-        // Try to extract dates using existing method
-        List<LocalDate> dates = extractDatesFromMessage(message);
-        if (!dates.isEmpty()) {
-            return dates.get(0);
-        }
-        
-        return null;
+        // Audience is optional
+        return new HolidayCreationInfo(holidayName, holidayDate, message.audience());
     }
 
     private HolidayDefinition createHolidayFromInfo(HolidayCreationInfo info, String countryCode) {
@@ -1546,10 +1435,10 @@ public class HolidayAiService {
         // Handle audience association if specified
         if (info.audience != null) {
             // Find the audience in the database with flexible matching
-            Audience audience = audienceService.getAllAudiences().stream()
+            AudienceDto match = referenceData.audiences("en").stream()
                 .filter(a -> 
                     a.getCode().equalsIgnoreCase(info.audience) || 
-                    a.getAudienceName().equalsIgnoreCase(info.audience) ||
+                    info.audience.equalsIgnoreCase(a.getName()) ||
                     // Handle common variations
                     (info.audience.equalsIgnoreCase("general public") && a.getCode().equalsIgnoreCase("general")) ||
                     (info.audience.equalsIgnoreCase("government employees") && a.getCode().equalsIgnoreCase("government"))
@@ -1557,19 +1446,24 @@ public class HolidayAiService {
                 .findFirst()
                 .orElse(null);
             
-            if (audience != null) {
+            if (match != null) {
+                Audience audience = audienceService.getReference(match.getCode());
                 // Create the holiday-audience association
                 HolidayAudience holidayAudience = new HolidayAudience();
                 holidayAudience.setDefinition(holidayDefinition);
                 holidayAudience.setAudience(audience);
                 holidayAudienceRepository.save(holidayAudience);
+                // The definition itself was announced before it had an audience
+                changeEventBus.publish(new DomainChangeEvent(DomainChangeEvent.EntityType.HOLIDAY_AUDIENCE,
+                    Set.of(String.valueOf(holidayDefinition.getId())), Set.of(),
+                    holidayDefinition.getHolidayDate(), holidayDefinition.getHolidayDate()));
                 
                 System.out.println("DEBUG: Successfully created holiday-audience association for audience: " + audience.getCode());
             } else {
                 System.out.println("DEBUG: Could not find matching audience for: " + info.audience);
                 // List available audiences for debugging
-                audienceService.getAllAudiences().forEach(a -> 
-                    System.out.println("  Available audience: " + a.getCode() + " (" + a.getAudienceName() + ")")
+                referenceData.audiences("en").forEach(a -> 
+                    System.out.println("  Available audience: " + a.getCode() + " (" + a.getName() + ")")
                 );
             }
         }
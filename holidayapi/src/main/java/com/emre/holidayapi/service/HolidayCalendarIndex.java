@@ -0,0 +1,290 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.repository.HolidayAudienceRepository;
+import com.emre.holidayapi.repository.HolidayDefinitionRepository;
+import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.repository.TranslationRepository;
+import com.emre.holidayapi.service.CalendarSnapshot.CountryCalendar;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+// In-memory calendar of every holiday per country, loaded with a handful of bulk queries and
+// swapped atomically whenever holiday data changes.
+@Service
+@Lazy(false)
+public class HolidayCalendarIndex {
+    private static final Logger log = LoggerFactory.getLogger(HolidayCalendarIndex.class);
+    public static final int MAX_LOOKUP_COUNT = 50;
+
+    private final HolidayDefinitionRepository holidayDefinitionRepository;
+    private final HolidayTemplateRepository holidayTemplateRepository;
+    private final TranslationRepository translationRepository;
+    private final HolidayAudienceRepository holidayAudienceRepository;
+    private final CalendarSnapshotStore snapshotStore;
+    private final AtomicReference<CalendarSnapshot> snapshot = new AtomicReference<>();
+
+    public HolidayCalendarIndex(HolidayDefinitionRepository holidayDefinitionRepository,
+                                HolidayTemplateRepository holidayTemplateRepository,
+                                TranslationRepository translationRepository,
+                                HolidayAudienceRepository holidayAudienceRepository,
+                                CalendarSnapshotStore snapshotStore) {
+        this.holidayDefinitionRepository = holidayDefinitionRepository;
+        this.holidayTemplateRepository = holidayTemplateRepository;
+        this.translationRepository = translationRepository;
+        this.holidayAudienceRepository = holidayAudienceRepository;
+        this.snapshotStore = snapshotStore;
+    }
+
+    // Serve from the last saved snapshot until the database has been read once
+    @PostConstruct
+    public void warmStart() {
+        snapshotStore.load().ifPresent(loaded -> snapshot.compareAndSet(null, loaded));
+    }
+
+    // Refresh in the background so startup never waits on the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshAfterStartup() {
+        if (snapshot.get() == null) {
+            return;
+        }
+        Thread refresher = new Thread(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.error("Calendar refresh failed, still serving the saved snapshot", e);
+            }
+        }, "calendar-index-refresh");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        snapshotStore.save(snapshot.get());
+    }
+
+    // Holidays on or after the given date, earliest first
+    public List<CalendarEntry> next(String countryCode, String audienceCode, LocalDate from, int count) {
+        return current().next(countryCode, AudienceFilter.of(audienceCode), from, clamp(count));
+    }
+
+    // Holidays strictly before the given date, latest first
+    public List<CalendarEntry> previous(String countryCode, String audienceCode, LocalDate before, int count) {
+        return current().previous(countryCode, AudienceFilter.of(audienceCode), before, clamp(count));
+    }
+
+    // Holidays between the two dates inclusive; audience filters are bitmask tests, no join table involved
+    public List<CalendarEntry> range(String countryCode, AudienceFilter audiences, LocalDate start, LocalDate end) {
+        return current().range(countryCode, audiences, start, end);
+    }
+
+    // Working days are weekdays that are not a holiday for the country (and audience, when given)
+    public LocalDate addBusinessDays(String countryCode, String audienceCode, LocalDate date, long days) {
+        return current().businessCalendar(countryCode, AudienceFilter.of(audienceCode)).addBusinessDays(date, days);
+    }
+
+    public boolean isBusinessDay(String countryCode, String audienceCode, LocalDate date) {
+        return current().businessCalendar(countryCode, AudienceFilter.of(audienceCode)).isBusinessDay(date);
+    }
+
+    public List<CalendarEntry> entries(String countryCode) {
+        return current().entries(countryCode);
+    }
+
+    public String nameOf(TemplateInfo template, String language) {
+        return current().nameOf(template, language);
+    }
+
+    // Audience codes of a definition as of the current snapshot
+    public Set<String> audiencesOf(long definitionId) {
+        return current().audiencesByDefinition().getOrDefault(definitionId, Set.of());
+    }
+
+    // Holiday edits with known countries only re-read those countries' rows and the touched
+    // definitions' audiences; every other change (templates, translations, audiences) reloads it all
+    @EventListener
+    public synchronized void onHolidayChanged(DomainChangeEvent event) {
+        CalendarSnapshot current = snapshot.get();
+        if (current == null) {
+            // Nothing loaded yet, so the first read will see the committed change anyway
+            return;
+        }
+        Set<Long> definitionIds = parseIds(event.ids());
+        boolean targeted = definitionIds != null && switch (event.entityType()) {
+            case HOLIDAY -> !event.countryCodes().isEmpty();
+            case HOLIDAY_AUDIENCE -> true;
+            default -> false;
+        };
+        if (!targeted) {
+            reload();
+            return;
+        }
+        CalendarSnapshot refreshed = refresh(current, event, definitionIds);
+        snapshot.set(refreshed);
+        snapshotStore.save(refreshed);
+    }
+
+    public synchronized void reload() {
+        CalendarSnapshot loaded = load();
+        snapshot.set(loaded);
+        snapshotStore.save(loaded);
+    }
+
+    CalendarSnapshot current() {
+        CalendarSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot.get();
+            if (current == null) {
+                current = load();
+                snapshot.set(current);
+                snapshotStore.save(current);
+            }
+            return current;
+        }
+    }
+
+    private CalendarSnapshot load() {
+        Map<Long, Set<String>> audiencesByDefinition = new HashMap<>();
+        for (Object[] row : holidayAudienceRepository.findAllAudienceCodes()) {
+            audiencesByDefinition.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+
+        Map<String, CountryCalendar> countries = new HashMap<>();
+        putCountries(countries, holidayDefinitionRepository.findCalendarRows());
+
+        return new CalendarSnapshot(Map.copyOf(countries), loadTemplates(), loadTranslations(),
+            copyAudiences(audiencesByDefinition));
+    }
+
+    private Map<Long, TemplateInfo> loadTemplates() {
+        Map<Long, TemplateInfo> templates = new HashMap<>();
+        for (HolidayTemplate template : holidayTemplateRepository.findAll()) {
+            templates.put(template.getId(), new TemplateInfo(template.getId(), template.getCode(),
+                template.getDefaultName(), template.getType()));
+        }
+        return Map.copyOf(templates);
+    }
+
+    private Map<Long, Map<String, String>> loadTranslations() {
+        Map<Long, Map<String, String>> translations = new HashMap<>();
+        for (Object[] row : translationRepository.findAllNames()) {
+            translations.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put((String) row[1], (String) row[2]);
+        }
+        return copyTranslations(translations);
+    }
+
+    private CalendarSnapshot refresh(CalendarSnapshot current, DomainChangeEvent event, Set<Long> definitionIds) {
+        // Untouched countries keep their CountryCalendar instances, which lets downstream caches keep their entries
+        Map<String, CountryCalendar> countries = new HashMap<>(current.countries());
+        if (event.entityType() == DomainChangeEvent.EntityType.HOLIDAY) {
+            countries.keySet().removeAll(event.countryCodes());
+            putCountries(countries, InLists.query(event.countryCodes(), holidayDefinitionRepository::findCalendarRowsByCountryCodes));
+        }
+
+        Map<Long, Set<String>> audiencesByDefinition = current.audiencesByDefinition();
+        if (!definitionIds.isEmpty()) {
+            Map<Long, Set<String>> audiences = new HashMap<>(audiencesByDefinition);
+            audiences.keySet().removeAll(definitionIds);
+            Map<Long, Set<String>> loaded = new HashMap<>();
+            for (Object[] row : InLists.query(definitionIds, holidayAudienceRepository::findAudienceCodesByDefinitionIds)) {
+                loaded.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+            }
+            loaded.forEach((id, codes) -> audiences.put(id, Set.copyOf(codes)));
+            if (!audiences.equals(audiencesByDefinition)) {
+                audiencesByDefinition = Map.copyOf(audiences);
+            }
+        }
+
+        // A holiday on a template created after the last load needs the template and its names
+        Map<Long, TemplateInfo> known = current.templates();
+        boolean unknownTemplate = event.countryCodes().stream()
+            .map(countries::get)
+            .filter(Objects::nonNull)
+            .flatMap(calendar -> Arrays.stream(calendar.templateIds).boxed())
+            .anyMatch(id -> !known.containsKey(id));
+
+        return new CalendarSnapshot(Map.copyOf(countries),
+            unknownTemplate ? loadTemplates() : known,
+            unknownTemplate ? loadTranslations() : current.translations(),
+            audiencesByDefinition);
+    }
+
+    // Rows arrive ordered by country and date, so each country's arrays come out sorted
+    private static void putCountries(Map<String, CountryCalendar> countries, List<Object[]> rows) {
+        int start = 0;
+        while (start < rows.size()) {
+            String countryCode = (String) rows.get(start)[0];
+            int end = start;
+            while (end < rows.size() && countryCode.equals(rows.get(end)[0])) {
+                end++;
+            }
+            int[] epochDays = new int[end - start];
+            long[] definitionIds = new long[end - start];
+            long[] templateIds = new long[end - start];
+            for (int i = start; i < end; i++) {
+                Object[] row = rows.get(i);
+                definitionIds[i - start] = (Long) row[1];
+                epochDays[i - start] = (int) ((LocalDate) row[2]).toEpochDay();
+                templateIds[i - start] = (Long) row[3];
+            }
+            countries.put(countryCode, new CountryCalendar(epochDays, definitionIds, templateIds));
+            start = end;
+        }
+    }
+
+    // Null when an id isn't a definition id, which sends the event down the full reload path
+    private static Set<Long> parseIds(Set<String> ids) {
+        Set<Long> parsed = new HashSet<>();
+        for (String id : ids) {
+            try {
+                parsed.add(Long.valueOf(id));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return parsed;
+    }
+
+    private static int clamp(int count) {
+        return Math.max(1, Math.min(count, MAX_LOOKUP_COUNT));
+    }
+
+    private static Map<Long, Map<String, String>> copyTranslations(Map<Long, Map<String, String>> source) {
+        Map<Long, Map<String, String>> copy = new HashMap<>();
+        source.forEach((key, value) -> copy.put(key, Map.copyOf(value)));
+        return Map.copyOf(copy);
+    }
+
+    private static Map<Long, Set<String>> copyAudiences(Map<Long, Set<String>> source) {
+        Map<Long, Set<String>> copy = new HashMap<>();
+        source.forEach((key, value) -> copy.put(key, Set.copyOf(value)));
+        return Map.copyOf(copy);
+    }
+
+    public record TemplateInfo(long id, String code, String defaultName, String type) {
+    }
+
+    public record CalendarEntry(String countryCode, long definitionId, LocalDate date, TemplateInfo template) {
+    }
+}
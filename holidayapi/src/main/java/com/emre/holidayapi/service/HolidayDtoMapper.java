@@ -0,0 +1,110 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.dto.HolidayDto;
+import com.emre.holidayapi.model.HolidayDefinition;
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.model.Translation;
+import com.emre.holidayapi.repository.HolidayAudienceRepository;
+import com.emre.holidayapi.repository.TranslationRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Component
+public class HolidayDtoMapper {
+    private final TranslationRepository translationRepository;
+    private final HolidayAudienceRepository holidayAudienceRepository;
+    private final ReferenceDataRegistry referenceData;
+
+    public HolidayDtoMapper(TranslationRepository translationRepository,
+                            HolidayAudienceRepository holidayAudienceRepository,
+                            ReferenceDataRegistry referenceData) {
+        this.translationRepository = translationRepository;
+        this.holidayAudienceRepository = holidayAudienceRepository;
+        this.referenceData = referenceData;
+    }
+
+    public HolidayDto toDto(HolidayDefinition def, String countryCode, String language) {
+        return toDtos(List.of(def), countryCode, language).get(0);
+    }
+
+    // Names and audiences for the whole list come from one query each per 100 ids
+    public List<HolidayDto> toDtos(List<HolidayDefinition> defs, String countryCode, String language) {
+        return toDtos(Collections.singletonMap(countryCode, defs), language).get(countryCode);
+    }
+
+    // Same as above for results grouped by country; the map's iteration order is kept
+    public Map<String, List<HolidayDto>> toDtos(Map<String, List<HolidayDefinition>> byCountry, String language) {
+        Set<Long> definitionIds = new HashSet<>();
+        Set<Long> templateIds = new HashSet<>();
+        byCountry.values().forEach(defs -> defs.forEach(def -> {
+            definitionIds.add(def.getId());
+            templateIds.add(def.getTemplate().getId());
+        }));
+
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Set<String>> audienceCodes = new HashMap<>();
+        if (!definitionIds.isEmpty()) {
+            for (Object[] row : InLists.query(templateIds,
+                    ids -> translationRepository.findNamesByTemplateIdsAndLanguage(ids, language))) {
+                names.put((Long) row[0], (String) row[1]);
+            }
+            for (Object[] row : InLists.query(definitionIds, holidayAudienceRepository::findAudienceCodesByDefinitionIds)) {
+                audienceCodes.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+            }
+        }
+
+        Map<Set<String>, List<String>> audienceNames = new HashMap<>();
+        Map<String, List<HolidayDto>> result = new LinkedHashMap<>();
+        byCountry.forEach((countryCode, defs) -> result.put(countryCode, defs.stream()
+            .map(def -> toDto(def, countryCode,
+                names.getOrDefault(def.getTemplate().getId(), def.getTemplate().getDefaultName()),
+                audienceNames.computeIfAbsent(audienceCodes.getOrDefault(def.getId(), Set.of()),
+                    codes -> audienceNames(codes, language))))
+            .toList()));
+        return result;
+    }
+
+    // Used by callers that have already resolved names and audiences in bulk
+    public HolidayDto toDto(HolidayDefinition def, String countryCode, String name, List<String> audiences) {
+        HolidayDto dto = new HolidayDto();
+        dto.name = name;
+        dto.date = def.getHolidayDate().toString();
+        dto.countryCode = countryCode;
+        dto.type = def.getTemplate().getType();
+        dto.audiences = audiences;
+        return dto;
+    }
+
+    public HolidayDto toDto(HolidayCalendarIndex.CalendarEntry entry, String name, List<String> audiences) {
+        HolidayDto dto = new HolidayDto();
+        dto.name = name;
+        dto.date = entry.date().toString();
+        dto.countryCode = entry.countryCode();
+        dto.type = entry.template().type();
+        dto.audiences = audiences;
+        return dto;
+    }
+
+    public String getHolidayName(HolidayTemplate template, String language) {
+        // Try to get translation from database first
+        return translationRepository.findByTemplateIdAndLanguageCode(template.getId(), language)
+            .map(Translation::getTranslatedName)
+            .orElse(template.getDefaultName()); // Fallback to default name if no translation found
+    }
+
+    // Translated names for a holiday's audience codes, ordered by code so repeated calls agree
+    public List<String> audienceNames(Collection<String> audienceCodes, String language) {
+        return new TreeSet<>(audienceCodes).stream()
+            .map(code -> referenceData.audienceName(code, language))
+            .toList();
+    }
+}
@@ -0,0 +1,10 @@
+package com.emre.holidayapi.service;
+
+// Turns text into a vector for semantic holiday retrieval. Every call must return vectors of the same
+// length; they need not be normalized. Configured with holiday.ai.retrieval.embedder: "model" wraps the
+// Spring AI embedding model, "hashing" is the deterministic local HashingEmbedder
+@FunctionalInterface
+public interface HolidayEmbedder {
+
+    float[] embed(String text);
+}
@@ -0,0 +1,250 @@
+package com.emre.holidayapi.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Streams the denormalized holiday dataset (definition + template + country + translations + audiences)
+// from one forward-only query. Rows arrive ordered by definition and country, so only the record
+// currently being assembled is held in memory regardless of how many rows the export has.
+@Service
+public class HolidayExportService {
+    static final int FETCH_SIZE = 1000;
+    static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    static final String EXPORT_SQL = """
+        SELECT h.id, h.holiday_date, c.country_code, c.country_name, t.code, t.default_name, t.type,
+               tr.language_code, tr.translated_name, ha.audience_code
+        FROM holiday_definitions h
+        JOIN holiday_templates t ON t.id = h.template_id
+        JOIN country_holidays ch ON ch.template_id = t.id
+        JOIN countries c ON c.country_code = ch.country_code
+        LEFT JOIN translations tr ON tr.template_id = t.id
+        LEFT JOIN holiday_audiences ha ON ha.definition_id = h.id
+        WHERE h.holiday_date >= ? AND h.holiday_date <= ?
+        ORDER BY h.id, c.country_code
+        """;
+
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+    private static final String[] CSV_HEADER = {
+        "definition_id", "holiday_date", "country_code", "country_name", "template_code",
+        "default_name", "type", "audiences", "translations"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public HolidayExportService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static boolean isSupportedFormat(String format) {
+        return "csv".equalsIgnoreCase(format) || "ndjson".equalsIgnoreCase(format);
+    }
+
+    public void export(String format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        if (!isSupportedFormat(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        RecordWriter recordWriter = "csv".equalsIgnoreCase(format)
+            ? new CsvRecordWriter(writer)
+            : new NdjsonRecordWriter(writer, jsonFactory);
+
+        ExportRecord[] current = new ExportRecord[1];
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setDate(1, Date.valueOf(from != null ? from : EARLIEST));
+                statement.setDate(2, Date.valueOf(to != null ? to : LATEST));
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                long definitionId = rs.getLong(1);
+                String countryCode = rs.getString(3);
+                ExportRecord record = current[0];
+                if (record == null || record.definitionId != definitionId || !record.countryCode.equals(countryCode)) {
+                    if (record != null) {
+                        write(recordWriter, record);
+                    }
+                    record = new ExportRecord(definitionId, rs.getDate(2).toLocalDate(), countryCode, rs.getString(4),
+                        rs.getString(5), rs.getString(6), rs.getString(7));
+                    current[0] = record;
+                }
+                record.add(rs);
+            });
+            if (current[0] != null) {
+                recordWriter.write(current[0]);
+            }
+            recordWriter.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void write(RecordWriter recordWriter, ExportRecord record) {
+        try {
+            recordWriter.write(record);
+        } catch (IOException e) {
+            // Surfaces through JdbcTemplate's callback, which can't throw checked exceptions
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class ExportRecord {
+        final long definitionId;
+        final LocalDate holidayDate;
+        final String countryCode;
+        final String countryName;
+        final String templateCode;
+        final String defaultName;
+        final String type;
+        // Left joins repeat each translation once per audience (and vice versa), so both are de-duplicated here
+        final Map<String, String> translations = new TreeMap<>();
+        final Set<String> audiences = new TreeSet<>();
+
+        ExportRecord(long definitionId, LocalDate holidayDate, String countryCode, String countryName,
+                     String templateCode, String defaultName, String type) {
+            this.definitionId = definitionId;
+            this.holidayDate = holidayDate;
+            this.countryCode = countryCode;
+            this.countryName = countryName;
+            this.templateCode = templateCode;
+            this.defaultName = defaultName;
+            this.type = type;
+        }
+
+        void add(ResultSet rs) throws SQLException {
+            String language = rs.getString(8);
+            if (language != null) {
+                translations.put(language, rs.getString(9));
+            }
+            String audience = rs.getString(10);
+            if (audience != null) {
+                audiences.add(audience);
+            }
+        }
+    }
+
+    private interface RecordWriter {
+        void write(ExportRecord record) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRecordWriter implements RecordWriter {
+        private final Writer writer;
+
+        CsvRecordWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writeRow(CSV_HEADER);
+        }
+
+        @Override
+        public void write(ExportRecord record) throws IOException {
+            StringBuilder translations = new StringBuilder();
+            record.translations.forEach((language, name) -> {
+                if (translations.length() > 0) {
+                    translations.append('|');
+                }
+                translations.append(language).append('=').append(name);
+            });
+            writeRow(new String[]{
+                String.valueOf(record.definitionId), record.holidayDate.toString(), record.countryCode,
+                record.countryName, record.templateCode, record.defaultName, record.type,
+                String.join("|", record.audiences), translations.toString()
+            });
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeRow(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+
+    private static final class NdjsonRecordWriter implements RecordWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRecordWriter(Writer writer, JsonFactory jsonFactory) throws IOException {
+            this.writer = writer;
+            this.generator = jsonFactory.createGenerator(writer);
+            // Keep the underlying writer open; the servlet container owns the response stream
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Per-record flushes only drain the generator into the buffered writer, not the socket
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ExportRecord record) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("definitionId", record.definitionId);
+            generator.writeStringField("holidayDate", record.holidayDate.toString());
+            generator.writeStringField("countryCode", record.countryCode);
+            generator.writeStringField("countryName", record.countryName);
+            generator.writeStringField("templateCode", record.templateCode);
+            generator.writeStringField("defaultName", record.defaultName);
+            generator.writeStringField("type", record.type);
+            generator.writeArrayFieldStart("audiences");
+            for (String audience : record.audiences) {
+                generator.writeString(audience);
+            }
+            generator.writeEndArray();
+            generator.writeObjectFieldStart("translations");
+            for (Map.Entry<String, String> translation : record.translations.entrySet()) {
+                generator.writeStringField(translation.getKey(), translation.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
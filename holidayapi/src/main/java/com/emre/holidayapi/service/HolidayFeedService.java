@@ -0,0 +1,203 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.CalendarSnapshot.CountryCalendar;
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// iCalendar (RFC 5545) feeds generated from the calendar index. Rendered bytes are cached per parameter
+// set and tied to the parts of the snapshot they were built from, so a change to one country's holidays
+// leaves every other country's cached feeds in place. The cache is keyed only by parameters that change
+// the output and evicts the least recently used feed when full.
+@Service
+public class HolidayFeedService {
+    static final int MAX_CACHED_FEEDS = 1000;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final Map<String, CachedFeed> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedFeed> eldest) {
+            return size() > MAX_CACHED_FEEDS;
+        }
+    };
+
+    public HolidayFeedService(HolidayCalendarIndex holidayCalendarIndex) {
+        this.holidayCalendarIndex = holidayCalendarIndex;
+    }
+
+    public Feed getFeed(String countryCode, String audienceCode, String language, Set<Integer> years) {
+        CalendarSnapshot snapshot = holidayCalendarIndex.current();
+        String audience = audienceCode == null || audienceCode.isBlank() ? null : audienceCode.trim();
+        // Languages without any translation all render default names, so they share one entry
+        String nameLanguage = language != null && snapshot.hasLanguage(language) ? language : "";
+        CountryCalendar calendar = snapshot.countries().get(countryCode);
+        if (calendar == null || (audience != null && !snapshot.hasAudience(audience))
+            || (years != null && !withinCalendar(calendar, years))) {
+            // An empty calendar or years it doesn't cover; cheap to render and not worth a cache slot per made-up value
+            return render(snapshot, countryCode, audience, nameLanguage, years);
+        }
+
+        String key = countryCode + "|" + (audience == null ? "" : audience) + "|" + nameLanguage + "|"
+            + (years == null ? "" : years.stream().sorted().toList());
+        FeedSource source = FeedSource.of(snapshot, countryCode, audience);
+        CachedFeed cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null && cached.source().equals(source)) {
+            return cached.feed();
+        }
+        Feed feed = render(snapshot, countryCode, audience, nameLanguage, years);
+        if (cached != null && cached.feed().etag().equals(feed.etag())) {
+            // A change that didn't alter this feed: keep serving the old bytes so clients' ETags stay valid
+            feed = cached.feed();
+        }
+        synchronized (cache) {
+            cache.put(key, new CachedFeed(source, feed));
+        }
+        return feed;
+    }
+
+    // Only year sets inside the span of the country's holidays are cached, which bounds the possible keys
+    private static boolean withinCalendar(CountryCalendar calendar, Set<Integer> years) {
+        if (calendar.size() == 0) {
+            return years.isEmpty();
+        }
+        int first = LocalDate.ofEpochDay(calendar.epochDays[0]).getYear();
+        int last = LocalDate.ofEpochDay(calendar.epochDays[calendar.size() - 1]).getYear();
+        return years.stream().allMatch(year -> year >= first && year <= last);
+    }
+
+    int cachedFeeds() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private Feed render(CalendarSnapshot snapshot, String countryCode, String audienceCode, String language, Set<Integer> years) {
+        List<CalendarEntry> entries = snapshot.next(countryCode, AudienceFilter.of(audienceCode), LocalDate.MIN, Integer.MAX_VALUE);
+        String stamp = STAMP.format(Instant.now());
+
+        // The ETag hashes every line except DTSTAMP, so it only changes when the feed's content does
+        MessageDigest digest = sha256();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + entries.size() * 256);
+        try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            line(writer, digest, "BEGIN:VCALENDAR");
+            line(writer, digest, "VERSION:2.0");
+            line(writer, digest, "PRODID:-//Holiday API//Holiday Feed//EN");
+            line(writer, digest, "CALSCALE:GREGORIAN");
+            line(writer, digest, "METHOD:PUBLISH");
+            line(writer, digest, "X-WR-CALNAME:" + escape(countryCode + " holidays"));
+            for (CalendarEntry entry : entries) {
+                if (years != null && !years.isEmpty() && !years.contains(entry.date().getYear())) {
+                    continue;
+                }
+                line(writer, digest, "BEGIN:VEVENT");
+                line(writer, digest, "UID:holiday-" + entry.definitionId() + "-" + countryCode + "@holidayapi");
+                line(writer, null, "DTSTAMP:" + stamp);
+                line(writer, digest, "DTSTART;VALUE=DATE:" + DATE.format(entry.date()));
+                line(writer, digest, "DTEND;VALUE=DATE:" + DATE.format(entry.date().plusDays(1)));
+                line(writer, digest, "SUMMARY:" + escape(snapshot.nameOf(entry.template(), language)));
+                if (entry.template().type() != null) {
+                    line(writer, digest, "CATEGORIES:" + escape(entry.template().type()));
+                }
+                line(writer, digest, "TRANSP:TRANSPARENT");
+                line(writer, digest, "END:VEVENT");
+            }
+            line(writer, digest, "END:VCALENDAR");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Feed(bytes.toByteArray(), "\"" + HexFormat.of().formatHex(digest.digest()) + "\"");
+    }
+
+    // Content lines are CRLF-terminated and folded so no physical line exceeds 75 octets
+    private static void line(Writer writer, MessageDigest digest, String content) throws IOException {
+        if (digest != null) {
+            digest.update(content.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        int octets = 0;
+        int i = 0;
+        while (i < content.length()) {
+            int codePoint = content.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + width > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+            .replace(";", "\\;")
+            .replace(",", "\\,")
+            .replace("\r\n", "\\n")
+            .replace("\n", "\\n");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Feed(byte[] body, String etag) {
+    }
+
+    // Identity of everything a feed reads; audience sets only matter when the feed is filtered by one
+    private record FeedSource(CountryCalendar calendar, Map<Long, TemplateInfo> templates,
+                              Map<Long, Map<String, String>> translations, Map<Long, Set<String>> audiences) {
+        static FeedSource of(CalendarSnapshot snapshot, String countryCode, String audienceCode) {
+            return new FeedSource(snapshot.countries().get(countryCode), snapshot.templates(),
+                snapshot.translations(), audienceCode == null ? null : snapshot.audiencesByDefinition());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof FeedSource that && calendar == that.calendar && templates == that.templates
+                && translations == that.translations && audiences == that.audiences;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(calendar);
+        }
+    }
+
+    private record CachedFeed(FeedSource source, Feed feed) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Trigram index over every template's default name and translations, for fuzzy holiday-name search.
+// Names are folded with Turkish case rules and stripped of diacritics, so "İstanbul", "ISTANBUL" and
+// "istanbul" (or "Kurban Bayramı" and "kurban bayrami") index to the same trigrams.
+// The index follows the calendar snapshot: it is rebuilt whenever the templates or translations change.
+@Service
+public class HolidayNameIndex {
+    // A name matches when it shares at least this share of the query's trigrams
+    static final double MIN_SCORE = 0.6;
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final AtomicReference<Index> index = new AtomicReference<>();
+
+    public HolidayNameIndex(HolidayCalendarIndex holidayCalendarIndex) {
+        this.holidayCalendarIndex = holidayCalendarIndex;
+    }
+
+    // Holidays whose name matches the query, best match first and then by date. A null country searches all countries.
+    public List<CalendarEntry> search(String query, String countryCode, LocalDate from, LocalDate to, int limit) {
+        CalendarSnapshot snapshot = holidayCalendarIndex.current();
+        Map<Long, Double> scores = current(snapshot).score(query);
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+        Set<String> countries = countryCode != null && !countryCode.isBlank()
+            ? Set.of(countryCode)
+            : snapshot.countries().keySet();
+        List<CalendarEntry> matches = new ArrayList<>();
+        for (String country : countries) {
+            for (CalendarEntry entry : snapshot.range(country, AudienceFilter.NONE, from, to)) {
+                if (scores.containsKey(entry.template().id())) {
+                    matches.add(entry);
+                }
+            }
+        }
+        matches.sort(Comparator.<CalendarEntry>comparingDouble(entry -> -scores.get(entry.template().id()))
+            .thenComparing(CalendarEntry::date)
+            .thenComparing(CalendarEntry::countryCode));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    // Lower-cases with Turkish rules (I -> ı, İ -> i), then folds ı to i and drops diacritics and punctuation
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(TURKISH), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'ı') {
+                c = 'i';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                folded.append(c);
+                space = false;
+            } else if (!space) {
+                folded.append(' ');
+                space = true;
+            }
+        }
+        int length = folded.length();
+        return length > 0 && folded.charAt(length - 1) == ' ' ? folded.substring(0, length - 1) : folded.toString();
+    }
+
+    static Set<String> trigrams(String folded) {
+        String padded = " " + folded + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private Index current(CalendarSnapshot snapshot) {
+        Index current = index.get();
+        if (current != null && current.templates() == snapshot.templates()
+            && current.translations() == snapshot.translations()) {
+            return current;
+        }
+        synchronized (this) {
+            current = index.get();
+            if (current == null || current.templates() != snapshot.templates()
+                || current.translations() != snapshot.translations()) {
+                current = Index.build(snapshot.templates(), snapshot.translations());
+                index.set(current);
+            }
+            return current;
+        }
+    }
+
+    // names[i] is the folded form of one name of template templateIds[i]; postings map a trigram to name indexes
+    private record Index(Map<Long, TemplateInfo> templates, Map<Long, Map<String, String>> translations,
+                         long[] templateIds, String[] names, Map<String, int[]> postings) {
+
+        static Index build(Map<Long, TemplateInfo> templates, Map<Long, Map<String, String>> translations) {
+            List<Long> ids = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (TemplateInfo template : templates.values()) {
+                Set<String> folded = new LinkedHashSet<>();
+                if (template.defaultName() != null) {
+                    folded.add(fold(template.defaultName()));
+                }
+                translations.getOrDefault(template.id(), Map.of()).values().forEach(name -> folded.add(fold(name)));
+                for (String name : folded) {
+                    if (!name.isEmpty()) {
+                        ids.add(template.id());
+                        names.add(name);
+                    }
+                }
+            }
+
+            Map<String, List<Integer>> postingLists = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                for (String trigram : trigrams(names.get(i))) {
+                    postingLists.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+                }
+            }
+            Map<String, int[]> postings = new HashMap<>(postingLists.size() * 2);
+            postingLists.forEach((trigram, list) -> postings.put(trigram, list.stream().mapToInt(Integer::intValue).toArray()));
+
+            return new Index(templates, translations, ids.stream().mapToLong(Long::longValue).toArray(),
+                names.toArray(new String[0]), postings);
+        }
+
+        // Best score per template id: the share of query trigrams a name contains, plus one when the
+        // name contains the whole query, with a small bonus for names close to the query's length
+        Map<Long, Double> score(String query) {
+            String foldedQuery = query == null ? "" : fold(query);
+            if (foldedQuery.isEmpty()) {
+                return Map.of();
+            }
+            Set<String> queryTrigrams = trigrams(foldedQuery);
+            int[] hits = new int[names.length];
+            for (String trigram : queryTrigrams) {
+                for (int i : postings.getOrDefault(trigram, new int[0])) {
+                    hits[i]++;
+                }
+            }
+            Map<Long, Double> best = new HashMap<>();
+            for (int i = 0; i < hits.length; i++) {
+                double score = (double) hits[i] / queryTrigrams.size();
+                if (score < MIN_SCORE) {
+                    continue;
+                }
+                if (names[i].contains(foldedQuery)) {
+                    score += 1 + (double) foldedQuery.length() / names[i].length();
+                }
+                best.merge(templateIds[i], score, Math::max);
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import com.emre.holidayapi.service.MessageAnalyzer.Analysis;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Picks the holidays a chat question is about, so model prompts carry those instead of a fixed slice
+// of the calendar. Each holiday is one record: its template's names in every language and type, its
+// date, audiences and country. The text part is shared by all holidays of a template, so it is scored
+// once per template with BM25 and, when an embedder is configured, blended with embedding similarity.
+// Dates in the question narrow the records to that window; without them nearer holidays rank higher.
+// Like HolidayNameIndex, the text index is rebuilt whenever the snapshot's templates or translations change.
+@Service
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
+public class HolidayRetrievalIndex {
+    private static final Logger log = LoggerFactory.getLogger(HolidayRetrievalIndex.class);
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double AUDIENCE_BONUS = 0.5;
+    // Without dates in the question, a holiday today scores this much and one 30 days away half as much
+    private static final double NEARNESS_WEIGHT = 0.3;
+
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final HolidayEmbedder embedder;
+    private final double embeddingWeight;
+    private final int topK;
+    private final AtomicReference<Index> index = new AtomicReference<>();
+    // Template vectors by the text they were computed from, so a rebuild only embeds changed templates
+    private final Map<String, float[]> embeddings = new ConcurrentHashMap<>();
+
+    public HolidayRetrievalIndex(HolidayCalendarIndex holidayCalendarIndex,
+                                 Optional<HolidayEmbedder> embedder,
+                                 @Value("${holiday.ai.retrieval.embedding-weight:0.5}") double embeddingWeight,
+                                 @Value("${holiday.ai.retrieval.top-k:8}") int topK) {
+        if (embeddingWeight < 0 || embeddingWeight > 1 || topK < 1) {
+            throw new IllegalArgumentException("Retrieval embedding weight must be between 0 and 1 and top-k at least 1");
+        }
+        this.holidayCalendarIndex = holidayCalendarIndex;
+        this.embedder = embedder.orElse(null);
+        this.embeddingWeight = embeddingWeight;
+        this.topK = topK;
+    }
+
+    // The configured top-k for prompts
+    public List<CalendarEntry> retrieve(Analysis message, String countryCode) {
+        return retrieve(message, countryCode, topK);
+    }
+
+    // The country's holidays most relevant to the question, best first
+    public List<CalendarEntry> retrieve(Analysis message, String countryCode, int limit) {
+        CalendarSnapshot snapshot = holidayCalendarIndex.current();
+        Map<Long, Double> topical = normalize(current(snapshot).score(message.text()));
+        if (embedder != null && embeddingWeight > 0) {
+            blendEmbeddings(snapshot, message.text(), topical);
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate[] window = window(message, today);
+        boolean explicitWindow = window != null;
+        if (!explicitWindow) {
+            window = new LocalDate[]{today.minusDays(30), today.plusYears(1)};
+        }
+        Set<String> audiences = Set.copyOf(message.audienceCodes());
+
+        List<CalendarEntry> candidates = snapshot.range(countryCode, AudienceFilter.NONE, window[0], window[1]);
+        Map<CalendarEntry, Double> scores = new HashMap<>(candidates.size() * 2);
+        for (CalendarEntry entry : candidates) {
+            double score = topical.getOrDefault(entry.template().id(), 0.0);
+            if (!audiences.isEmpty()) {
+                for (String audience : snapshot.audiencesByDefinition().getOrDefault(entry.definitionId(), Set.of())) {
+                    if (audiences.contains(audience)) {
+                        score += AUDIENCE_BONUS;
+                        break;
+                    }
+                }
+            }
+            if (!explicitWindow) {
+                long days = ChronoUnit.DAYS.between(today, entry.date());
+                // Past holidays count as twice as far away as upcoming ones
+                score += NEARNESS_WEIGHT / (1 + (days < 0 ? -2 * days : days) / 30.0);
+            }
+            scores.put(entry, score);
+        }
+        candidates.sort(Comparator.<CalendarEntry>comparingDouble(entry -> -scores.get(entry))
+            .thenComparing(CalendarEntry::date));
+        return candidates.size() > limit ? List.copyOf(candidates.subList(0, limit)) : candidates;
+    }
+
+    // Dates first, then a year with its months, then months of the current year; null when the question has none
+    private static LocalDate[] window(Analysis message, LocalDate today) {
+        if (!message.dates().isEmpty()) {
+            LocalDate first = message.dates().get(0);
+            LocalDate last = message.dates().get(message.dates().size() - 1);
+            return first.isAfter(last) ? new LocalDate[]{last, first} : new LocalDate[]{first, last};
+        }
+        int year = message.requestedYear();
+        int[] months = message.monthRange();
+        if (year == -1 && months == null) {
+            return null;
+        }
+        if (year == -1) {
+            year = today.getYear();
+        }
+        if (months == null) {
+            return new LocalDate[]{LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)};
+        }
+        return new LocalDate[]{LocalDate.of(year, months[0], 1), YearMonth.of(year, months[1]).atEndOfMonth()};
+    }
+
+    // Scales lexical scores so the best match scores 1
+    private static Map<Long, Double> normalize(Map<Long, Double> scores) {
+        double best = scores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        if (best > 0) {
+            scores.replaceAll((templateId, score) -> score / best);
+        }
+        return scores;
+    }
+
+    // Mixes the lexical scores with the question's cosine similarity to each template; a failing
+    // embedder leaves the lexical scores as they are
+    private void blendEmbeddings(CalendarSnapshot snapshot, String question, Map<Long, Double> topical) {
+        try {
+            float[] query = embedder.embed(question);
+            Map<Long, Double> blended = new HashMap<>();
+            for (TemplateInfo template : snapshot.templates().values()) {
+                float[] vector = embeddings.computeIfAbsent(document(template, snapshot.translations()), embedder::embed);
+                double lexical = topical.getOrDefault(template.id(), 0.0);
+                double semantic = Math.max(0, cosine(query, vector));
+                blended.put(template.id(), (1 - embeddingWeight) * lexical + embeddingWeight * semantic);
+            }
+            topical.clear();
+            topical.putAll(blended);
+        } catch (RuntimeException e) {
+            log.warn("Holiday embedding failed, using lexical retrieval only: {}", e.getMessage());
+        }
+    }
+
+    static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / Math.sqrt(normA * normB);
+    }
+
+    // Every name of the template and its type, as one line of text
+    private static String document(TemplateInfo template, Map<Long, Map<String, String>> translations) {
+        Set<String> names = new LinkedHashSet<>();
+        if (template.defaultName() != null) {
+            names.add(template.defaultName());
+        }
+        names.addAll(translations.getOrDefault(template.id(), Map.of()).values());
+        return String.join(" / ", names) + (template.type() != null ? " (" + template.type() + ")" : "");
+    }
+
+    private Index current(CalendarSnapshot snapshot) {
+        Index current = index.get();
+        if (current != null && current.templates() == snapshot.templates()
+            && current.translations() == snapshot.translations()) {
+            return current;
+        }
+        synchronized (this) {
+            current = index.get();
+            if (current == null || current.templates() != snapshot.templates()
+                || current.translations() != snapshot.translations()) {
+                current = Index.build(snapshot.templates(), snapshot.translations());
+                index.set(current);
+                // Vectors of renamed or deleted templates are no longer reachable
+                Set<String> documents = new HashSet<>();
+                snapshot.templates().values().forEach(template -> documents.add(document(template, snapshot.translations())));
+                embeddings.keySet().retainAll(documents);
+            }
+            return current;
+        }
+    }
+
+    // BM25 over one document per template; postings map a folded term to template ids and term counts
+    private record Index(Map<Long, TemplateInfo> templates, Map<Long, Map<String, String>> translations,
+                         Map<String, Map<Long, Integer>> postings, Map<Long, Integer> lengths, double averageLength) {
+
+        static Index build(Map<Long, TemplateInfo> templates, Map<Long, Map<String, String>> translations) {
+            Map<String, Map<Long, Integer>> postings = new HashMap<>();
+            Map<Long, Integer> lengths = new HashMap<>(templates.size() * 2);
+            long totalLength = 0;
+            for (TemplateInfo template : templates.values()) {
+                String folded = HolidayNameIndex.fold(document(template, translations));
+                int length = 0;
+                for (String term : folded.split(" ")) {
+                    if (term.length() > 1) {
+                        postings.computeIfAbsent(term, key -> new HashMap<>()).merge(template.id(), 1, Integer::sum);
+                        length++;
+                    }
+                }
+                lengths.put(template.id(), length);
+                totalLength += length;
+            }
+            return new Index(templates, translations, postings, lengths,
+                templates.isEmpty() ? 0 : (double) totalLength / templates.size());
+        }
+
+        Map<Long, Double> score(String question) {
+            Map<Long, Double> scores = new HashMap<>();
+            Set<String> terms = new LinkedHashSet<>(List.of(HolidayNameIndex.fold(question).split(" ")));
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (term.length() < 2 || posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (templates.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((templateId, count) -> {
+                    double norm = K1 * (1 - B + B * lengths.get(templateId) / averageLength);
+                    scores.merge(templateId, idf * count * (K1 + 1) / (count + norm), Double::sum);
+                });
+            }
+            return scores;
+        }
+    }
+}
@@ -2,17 +2,30 @@ package com.emre.holidayapi.service;
 
 import com.emre.holidayapi.model.HolidayDefinition;
 import com.emre.holidayapi.repository.HolidayDefinitionRepository;
+import com.emre.holidayapi.service.DomainChangeEvent.EntityType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 public class HolidayService {
+    // Larger requests are split into IN lists of this size and run in parallel
+    static final int COUNTRY_BATCH_SIZE = InLists.BATCH_SIZE;
+
     private final HolidayDefinitionRepository repository;
+    private final ChangeEventBus changeEventBus;
 
-    public HolidayService(HolidayDefinitionRepository repository) {
+    public HolidayService(HolidayDefinitionRepository repository, ChangeEventBus changeEventBus) {
         this.repository = repository;
+        this.changeEventBus = changeEventBus;
     }
 
     public List<HolidayDefinition> getAllHolidays() {
@@ -51,17 +64,57 @@ public class HolidayService {
         return repository.findById(id).orElse(null);
     }
 
+    @Transactional
     public HolidayDefinition createHoliday(HolidayDefinition holiday) {
-        return repository.save(holiday);
+        HolidayDefinition saved = repository.save(holiday);
+        publishChange(saved, null, Set.of());
+        return saved;
     }
 
+    @Transactional
     public HolidayDefinition updateHoliday(Long id, HolidayDefinition holiday) {
+        // The previous state matters too: moving a holiday away from today (or to another
+        // template's countries) must refresh whatever it used to appear in
+        HolidayDefinition previous = repository.findById(id).orElse(null);
+        LocalDate previousDate = previous != null ? previous.getHolidayDate() : null;
+        Set<String> previousCountries = countriesOf(previous);
         holiday.setId(id);
-        return repository.save(holiday);
+        HolidayDefinition saved = repository.save(holiday);
+        publishChange(saved, previousDate, previousCountries);
+        return saved;
     }
 
+    @Transactional
     public void deleteHoliday(Long id) {
+        HolidayDefinition previous = repository.findById(id).orElse(null);
         repository.deleteById(id);
+        if (previous != null) {
+            publishChange(previous, null, Set.of());
+        } else {
+            changeEventBus.publish(DomainChangeEvent.of(EntityType.HOLIDAY, Set.of(String.valueOf(id))));
+        }
+    }
+
+    private void publishChange(HolidayDefinition holiday, LocalDate previousDate, Set<String> previousCountries) {
+        Set<String> countries = new HashSet<>(countriesOf(holiday));
+        countries.addAll(previousCountries);
+        LocalDate date = holiday.getHolidayDate();
+        LocalDate from = date;
+        LocalDate to = date;
+        if (previousDate != null) {
+            from = from == null || previousDate.isBefore(from) ? previousDate : from;
+            to = to == null || previousDate.isAfter(to) ? previousDate : to;
+        }
+        changeEventBus.publish(new DomainChangeEvent(EntityType.HOLIDAY,
+            holiday.getId() != null ? Set.of(String.valueOf(holiday.getId())) : Set.of(), countries, from, to));
+    }
+
+    // An empty set means "unknown" and makes subscribers refresh every country
+    private Set<String> countriesOf(HolidayDefinition holiday) {
+        if (holiday == null || holiday.getTemplate() == null || holiday.getTemplate().getId() == null) {
+            return Set.of();
+        }
+        return Set.copyOf(repository.findCountryCodesByTemplateId(holiday.getTemplate().getId()));
     }
 
     public List<HolidayDefinition> getHolidaysByDate(LocalDate date) {
@@ -80,6 +133,32 @@ public class HolidayService {
         return repository.findByCountryCodeDateRangeAndAudience(countryCode, start, end, audienceCode);
     }
 
+    public Map<String, List<HolidayDefinition>> getHolidaysByCountriesAndDateRange(List<String> countryCodes, LocalDate start, LocalDate end, String audienceCode) {
+        List<List<String>> batches = InLists.batches(countryCodes);
+
+        List<Object[]> rows = (batches.size() > 1 ? batches.parallelStream() : batches.stream())
+            .flatMap(batch -> (audienceCode != null && !audienceCode.isEmpty()
+                ? repository.findByCountryCodesDateRangeAndAudience(batch, start, end, audienceCode)
+                : repository.findByCountryCodesAndDateRange(batch, start, end)).stream())
+            .toList();
+
+        // Preserve the requested country order and report countries without holidays as empty lists
+        Map<String, List<HolidayDefinition>> grouped = new LinkedHashMap<>();
+        countryCodes.forEach(code -> grouped.put(code, new ArrayList<>()));
+        return groupByCountry(rows, grouped);
+    }
+
+    public Map<String, List<HolidayDefinition>> getHolidaysWithCountryInRange(LocalDate start, LocalDate end) {
+        return groupByCountry(repository.findWithCountryByDateRange(start, end), new LinkedHashMap<>());
+    }
+
+    private Map<String, List<HolidayDefinition>> groupByCountry(List<Object[]> rows, Map<String, List<HolidayDefinition>> grouped) {
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent((String) row[0], code -> new ArrayList<>()).add((HolidayDefinition) row[1]);
+        }
+        return grouped;
+    }
+
     // Additional methods for AI service
     public List<HolidayDefinition> getHolidaysByDate(LocalDate date, String countryCode) {
         return repository.findByHolidayDateAndCountryCode(date, countryCode);
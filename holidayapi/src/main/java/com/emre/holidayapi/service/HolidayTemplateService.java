@@ -2,15 +2,19 @@ package com.emre.holidayapi.service;
 
 import com.emre.holidayapi.model.HolidayTemplate;
 import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.service.DomainChangeEvent.EntityType;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class HolidayTemplateService {
     private final HolidayTemplateRepository repository;
+    private final ChangeEventBus changeEventBus;
 
-    public HolidayTemplateService(HolidayTemplateRepository repository) {
+    public HolidayTemplateService(HolidayTemplateRepository repository, ChangeEventBus changeEventBus) {
         this.repository = repository;
+        this.changeEventBus = changeEventBus;
     }
 
     public List<HolidayTemplate> getAllTemplates() {
@@ -18,7 +22,9 @@ public class HolidayTemplateService {
     }
 
     public HolidayTemplate createTemplate(HolidayTemplate template) {
-        return repository.save(template);
+        HolidayTemplate saved = repository.save(template);
+        changeEventBus.publish(DomainChangeEvent.of(EntityType.TEMPLATE, Set.of(String.valueOf(saved.getId()))));
+        return saved;
     }
 
     public HolidayTemplate findByCode(String code) {
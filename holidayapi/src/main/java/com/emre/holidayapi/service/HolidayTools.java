@@ -0,0 +1,225 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.model.HolidayDefinition;
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.ai.model.function.FunctionCallbackWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Typed functions the chat model can call in tool mode, so it asks for the holiday data a question
+// needs instead of being handed a dump of it. Every function answers for the country and language of
+// the conversation, which the model cannot change. Bad arguments come back as an error field the model
+// can read and correct rather than as an exception that would fail the whole call.
+@Component
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
+public class HolidayTools {
+    static final String HOLIDAYS_IN_RANGE = "holidaysInRange";
+    static final String WORKING_DAYS = "workingDays";
+    static final String NEXT_HOLIDAYS = "nextHolidays";
+    static final String VACATION_PLAN = "vacationPlan";
+    static final String HOLIDAYS_FOR_AUDIENCE = "holidaysForAudience";
+    // Keeps one tool result from growing the conversation more than a prompt section would
+    static final int MAX_HOLIDAYS = 40;
+    static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_NEXT = 10;
+
+    private final HolidayService holidayService;
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final HolidayAiService holidayAiService;
+    private final ReferenceDataRegistry referenceData;
+
+    public HolidayTools(HolidayService holidayService,
+                        HolidayCalendarIndex holidayCalendarIndex,
+                        HolidayAiService holidayAiService,
+                        ReferenceDataRegistry referenceData) {
+        this.holidayService = holidayService;
+        this.holidayCalendarIndex = holidayCalendarIndex;
+        this.holidayAiService = holidayAiService;
+        this.referenceData = referenceData;
+    }
+
+    public List<FunctionCallback> callbacks(String countryCode, String language) {
+        String audienceCodes = referenceData.audiences(language).stream()
+            .map(AudienceDto::getCode)
+            .collect(Collectors.joining(", "));
+        return List.of(
+            callback(HOLIDAYS_IN_RANGE, "Holidays between two dates inclusive, at most " + MAX_RANGE_DAYS + " days apart",
+                DateRange.class, range -> holidaysInRange(range, countryCode, language)),
+            callback(WORKING_DAYS, "Working days between two dates inclusive: weekdays that are not holidays",
+                DateRange.class, range -> workingDays(range, countryCode)),
+            callback(NEXT_HOLIDAYS, "The next holidays on or after a date",
+                NextHolidays.class, request -> nextHolidays(request, countryCode, language)),
+            callback(VACATION_PLAN, "Best periods to take a number of vacation days in a year, combined with holidays and weekends",
+                VacationRequest.class, request -> vacationPlan(request, countryCode, language)),
+            callback(HOLIDAYS_FOR_AUDIENCE, "Holidays between two dates that apply to one audience; audience codes: " + audienceCodes,
+                AudienceRange.class, range -> holidaysForAudience(range, countryCode, language)));
+    }
+
+    private static <I, O> FunctionCallback callback(String name, String description, Class<I> inputType, Function<I, O> function) {
+        return FunctionCallbackWrapper.builder(function)
+            .withName(name)
+            .withDescription(description)
+            .withInputType(inputType)
+            .build();
+    }
+
+    Holidays holidaysInRange(DateRange range, String countryCode, String language) {
+        try {
+            LocalDate[] dates = parse(range.from(), range.to());
+            return holidays(dates, holidayService.getHolidaysByDateRange(dates[0], dates[1], countryCode), language);
+        } catch (IllegalArgumentException e) {
+            return Holidays.failed(e.getMessage());
+        }
+    }
+
+    Holidays holidaysForAudience(AudienceRange range, String countryCode, String language) {
+        try {
+            if (range.audience() == null || range.audience().isBlank()) {
+                throw new IllegalArgumentException("audience is required");
+            }
+            LocalDate[] dates = parse(range.from(), range.to());
+            return holidays(dates, holidayService.getHolidaysByDateRangeAndAudience(dates[0], dates[1], countryCode,
+                range.audience().trim().toLowerCase()), language);
+        } catch (IllegalArgumentException e) {
+            return Holidays.failed(e.getMessage());
+        }
+    }
+
+    // A holiday counts once per date, and only when it falls on a weekday
+    WorkingDays workingDays(DateRange range, String countryCode) {
+        try {
+            LocalDate[] dates = parse(range.from(), range.to());
+            TreeSet<LocalDate> holidayWeekdays = new TreeSet<>();
+            for (HolidayDefinition holiday : holidayService.getHolidaysByDateRange(dates[0], dates[1], countryCode)) {
+                if (!isWeekend(holiday.getHolidayDate())) {
+                    holidayWeekdays.add(holiday.getHolidayDate());
+                }
+            }
+            int calendarDays = (int) ChronoUnit.DAYS.between(dates[0], dates[1]) + 1;
+            int weekendDays = 0;
+            for (LocalDate date = dates[0]; !date.isAfter(dates[1]); date = date.plusDays(1)) {
+                weekendDays += isWeekend(date) ? 1 : 0;
+            }
+            return new WorkingDays(dates[0].toString(), dates[1].toString(), calendarDays, weekendDays,
+                holidayWeekdays.size(), calendarDays - weekendDays - holidayWeekdays.size(), null);
+        } catch (IllegalArgumentException e) {
+            return new WorkingDays(range.from(), range.to(), 0, 0, 0, 0, e.getMessage());
+        }
+    }
+
+    // Answered from the in-memory calendar HolidayService's data is loaded into, so no date range is scanned
+    Holidays nextHolidays(NextHolidays request, String countryCode, String language) {
+        try {
+            LocalDate from = request.from() == null || request.from().isBlank() ? LocalDate.now() : date(request.from(), "from");
+            int count = request.count() == null ? 1 : Math.max(1, Math.min(MAX_NEXT, request.count()));
+            List<Holiday> holidays = holidayCalendarIndex.next(countryCode, null, from, count).stream()
+                .map(entry -> new Holiday(entry.date().toString(), holidayCalendarIndex.nameOf(entry.template(), language),
+                    entry.template().type()))
+                .toList();
+            return new Holidays(from.toString(), null, holidays, false, null);
+        } catch (IllegalArgumentException e) {
+            return Holidays.failed(e.getMessage());
+        }
+    }
+
+    VacationPlan vacationPlan(VacationRequest request, String countryCode, String language) {
+        try {
+            int year = request.year() != null ? request.year() : LocalDate.now().getYear();
+            return new VacationPlan(holidayAiService.planVacation(year, request.vacationDays(), countryCode, language), null);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return new VacationPlan(null, e.getMessage());
+        }
+    }
+
+    private Holidays holidays(LocalDate[] dates, List<HolidayDefinition> definitions, String language) {
+        List<Holiday> holidays = new ArrayList<>(Math.min(definitions.size(), MAX_HOLIDAYS));
+        definitions.stream()
+            .sorted(Comparator.comparing(HolidayDefinition::getHolidayDate))
+            .limit(MAX_HOLIDAYS)
+            .forEach(definition -> holidays.add(new Holiday(definition.getHolidayDate().toString(),
+                name(definition.getTemplate(), language), definition.getTemplate().getType())));
+        return new Holidays(dates[0].toString(), dates[1].toString(), holidays, definitions.size() > MAX_HOLIDAYS, null);
+    }
+
+    private String name(HolidayTemplate template, String language) {
+        return holidayCalendarIndex.nameOf(new HolidayCalendarIndex.TemplateInfo(template.getId(), template.getCode(),
+            template.getDefaultName(), template.getType()), language);
+    }
+
+    private static LocalDate[] parse(String from, String to) {
+        LocalDate start = date(from, "from");
+        LocalDate end = date(to, "to");
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("the range may span at most " + MAX_RANGE_DAYS + " days");
+        }
+        return new LocalDate[]{start, end};
+    }
+
+    private static LocalDate date(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(field + " must be an ISO date such as 2025-01-31");
+        }
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    public record DateRange(@JsonPropertyDescription("First day, ISO date such as 2025-01-01") String from,
+                            @JsonPropertyDescription("Last day inclusive, ISO date") String to) {
+    }
+
+    public record AudienceRange(@JsonPropertyDescription("Audience code") String audience,
+                                @JsonPropertyDescription("First day, ISO date such as 2025-01-01") String from,
+                                @JsonPropertyDescription("Last day inclusive, ISO date") String to) {
+    }
+
+    public record NextHolidays(@JsonPropertyDescription("ISO date to search from; today when empty") String from,
+                               @JsonPropertyDescription("How many holidays, 1 to 10; 1 when empty") Integer count) {
+    }
+
+    public record VacationRequest(@JsonPropertyDescription("Vacation days the user can take, 1 to " + HolidayAiService.MAX_VACATION_DAYS) int vacationDays,
+                                  @JsonPropertyDescription("Year to plan, " + HolidayAiService.MIN_PLAN_YEAR + " to "
+                                      + HolidayAiService.MAX_PLAN_YEAR + "; the current year when empty") Integer year) {
+    }
+
+    public record Holiday(String date, String name, String type) {
+    }
+
+    // truncated is set when more than MAX_HOLIDAYS matched and only the earliest are listed
+    public record Holidays(String from, String to, List<Holiday> holidays, boolean truncated, String error) {
+        static Holidays failed(String error) {
+            return new Holidays(null, null, List.of(), false, error);
+        }
+    }
+
+    public record WorkingDays(String from, String to, int calendarDays, int weekendDays, int holidaysOnWeekdays,
+                              int workingDays, String error) {
+    }
+
+    public record VacationPlan(String plan, String error) {
+    }
+}
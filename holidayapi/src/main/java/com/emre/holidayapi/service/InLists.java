@@ -0,0 +1,35 @@
+package com.emre.holidayapi.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// Splits id collections for IN (...) queries so no list comes near Oracle's 1000-expression limit
+final class InLists {
+    static final int BATCH_SIZE = 100;
+
+    private InLists() {
+    }
+
+    static <T> List<List<T>> batches(Collection<T> values) {
+        List<T> list = values instanceof List<T> ordered ? ordered : new ArrayList<>(values);
+        List<List<T>> batches = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += BATCH_SIZE) {
+            batches.add(list.subList(i, Math.min(i + BATCH_SIZE, list.size())));
+        }
+        return batches;
+    }
+
+    // Runs the query once per batch and concatenates the rows; small collections are passed through as they are
+    static <T, R> List<R> query(Collection<T> values, Function<Collection<T>, List<R>> query) {
+        if (values.size() <= BATCH_SIZE) {
+            return query.apply(values);
+        }
+        List<R> rows = new ArrayList<>();
+        for (List<T> batch : batches(values)) {
+            rows.addAll(query.apply(batch));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,21 @@
+package com.emre.holidayapi.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Default transport for single-node setups and tests: events go straight to this node's listeners
+@Component
+@ConditionalOnProperty(name = "holiday.events.transport", havingValue = "in-process", matchIfMissing = true)
+public class InProcessChangeEventTransport implements ChangeEventTransport {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InProcessChangeEventTransport(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void send(DomainChangeEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+}
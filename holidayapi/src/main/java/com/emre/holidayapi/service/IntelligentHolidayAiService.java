@@ -1,245 +1,211 @@
 package com.emre.holidayapi.service;
 
-import com.emre.holidayapi.model.*;
+import com.emre.holidayapi.config.ModelCircuitBreaker;
 import com.emre.holidayapi.repository.*;
 import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.service.MessageAnalyzer.Analysis;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
-import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 @Service
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
 public class IntelligentHolidayAiService {
+    static final String CONTEXT_MODE = "context";
+    static final String TOOLS_MODE = "tools";
 
     private final ChatClient chatClient;
     private final HolidayService holidayService;
-    private final AudienceService audienceService;
-    private final CountryRepository countryRepository;
+    private final ReferenceDataRegistry referenceData;
     private final TranslationRepository translationRepository;
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final PromptBuilder promptBuilder;
+    private final MessageAnalyzer messageAnalyzer;
+    private final HolidayRetrievalIndex holidayRetrievalIndex;
+    private final ModelCircuitBreaker modelCircuitBreaker;
+    private final HolidayAiService holidayAiService;
+    private final HolidayTools holidayTools;
+    private final boolean toolsMode;
 
     public IntelligentHolidayAiService(ChatClient.Builder chatClientBuilder, 
                            HolidayService holidayService, 
-                           AudienceService audienceService,
-                           CountryRepository countryRepository,
-                           TranslationRepository translationRepository) {
+                           ReferenceDataRegistry referenceData,
+                           TranslationRepository translationRepository,
+                           HolidayCalendarIndex holidayCalendarIndex,
+                           PromptBuilder promptBuilder,
+                           MessageAnalyzer messageAnalyzer,
+                           HolidayRetrievalIndex holidayRetrievalIndex,
+                           ModelCircuitBreaker modelCircuitBreaker,
+                           HolidayAiService holidayAiService,
+                           HolidayTools holidayTools,
+                           @Value("${holiday.ai.intelligent.mode:context}") String mode) {
+        if (!CONTEXT_MODE.equals(mode) && !TOOLS_MODE.equals(mode)) {
+            throw new IllegalArgumentException("holiday.ai.intelligent.mode must be context or tools, not " + mode);
+        }
         this.chatClient = chatClientBuilder.build();
         this.holidayService = holidayService;
-        this.audienceService = audienceService;
-        this.countryRepository = countryRepository;
+        this.referenceData = referenceData;
         this.translationRepository = translationRepository;
+        this.holidayCalendarIndex = holidayCalendarIndex;
+        this.promptBuilder = promptBuilder;
+        this.messageAnalyzer = messageAnalyzer;
+        this.holidayRetrievalIndex = holidayRetrievalIndex;
+        this.modelCircuitBreaker = modelCircuitBreaker;
+        this.holidayAiService = holidayAiService;
+        this.holidayTools = holidayTools;
+        this.toolsMode = TOOLS_MODE.equals(mode);
     }
 
     public String processHolidayQuery(String userMessage, String countryCode, String language) {
+        if (toolsMode) {
+            return processWithTools(userMessage, countryCode, language);
+        }
         try {
-            // Get context data
-            String holidayContext = buildHolidayContext(countryCode, language);
             String countryName = getCountryName(countryCode);
             String currentDate = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
             
-            // Create an intelligent system prompt
-            String systemPrompt = buildIntelligentSystemPrompt(language, countryName, currentDate);
-            
-            // Build the complete prompt with context
-            String fullPrompt = String.format("""
-                %s
-                
-                CURRENT HOLIDAY DATA FOR %s:
-                %s
-                
-                USER QUERY: "%s"
-                
-                Please provide a comprehensive, analytical response that demonstrates deep understanding and intellectual insight. 
-                Consider cultural significance, historical context, patterns, and implications.
-                """, systemPrompt, countryName.toUpperCase(), holidayContext, userMessage);
+            PromptBuilder.Draft draft = promptBuilder.draft("intelligent")
+                .required(buildIntelligentSystemPrompt(language, countryName, currentDate, false));
+            addHolidayContext(draft, countryCode, language, messageAnalyzer.analyze(userMessage, language));
+            String prompt = draft
+                .required(("tr".equals(language) ? "Kullanıcı sorusu: " : "User question: ") + userMessage)
+                .build()
+                .text();
 
-            return chatClient.prompt()
-                .user(fullPrompt)
-                .call()
-                .content();
+            // With the model down or slow, the rule-based assistant answers instead
+            return modelCircuitBreaker.call(
+                () -> chatClient.prompt(new Prompt(prompt)).call().content(),
+                () -> holidayAiService.answerWithoutModel(userMessage, countryCode, language));
                 
         } catch (Exception e) {
-            return getErrorMessage(language) + ": " + e.getMessage();
+            return getErrorMessage(language);
+        }
+    }
+
+    // Tool mode: the prompt carries no holiday data; the model calls HolidayTools for what the question needs
+    private String processWithTools(String userMessage, String countryCode, String language) {
+        try {
+            String prompt = promptBuilder.draft("tools")
+                .required(buildIntelligentSystemPrompt(language, getCountryName(countryCode),
+                    LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE), true))
+                .required("tr".equals(language)
+                    ? "Tatil verisini tahmin etme; gerekli tarihleri, tatilleri ve çalışma günlerini araçlarla sorgula."
+                    : "Do not guess holiday data; look up the dates, holidays and working days you need with the tools.")
+                .required(("tr".equals(language) ? "Kullanıcı sorusu: " : "User question: ") + userMessage)
+                .build()
+                .text();
+            FunctionCallback[] tools = holidayTools.callbacks(countryCode, language).toArray(new FunctionCallback[0]);
+
+            return modelCircuitBreaker.call(
+                () -> chatClient.prompt(new Prompt(prompt)).functions(tools).call().content(),
+                () -> holidayAiService.answerWithoutModel(userMessage, countryCode, language));
+        } catch (Exception e) {
+            return getErrorMessage(language);
         }
     }
 
-    private String buildIntelligentSystemPrompt(String language, String countryName, String currentDate) {
+    private String buildIntelligentSystemPrompt(String language, String countryName, String currentDate, boolean tools) {
         if ("tr".equals(language)) {
             return String.format("""
-                Sen bir tatil ve kültürel analiz uzmanısın. Sadece basit cevaplar vermek yerine, 
-                entelektüel derinlik ve analitik düşünce sergilemelisin.
-                
-                ENTELEKTÜEL YAKLAŞIM:
-                • Tatillerin kültürel, tarihsel ve sosyolojik bağlamını analiz et
-                • Kalıpları, eğilimleri ve derin anlamları keşfet
-                • Karşılaştırmalı analiz yap ve bağlantılar kur
-                • Eleştirel düşünce ve通察力 göster
-                • Sadece "ne" değil, "neden" ve "nasıl" sorularını yanıtla
-                
-                MEVCUT BİLGİLER:
-                • Ülke: %s
-                • Bugünün tarihi: %s
-                • Sen gelişmiş bir AI asistanısın, chatbot değil
-                
-                YANIT TARZI:
-                • Derinlemesine analiz ve通察
-                • Kültürel ve tarihsel bağlam
-                • Karşılaştırmalı perspektifler
-                • Pratik öneriler ve içgörüler
-                • Profesyonel ama sıcak bir ton
-                """, countryName, currentDate);
+                Sen %s için bir tatil ve kültür analistisin (bugün: %s). Sadece "ne" değil, "neden" ve "nasıl" \
+                sorularını da yanıtla: kültürel, tarihsel ve toplumsal bağlamı, kalıpları ve pratik önerileri ver. \
+                %s; profesyonel, sıcak ve öz bir dille Türkçe yanıt ver.""",
+                countryName, currentDate, tools ? "Tatil araçlarını kullan" : "Aşağıdaki tatil verilerini kullan");
         } else {
             return String.format("""
-                You are an expert cultural and holiday analyst with deep intellectual capabilities. 
-                Rather than providing simple chatbot responses, you should demonstrate sophisticated reasoning and analytical depth.
-                
-                INTELLECTUAL APPROACH:
-                • Analyze the cultural, historical, and sociological context of holidays
-                • Identify patterns, trends, and deeper meanings
-                • Provide comparative analysis and draw connections
-                • Show critical thinking and profound insights
-                • Answer not just "what" but "why" and "how"
-                
-                CURRENT CONTEXT:
-                • Country: %s
-                • Today's date: %s
-                • You are an advanced AI assistant, not a simple chatbot
-                
-                RESPONSE STYLE:
-                • In-depth analysis and insights
-                • Cultural and historical context
-                • Comparative perspectives
-                • Practical recommendations and wisdom
-                • Professional yet warm tone
-                """, countryName, currentDate);
+                You are a holiday and culture analyst for %s (today: %s). Answer the "why" and "how" as well as \
+                the "what": give cultural, historical and social context, patterns and practical advice. \
+                Use the %s and answer in English, professionally, warmly and concisely.""",
+                countryName, currentDate, tools ? "holiday tools" : "holiday data below");
         }
     }
 
-    private String buildHolidayContext(String countryCode, String language) {
-        StringBuilder context = new StringBuilder();
-        
+    // Today's holidays are always included, then the holidays retrieved for the question; the type
+    // breakdown and the audience list only when the question is about them. Without a question (pattern
+    // analysis) the last and next 30 days stand in for the retrieved holidays and every section is included.
+    private void addHolidayContext(PromptBuilder.Draft draft, String countryCode, String language, Analysis question) {
         try {
-            // Get current year holidays
-            List<HolidayDefinition> holidays = holidayService.getHolidaysByCountry(countryCode);
-            
-            // Get today's holidays
             LocalDate today = LocalDate.now();
-            List<HolidayDefinition> todayHolidays = holidays.stream()
-                .filter(h -> h.getHolidayDate().equals(today))
+            List<HolidayCalendarIndex.CalendarEntry> todayHolidays = holidayCalendarIndex
+                .next(countryCode, null, today, HolidayCalendarIndex.MAX_LOOKUP_COUNT).stream()
+                .filter(h -> h.date().equals(today))
                 .collect(Collectors.toList());
+            draft.section("Today's holidays (date|name|type):", holidayRows(todayHolidays, language));
             
-            // Get upcoming holidays (next 30 days)
-            LocalDate thirtyDaysLater = today.plusDays(30);
-            List<HolidayDefinition> upcomingHolidays = holidays.stream()
-                .filter(h -> h.getHolidayDate().isAfter(today) && h.getHolidayDate().isBefore(thirtyDaysLater))
-                .sorted((h1, h2) -> h1.getHolidayDate().compareTo(h2.getHolidayDate()))
-                .limit(5)
-                .collect(Collectors.toList());
-            
-            // Get recent holidays (past 30 days)
-            LocalDate thirtyDaysAgo = today.minusDays(30);
-            List<HolidayDefinition> recentHolidays = holidays.stream()
-                .filter(h -> h.getHolidayDate().isAfter(thirtyDaysAgo) && h.getHolidayDate().isBefore(today))
-                .sorted((h1, h2) -> h2.getHolidayDate().compareTo(h1.getHolidayDate()))
-                .limit(3)
-                .collect(Collectors.toList());
-            
-            // Build context
-            if (!todayHolidays.isEmpty()) {
-                context.append("TODAY'S HOLIDAYS:\n");
-                todayHolidays.forEach(h -> {
-                    context.append(String.format("- %s (Date: %s, Type: %s)\n", 
-                        getHolidayName(h.getTemplate(), language), 
-                        h.getHolidayDate(), 
-                        h.getTemplate().getType()));
-                });
-                context.append("\n");
+            if (question != null) {
+                List<HolidayCalendarIndex.CalendarEntry> relevantHolidays = holidayRetrievalIndex
+                    .retrieve(question, countryCode).stream()
+                    .filter(h -> !h.date().equals(today))
+                    .collect(Collectors.toList());
+                draft.section("Relevant holidays (date|name|type):", holidayRows(relevantHolidays, language));
+            } else {
+                // Binary searches over the country's calendar
+                LocalDate thirtyDaysLater = today.plusDays(30);
+                List<HolidayCalendarIndex.CalendarEntry> upcomingHolidays = holidayCalendarIndex
+                    .next(countryCode, null, today.plusDays(1), 5).stream()
+                    .filter(h -> h.date().isBefore(thirtyDaysLater))
+                    .collect(Collectors.toList());
+                draft.section("Upcoming holidays, next 30 days (date|name|type):", holidayRows(upcomingHolidays, language));
+
+                LocalDate thirtyDaysAgo = today.minusDays(30);
+                List<HolidayCalendarIndex.CalendarEntry> recentHolidays = holidayCalendarIndex
+                    .previous(countryCode, null, today, 3).stream()
+                    .filter(h -> h.date().isAfter(thirtyDaysAgo))
+                    .collect(Collectors.toList());
+                draft.section("Recent holidays, past 30 days (date|name|type):", holidayRows(recentHolidays, language));
             }
             
-            if (!upcomingHolidays.isEmpty()) {
-                context.append("UPCOMING HOLIDAYS (Next 30 days):\n");
-                upcomingHolidays.forEach(h -> {
-                    context.append(String.format("- %s (Date: %s, Type: %s)\n", 
-                        getHolidayName(h.getTemplate(), language), 
-                        h.getHolidayDate(), 
-                        h.getTemplate().getType()));
-                });
-                context.append("\n");
+            if (mentions(question, "how many", "most", "type", "statistic", "pattern", "trend", "kaç", "tür", "istatistik")) {
+                List<HolidayCalendarIndex.CalendarEntry> holidays = holidayCalendarIndex.entries(countryCode);
+                Map<String, Long> typeDistribution = holidays.stream()
+                    .filter(h -> h.template() != null && h.template().type() != null)
+                    .collect(Collectors.groupingBy(h -> h.template().type(), TreeMap::new, Collectors.counting()));
+                draft.section("Statistics:", List.of(
+                    "Total holidays in database: " + holidays.size(),
+                    "By type: " + typeDistribution.entrySet().stream()
+                        .map(e -> e.getKey() + "=" + e.getValue())
+                        .collect(Collectors.joining(", "))));
             }
             
-            if (!recentHolidays.isEmpty()) {
-                context.append("RECENT HOLIDAYS (Past 30 days):\n");
-                recentHolidays.forEach(h -> {
-                    context.append(String.format("- %s (Date: %s, Type: %s)\n", 
-                        getHolidayName(h.getTemplate(), language), 
-                        h.getHolidayDate(), 
-                        h.getTemplate().getType()));
-                });
-                context.append("\n");
+            if (question == null || question.audience() != null
+                || mentions(question, "audience", "employee", "öğrenci", "memur", "çalışan")) {
+                draft.section("Audiences:", List.of(referenceData.audiences(language).stream()
+                    .map(AudienceDto::getName)
+                    .collect(Collectors.joining(", "))));
             }
-            
-            // Add statistical context
-            context.append("STATISTICAL OVERVIEW:\n");
-            context.append(String.format("- Total holidays in database: %d\n", holidays.size()));
-            
-            Map<String, Long> typeDistribution = holidays.stream()
-                .filter(h -> h.getTemplate() != null && h.getTemplate().getType() != null)
-                .collect(Collectors.groupingBy(
-                    h -> h.getTemplate().getType(),
-                    Collectors.counting()
-                ));
-            
-            context.append("- Holiday types distribution:\n");
-            typeDistribution.forEach((type, count) -> {
-                context.append(String.format("  * %s: %d holidays\n", type, count));
-            });
-            
-            // Add audience information
-            try {
-                List<AudienceDto> audiences = audienceService.getAllAudiencesTranslated(language);
-                if (!audiences.isEmpty()) {
-                    context.append("\n- Available audience categories: ");
-                    context.append(audiences.stream()
-                        .map(AudienceDto::getName)
-                        .collect(Collectors.joining(", ")));
-                    context.append("\n");
-                }
-            } catch (Exception e) {
-                // Ignore audience errors
-            }
-            
         } catch (Exception e) {
-            context.append("Error retrieving holiday context: ").append(e.getMessage());
+            draft.section("Context:", List.of("Error retrieving holiday context: " + e.getMessage()));
         }
-        
-        return context.toString();
     }
 
-    private String getHolidayName(HolidayTemplate template, String language) {
-        if (template == null) return "Unknown Holiday";
-        
-        try {
-            // For now, return the default name since we need to check the Translation model structure
-            return template.getDefaultName() != null ? template.getDefaultName() : "Unknown Holiday";
-        } catch (Exception e) {
-            return template.getDefaultName() != null ? template.getDefaultName() : "Unknown Holiday";
+    private static boolean mentions(Analysis question, String... keywords) {
+        if (question == null) {
+            return true;
         }
+        for (String keyword : keywords) {
+            if (question.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> holidayRows(List<HolidayCalendarIndex.CalendarEntry> holidays, String language) {
+        return PromptBuilder.holidayRows(holidays, h -> holidayCalendarIndex.nameOf(h.template(), language));
     }
 
     private String getCountryName(String countryCode) {
         try {
-            return countryRepository.findByCountryCode(countryCode)
-                .map(Country::getCountryName)
-                .orElse(countryCode);
+            return referenceData.countryName(countryCode);
         } catch (Exception e) {
             return countryCode;
         }
@@ -251,68 +217,53 @@ public class IntelligentHolidayAiService {
             : "Sorry, an error occurred while processing your query";
     }
 
+    private String getUnavailableMessage(String language) {
+        return "tr".equals(language)
+            ? "Yapay zeka modeline şu anda ulaşılamıyor, lütfen biraz sonra tekrar deneyin"
+            : "The AI model is unavailable right now, please try again shortly";
+    }
+
     // Advanced query analysis methods
     public String analyzeHolidayPatterns(String countryCode, String language) {
-        String systemPrompt = buildAnalyticalPrompt(language, "holiday patterns and trends");
-        String holidayData = buildComprehensiveHolidayData(countryCode, language);
-        
-        String prompt = String.format("""
-            %s
-            
-            HOLIDAY DATA FOR ANALYSIS:
-            %s
-            
-            Please provide a sophisticated analysis of holiday patterns, cultural significance, 
-            seasonal distributions, and sociological implications. Include comparative insights 
-            and predictions about future trends.
-            """, systemPrompt, holidayData);
+        PromptBuilder.Draft draft = promptBuilder.draft("patterns")
+            .required(buildAnalyticalPrompt(language, "holiday patterns and trends"));
+        addHolidayContext(draft, countryCode, language, null);
+        String prompt = draft
+            .required("""
+                Analyze the holiday patterns above: cultural significance, seasonal distribution and \
+                sociological implications, with comparative insights and likely future trends.""")
+            .build()
+            .text();
 
-        return chatClient.prompt()
-            .user(prompt)
-            .call()
-            .content();
+        return modelCircuitBreaker.call(
+            () -> chatClient.prompt(new Prompt(prompt)).call().content(),
+            () -> getUnavailableMessage(language));
     }
 
     public String provideCulturalInsights(String holidayName, String countryCode, String language) {
-        String systemPrompt = buildAnalyticalPrompt(language, "cultural and historical analysis");
-        
-        String prompt = String.format("""
-            %s
-            
-            Please provide deep cultural and historical insights about the holiday "%s" in %s.
-            Include:
-            - Historical origins and evolution
-            - Cultural significance and symbolism
-            - Social and economic impact
-            - Comparative analysis with similar holidays in other cultures
-            - Modern adaptations and future outlook
-            """, systemPrompt, holidayName, getCountryName(countryCode));
+        String prompt = promptBuilder.draft("insights")
+            .required(buildAnalyticalPrompt(language, "cultural and historical analysis"))
+            .required(String.format("""
+                Give cultural and historical insights about the holiday "%s" in %s: origins and evolution, \
+                symbolism, social and economic impact, similar holidays in other cultures, and modern adaptations.""",
+                holidayName, getCountryName(countryCode)))
+            .build()
+            .text();
 
-        return chatClient.prompt()
-            .user(prompt)
-            .call()
-            .content();
+        return modelCircuitBreaker.call(
+            () -> chatClient.prompt(new Prompt(prompt)).call().content(),
+            () -> getUnavailableMessage(language));
     }
 
     private String buildAnalyticalPrompt(String language, String analysisType) {
         if ("tr".equals(language)) {
             return String.format("""
-                Sen bir kültürel antropolog ve tatil uzmanısın. %s konusunda derinlemesine 
-                entelektüel analiz yapman isteniyor. Akademik derinlik ve pratik içgörüleri 
-                harmanlayarak sofistike bir yaklaşım sergile.
-                """, analysisType);
+                Sen bir kültürel antropolog ve tatil uzmanısın. %s konusunda akademik derinliği \
+                pratik içgörülerle birleştiren bir analiz yap ve Türkçe yanıt ver.""", analysisType);
         } else {
             return String.format("""
-                You are a cultural anthropologist and holiday expert. You're asked to provide 
-                in-depth intellectual analysis on %s. Demonstrate academic depth combined with 
-                practical insights in a sophisticated approach.
-                """, analysisType);
+                You are a cultural anthropologist and holiday expert. Give an analysis of %s that \
+                combines academic depth with practical insight.""", analysisType);
         }
     }
-
-    private String buildComprehensiveHolidayData(String countryCode, String language) {
-        // This would build a more comprehensive dataset for analysis
-        // Similar to buildHolidayContext but with more statistical and analytical data
-        return buildHolidayContext(countryCode, language);
-    }
 }
@@ -0,0 +1,144 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.config.ReadWriteRoutingDataSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Multi-node transport: events are inserted into change_event_outbox inside the writing transaction
+// and every node polls the table. Rows are re-read for an overlap window so a transaction that commits
+// after a later one still gets picked up; delivered ids are remembered for that window to skip repeats.
+// Events from other nodes are handled with reads pinned to the primary: the write happened elsewhere,
+// so this node's lag window doesn't cover it and the replica may not have it yet.
+@Component
+@ConditionalOnProperty(name = "holiday.events.transport", havingValue = "jdbc-outbox")
+public class JdbcOutboxChangeEventTransport implements ChangeEventTransport {
+    private static final Logger log = LoggerFactory.getLogger(JdbcOutboxChangeEventTransport.class);
+    static final String INSERT_SQL = "INSERT INTO change_event_outbox (id, created_at, payload) VALUES (?, ?, ?)";
+    static final String POLL_SQL = "SELECT id, created_at, payload FROM change_event_outbox WHERE created_at >= ? ORDER BY created_at";
+    static final String PRUNE_SQL = "DELETE FROM change_event_outbox WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Duration overlap;
+    private final Duration retention;
+    private final Clock clock;
+    private final Map<String, LocalDateTime> delivered = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JdbcOutboxChangeEventTransport(JdbcTemplate jdbcTemplate,
+                                          ApplicationEventPublisher eventPublisher,
+                                          ObjectMapper objectMapper,
+                                          @Value("${holiday.events.outbox.overlap:30s}") Duration overlap,
+                                          @Value("${holiday.events.outbox.retention:1h}") Duration retention) {
+        this(jdbcTemplate, eventPublisher, objectMapper, overlap, retention, Clock.systemUTC());
+    }
+
+    JdbcOutboxChangeEventTransport(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                                   ObjectMapper objectMapper, Duration overlap, Duration retention, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.overlap = overlap;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+
+    @Override
+    public void send(DomainChangeEvent event) {
+        LocalDateTime createdAt = LocalDateTime.now(clock);
+        // Ids are assigned here rather than by the database so the sender knows which row to skip on its own poll
+        String id = UUID.randomUUID().toString();
+        jdbcTemplate.update(INSERT_SQL, id, Timestamp.valueOf(createdAt), serialize(event));
+
+        // This node doesn't wait for its own poll; other nodes pick the row up on their next one
+        Runnable deliverLocally = () -> {
+            if (delivered.putIfAbsent(id, createdAt) == null) {
+                eventPublisher.publishEvent(event);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliverLocally.run();
+                }
+            });
+        } else {
+            deliverLocally.run();
+        }
+    }
+
+    // Events written before this node started are already reflected in what it loads from the database
+    @PostConstruct
+    public void skipBacklog() {
+        jdbcTemplate.query(POLL_SQL, (RowCallbackHandler) rs -> {
+            delivered.put(rs.getString(1), rs.getTimestamp(2).toLocalDateTime());
+        }, Timestamp.valueOf(LocalDateTime.now(clock).minus(overlap)));
+    }
+
+    @Scheduled(fixedDelayString = "${holiday.events.outbox.poll-interval:2000}")
+    public void poll() {
+        LocalDateTime since = LocalDateTime.now(clock).minus(overlap);
+        jdbcTemplate.query(POLL_SQL, (RowCallbackHandler) rs -> {
+            String id = rs.getString(1);
+            LocalDateTime createdAt = rs.getTimestamp(2).toLocalDateTime();
+            if (delivered.putIfAbsent(id, createdAt) == null) {
+                DomainChangeEvent event = deserialize(id, rs.getString(3));
+                if (event != null) {
+                    ReadWriteRoutingDataSource.onPrimary(() -> eventPublisher.publishEvent(event));
+                }
+            }
+        }, Timestamp.valueOf(since));
+        delivered.values().removeIf(createdAt -> createdAt.isBefore(since));
+    }
+
+    @Scheduled(fixedDelayString = "${holiday.events.outbox.prune-interval:600000}")
+    public void prune() {
+        jdbcTemplate.update(PRUNE_SQL, Timestamp.valueOf(LocalDateTime.now(clock).minus(retention)));
+    }
+
+    private String serialize(DomainChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change event", e);
+        }
+    }
+
+    // An unreadable row (e.g. written by a newer version) is skipped rather than blocking the rest
+    private DomainChangeEvent deserialize(String id, String payload) {
+        try {
+            return objectMapper.readValue(payload, DomainChangeEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable change event {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.dto.AudienceDto;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Reads a chat message once and returns everything the rule-based handlers need from it: dates,
+// years, months, numbers with their unit, audience codes, quoted names and relative-day words.
+// All patterns and dictionaries are built once; the message is tokenized in a single regex pass.
+@Component
+public class MessageAnalyzer {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Single pass over the original text: dd/MM/yyyy dates, quoted names, numbers and words.
+    // A single quote only opens a name when it is not an apostrophe inside a word ("Teachers' Day").
+    private static final Pattern TOKENS = Pattern.compile(
+        "(?<date>\\b\\d{1,2}/\\d{1,2}/\\d{4}\\b)"
+            + "|\"(?<doubleQuoted>[^\"]+)\""
+            + "|(?<![\\p{L}\\d])'(?<singleQuoted>[^']+)'(?![\\p{L}\\d])"
+            + "|(?<number>\\d+)"
+            + "|(?<word>\\p{L}+)");
+
+    private static final Pattern CALLED = Pattern.compile(
+        "(?:called|named)\\s+([A-Za-z0-9\\s]+?)(?:\\s+for|\\s+on|\\s+in|$)", Pattern.CASE_INSENSITIVE);
+    private static final List<Pattern> HOLIDAY_NAME_PATTERNS = List.of(
+        Pattern.compile("when is ([a-zA-ZığüşöçĞÜŞÖÇ\\s]+)"),
+        Pattern.compile("tell me about ([a-zA-ZığüşöçĞÜŞÖÇ\\s]+)"),
+        Pattern.compile("how long does ([a-zA-ZığüşöçĞÜŞÖÇ\\s]+) last"),
+        Pattern.compile("([a-zA-ZığüşöçĞÜŞÖÇ\\s]+) kaç gün"));
+    // Checked in order when no phrase pattern matches; the value is the name to search for
+    private static final List<Map.Entry<String, String>> HOLIDAY_NAME_KEYWORDS = List.of(
+        Map.entry("ramazan", "ramazan"), Map.entry("bayram", "bayram"), Map.entry("kurban", "kurban"),
+        Map.entry("christmas", "christmas"), Map.entry("easter", "easter"), Map.entry("new year", "new year"),
+        Map.entry("republic", "republic"), Map.entry("victory", "victory"), Map.entry("independence", "independence"),
+        Map.entry("labour", "labour"), Map.entry("atatürk", "atatürk"), Map.entry("ataturk", "atatürk"));
+
+    // English month names must match a whole word ("may" but not "maybe"); Turkish ones take suffixes ("haziranda")
+    private static final Map<String, Integer> ENGLISH_MONTHS = Map.ofEntries(
+        Map.entry("january", 1), Map.entry("february", 2), Map.entry("march", 3), Map.entry("april", 4),
+        Map.entry("may", 5), Map.entry("june", 6), Map.entry("july", 7), Map.entry("august", 8),
+        Map.entry("september", 9), Map.entry("october", 10), Map.entry("november", 11), Map.entry("december", 12));
+    private static final List<Map.Entry<String, Integer>> TURKISH_MONTHS = List.of(
+        Map.entry("ocak", 1), Map.entry("şubat", 2), Map.entry("mart", 3), Map.entry("nisan", 4),
+        Map.entry("mayıs", 5), Map.entry("haziran", 6), Map.entry("temmuz", 7), Map.entry("ağustos", 8),
+        Map.entry("eylül", 9), Map.entry("ekim", 10), Map.entry("kasım", 11), Map.entry("aralık", 12));
+
+    private static final Set<String> DAY_WORDS = Set.of("day", "days");
+    private static final Set<String> UNIT_QUALIFIERS = Set.of("vacation", "izin");
+    private static final Set<String> LIMIT_WORDS = Set.of("maximum", "maksimum", "take", "kullanabilirim");
+    // Used when none of the stored audience names or codes appear in the message
+    private static final List<Map.Entry<String, String>> AUDIENCE_KEYWORDS = List.of(
+        Map.entry("student", "students"), Map.entry("government", "government"), Map.entry("private", "private_sector"));
+
+    private final ReferenceDataRegistry referenceData;
+
+    public MessageAnalyzer(ReferenceDataRegistry referenceData) {
+        this.referenceData = referenceData;
+    }
+
+    public Analysis analyze(String message, String language) {
+        String lower = message.toLowerCase();
+        List<LocalDate> dates = new ArrayList<>();
+        List<Integer> years = new ArrayList<>();
+        Set<Integer> months = new TreeSet<>();
+        List<String> quotedNames = new ArrayList<>();
+        Set<RelativeWord> relativeWords = EnumSet.noneOf(RelativeWord.class);
+
+        // Words are kept in order so numbers can look at their neighbours once the pass is done
+        List<String> words = new ArrayList<>();
+        List<int[]> numbers = new ArrayList<>();
+        Matcher matcher = TOKENS.matcher(message);
+        while (matcher.find()) {
+            if (matcher.group("date") != null) {
+                try {
+                    dates.add(LocalDate.parse(matcher.group("date"), DATE_FORMAT));
+                } catch (DateTimeParseException e) {
+                    // Ignore invalid dates
+                }
+            } else if (matcher.group("doubleQuoted") != null) {
+                quotedNames.add(matcher.group("doubleQuoted"));
+            } else if (matcher.group("singleQuoted") != null) {
+                quotedNames.add(matcher.group("singleQuoted"));
+            } else if (matcher.group("number") != null) {
+                String digits = matcher.group("number");
+                if (digits.length() == 4 && (digits.startsWith("19") || digits.startsWith("20"))) {
+                    years.add(Integer.parseInt(digits));
+                } else if (digits.length() <= 9) {
+                    numbers.add(new int[]{Integer.parseInt(digits), words.size()});
+                }
+            } else {
+                String word = matcher.group("word").toLowerCase();
+                String previous = words.isEmpty() ? "" : words.get(words.size() - 1);
+                Integer month = month(word);
+                if (month != null) {
+                    months.add(month);
+                }
+                if (word.equals("today") || word.startsWith("bugün")) {
+                    relativeWords.add(RelativeWord.TODAY);
+                } else if (word.equals("tomorrow") || word.startsWith("yarın")) {
+                    relativeWords.add(RelativeWord.TOMORROW);
+                } else if (word.startsWith("year") && previous.equals("this")) {
+                    relativeWords.add(RelativeWord.THIS_YEAR);
+                } else if (word.startsWith("year") && previous.equals("next")) {
+                    relativeWords.add(RelativeWord.NEXT_YEAR);
+                }
+                words.add(word);
+            }
+        }
+
+        List<Quantity> quantities = new ArrayList<>();
+        for (int[] number : numbers) {
+            int next = number[1];
+            if (next < words.size() && UNIT_QUALIFIERS.contains(words.get(next))) {
+                next++;
+            }
+            boolean days = next < words.size() && (DAY_WORDS.contains(words.get(next)) || words.get(next).startsWith("gün"));
+            boolean limit = number[1] > 0 && LIMIT_WORDS.contains(words.get(number[1] - 1));
+            quantities.add(new Quantity(number[0], days ? Unit.DAY : Unit.NONE, limit));
+        }
+
+        Matcher called = CALLED.matcher(message);
+        return new Analysis(message, lower, List.copyOf(dates), List.copyOf(years), List.copyOf(months),
+            List.copyOf(quantities), audienceCodes(lower, language), List.copyOf(quotedNames),
+            called.find() ? called.group(1).trim() : null,
+            holidayName(lower, quotedNames), Set.copyOf(relativeWords));
+    }
+
+    private static Integer month(String word) {
+        Integer month = ENGLISH_MONTHS.get(word);
+        if (month != null) {
+            return month;
+        }
+        for (Map.Entry<String, Integer> entry : TURKISH_MONTHS) {
+            if (word.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private List<String> audienceCodes(String lower, String language) {
+        Set<String> codes = new LinkedHashSet<>();
+        for (AudienceDto audience : referenceData.audiences(language)) {
+            if ((audience.getName() != null && lower.contains(audience.getName().toLowerCase()))
+                || lower.contains(audience.getCode().toLowerCase())) {
+                codes.add(audience.getCode());
+            }
+        }
+        if (codes.isEmpty()) {
+            for (Map.Entry<String, String> keyword : AUDIENCE_KEYWORDS) {
+                if (lower.contains(keyword.getKey())) {
+                    codes.add(keyword.getValue());
+                }
+            }
+        }
+        return List.copyOf(codes);
+    }
+
+    private static String holidayName(String lower, List<String> quotedNames) {
+        if (!quotedNames.isEmpty()) {
+            return quotedNames.get(0);
+        }
+        for (Pattern pattern : HOLIDAY_NAME_PATTERNS) {
+            Matcher matcher = pattern.matcher(lower);
+            if (matcher.find()) {
+                return matcher.group(1).trim();
+            }
+        }
+        for (Map.Entry<String, String> keyword : HOLIDAY_NAME_KEYWORDS) {
+            if (lower.contains(keyword.getKey())) {
+                return keyword.getValue();
+            }
+        }
+        return null;
+    }
+
+    public enum RelativeWord { TODAY, TOMORROW, THIS_YEAR, NEXT_YEAR }
+
+    public enum Unit { DAY, NONE }
+
+    // limit is set when the number follows "maximum", "take" or "kullanabilirim"
+    public record Quantity(int value, Unit unit, boolean limit) {
+    }
+
+    // text is the message as sent and lower its lower-cased form for keyword checks.
+    // holidayName is the holiday a question is about; calledName the name after "called"/"named".
+    public record Analysis(String text, String lower, List<LocalDate> dates, List<Integer> years,
+                           List<Integer> months, List<Quantity> quantities, List<String> audienceCodes,
+                           List<String> quotedNames, String calledName, String holidayName,
+                           Set<RelativeWord> relativeWords) {
+
+        public boolean contains(String keyword) {
+            return lower.contains(keyword);
+        }
+
+        public boolean has(RelativeWord word) {
+            return relativeWords.contains(word);
+        }
+
+        // The first year mentioned, next year for "next year", otherwise -1 (current year)
+        public int requestedYear() {
+            if (!years.isEmpty()) {
+                return years.get(0);
+            }
+            return has(RelativeWord.NEXT_YEAR) ? LocalDate.now().getYear() + 1 : -1;
+        }
+
+        // First and last month mentioned, or null when the message names no month
+        public int[] monthRange() {
+            return months.isEmpty() ? null : new int[]{months.get(0), months.get(months.size() - 1)};
+        }
+
+        // A stated limit in days wins over any other day count, then a bare "take 5"; -1 when none is given
+        public int vacationDays() {
+            for (Quantity quantity : quantities) {
+                if (quantity.limit() && quantity.unit() == Unit.DAY) {
+                    return quantity.value();
+                }
+            }
+            for (Quantity quantity : quantities) {
+                if (quantity.unit() == Unit.DAY) {
+                    return quantity.value();
+                }
+            }
+            for (Quantity quantity : quantities) {
+                if (quantity.limit()) {
+                    return quantity.value();
+                }
+            }
+            return -1;
+        }
+
+        public String audience() {
+            return audienceCodes.isEmpty() ? null : audienceCodes.get(0);
+        }
+
+        // Quoted name first, then the name after "called"/"named"
+        public String creationName() {
+            return !quotedNames.isEmpty() ? quotedNames.get(0) : calledName;
+        }
+
+        // Today or tomorrow when mentioned, otherwise the first explicit date
+        public LocalDate creationDate() {
+            if (has(RelativeWord.TODAY)) {
+                return LocalDate.now();
+            }
+            if (has(RelativeWord.TOMORROW)) {
+                return LocalDate.now().plusDays(1);
+            }
+            return dates.isEmpty() ? null : dates.get(0);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.emre.holidayapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Assembles model prompts within a token budget. Instructions and the question are always kept;
+// context goes in as sections of short lines, and when the prompt is over budget the section added
+// last loses lines first, so callers add context in order of importance. Every built prompt is
+// recorded in the holiday.ai.prompt.tokens summary, tagged with what it was built for.
+@Component
+@ConditionalOnProperty(name = "holiday.ai.enabled", havingValue = "true", matchIfMissing = true)
+public class PromptBuilder {
+    private final int maxTokens;
+    private final MeterRegistry meterRegistry;
+
+    public PromptBuilder(@Value("${holiday.ai.prompt.max-tokens:1200}") int maxTokens, MeterRegistry meterRegistry) {
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("Prompt token budget must be at least 1");
+        }
+        this.maxTokens = maxTokens;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Draft draft(String purpose) {
+        return new Draft(purpose);
+    }
+
+    // Rough count for Llama-style BPE vocabularies: about four ASCII characters per token, while
+    // letters such as ı, ş or ğ are usually split into byte pieces and cost about half a token each
+    public static int estimateTokens(String text) {
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + (other + 1) / 2;
+    }
+
+    // One "date|name|type" row per holiday; the header line is left to the section title
+    public static List<String> holidayRows(List<HolidayCalendarIndex.CalendarEntry> holidays,
+                                           Function<HolidayCalendarIndex.CalendarEntry, String> names) {
+        List<String> rows = new ArrayList<>(holidays.size());
+        for (HolidayCalendarIndex.CalendarEntry holiday : holidays) {
+            String type = holiday.template() != null && holiday.template().type() != null ? holiday.template().type() : "-";
+            rows.add(holiday.date() + "|" + names.apply(holiday) + "|" + type);
+        }
+        return rows;
+    }
+
+    public record Result(String text, int tokens, boolean trimmed) {
+    }
+
+    public final class Draft {
+        private final String purpose;
+        private final List<Part> parts = new ArrayList<>();
+
+        private Draft(String purpose) {
+            this.purpose = purpose;
+        }
+
+        // Kept whatever the budget
+        public Draft required(String text) {
+            parts.add(new Part(null, new ArrayList<>(List.of(text)), false, false));
+            return this;
+        }
+
+        // Loses lines from the end when trimmed; an empty section is left out
+        public Draft section(String title, List<String> lines) {
+            parts.add(new Part(title, new ArrayList<>(lines), true, false));
+            return this;
+        }
+
+        // Loses lines from the start when trimmed, for conversation history where the oldest matters least
+        public Draft history(String title, List<String> lines) {
+            parts.add(new Part(title, new ArrayList<>(lines), true, true));
+            return this;
+        }
+
+        public Result build() {
+            int tokens = 0;
+            for (Part part : parts) {
+                tokens += part.tokens();
+            }
+            boolean trimmed = false;
+            for (int i = parts.size() - 1; i >= 0 && tokens > maxTokens; i--) {
+                Part part = parts.get(i);
+                while (part.optional && !part.lines.isEmpty() && tokens > maxTokens) {
+                    String dropped = part.lines.remove(part.dropOldestFirst ? 0 : part.lines.size() - 1);
+                    tokens -= estimateTokens(dropped) + 1;
+                    if (part.lines.isEmpty() && part.title != null) {
+                        tokens -= estimateTokens(part.title) + 1;
+                    }
+                    trimmed = true;
+                }
+            }
+
+            StringBuilder text = new StringBuilder();
+            for (Part part : parts) {
+                if (part.lines.isEmpty()) {
+                    continue;
+                }
+                if (!text.isEmpty()) {
+                    text.append("\n\n");
+                }
+                if (part.title != null) {
+                    text.append(part.title).append('\n');
+                }
+                text.append(String.join("\n", part.lines));
+            }
+
+            DistributionSummary.builder("holiday.ai.prompt.tokens")
+                .description("Estimated tokens per model prompt")
+                .baseUnit("tokens")
+                .tag("purpose", purpose)
+                .register(meterRegistry)
+                .record(tokens);
+            if (trimmed) {
+                Counter.builder("holiday.ai.prompt.trimmed")
+                    .description("Model prompts cut down to the token budget")
+                    .tag("purpose", purpose)
+                    .register(meterRegistry)
+                    .increment();
+            }
+            return new Result(text.toString(), tokens, trimmed);
+        }
+    }
+
+    private static final class Part {
+        private final String title;
+        private final List<String> lines;
+        private final boolean optional;
+        private final boolean dropOldestFirst;
+
+        private Part(String title, List<String> lines, boolean optional, boolean dropOldestFirst) {
+            this.title = title;
+            this.lines = lines;
+            this.optional = optional;
+            this.dropOldestFirst = dropOldestFirst;
+        }
+
+        // Lines plus the title and line breaks, counted as they will be rendered
+        private int tokens() {
+            if (lines.isEmpty()) {
+                return 0;
+            }
+            int tokens = title == null ? 0 : estimateTokens(title) + 1;
+            for (String line : lines) {
+                tokens += estimateTokens(line) + 1;
+            }
+            return tokens;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.model.Audience;
+import com.emre.holidayapi.model.Country;
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.repository.AudienceRepository;
+import com.emre.holidayapi.repository.CountryRepository;
+import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Immutable copy of the small reference tables (countries, audiences, templates, holiday types).
+// Readers take the current snapshot lock-free; writes publish a change event, and the listener
+// rebuilds the snapshot and swaps it in whole, so readers never see half an update.
+@Service
+public class ReferenceDataRegistry {
+    // Audience names in languages other than the stored (English) audience_name
+    private static final Map<String, Map<String, String>> AUDIENCE_TRANSLATIONS = Map.of(
+        "tr", Map.ofEntries(
+            Map.entry("general", "Genel Halk"),
+            Map.entry("government", "Devlet"),
+            Map.entry("religious", "Dini"),
+            Map.entry("educational", "Eğitim"),
+            Map.entry("workers", "İşçiler"),
+            Map.entry("all", "Tüm Çalışanlar"),
+            Map.entry("blue_collar", "Mavi Yakalı Çalışanlar"),
+            Map.entry("military", "Askeri"),
+            Map.entry("banking", "Bankacılık"),
+            Map.entry("health", "Sağlık"),
+            Map.entry("private_sector", "Özel Sektör"),
+            Map.entry("students", "Öğrenciler")));
+
+    private final CountryRepository countryRepository;
+    private final AudienceRepository audienceRepository;
+    private final HolidayTemplateRepository holidayTemplateRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public ReferenceDataRegistry(CountryRepository countryRepository,
+                                 AudienceRepository audienceRepository,
+                                 HolidayTemplateRepository holidayTemplateRepository) {
+        this.countryRepository = countryRepository;
+        this.audienceRepository = audienceRepository;
+        this.holidayTemplateRepository = holidayTemplateRepository;
+    }
+
+    // Languages with audience names of their own; every other language gets the stored names
+    public static Set<String> audienceLanguages() {
+        return AUDIENCE_TRANSLATIONS.keySet();
+    }
+
+    public static String translateAudience(String audienceCode, String storedName, String language) {
+        String translated = AUDIENCE_TRANSLATIONS.getOrDefault(language, Map.of()).get(audienceCode);
+        if (translated != null) {
+            return translated;
+        }
+        return storedName != null ? storedName : audienceCode;
+    }
+
+    public String countryName(String countryCode) {
+        String name = current().countryNames().get(countryCode);
+        return name != null ? name : countryCode;
+    }
+
+    public List<AudienceDto> audiences(String language) {
+        return current().audienceNames().entrySet().stream()
+            .map(entry -> new AudienceDto(entry.getKey(), translateAudience(entry.getKey(), entry.getValue(), language)))
+            .toList();
+    }
+
+    public String audienceName(String audienceCode, String language) {
+        return translateAudience(audienceCode, current().audienceNames().get(audienceCode), language);
+    }
+
+    public TemplateInfo templateById(long templateId) {
+        return current().templatesById().get(templateId);
+    }
+
+    public TemplateInfo templateByCode(String code) {
+        return current().templatesByCode().get(code);
+    }
+
+    public List<String> types() {
+        return current().types();
+    }
+
+    // Countries have no write path in the API, so only audience and template changes trigger a rebuild
+    @EventListener
+    public void onReferenceDataChanged(DomainChangeEvent event) {
+        if (event.entityType() == DomainChangeEvent.EntityType.AUDIENCE
+            || event.entityType() == DomainChangeEvent.EntityType.TEMPLATE) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        snapshot.set(load());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot.get();
+            if (current == null) {
+                current = load();
+                snapshot.set(current);
+            }
+            return current;
+        }
+    }
+
+    private Snapshot load() {
+        Map<String, String> countryNames = new LinkedHashMap<>();
+        for (Country country : countryRepository.findAll()) {
+            countryNames.put(country.getCountryCode(), country.getCountryName());
+        }
+
+        Map<String, String> audienceNames = new LinkedHashMap<>();
+        for (Audience audience : audienceRepository.findAll()) {
+            audienceNames.put(audience.getCode(), audience.getAudienceName());
+        }
+
+        Map<Long, TemplateInfo> templatesById = new HashMap<>();
+        Map<String, TemplateInfo> templatesByCode = new HashMap<>();
+        Set<String> types = new LinkedHashSet<>();
+        for (HolidayTemplate template : holidayTemplateRepository.findAll()) {
+            TemplateInfo info = new TemplateInfo(template.getId(), template.getCode(),
+                template.getDefaultName(), template.getType());
+            templatesById.put(info.id(), info);
+            if (info.code() != null) {
+                templatesByCode.put(info.code(), info);
+            }
+            if (info.type() != null) {
+                types.add(info.type());
+            }
+        }
+
+        // LinkedHashMap keeps table order; the copies are read-only and may contain null names
+        return new Snapshot(Collections.unmodifiableMap(countryNames),
+            Collections.unmodifiableMap(audienceNames),
+            Map.copyOf(templatesById), Map.copyOf(templatesByCode), List.copyOf(types));
+    }
+
+    private record Snapshot(Map<String, String> countryNames,
+                            Map<String, String> audienceNames,
+                            Map<Long, TemplateInfo> templatesById,
+                            Map<String, TemplateInfo> templatesByCode,
+                            List<String> types) {
+    }
+}
@@ -0,0 +1,268 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.HolidayAiService.QueryIntent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// Warms the node up before it takes traffic: loads holiday data for the configured countries and
+// languages, then replays the public holiday endpoints over loopback and rule-based chat questions for
+// a number of rounds, so the first real requests find query plans, database caches and compiled code.
+// It runs inside the ApplicationReadyEvent listeners, and Spring Boot only switches readiness to
+// ACCEPTING_TRAFFIC once those have returned, so /actuator/health/readiness stays down until it ends.
+// Failures are logged and never stop the application; max-duration bounds how long readiness waits.
+// Off unless holiday.warmup.enabled=true, so tests and local runs start without the extra traffic.
+@Component
+@Lazy(false)
+public class StartupWarmup {
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HolidayService holidayService;
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final TodayHolidayIndex todayHolidayIndex;
+    private final ReferenceDataRegistry referenceData;
+    private final ObjectProvider<HolidayAiService> holidayAiService;
+    private final boolean enabled;
+    private final List<String> countries;
+    private final List<String> languages;
+    private final int rounds;
+    private final long maxDurationNanos;
+    private final LongSupplier nanoClock;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+
+    @Autowired
+    public StartupWarmup(HolidayService holidayService,
+                         HolidayCalendarIndex holidayCalendarIndex,
+                         TodayHolidayIndex todayHolidayIndex,
+                         ReferenceDataRegistry referenceData,
+                         ObjectProvider<HolidayAiService> holidayAiService,
+                         @Value("${holiday.warmup.enabled:false}") boolean enabled,
+                         @Value("${holiday.warmup.countries:TR}") String countries,
+                         @Value("${holiday.warmup.languages:en,tr}") String languages,
+                         @Value("${holiday.warmup.rounds:20}") int rounds,
+                         @Value("${holiday.warmup.max-duration:60s}") Duration maxDuration) {
+        this(holidayService, holidayCalendarIndex, todayHolidayIndex, referenceData, holidayAiService, enabled,
+            countries, languages, rounds, maxDuration, System::nanoTime);
+    }
+
+    StartupWarmup(HolidayService holidayService, HolidayCalendarIndex holidayCalendarIndex,
+                  TodayHolidayIndex todayHolidayIndex, ReferenceDataRegistry referenceData,
+                  ObjectProvider<HolidayAiService> holidayAiService, boolean enabled, String countries,
+                  String languages, int rounds, Duration maxDuration, LongSupplier nanoClock) {
+        this.countries = codes(countries, true);
+        this.languages = codes(languages, false);
+        if (enabled && (this.countries.isEmpty() || this.languages.isEmpty() || rounds < 0
+            || maxDuration.isNegative() || maxDuration.isZero())) {
+            throw new IllegalArgumentException(
+                "Warm-up needs at least one country and language, non-negative rounds and a positive max duration");
+        }
+        this.holidayService = holidayService;
+        this.holidayCalendarIndex = holidayCalendarIndex;
+        this.todayHolidayIndex = todayHolidayIndex;
+        this.referenceData = referenceData;
+        this.holidayAiService = holidayAiService;
+        this.enabled = enabled;
+        this.rounds = rounds;
+        this.maxDurationNanos = maxDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Report report = warmUp(localBaseUrl(event.getApplicationContext()));
+        log.info("Warm-up {} in {} ms: countries={}, languages={}, rounds={}, requests={}, questions={}, failures={}",
+            report.timedOut() ? "stopped at max-duration" : "finished", report.millis(), countries, languages,
+            report.rounds(), report.requests(), report.questions(), report.failures());
+    }
+
+    // baseUrl is null when there is no web server, in which case only the services are exercised
+    Report warmUp(String baseUrl) {
+        long started = nanoClock.getAsLong();
+        long deadline = started + maxDurationNanos;
+        Report report = new Report();
+
+        // Data first, once: the calendar, reference data and today's index, and the repository queries
+        // behind the holiday endpoints
+        for (String country : countries) {
+            run(report, () -> holidayService.getHolidaysByCountry(country));
+            run(report, () -> holidayCalendarIndex.entries(country));
+            run(report, () -> referenceData.countryName(country));
+            for (String language : languages) {
+                run(report, () -> referenceData.audiences(language));
+                run(report, () -> todayHolidayIndex.getTodayHolidaysMatching(country, AudienceFilter.NONE, language));
+            }
+        }
+
+        HolidayAiService chat = holidayAiService.getIfAvailable();
+        for (int round = 0; round < rounds; round++) {
+            if (!runRound(report, baseUrl, chat, deadline)) {
+                report.timedOut = true;
+                break;
+            }
+            report.rounds++;
+        }
+        report.millis = (nanoClock.getAsLong() - started) / 1_000_000;
+        return report;
+    }
+
+    // False when max-duration ran out before the round was complete
+    private boolean runRound(Report report, String baseUrl, HolidayAiService chat, long deadline) {
+        for (String country : countries) {
+            for (String language : languages) {
+                if (nanoClock.getAsLong() - deadline > 0) {
+                    return false;
+                }
+                if (baseUrl != null) {
+                    for (String path : paths(country, language)) {
+                        report.requests++;
+                        run(report, () -> get(baseUrl + path));
+                    }
+                }
+                if (chat != null) {
+                    for (String question : questions(language)) {
+                        askRuleBased(report, chat, question, country, language);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // Questions routed to the model or to holiday creation are skipped: warm-up must not call Ollama or write
+    private static void askRuleBased(Report report, HolidayAiService chat, String question, String country, String language) {
+        run(report, () -> {
+            QueryIntent intent = chat.intentOf(question, language);
+            if (intent != QueryIntent.GENERAL && intent != QueryIntent.CREATE_HOLIDAY) {
+                report.questions++;
+                chat.processHolidayQuery(question, country, language);
+            }
+        });
+    }
+
+    private static List<String> paths(String country, String language) {
+        int year = LocalDate.now().getYear();
+        String query = "country=" + country + "&language=" + language;
+        return List.of(
+            "/api/holidays/country/" + country + "?language=" + language,
+            "/api/holidays/today?" + query,
+            "/api/holidays/next?count=5&" + query,
+            "/api/holidays/range?start=" + year + "-01-01&end=" + year + "-12-31&" + query,
+            "/api/holidays/search?q=" + URLEncoder.encode("day", StandardCharsets.UTF_8) + "&" + query,
+            "/api/holidays/audiences/translated?language=" + language,
+            "/api/holidays/types/translated?language=" + language,
+            "/api/countries");
+    }
+
+    // One question per rule-based handler, phrased the way users ask them
+    private static List<String> questions(String language) {
+        int year = LocalDate.now().getYear();
+        if ("tr".equals(language)) {
+            return List.of(
+                "Bugün tatil mi?",
+                "01/01/" + year + " ile 31/03/" + year + " arasında hangi tatiller var?",
+                "Cumhuriyet Bayramı ne zaman?",
+                year + " yılındaki tatiller neler?",
+                "En çok tatil hangi ayda?",
+                "Dini bayramlar neler?",
+                "5 günlük iznimle en uzun tatili nasıl yaparım?",
+                "Yılda kaç tatil var?",
+                "Öğrenciler için tatiller neler?");
+        }
+        return List.of(
+            "Is today a holiday?",
+            "What holidays are there between 01/01/" + year + " and 31/03/" + year + "?",
+            "When is Republic Day?",
+            "What are the holidays in " + year + "?",
+            "Which month has the most holidays?",
+            "Show me religious holidays",
+            "How can I optimize 5 vacation days?",
+            "What holidays are there every year?",
+            "What holidays do students have?");
+    }
+
+    private void get(String url) {
+        try {
+            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+    }
+
+    private static void run(Report report, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            if (report.failures++ == 0) {
+                log.warn("Warm-up step failed, continuing: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static String localBaseUrl(ApplicationContext context) {
+        if (!(context instanceof WebServerApplicationContext webContext) || webContext.getWebServer() == null
+            || webContext.getWebServer().getPort() <= 0) {
+            return null;
+        }
+        String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+        return "http://localhost:" + webContext.getWebServer().getPort() + contextPath;
+    }
+
+    private static List<String> codes(String csv, boolean upperCase) {
+        return Arrays.stream(csv.split(","))
+            .map(String::trim)
+            .filter(code -> !code.isEmpty())
+            .map(code -> upperCase ? code.toUpperCase() : code.toLowerCase())
+            .distinct()
+            .toList();
+    }
+
+    static final class Report {
+        private int rounds;
+        private int requests;
+        private int questions;
+        private int failures;
+        private long millis;
+        private boolean timedOut;
+
+        int rounds() { return rounds; }
+        int requests() { return requests; }
+        int questions() { return questions; }
+        int failures() { return failures; }
+        long millis() { return millis; }
+        boolean timedOut() { return timedOut; }
+    }
+}
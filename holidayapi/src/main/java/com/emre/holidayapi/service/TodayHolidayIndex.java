@@ -0,0 +1,141 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.dto.HolidayDto;
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Holds ready-made /today results for every (country, audience, language) combination of the current day.
+// It is derived from the calendar index's snapshot, so it is warm as soon as a saved snapshot has been
+// loaded and readers never touch the database. It is rebuilt at local midnight and whenever the calendar
+// index swaps in a new snapshot after a write.
+@Service
+@Lazy(false)
+public class TodayHolidayIndex {
+    // Bucket for languages with neither holiday nor audience translations, which resolve to default names
+    private static final String DEFAULT_LANGUAGE = "";
+
+    private final HolidayCalendarIndex holidayCalendarIndex;
+    private final HolidayDtoMapper holidayDtoMapper;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public TodayHolidayIndex(HolidayCalendarIndex holidayCalendarIndex, HolidayDtoMapper holidayDtoMapper) {
+        this.holidayCalendarIndex = holidayCalendarIndex;
+        this.holidayDtoMapper = holidayDtoMapper;
+    }
+
+    public List<HolidayDto> getTodayHolidays(String countryCode, String audienceCode, String language) {
+        return currentSnapshot().lookup(countryCode, audienceCode, language);
+    }
+
+    // Several audiences are combined from the single-audience lists, which share their DTO instances
+    public List<HolidayDto> getTodayHolidaysMatching(String countryCode, AudienceFilter audiences, String language) {
+        if (audiences.codes().size() < 2) {
+            return getTodayHolidays(countryCode, audiences.isEmpty() ? null : audiences.codes().iterator().next(), language);
+        }
+        Snapshot current = currentSnapshot();
+        Map<HolidayDto, Integer> hits = new IdentityHashMap<>();
+        for (String audienceCode : audiences.codes()) {
+            current.lookup(countryCode, audienceCode, language).forEach(dto -> hits.merge(dto, 1, Integer::sum));
+        }
+        int required = audiences.match() == AudienceFilter.Match.ALL ? audiences.codes().size() : 1;
+        return current.lookup(countryCode, null, language).stream()
+            .filter(dto -> hits.getOrDefault(dto, 0) >= required)
+            .toList();
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollover() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        snapshot.set(build(LocalDate.now(), holidayCalendarIndex.current()));
+    }
+
+    // Writes need no listener of their own: the calendar index replaces its snapshot after every change,
+    // so comparing the source instance also avoids rebuilding from a calendar that hasn't caught up yet
+    private Snapshot currentSnapshot() {
+        CalendarSnapshot calendar = holidayCalendarIndex.current();
+        Snapshot current = snapshot.get();
+        if (current != null && current.isFor(LocalDate.now(), calendar)) {
+            return current;
+        }
+        // First request after startup, after a write, or a request that raced the midnight job
+        synchronized (this) {
+            LocalDate today = LocalDate.now();
+            calendar = holidayCalendarIndex.current();
+            current = snapshot.get();
+            if (current == null || !current.isFor(today, calendar)) {
+                current = build(today, calendar);
+                snapshot.set(current);
+            }
+            return current;
+        }
+    }
+
+    private Snapshot build(LocalDate today, CalendarSnapshot calendar) {
+        Map<String, List<CalendarEntry>> byCountry = new HashMap<>();
+        // Audience names are translated independently of holiday names, so their languages get buckets too
+        Set<String> languages = new HashSet<>(ReferenceDataRegistry.audienceLanguages());
+        languages.add(DEFAULT_LANGUAGE);
+        for (String countryCode : calendar.countries().keySet()) {
+            List<CalendarEntry> entries = calendar.range(countryCode, AudienceFilter.NONE, today, today);
+            if (!entries.isEmpty()) {
+                byCountry.put(countryCode, entries);
+                entries.forEach(entry -> languages.addAll(
+                    calendar.translations().getOrDefault(entry.template().id(), Map.of()).keySet()));
+            }
+        }
+
+        Map<String, List<HolidayDto>> results = new HashMap<>();
+        byCountry.forEach((countryCode, entries) -> {
+            for (String language : languages) {
+                List<HolidayDto> all = new ArrayList<>();
+                Map<String, List<HolidayDto>> byAudience = new HashMap<>();
+                for (CalendarEntry entry : entries) {
+                    Set<String> audienceCodes = calendar.audiencesByDefinition().getOrDefault(entry.definitionId(), Set.of());
+                    HolidayDto dto = holidayDtoMapper.toDto(entry, calendar.nameOf(entry.template(), language),
+                        holidayDtoMapper.audienceNames(audienceCodes, language));
+                    all.add(dto);
+                    for (String audienceCode : audienceCodes) {
+                        byAudience.computeIfAbsent(audienceCode, code -> new ArrayList<>()).add(dto);
+                    }
+                }
+                results.put(key(countryCode, null, language), List.copyOf(all));
+                byAudience.forEach((audienceCode, dtos) -> results.put(key(countryCode, audienceCode, language), List.copyOf(dtos)));
+            }
+        });
+
+        return new Snapshot(today, calendar, Set.copyOf(languages), Map.copyOf(results));
+    }
+
+    private static String key(String countryCode, String audienceCode, String language) {
+        return countryCode + '|' + (audienceCode != null ? audienceCode : "") + '|' + language;
+    }
+
+    private record Snapshot(LocalDate date, CalendarSnapshot source, Set<String> languages,
+                            Map<String, List<HolidayDto>> results) {
+
+        boolean isFor(LocalDate today, CalendarSnapshot calendar) {
+            return date.equals(today) && source == calendar;
+        }
+
+        List<HolidayDto> lookup(String countryCode, String audienceCode, String language) {
+            String bucket = language != null && languages.contains(language) ? language : DEFAULT_LANGUAGE;
+            String audience = audienceCode != null && !audienceCode.isEmpty() ? audienceCode : null;
+            return results.getOrDefault(key(countryCode, audience, bucket), List.of());
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.emre.holidayapi;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "holiday.warmup.enabled=false")
 class HolidayapiApplicationTests {
 
 	@Test
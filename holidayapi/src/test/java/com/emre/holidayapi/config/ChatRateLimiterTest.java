@@ -0,0 +1,96 @@
+package com.emre.holidayapi.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenRejectWithRetryAfter() {
+        // Given
+        ChatRateLimiter limiter = new ChatRateLimiter(60, 3, 600, 10, 100, now::get);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("client", true).granted()).isTrue();
+            limiter.release();
+        }
+        ChatRateLimiter.Admission rejected = limiter.tryAcquire("client", true);
+
+        // Then
+        assertThat(rejected.granted()).isFalse();
+        assertThat(rejected.retryAfter()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(1);
+        assertThat(limiter.modelCallsInFlight()).isZero();
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOverTime() {
+        // Given
+        ChatRateLimiter limiter = new ChatRateLimiter(60, 1, 600, 10, 100, now::get);
+        limiter.tryAcquire("client", true);
+        limiter.release();
+
+        // When
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        // Then
+        assertThat(limiter.tryAcquire("client", true).granted()).isTrue();
+    }
+
+    @Test
+    void tryAcquire_ShouldTrackClientsIndependently() {
+        // Given
+        ChatRateLimiter limiter = new ChatRateLimiter(60, 1, 600, 10, 100, now::get);
+
+        // When & Then
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", true).granted()).isTrue();
+        assertThat(limiter.tryAcquire("ip:10.0.0.2", true).granted()).isTrue();
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", true).granted()).isFalse();
+    }
+
+    @Test
+    void tryAcquire_RuleBasedRequests_ShouldNotUseModelBudget() {
+        // Given
+        ChatRateLimiter limiter = new ChatRateLimiter(60, 1, 600, 10, 1, now::get);
+        limiter.tryAcquire("client", true);
+
+        // When & Then
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("client", false).granted()).isTrue();
+        }
+        assertThat(limiter.tryAcquire("client", false).granted()).isFalse();
+        assertThat(limiter.modelCallsInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_ShouldRejectWhenModelCallsAreSaturated() {
+        // Given
+        ChatRateLimiter limiter = new ChatRateLimiter(600, 10, 600, 10, 2, now::get);
+        limiter.tryAcquire("a", true);
+        limiter.tryAcquire("b", true);
+
+        // When
+        ChatRateLimiter.Admission saturated = limiter.tryAcquire("c", true);
+        limiter.release();
+        ChatRateLimiter.Admission afterRelease = limiter.tryAcquire("c", true);
+
+        // Then
+        assertThat(saturated.granted()).isFalse();
+        assertThat(saturated.retryAfterSeconds()).isEqualTo(1);
+        assertThat(afterRelease.granted()).isTrue();
+    }
+
+    @Test
+    void constructor_ShouldRejectNonPositiveLimits() {
+        assertThatThrownBy(() -> new ChatRateLimiter(0, 1, 1, 1, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
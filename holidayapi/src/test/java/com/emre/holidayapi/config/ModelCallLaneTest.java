@@ -0,0 +1,92 @@
+package com.emre.holidayapi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelCallLaneTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ModelCallLane lane;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (lane != null) {
+            lane.shutdown();
+        }
+    }
+
+    @Test
+    void submit_ShouldRunQueuedCallsByClientPriority() throws Exception {
+        // Given
+        lane = new ModelCallLane(1, 10, "vip");
+        List<String> order = new CopyOnWriteArrayList<>();
+        occupyLane();
+
+        // When
+        CompletableFuture<Void> anonymous = lane.submit(null, () -> record(order, "anonymous"));
+        CompletableFuture<Void> unknownKey = lane.submit("made-up", () -> record(order, "unknown-key"));
+        CompletableFuture<Void> vip = lane.submit("vip", () -> record(order, "vip"));
+        release.countDown();
+        CompletableFuture.allOf(anonymous, unknownKey, vip).get(5, TimeUnit.SECONDS);
+
+        // Then - an unconfigured key waits in line like an anonymous caller
+        assertThat(order).containsExactly("vip", "anonymous", "unknown-key");
+    }
+
+    @Test
+    void submit_ShouldRejectWhenQueueIsFull() throws Exception {
+        // Given
+        lane = new ModelCallLane(1, 1, "");
+        occupyLane();
+        lane.submit(null, () -> "queued");
+
+        // When & Then
+        assertThatThrownBy(() -> lane.submit(null, () -> "overflow"))
+            .isInstanceOf(RejectedExecutionException.class);
+        assertThat(lane.pending()).isEqualTo(2);
+    }
+
+    @Test
+    void submit_ShouldCompleteExceptionallyWhenTaskFails() {
+        // Given
+        lane = new ModelCallLane(1, 1, "");
+
+        // When
+        CompletableFuture<String> future = lane.submit(null, () -> {
+            throw new IllegalStateException("model down");
+        });
+
+        // Then
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private void occupyLane() throws InterruptedException {
+        lane.submit(null, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        started.await();
+    }
+
+    private static Void record(List<String> order, String name) {
+        order.add(name);
+        return null;
+    }
+}
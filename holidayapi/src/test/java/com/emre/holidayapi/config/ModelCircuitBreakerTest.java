@@ -0,0 +1,196 @@
+package com.emre.holidayapi.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModelCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+
+    @Test
+    void call_ShouldOpenOnceTheFailureRateIsReached() {
+        // Given
+        ModelCircuitBreaker breaker = breaker();
+        AtomicInteger modelCalls = new AtomicInteger();
+
+        // When
+        breaker.call(() -> "ok " + modelCalls.incrementAndGet(), () -> "fallback");
+        breaker.call(() -> "ok " + modelCalls.incrementAndGet(), () -> "fallback");
+        String failed = breaker.call(() -> fail(modelCalls), () -> "fallback");
+        String secondFailure = breaker.call(() -> fail(modelCalls), () -> "fallback");
+        String rejected = breaker.call(() -> "ok " + modelCalls.incrementAndGet(), () -> "fallback");
+
+        // Then
+        assertThat(failed).isEqualTo("fallback");
+        assertThat(secondFailure).isEqualTo("fallback");
+        assertThat(rejected).isEqualTo("fallback");
+        assertThat(modelCalls.get()).isEqualTo(4);
+        assertThat(breaker.status().state()).isEqualTo(ModelCircuitBreaker.State.OPEN);
+        assertThat(breaker.status().rejectedCalls()).isEqualTo(1);
+        assertThat(breaker.allowsCalls()).isFalse();
+    }
+
+    @Test
+    void call_ShouldOpenWhenTooManyCallsAreSlow() {
+        // Given
+        ModelCircuitBreaker breaker = breaker();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            breaker.call(() -> {
+                now.addAndGet(Duration.ofSeconds(11).toNanos());
+                return "late";
+            }, () -> "fallback");
+        }
+
+        // Then
+        assertThat(breaker.status().state()).isEqualTo(ModelCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void call_ShouldCloseAfterSuccessfulProbes() {
+        // Given
+        ModelCircuitBreaker breaker = openBreaker();
+
+        // When
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        boolean allowsAfterWait = breaker.allowsCalls();
+        String firstProbe = breaker.call(() -> "ok", () -> "fallback");
+        ModelCircuitBreaker.State afterFirstProbe = breaker.status().state();
+        breaker.call(() -> "ok", () -> "fallback");
+
+        // Then
+        assertThat(allowsAfterWait).isTrue();
+        assertThat(firstProbe).isEqualTo("ok");
+        assertThat(afterFirstProbe).isEqualTo(ModelCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.status().state()).isEqualTo(ModelCircuitBreaker.State.CLOSED);
+        assertThat(breaker.status().bufferedCalls()).isZero();
+    }
+
+    @Test
+    void call_ShouldReopenWhenAProbeFails() {
+        // Given
+        ModelCircuitBreaker breaker = openBreaker();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // When
+        breaker.call(() -> fail(new AtomicInteger()), () -> "fallback");
+
+        // Then
+        assertThat(breaker.status().state()).isEqualTo(ModelCircuitBreaker.State.OPEN);
+        assertThat(breaker.call(() -> "ok", () -> "fallback")).isEqualTo("fallback");
+    }
+
+    @Test
+    void call_WhenTheModelHangs_ShouldTimeOutAndCountAFailedSlowCall() {
+        // Given - real clock, 50 ms slow-call duration and a 100 ms call timeout
+        ModelCircuitBreaker breaker = new ModelCircuitBreaker(10, 1, 50, Duration.ofMillis(50), 75, Duration.ofSeconds(30), 2,
+            Duration.ofMillis(100), 4, System::nanoTime);
+        CountDownLatch never = new CountDownLatch(1);
+
+        // When
+        String reply;
+        try {
+            reply = breaker.call(() -> {
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "late";
+            }, () -> "fallback");
+        } finally {
+            breaker.shutdown();
+        }
+
+        // Then - the single timed-out call is enough to open a breaker with minimum-calls 1
+        assertThat(reply).isEqualTo("fallback");
+        assertThat(breaker.status().state()).isEqualTo(ModelCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void call_WhenEveryModelThreadIsBusy_ShouldAnswerFromFallbackWithoutQueueing() {
+        // Given - one model thread, held by a timed-out call that ignores the interrupt
+        ModelCircuitBreaker breaker = new ModelCircuitBreaker(10, 4, 50, Duration.ofMillis(50), 75, Duration.ofSeconds(30), 2,
+            Duration.ofMillis(100), 1, System::nanoTime);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger modelCalls = new AtomicInteger();
+
+        // When
+        String hung;
+        String rejected;
+        try {
+            hung = breaker.call(() -> {
+                modelCalls.incrementAndGet();
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                        // Like a client that doesn't react to interrupts
+                    }
+                }
+                return "late";
+            }, () -> "fallback");
+            rejected = breaker.call(() -> "ok " + modelCalls.incrementAndGet(), () -> "fallback");
+        } finally {
+            release.countDown();
+            breaker.shutdown();
+        }
+
+        // Then
+        assertThat(hung).isEqualTo("fallback");
+        assertThat(rejected).isEqualTo("fallback");
+        assertThat(modelCalls).hasValue(1);
+        assertThat(breaker.status().bufferedCalls()).isEqualTo(2);
+        assertThat(breaker.status().failureRate()).isEqualTo(100f);
+    }
+
+    @Test
+    void tryAcquire_ShouldLimitHalfOpenProbes() {
+        // Given
+        ModelCircuitBreaker breaker = openBreaker();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // When & Then
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.allowsCalls()).isFalse();
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidThresholds() {
+        assertThatThrownBy(() -> new ModelCircuitBreaker(10, 20, 50, Duration.ofSeconds(10), 50, Duration.ofSeconds(30), 2, Duration.ofSeconds(60), 4, now::get))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ModelCircuitBreaker(10, 4, 0, Duration.ofSeconds(10), 50, Duration.ofSeconds(30), 2, Duration.ofSeconds(60), 4, now::get))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ModelCircuitBreaker(10, 4, 50, Duration.ofSeconds(10), 50, Duration.ofSeconds(30), 2, Duration.ofSeconds(5), 4, now::get))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Window of 10, opens at 50% failures or 75% calls slower than 10s once 4 calls are recorded
+    private ModelCircuitBreaker breaker() {
+        return new ModelCircuitBreaker(10, 4, 50, Duration.ofSeconds(10), 75, Duration.ofSeconds(30), 2, Duration.ofSeconds(60), 4, now::get);
+    }
+
+    private ModelCircuitBreaker openBreaker() {
+        ModelCircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.call(() -> fail(new AtomicInteger()), () -> "fallback");
+        }
+        assertThat(breaker.status().state()).isEqualTo(ModelCircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private static String fail(AtomicInteger modelCalls) {
+        modelCalls.incrementAndGet();
+        throw new IllegalStateException("Connection refused");
+    }
+}
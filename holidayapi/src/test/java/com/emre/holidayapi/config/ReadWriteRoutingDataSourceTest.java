@@ -0,0 +1,143 @@
+package com.emre.holidayapi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private MutableClock clock;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        // Two separate H2 instances, each able to say which one answered
+        primary = database("node_primary", "primary");
+        replica = database("node_replica", "replica");
+        clock = new MutableClock();
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(Duration.ofSeconds(5), clock);
+        routing.setTargetDataSources(Map.of(
+            ReadWriteRoutingDataSource.PRIMARY, primary,
+            ReadWriteRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertThat(readOnly.execute(status -> node())).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        assertThat(readWrite.execute(status -> node())).isEqualTo("primary");
+    }
+
+    @Test
+    void readsAfterCommittedWrite_ShouldStayOnPrimaryUntilLagWindowPasses() {
+        // Given
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+
+        // When & Then
+        assertThat(readOnly.execute(status -> node())).isEqualTo("primary");
+        clock.advance(Duration.ofSeconds(6));
+        assertThat(readOnly.execute(status -> node())).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWrite_ShouldNotPinReadsToPrimary() {
+        // Given
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            status.setRollbackOnly();
+        });
+
+        // When & Then
+        assertThat(readOnly.execute(status -> node())).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyTransactionOnPrimary_ShouldUsePrimaryWithoutPinningLaterReads() {
+        // Given
+        String[] answered = new String[1];
+
+        // When
+        ReadWriteRoutingDataSource.onPrimary(() -> answered[0] = readOnly.execute(status -> node()));
+
+        // Then
+        assertThat(answered[0]).isEqualTo("primary");
+        assertThat(readOnly.execute(status -> node())).isEqualTo("replica");
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static EmbeddedDatabase database(String databaseName, String nodeName) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .setName(databaseName)
+            .build();
+        JdbcTemplate template = new JdbcTemplate(database);
+        template.execute("CREATE TABLE node (name VARCHAR(20), writes INT)");
+        template.update("INSERT INTO node VALUES (?, 0)", nodeName);
+        return database;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,6 +1,17 @@
 package com.emre.holidayapi.controller;
 
+import com.emre.holidayapi.config.ChatRateLimiter;
+import com.emre.holidayapi.config.ModelCallLane;
+import com.emre.holidayapi.service.ChatBatchService;
+import com.emre.holidayapi.service.ChatSession;
+import com.emre.holidayapi.service.ChatSessionStore;
+import com.emre.holidayapi.repository.AudienceRepository;
+import com.emre.holidayapi.repository.CountryRepository;
+import com.emre.holidayapi.repository.HolidayTemplateRepository;
 import com.emre.holidayapi.service.HolidayAiService;
+import com.emre.holidayapi.service.MessageAnalyzer;
+import com.emre.holidayapi.service.MessageAnalyzer.Analysis;
+import com.emre.holidayapi.service.ReferenceDataRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,12 +19,24 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,7 +53,12 @@ class ChatControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        ChatController chatController = new ChatController(holidayAiService);
+        MessageAnalyzer analyzer = new MessageAnalyzer(new ReferenceDataRegistry(
+                mock(CountryRepository.class), mock(AudienceRepository.class), mock(HolidayTemplateRepository.class)));
+        when(holidayAiService.analyze(anyString(), anyString()))
+                .thenAnswer(invocation -> analyzer.analyze(invocation.getArgument(0), invocation.getArgument(1)));
+        ChatController chatController = new ChatController(holidayAiService, new ChatRateLimiter(1000, 1000, 1000, 1000, 10),
+                new ModelCallLane(2, 10, ""), sessions(), batches());
         mockMvc = MockMvcBuilders.standaloneSetup(chatController).build();
     }
 
@@ -43,10 +71,10 @@ class ChatControllerTest {
                 "language", "en"
         );
         String expectedResponse = "Today is New Year's Day!";
-        when(holidayAiService.processHolidayQuery(anyString(), anyString(), anyString())).thenReturn(expectedResponse);
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), any(ChatSession.class), anyString())).thenReturn(expectedResponse);
 
         // When & Then
-        mockMvc.perform(post("/api/chat")
+        perform(mockMvc, post("/api/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -58,14 +86,17 @@ class ChatControllerTest {
         // Given
         Map<String, String> request = Map.of("message", "Is today a holiday?");
         String expectedResponse = "Today is a regular day.";
-        when(holidayAiService.processHolidayQuery("Is today a holiday?", "TR", "en")).thenReturn(expectedResponse);
+        when(holidayAiService.processHolidayQuery(text("Is today a holiday?"), inCountry("TR"), eq("en"))).thenReturn(expectedResponse);
 
         // When & Then
-        mockMvc.perform(post("/api/chat")
+        perform(mockMvc, post("/api/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.reply", is(expectedResponse)));
+        // Routing and answering share one analysis of the message
+        verify(holidayAiService, times(1)).analyze("Is today a holiday?", "en");
+        verify(holidayAiService).requiresModel(text("Is today a holiday?"), inCountry("TR"));
     }
 
     @Test
@@ -74,7 +105,7 @@ class ChatControllerTest {
         Map<String, String> request = Map.of("message", "");
 
         // When & Then
-        mockMvc.perform(post("/api/chat")
+        perform(mockMvc, post("/api/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -87,7 +118,7 @@ class ChatControllerTest {
         Map<String, String> request = Map.of("country", "TR");
 
         // When & Then
-        mockMvc.perform(post("/api/chat")
+        perform(mockMvc, post("/api/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -100,7 +131,7 @@ class ChatControllerTest {
         Map<String, String> request = Map.of("message", "   ");
 
         // When & Then
-        mockMvc.perform(post("/api/chat")
+        perform(mockMvc, post("/api/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -111,11 +142,11 @@ class ChatControllerTest {
     void chat_WhenServiceThrowsException_ShouldReturnErrorMessage() throws Exception {
         // Given
         Map<String, String> request = Map.of("message", "Is today a holiday?");
-        when(holidayAiService.processHolidayQuery(anyString(), anyString(), anyString()))
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), any(ChatSession.class), anyString()))
                 .thenThrow(new RuntimeException("Service error"));
 
         // When & Then
-        mockMvc.perform(post("/api/chat")
+        perform(mockMvc, post("/api/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -131,10 +162,10 @@ class ChatControllerTest {
                 "language", "tr"
         );
         String expectedResponse = "Bugün tatil değil.";
-        when(holidayAiService.processHolidayQuery("Bugün tatil mi?", "TR", "tr")).thenReturn(expectedResponse);
+        when(holidayAiService.processHolidayQuery(text("Bugün tatil mi?"), inCountry("TR"), eq("tr"))).thenReturn(expectedResponse);
 
         // When & Then
-        mockMvc.perform(post("/api/chat")
+        perform(mockMvc, post("/api/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -150,10 +181,10 @@ class ChatControllerTest {
                 "language", "en"
         );
         String expectedResponse = "Today is Independence Day!";
-        when(holidayAiService.processHolidayQuery("Is today a holiday?", "US", "en")).thenReturn(expectedResponse);
+        when(holidayAiService.processHolidayQuery(text("Is today a holiday?"), inCountry("US"), eq("en"))).thenReturn(expectedResponse);
 
         // When & Then
-        mockMvc.perform(post("/api/chat")
+        perform(mockMvc, post("/api/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -164,13 +195,244 @@ class ChatControllerTest {
     void chat_ShouldReturnCorrectContentType() throws Exception {
         // Given
         Map<String, String> request = Map.of("message", "Is today a holiday?");
-        when(holidayAiService.processHolidayQuery(anyString(), anyString(), anyString())).thenReturn("No holidays today.");
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), any(ChatSession.class), anyString())).thenReturn("No holidays today.");
 
         // When & Then
-        mockMvc.perform(post("/api/chat")
+        perform(mockMvc, post("/api/chat")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"));
     }
+
+    @Test
+    void chat_WhenModelBudgetIsExhausted_ShouldReturn429WithRetryAfter() throws Exception {
+        // Given
+        ChatController chatController = new ChatController(holidayAiService, new ChatRateLimiter(1, 1, 1000, 1000, 10),
+                new ModelCallLane(2, 10, ""), sessions(), batches());
+        MockMvc limitedMockMvc = MockMvcBuilders.standaloneSetup(chatController).build();
+        Map<String, String> request = Map.of("message", "Tell me something about holidays");
+        when(holidayAiService.requiresModel(any(Analysis.class), any(ChatSession.class))).thenReturn(true);
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), any(ChatSession.class), anyString())).thenReturn("Sure.");
+
+        // When & Then
+        perform(limitedMockMvc, post("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        perform(limitedMockMvc, post("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "60"));
+    }
+
+    @Test
+    void chat_RuleBasedIntents_ShouldUseSeparateBudget() throws Exception {
+        // Given
+        ChatController chatController = new ChatController(holidayAiService, new ChatRateLimiter(1, 1, 1000, 1000, 10),
+                new ModelCallLane(2, 10, ""), sessions(), batches());
+        MockMvc limitedMockMvc = MockMvcBuilders.standaloneSetup(chatController).build();
+        Map<String, String> request = Map.of("message", "Is today a holiday?");
+        when(holidayAiService.requiresModel(any(Analysis.class), any(ChatSession.class))).thenReturn(false);
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), any(ChatSession.class), anyString())).thenReturn("No holidays today.");
+
+        // When & Then
+        for (int i = 0; i < 5; i++) {
+            perform(limitedMockMvc, post("/api/chat")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void chat_ShouldKeepSeparateBudgetsPerApiKey() throws Exception {
+        // Given
+        ChatController chatController = new ChatController(holidayAiService, new ChatRateLimiter(1, 1, 1000, 1000, 10),
+                new ModelCallLane(2, 10, "alpha,beta"), sessions(), batches());
+        MockMvc limitedMockMvc = MockMvcBuilders.standaloneSetup(chatController).build();
+        Map<String, String> request = Map.of("message", "Tell me something about holidays");
+        when(holidayAiService.requiresModel(any(Analysis.class), any(ChatSession.class))).thenReturn(true);
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), any(ChatSession.class), anyString())).thenReturn("Sure.");
+
+        // When & Then
+        perform(limitedMockMvc, post("/api/chat")
+                .header("X-API-Key", "alpha")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        perform(limitedMockMvc, post("/api/chat")
+                .header("X-API-Key", "beta")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void chat_WithUnknownApiKeys_ShouldShareTheCallersIpBudget() throws Exception {
+        // Given
+        ChatController chatController = new ChatController(holidayAiService, new ChatRateLimiter(1, 1, 1000, 1000, 10),
+                new ModelCallLane(2, 10, "alpha"), sessions(), batches());
+        MockMvc limitedMockMvc = MockMvcBuilders.standaloneSetup(chatController).build();
+        Map<String, String> request = Map.of("message", "Tell me something about holidays");
+        when(holidayAiService.requiresModel(any(Analysis.class), any(ChatSession.class))).thenReturn(true);
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), any(ChatSession.class), anyString())).thenReturn("Sure.");
+
+        // When & Then - a fresh made-up key per request does not buy a fresh budget
+        perform(limitedMockMvc, post("/api/chat")
+                .header("X-API-Key", "random-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        perform(limitedMockMvc, post("/api/chat")
+                .header("X-API-Key", "random-2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void chat_RuleBasedAnswer_ShouldNotWaitForBusyModelLane() throws Exception {
+        // Given
+        CountDownLatch modelStarted = new CountDownLatch(1);
+        CountDownLatch releaseModel = new CountDownLatch(1);
+        ModelCallLane lane = new ModelCallLane(1, 10, "");
+        lane.submit(null, () -> {
+            modelStarted.countDown();
+            try {
+                releaseModel.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        modelStarted.await();
+        ChatController chatController = new ChatController(holidayAiService, new ChatRateLimiter(1000, 1000, 1000, 1000, 10), lane, sessions(), batches());
+        MockMvc laneMockMvc = MockMvcBuilders.standaloneSetup(chatController).build();
+        when(holidayAiService.requiresModel(any(Analysis.class), any(ChatSession.class))).thenReturn(false);
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), any(ChatSession.class), anyString())).thenReturn("No holidays today.");
+
+        // When & Then
+        try {
+            perform(laneMockMvc, post("/api/chat")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("message", "Is today a holiday?"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.reply", is("No holidays today.")));
+        } finally {
+            releaseModel.countDown();
+            lane.shutdown();
+        }
+    }
+
+    @Test
+    void chat_WhenModelLaneIsFull_ShouldReturn429() throws Exception {
+        // Given
+        CountDownLatch releaseModel = new CountDownLatch(1);
+        ModelCallLane lane = new ModelCallLane(1, 0, "");
+        lane.submit(null, () -> {
+            try {
+                releaseModel.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        ChatController chatController = new ChatController(holidayAiService, new ChatRateLimiter(1000, 1000, 1000, 1000, 10), lane, sessions(), batches());
+        MockMvc laneMockMvc = MockMvcBuilders.standaloneSetup(chatController).build();
+        when(holidayAiService.requiresModel(any(Analysis.class), any(ChatSession.class))).thenReturn(true);
+
+        // When & Then
+        try {
+            perform(laneMockMvc, post("/api/chat")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("message", "Why do people celebrate?"))))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            releaseModel.countDown();
+            lane.shutdown();
+        }
+    }
+
+    @Test
+    void chat_WithSessionId_ShouldContinueTheSameConversation() throws Exception {
+        // Given
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), any(ChatSession.class), anyString()))
+                .thenAnswer(invocation -> "Answer for " + invocation.<ChatSession>getArgument(1).countryCode());
+        MvcResult first = perform(mockMvc, post("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("message", "How can I optimize my vacation days?", "country", "US"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessionId", notNullValue()))
+                .andReturn();
+        String sessionId = objectMapper.readTree(first.getResponse().getContentAsString()).get("sessionId").asText();
+
+        // When & Then - the follow-up names no country and still gets the session's
+        perform(mockMvc, post("/api/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("message", "5", "sessionId", sessionId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessionId", is(sessionId)))
+                .andExpect(jsonPath("$.reply", is("Answer for US")));
+    }
+
+    @Test
+    void chatBatch_ShouldStreamOneLinePerQuestion() throws Exception {
+        // Given
+        when(holidayAiService.requiresModel(any(Analysis.class))).thenReturn(false);
+        when(holidayAiService.processHolidayQuery(text("Is today a holiday?"), eq("US"), eq("en"))).thenReturn("No holidays today.");
+        List<Map<String, String>> request = List.of(
+                Map.of("message", "Is today a holiday?", "country", "US"),
+                Map.of("message", ""));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/chat/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andExpect(content().string(containsString("{\"index\":0,\"reply\":\"No holidays today.\",\"model\":false}\n")))
+                .andExpect(content().string(containsString("{\"index\":1,\"error\":\"Empty message\"}\n")));
+    }
+
+    @Test
+    void chatBatch_WithNoQuestions_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/chat/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ChatBatchService batches() {
+        return new ChatBatchService(holidayAiService, new ModelCallLane(2, 10, ""), new ChatRateLimiter(1000, 1000, 1000, 1000, 10),
+                500, 2, 2);
+    }
+
+    private static ChatSessionStore sessions() {
+        return new ChatSessionStore(Duration.ofMinutes(30), 100);
+    }
+
+    private static Analysis text(String message) {
+        return argThat(analysis -> analysis != null && message.equals(analysis.text()));
+    }
+
+    private static ChatSession inCountry(String countryCode) {
+        return argThat(session -> session != null && countryCode.equals(session.countryCode()));
+    }
+
+    // Every chat response is a CompletableFuture, so the result is read after the async dispatch
+    private static ResultActions perform(MockMvc mvc, RequestBuilder request) throws Exception {
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(result));
+    }
 }
@@ -0,0 +1,74 @@
+package com.emre.holidayapi.controller;
+
+import com.emre.holidayapi.service.HolidayExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ExportControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private HolidayExportService holidayExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ExportController exportController = new ExportController(holidayExportService);
+        mockMvc = MockMvcBuilders.standaloneSetup(exportController).build();
+    }
+
+    @Test
+    void export_ShouldStreamServiceOutput() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("{\"definitionId\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(holidayExportService).export(eq("ndjson"), eq(LocalDate.of(2025, 1, 1)), isNull(), any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/admin/export")
+                .param("format", "ndjson")
+                .param("from", "2025-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andExpect(header().string("Content-Disposition", containsString("holidays.ndjson")))
+                .andExpect(content().string("{\"definitionId\":1}\n"));
+    }
+
+    @Test
+    void export_WithBadParameters_ShouldReturnBadRequestBeforeStreaming() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/admin/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/admin/export").param("from", "2025-13-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/admin/export").param("from", "2025-02-01").param("to", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(holidayExportService);
+    }
+}
@@ -1,11 +1,20 @@
 package com.emre.holidayapi.controller;
 
 import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.dto.HolidayDto;
 import com.emre.holidayapi.model.*;
 import com.emre.holidayapi.service.HolidayService;
+import com.emre.holidayapi.service.AudienceFilter;
 import com.emre.holidayapi.service.AudienceService;
-import com.emre.holidayapi.repository.TranslationRepository;
+import com.emre.holidayapi.service.HolidayCalendarIndex;
+import com.emre.holidayapi.service.HolidayDtoMapper;
+import com.emre.holidayapi.service.ReferenceDataRegistry;
+import com.emre.holidayapi.service.TodayHolidayIndex;
+import com.emre.holidayapi.repository.AudienceRepository;
+import com.emre.holidayapi.repository.CountryRepository;
+import com.emre.holidayapi.repository.HolidayAudienceRepository;
 import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.repository.TranslationRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,13 +24,23 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,9 +58,27 @@ class HolidayControllerTest {
     @Mock
     private TranslationRepository translationRepository;
 
+    @Mock
+    private HolidayAudienceRepository holidayAudienceRepository;
+
+    @Mock
+    private AudienceRepository audienceRepository;
+
+    @Mock
+    private CountryRepository countryRepository;
+
     @Mock
     private HolidayTemplateRepository holidayTemplateRepository;
 
+    @Mock
+    private TodayHolidayIndex todayHolidayIndex;
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    @Mock
+    private HolidayNameIndex holidayNameIndex;
+
     private ObjectMapper objectMapper;
 
     private HolidayDefinition holidayDefinition;
@@ -51,7 +88,10 @@ class HolidayControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        HolidayController holidayController = new HolidayController(holidayService, audienceService, translationRepository, holidayTemplateRepository);
+        ReferenceDataRegistry referenceData = new ReferenceDataRegistry(countryRepository, audienceRepository, holidayTemplateRepository);
+        HolidayController holidayController = new HolidayController(holidayService, audienceService,
+                new HolidayDtoMapper(translationRepository, holidayAudienceRepository, referenceData),
+                todayHolidayIndex, holidayCalendarIndex, referenceData, holidayNameIndex);
         mockMvc = MockMvcBuilders.standaloneSetup(holidayController).build();
         
         // Configure ObjectMapper for LocalDate serialization
@@ -111,12 +151,20 @@ class HolidayControllerTest {
         List<HolidayDefinition> holidays = Arrays.asList(holidayDefinition);
         when(holidayService.getHolidaysByCountry(countryCode)).thenReturn(holidays);
 
+        when(translationRepository.findNamesByTemplateIdsAndLanguage(Set.of(1L), "tr"))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "Yılbaşı"}));
+        when(holidayAudienceRepository.findAudienceCodesByDefinitionIds(Set.of(1L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "government"}, new Object[]{1L, "general"}));
+
         // When & Then
         mockMvc.perform(get("/api/holidays/country/{countryCode}", countryCode)
                 .param("language", language))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].countryCode", is(countryCode)));
+                .andExpect(jsonPath("$[0].countryCode", is(countryCode)))
+                .andExpect(jsonPath("$[0].name", is("Yılbaşı")))
+                .andExpect(jsonPath("$[0].audiences", contains("Genel Halk", "Devlet")));
+        verify(translationRepository, never()).findByTemplateIdAndLanguageCode(any(), any());
     }
 
     @Test
@@ -134,11 +182,291 @@ class HolidayControllerTest {
                 .andExpect(jsonPath("$[0].id", is(1)));
     }
 
+    @Test
+    void getHolidaysInRange_WithCountries_ShouldGroupHolidaysByUpperCasedCountry() throws Exception {
+        // Given
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        Map<String, List<HolidayDefinition>> byCountry = new LinkedHashMap<>();
+        byCountry.put("TR", Arrays.asList(holidayDefinition));
+        byCountry.put("DE", Arrays.asList());
+        when(holidayService.getHolidaysByCountriesAndDateRange(eq(Arrays.asList("TR", "DE")), eq(start), eq(end), isNull()))
+                .thenReturn(byCountry);
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/range")
+                .param("start", "2025-01-01")
+                .param("end", "2025-12-31")
+                .param("countries", "TR, de,tr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.TR", hasSize(1)))
+                .andExpect(jsonPath("$.TR[0].countryCode", is("TR")))
+                .andExpect(jsonPath("$.TR[0].name", is("New Year")))
+                .andExpect(jsonPath("$.DE", hasSize(0)));
+    }
+
+    @Test
+    void getHolidaysInRange_WithoutCountry_ShouldUseRealCountryCodes() throws Exception {
+        // Given
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        Map<String, List<HolidayDefinition>> byCountry = new LinkedHashMap<>();
+        byCountry.put("TR", Arrays.asList(holidayDefinition));
+        byCountry.put("DE", Arrays.asList(holidayDefinition));
+        when(holidayService.getHolidaysWithCountryInRange(start, end)).thenReturn(byCountry);
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/range")
+                .param("start", "2025-01-01")
+                .param("end", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].countryCode", is("TR")))
+                .andExpect(jsonPath("$[1].countryCode", is("DE")));
+    }
+
+    @Test
+    void getTodayHolidays_ShouldServeResultsFromIndex() throws Exception {
+        // Given
+        HolidayDto dto = new HolidayDto();
+        dto.name = "New Year";
+        dto.countryCode = "TR";
+        when(todayHolidayIndex.getTodayHolidaysMatching("TR", AudienceFilter.of("general"), "en")).thenReturn(List.of(dto));
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/today")
+                .param("country", "TR")
+                .param("audience", "general"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("New Year")));
+    }
+
+    @Test
+    void getHolidaysInRange_WithSeveralAudiences_ShouldUseCalendarIndex() throws Exception {
+        // Given
+        HolidayCalendarIndex.TemplateInfo template = new HolidayCalendarIndex.TemplateInfo(1L, "TEACHERS_DAY", "Teachers' Day", "Observance");
+        HolidayCalendarIndex.CalendarEntry entry = new HolidayCalendarIndex.CalendarEntry("TR", 10L, LocalDate.of(2025, 11, 24), template);
+        AudienceFilter filter = new AudienceFilter(Set.of("teachers", "students"), AudienceFilter.Match.ALL);
+        when(holidayCalendarIndex.range("TR", filter, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))).thenReturn(List.of(entry));
+        when(holidayCalendarIndex.nameOf(template, "en")).thenReturn("Teachers' Day");
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/range")
+                .param("start", "2025-01-01")
+                .param("end", "2025-12-31")
+                .param("country", "TR")
+                .param("audiences", "teachers, students")
+                .param("match", "all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Teachers' Day")));
+        verifyNoInteractions(holidayService);
+    }
+
+    @Test
+    void getNextHolidays_ShouldReturnEntriesFromCalendarIndex() throws Exception {
+        // Given
+        HolidayCalendarIndex.TemplateInfo template = new HolidayCalendarIndex.TemplateInfo(1L, "REPUBLIC_DAY", "Republic Day", "Official");
+        HolidayCalendarIndex.CalendarEntry entry = new HolidayCalendarIndex.CalendarEntry("TR", 10L, LocalDate.of(2025, 10, 29), template);
+        when(holidayCalendarIndex.next("TR", null, LocalDate.of(2025, 10, 1), 1)).thenReturn(List.of(entry));
+        when(holidayCalendarIndex.nameOf(template, "en")).thenReturn("Republic Day");
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/next")
+                .param("country", "TR")
+                .param("from", "2025-10-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Republic Day")))
+                .andExpect(jsonPath("$[0].date", is("2025-10-29")));
+    }
+
+    @Test
+    void searchHolidays_ShouldReturnRankedMatchesFromNameIndex() throws Exception {
+        // Given
+        HolidayCalendarIndex.TemplateInfo template = new HolidayCalendarIndex.TemplateInfo(2L, "EID_AL_FITR", "Ramadan Feast", "Religious");
+        HolidayCalendarIndex.CalendarEntry entry = new HolidayCalendarIndex.CalendarEntry("TR", 20L, LocalDate.of(2025, 3, 30), template);
+        when(holidayNameIndex.search("ramazan bayrami", "TR", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), 5))
+            .thenReturn(List.of(entry));
+        when(holidayCalendarIndex.nameOf(template, "tr")).thenReturn("Ramazan Bayramı");
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/search")
+                .param("q", "ramazan bayrami")
+                .param("country", "TR")
+                .param("start", "2025-01-01")
+                .param("end", "2025-12-31")
+                .param("limit", "5")
+                .param("language", "tr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Ramazan Bayramı")))
+                .andExpect(jsonPath("$[0].date", is("2025-03-30")));
+        verifyNoInteractions(holidayService);
+    }
+
+    @Test
+    void searchHolidays_ShouldUpperCaseCountryAndRejectOutOfRangeLimits() throws Exception {
+        // Given
+        when(holidayNameIndex.search("republic", "TR", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), 20))
+            .thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/search")
+                .param("q", "republic")
+                .param("country", "tr")
+                .param("start", "2025-01-01")
+                .param("end", "2025-12-31"))
+                .andExpect(status().isOk());
+        verify(holidayNameIndex).search("republic", "TR", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), 20);
+        mockMvc.perform(get("/api/holidays/search").param("q", "republic").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/holidays/search").param("q", "republic").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPreviousHolidays_ShouldPassCountToCalendarIndex() throws Exception {
+        // Given
+        when(holidayCalendarIndex.previous("TR", "general", LocalDate.of(2025, 10, 1), 3)).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/previous")
+                .param("country", "TR")
+                .param("audience", "general")
+                .param("from", "2025-10-01")
+                .param("count", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void getNextAndPreviousHolidays_ShouldUpperCaseCountryAndRejectBadParameters() throws Exception {
+        // Given
+        when(holidayCalendarIndex.next("TR", null, LocalDate.of(2025, 10, 1), 50)).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/next")
+                .param("country", " tr ")
+                .param("from", "2025-10-01")
+                .param("count", "50"))
+                .andExpect(status().isOk());
+        verify(holidayCalendarIndex).next("TR", null, LocalDate.of(2025, 10, 1), 50);
+        mockMvc.perform(get("/api/holidays/next").param("country", "TR").param("from", "01.10.2025"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/holidays/next").param("country", "TR").param("count", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/holidays/previous").param("country", "TR").param("count", "51"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/holidays/previous").param("country", "TR").param("from", "2025-13-01"))
+                .andExpect(status().isBadRequest());
+        verifyNoMoreInteractions(holidayCalendarIndex);
+    }
+
+    @Test
+    void calculateWorkingDays_WithPlainAudienceButNoCountry_ShouldIgnoreAudience() throws Exception {
+        // Given
+        when(holidayService.getHolidaysInRange(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)))
+                .thenReturn(List.of(holidayDefinition));
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/working-days")
+                .param("start", "2025-01-01")
+                .param("end", "2025-01-31")
+                .param("audience", "teachers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.holidayDays", is(1)));
+        verifyNoInteractions(holidayCalendarIndex);
+    }
+
+    @Test
+    void calculateWorkingDays_WithAudienceFilterButNoCountry_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/holidays/working-days")
+                .param("start", "2025-01-01")
+                .param("end", "2025-01-31")
+                .param("audience", "teachers")
+                .param("match", "all"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/holidays/range")
+                .param("start", "2025-01-01")
+                .param("end", "2025-01-31")
+                .param("audiences", "teachers,students"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/holidays/working-days")
+                .param("start", "2025-01-01")
+                .param("end", "2025-01-31")
+                .param("country", "TR")
+                .param("audience", "teachers")
+                .param("match", "some"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(holidayService, holidayCalendarIndex);
+    }
+
+    @Test
+    void addBusinessDays_ShouldReturnShiftedDate() throws Exception {
+        // Given
+        when(holidayCalendarIndex.addBusinessDays("TR", null, LocalDate.of(2025, 10, 28), 1L))
+            .thenReturn(LocalDate.of(2025, 10, 30));
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/business-days/add")
+                .param("date", "2025-10-28")
+                .param("days", "1")
+                .param("country", "TR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result", is("2025-10-30")));
+    }
+
+    @Test
+    void addBusinessDaysBatch_ShouldAnswerEachQueryInOrder() throws Exception {
+        // Given
+        when(holidayCalendarIndex.addBusinessDays("TR", null, LocalDate.of(2025, 10, 28), 1L))
+            .thenReturn(LocalDate.of(2025, 10, 30));
+        when(holidayCalendarIndex.addBusinessDays("DE", "general", LocalDate.of(2025, 10, 6), -5L))
+            .thenReturn(LocalDate.of(2025, 9, 29));
+        String body = "[{\"date\":\"2025-10-28\",\"days\":1,\"country\":\"TR\"},"
+            + "{\"date\":\"2025-10-06\",\"days\":-5,\"country\":\"DE\",\"audience\":\"general\"}]";
+
+        // When & Then
+        mockMvc.perform(post("/api/holidays/business-days/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].result", is("2025-10-30")))
+                .andExpect(jsonPath("$[1].result", is("2025-09-29")));
+    }
+
+    @Test
+    void addBusinessDays_WithInvalidInput_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(holidayCalendarIndex.addBusinessDays("TR", null, LocalDate.of(2025, 10, 28), Long.MAX_VALUE))
+            .thenThrow(new DateTimeException("Invalid value for EpochDay"));
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/business-days/add")
+                .param("date", "28/10/2025")
+                .param("days", "1")
+                .param("country", "TR"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/holidays/business-days/add")
+                .param("date", "2025-10-28")
+                .param("days", String.valueOf(Long.MAX_VALUE))
+                .param("country", "TR"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/holidays/business-days/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"date\":\"2025-10-28\",\"days\":1}]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getHolidayTypes_ShouldReturnAllHolidayTypes() throws Exception {
         // Given
-        List<String> types = Arrays.asList("Official", "Religious", "Cultural");
-        when(holidayService.getHolidayTypes()).thenReturn(types);
+        when(holidayTemplateRepository.findAll()).thenReturn(Arrays.asList(
+                template(1L, "Official"), template(2L, "Religious"), template(3L, "Official"), template(4L, "Cultural")));
 
         // When & Then
         mockMvc.perform(get("/api/holidays/types"))
@@ -147,6 +475,15 @@ class HolidayControllerTest {
                 .andExpect(jsonPath("$[0]", is("Official")))
                 .andExpect(jsonPath("$[1]", is("Religious")))
                 .andExpect(jsonPath("$[2]", is("Cultural")));
+        verifyNoInteractions(holidayService);
+    }
+
+    private static HolidayTemplate template(Long id, String type) {
+        HolidayTemplate template = new HolidayTemplate();
+        template.setId(id);
+        template.setCode("template_" + id);
+        template.setType(type);
+        return template;
     }
 
     @Test
@@ -253,8 +590,7 @@ class HolidayControllerTest {
     @Test
     void getTranslatedAudiences_ShouldReturnTranslatedAudiences() throws Exception {
         // Given
-        List<Audience> audiences = Arrays.asList(audience);
-        when(audienceService.getAllAudiences()).thenReturn(audiences);
+        when(audienceRepository.findAll()).thenReturn(Arrays.asList(audience));
 
         // When & Then
         mockMvc.perform(get("/api/holidays/audiences/translated")
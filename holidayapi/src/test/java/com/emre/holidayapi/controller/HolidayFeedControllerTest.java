@@ -0,0 +1,73 @@
+package com.emre.holidayapi.controller;
+
+import com.emre.holidayapi.service.HolidayFeedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class HolidayFeedControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private HolidayFeedService holidayFeedService;
+
+    private HolidayFeedService.Feed feed;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        HolidayFeedController holidayFeedController = new HolidayFeedController(holidayFeedService);
+        mockMvc = MockMvcBuilders.standaloneSetup(holidayFeedController).build();
+
+        feed = new HolidayFeedService.Feed("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8), "\"abc\"");
+    }
+
+    @Test
+    void getFeed_ShouldReturnCalendarWithEtag() throws Exception {
+        // Given
+        when(holidayFeedService.getFeed("TR", "general", "en", Set.of(2025, 2026))).thenReturn(feed);
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/feed/tr.ics")
+                .param("audience", "general")
+                .param("years", "2025,2026"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(content().contentTypeCompatibleWith("text/calendar"))
+                .andExpect(content().string(startsWith("BEGIN:VCALENDAR")));
+    }
+
+    @Test
+    void getFeed_ShouldReturnNotModifiedForMatchingEtag() throws Exception {
+        // Given
+        when(holidayFeedService.getFeed("TR", null, "en", null)).thenReturn(feed);
+
+        // When & Then
+        mockMvc.perform(get("/api/holidays/feed/TR.ics")
+                .header("If-None-Match", "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getFeed_WithInvalidYears_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/holidays/feed/TR.ics")
+                .param("years", "2025,abc"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(holidayFeedService);
+    }
+}
@@ -0,0 +1,35 @@
+package com.emre.holidayapi.integration;
+
+import com.emre.holidayapi.controller.ChatController;
+import com.emre.holidayapi.controller.HolidayController;
+import com.emre.holidayapi.service.HolidayAiService;
+import com.emre.holidayapi.service.IntelligentHolidayAiService;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "holiday.warmup.enabled=false")
+@ActiveProfiles("api")
+class ApiOnlyProfileIntegrationTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void apiProfile_ShouldStartWithoutAiStack() {
+        assertThat(applicationContext.getBeanNamesForType(ChatController.class)).isEmpty();
+        assertThat(applicationContext.getBeanNamesForType(HolidayAiService.class)).isEmpty();
+        assertThat(applicationContext.getBeanNamesForType(IntelligentHolidayAiService.class)).isEmpty();
+        assertThat(applicationContext.getBeanNamesForType(ChatClient.Builder.class)).isEmpty();
+    }
+
+    @Test
+    void apiProfile_ShouldStillServeHolidayReads() {
+        assertThat(applicationContext.getBean(HolidayController.class)).isNotNull();
+    }
+}
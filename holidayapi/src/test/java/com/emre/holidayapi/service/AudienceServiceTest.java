@@ -13,6 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -25,6 +26,9 @@ class AudienceServiceTest {
     @Mock
     private AudienceRepository repository;
 
+    @Mock
+    private ChangeEventBus changeEventBus;
+
     @InjectMocks
     private AudienceService audienceService;
 
@@ -80,6 +84,7 @@ class AudienceServiceTest {
         assertThat(savedAudience).isEqualTo(generalAudience);
         verify(repository).existsById("new_audience");
         verify(repository).save(newAudience);
+        verify(changeEventBus).publish(DomainChangeEvent.of(DomainChangeEvent.EntityType.AUDIENCE, Set.of("new_audience")));
     }
 
     @Test
@@ -94,6 +99,7 @@ class AudienceServiceTest {
 
         verify(repository).existsById("general");
         verify(repository, never()).save(any(Audience.class));
+        verifyNoInteractions(changeEventBus);
     }
 
     @Test
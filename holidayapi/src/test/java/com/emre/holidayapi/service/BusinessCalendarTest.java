@@ -0,0 +1,61 @@
+package com.emre.holidayapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BusinessCalendarTest {
+
+    private BusinessCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        // Wednesday 2025-10-29 is a holiday; Saturday 2025-11-01 is a holiday that falls on a weekend
+        calendar = new BusinessCalendar(new int[]{
+            (int) LocalDate.of(2025, 10, 29).toEpochDay(),
+            (int) LocalDate.of(2025, 10, 29).toEpochDay(),
+            (int) LocalDate.of(2025, 11, 1).toEpochDay()
+        });
+    }
+
+    @Test
+    void addBusinessDays_ShouldSkipWeekendsAndHolidays() {
+        // Tuesday + 1 skips the Wednesday holiday
+        assertThat(calendar.addBusinessDays(LocalDate.of(2025, 10, 28), 1)).isEqualTo(LocalDate.of(2025, 10, 30));
+        // Thursday + 2 crosses the weekend
+        assertThat(calendar.addBusinessDays(LocalDate.of(2025, 10, 30), 2)).isEqualTo(LocalDate.of(2025, 11, 3));
+    }
+
+    @Test
+    void addBusinessDays_ShouldCountFromWeekendStart() {
+        // Saturday + 1 is the following Monday
+        assertThat(calendar.addBusinessDays(LocalDate.of(2025, 11, 1), 1)).isEqualTo(LocalDate.of(2025, 11, 3));
+    }
+
+    @Test
+    void addBusinessDays_ShouldSupportNegativeDays() {
+        // Monday - 3 goes back over the weekend and the Wednesday holiday
+        assertThat(calendar.addBusinessDays(LocalDate.of(2025, 11, 3), -3)).isEqualTo(LocalDate.of(2025, 10, 28));
+    }
+
+    @Test
+    void addBusinessDays_ShouldReturnSameDateForZero() {
+        assertThat(calendar.addBusinessDays(LocalDate.of(2025, 10, 29), 0)).isEqualTo(LocalDate.of(2025, 10, 29));
+    }
+
+    @Test
+    void addBusinessDays_ShouldHandleLargeOffsets() {
+        // 260 weekdays later is exactly 52 weeks on when no holidays lie in between
+        assertThat(calendar.addBusinessDays(LocalDate.of(2026, 1, 5), 260)).isEqualTo(LocalDate.of(2027, 1, 4));
+    }
+
+    @Test
+    void isBusinessDay_ShouldRejectHolidaysAndWeekends() {
+        assertThat(calendar.isBusinessDay(LocalDate.of(2025, 10, 29))).isFalse();
+        assertThat(calendar.isBusinessDay(LocalDate.of(2025, 11, 2))).isFalse();
+        assertThat(calendar.isBusinessDay(LocalDate.of(2025, 10, 30))).isTrue();
+    }
+}
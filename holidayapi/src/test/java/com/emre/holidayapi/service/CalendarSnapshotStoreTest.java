@@ -0,0 +1,101 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.CalendarSnapshot.CountryCalendar;
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CalendarSnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void saveAndLoad_ShouldRoundTripCalendar() {
+        // Given
+        CalendarSnapshotStore store = new CalendarSnapshotStore(tempDir.resolve("calendar.snapshot").toString());
+        TemplateInfo template = new TemplateInfo(10L, "republic_day", "Republic Day", "Official");
+        CalendarSnapshot snapshot = new CalendarSnapshot(
+            Map.of("TR", new CountryCalendar(
+                new int[]{(int) LocalDate.of(2025, 4, 23).toEpochDay(), (int) LocalDate.of(2025, 10, 29).toEpochDay()},
+                new long[]{1L, 2L},
+                new long[]{10L, 10L})),
+            Map.of(10L, template),
+            Map.of(10L, Map.of("tr", "Cumhuriyet Bayramı")),
+            Map.of(2L, Set.of("government", "general")));
+
+        // When
+        store.save(snapshot);
+        CalendarSnapshot loaded = store.load().orElseThrow();
+
+        // Then
+        List<CalendarEntry> next = loaded.next("TR", AudienceFilter.of("government"), LocalDate.of(2025, 1, 1), 5);
+        assertThat(next).extracting(CalendarEntry::definitionId).containsExactly(2L);
+        assertThat(next.get(0).date()).isEqualTo(LocalDate.of(2025, 10, 29));
+        assertThat(loaded.nameOf(next.get(0).template(), "tr")).isEqualTo("Cumhuriyet Bayramı");
+        assertThat(loaded.audiencesByDefinition().get(2L)).containsExactlyInAnyOrder("government", "general");
+        assertThat(loaded.templates().get(10L)).isEqualTo(template);
+    }
+
+    @Test
+    void load_ShouldIgnoreCorruptFile() throws Exception {
+        // Given
+        Path file = tempDir.resolve("calendar.snapshot");
+        Files.write(file, new byte[]{1, 2, 3});
+
+        // When & Then
+        assertThat(new CalendarSnapshotStore(file.toString()).load()).isEmpty();
+    }
+
+    @Test
+    void read_WithCountsLargerThanTheFile_ShouldFailBeforeAllocating() {
+        // Given - a valid header claiming two billion templates
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+            .putInt(CalendarSnapshotStore.MAGIC)
+            .putInt(CalendarSnapshotStore.VERSION)
+            .putInt(Integer.MAX_VALUE)
+            .putInt(0)
+            .flip();
+
+        // When & Then
+        assertThatThrownBy(() -> CalendarSnapshotStore.read(buffer))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("corrupt calendar snapshot");
+    }
+
+    @Test
+    void save_WhenTheRenameFails_ShouldDeleteTheTemporaryFile() throws Exception {
+        // Given - a non-empty directory where the snapshot file should go
+        Path target = tempDir.resolve("calendar.snapshot");
+        Files.createDirectories(target.resolve("blocker"));
+
+        // When
+        new CalendarSnapshotStore(target.toString()).save(CalendarSnapshot.EMPTY);
+
+        // Then
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(target);
+        }
+    }
+
+    @Test
+    void disabledStore_ShouldNotLoadAnything() {
+        CalendarSnapshotStore store = new CalendarSnapshotStore("");
+
+        assertThat(store.isEnabled()).isFalse();
+        assertThat(store.load()).isEmpty();
+    }
+}
@@ -0,0 +1,105 @@
+package com.emre.holidayapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalendarSnapshotTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+    private CalendarSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        Map<Long, Set<String>> audiences = new HashMap<>();
+        audiences.put(1L, Set.of("general"));
+        audiences.put(2L, Set.of("students", "teachers"));
+        audiences.put(3L, Set.of("teachers"));
+        // Enough audiences to spill the bitmask over two words
+        Set<String> many = new HashSet<>(Set.of("students"));
+        for (int i = 0; i < 70; i++) {
+            many.add("audience_" + i);
+        }
+        audiences.put(4L, many);
+
+        CalendarSnapshot.CountryCalendar turkey = new CalendarSnapshot.CountryCalendar(
+            new int[]{day(1, 1), day(4, 23), day(11, 24), day(12, 1)},
+            new long[]{1L, 2L, 3L, 4L},
+            new long[]{10L, 10L, 10L, 10L});
+        snapshot = new CalendarSnapshot(Map.of("TR", turkey),
+            Map.of(10L, new HolidayCalendarIndex.TemplateInfo(10L, "sample", "Sample", "Official")),
+            Map.of(), audiences);
+    }
+
+    @Test
+    void range_WithoutAudiences_ShouldReturnEveryHolidayInRange() {
+        assertThat(ids(snapshot.range("TR", AudienceFilter.NONE, LocalDate.of(2025, 4, 23), LocalDate.of(2025, 11, 24))))
+            .containsExactly(2L, 3L);
+    }
+
+    @Test
+    void range_MatchAny_ShouldReturnHolidaysWithAnyAudience() {
+        AudienceFilter filter = AudienceFilter.parse(null, "teachers,audience_69", "any");
+
+        assertThat(ids(snapshot.range("TR", filter, START, END))).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void range_MatchAll_ShouldReturnHolidaysWithEveryAudience() {
+        assertThat(ids(snapshot.range("TR", AudienceFilter.parse(null, "students,teachers", "all"), START, END)))
+            .containsExactly(2L);
+        assertThat(ids(snapshot.range("TR", AudienceFilter.parse("students", "audience_0,audience_69", "all"), START, END)))
+            .containsExactly(4L);
+    }
+
+    @Test
+    void range_UnknownAudience_ShouldOnlyBlockMatchAll() {
+        assertThat(ids(snapshot.range("TR", AudienceFilter.parse(null, "teachers,unknown", "all"), START, END))).isEmpty();
+        assertThat(ids(snapshot.range("TR", AudienceFilter.parse(null, "general,unknown", "any"), START, END)))
+            .containsExactly(1L);
+    }
+
+    @Test
+    void businessCalendar_ShouldOnlyCountMatchingHolidays() {
+        // Monday 2025-11-24 is a holiday for teachers only
+        AudienceFilter teachers = AudienceFilter.of("teachers");
+
+        assertThat(snapshot.businessCalendar("TR", teachers).isBusinessDay(LocalDate.of(2025, 11, 24))).isFalse();
+        assertThat(snapshot.businessCalendar("TR", AudienceFilter.of("general")).isBusinessDay(LocalDate.of(2025, 11, 24))).isTrue();
+    }
+
+    @Test
+    void businessCalendar_ShouldOnlyCacheKnownCountriesAndAudiences() {
+        // Given
+        int cached = snapshot.cachedBusinessCalendars();
+
+        // When
+        BusinessCalendar teachers = snapshot.businessCalendar("TR", AudienceFilter.of("teachers"));
+        BusinessCalendar unknownCountry = snapshot.businessCalendar("XX", AudienceFilter.NONE);
+        BusinessCalendar unknownAudience = snapshot.businessCalendar("TR", AudienceFilter.parse(null, "teachers,nobody", "any"));
+
+        // Then
+        assertThat(snapshot.businessCalendar("TR", AudienceFilter.of("teachers"))).isSameAs(teachers);
+        assertThat(unknownCountry.isBusinessDay(LocalDate.of(2025, 11, 24))).isTrue();
+        assertThat(unknownAudience.isBusinessDay(LocalDate.of(2025, 11, 24))).isFalse();
+        assertThat(snapshot.cachedBusinessCalendars()).isEqualTo(cached + 1);
+    }
+
+    private static int day(int month, int dayOfMonth) {
+        return (int) LocalDate.of(2025, month, dayOfMonth).toEpochDay();
+    }
+
+    private static List<Long> ids(List<HolidayCalendarIndex.CalendarEntry> entries) {
+        return entries.stream().map(HolidayCalendarIndex.CalendarEntry::definitionId).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.emre.holidayapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeEventBusTest {
+
+    private static final DomainChangeEvent EVENT =
+        DomainChangeEvent.of(DomainChangeEvent.EntityType.AUDIENCE, Set.of("students"));
+
+    @Mock
+    private ChangeEventTransport transport;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publish_WithoutTransaction_ShouldSendImmediately() {
+        // When
+        new ChangeEventBus(transport).publish(EVENT);
+
+        // Then
+        verify(transport).send(EVENT);
+    }
+
+    @Test
+    void publish_InTransaction_ShouldSendOnlyAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        new ChangeEventBus(transport).publish(EVENT);
+
+        // Then
+        verify(transport, never()).send(any());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(transport).send(EVENT);
+    }
+
+    @Test
+    void publish_InRolledBackTransaction_ShouldNotSend() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        new ChangeEventBus(transport).publish(EVENT);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        verify(transport, never()).send(any());
+    }
+
+    @Test
+    void publish_WithTransactionalTransport_ShouldSendInsideTransaction() {
+        // Given
+        when(transport.isTransactional()).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        new ChangeEventBus(transport).publish(EVENT);
+
+        // Then
+        verify(transport).send(EVENT);
+    }
+}
@@ -0,0 +1,196 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.config.ChatRateLimiter;
+import com.emre.holidayapi.config.ModelCallLane;
+import com.emre.holidayapi.repository.AudienceRepository;
+import com.emre.holidayapi.repository.CountryRepository;
+import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.service.MessageAnalyzer.Analysis;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatBatchServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HolidayAiService holidayAiService = mock(HolidayAiService.class);
+    private ModelCallLane lane;
+    private ChatBatchService batches;
+
+    @BeforeEach
+    void setUp() {
+        MessageAnalyzer analyzer = new MessageAnalyzer(new ReferenceDataRegistry(
+            mock(CountryRepository.class), mock(AudienceRepository.class), mock(HolidayTemplateRepository.class)));
+        when(holidayAiService.analyze(anyString(), anyString()))
+            .thenAnswer(invocation -> analyzer.analyze(invocation.getArgument(0), invocation.getArgument(1)));
+        lane = new ModelCallLane(2, 10, "");
+        batches = new ChatBatchService(holidayAiService, lane, new ChatRateLimiter(1000, 1000, 1000, 1000, 10), 500, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batches.shutdown();
+        lane.shutdown();
+    }
+
+    @Test
+    void answer_ShouldAskTheModelOnceForIdenticalQuestions() throws Exception {
+        // Given
+        when(holidayAiService.requiresModel(text("Why do people celebrate?"))).thenReturn(true);
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), eq("TR"), eq("en"))).thenReturn("Tradition.");
+        when(holidayAiService.processHolidayQuery(text("Why do people celebrate?"), eq("US"), eq("en"))).thenReturn("Family.");
+        List<ChatBatchService.Item> items = List.of(
+            new ChatBatchService.Item("Why do people celebrate?", "TR", "en"),
+            new ChatBatchService.Item("why do people celebrate", null, null),
+            new ChatBatchService.Item("Why do people celebrate?", "US", "en"));
+
+        // When
+        List<JsonNode> lines = answer(items);
+
+        // Then
+        assertThat(lines).hasSize(3);
+        assertThat(lines).extracting(line -> line.get("index").asInt()).containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(lines).filteredOn(line -> line.get("index").asInt() < 2)
+            .allSatisfy(line -> {
+                assertThat(line.get("reply").asText()).isEqualTo("Tradition.");
+                assertThat(line.get("model").asBoolean()).isTrue();
+            });
+        verify(holidayAiService, times(1)).processHolidayQuery(any(Analysis.class), eq("TR"), eq("en"));
+        verify(holidayAiService, times(1)).processHolidayQuery(text("Why do people celebrate?"), eq("US"), eq("en"));
+        // Each distinct question is analyzed once, for routing and answering alike
+        verify(holidayAiService, times(2)).analyze(anyString(), anyString());
+        verify(holidayAiService, never()).processHolidayQuery(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void answer_ShouldWriteRuleBasedAnswersWithoutWaitingForTheModel() throws Exception {
+        // Given
+        CountDownLatch ruleAnswered = new CountDownLatch(1);
+        when(holidayAiService.requiresModel(text("Why do people celebrate?"))).thenReturn(true);
+        when(holidayAiService.processHolidayQuery(text("Why do people celebrate?"), eq("TR"), eq("en"))).thenAnswer(invocation -> {
+            ruleAnswered.await(5, TimeUnit.SECONDS);
+            return "Tradition.";
+        });
+        when(holidayAiService.processHolidayQuery(text("Is today a holiday?"), eq("TR"), eq("en"))).thenAnswer(invocation -> {
+            ruleAnswered.countDown();
+            return "No holidays today.";
+        });
+
+        // When
+        List<JsonNode> lines = answer(List.of(
+            new ChatBatchService.Item("Why do people celebrate?", "TR", "en"),
+            new ChatBatchService.Item("Is today a holiday?", "TR", "en")));
+
+        // Then - lines come in completion order
+        assertThat(lines).extracting(line -> line.get("index").asInt()).containsExactly(1, 0);
+        assertThat(lines.get(0).get("model").asBoolean()).isFalse();
+    }
+
+    @Test
+    void answer_ShouldReportEmptyQuestionsAsErrors() throws Exception {
+        // When
+        List<JsonNode> lines = answer(List.of(new ChatBatchService.Item("  ", "TR", "en")));
+
+        // Then
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0).get("error").asText()).isEqualTo("Empty message");
+    }
+
+    @Test
+    void answer_ShouldChargeOnlyModelCallsToTheClientsBudget() throws Exception {
+        // Given - one model call and one rule-based answer per minute
+        ChatBatchService limited = new ChatBatchService(holidayAiService, lane, new ChatRateLimiter(1, 1, 1, 1, 10), 500, 2, 1);
+        when(holidayAiService.requiresModel(any(Analysis.class)))
+            .thenAnswer(invocation -> invocation.<Analysis>getArgument(0).text().startsWith("Why"));
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), eq("TR"), eq("en"))).thenReturn("Answer.");
+
+        // When
+        List<JsonNode> lines;
+        try {
+            lines = answer(limited, List.of(
+                new ChatBatchService.Item("Why do people celebrate?", "TR", "en"),
+                new ChatBatchService.Item("Why are there holidays?", "TR", "en"),
+                new ChatBatchService.Item("Is today a holiday?", "TR", "en"),
+                new ChatBatchService.Item("Is tomorrow a holiday?", "TR", "en")));
+        } finally {
+            limited.shutdown();
+        }
+
+        // Then
+        assertThat(lines).hasSize(4);
+        assertThat(lines).filteredOn(line -> line.has("reply")).hasSize(3);
+        assertThat(lines).filteredOn(line -> line.has("error"))
+            .extracting(line -> line.get("error").asText())
+            .containsExactly(ChatBatchService.RATE_LIMITED);
+        verify(holidayAiService, times(3)).processHolidayQuery(any(Analysis.class), eq("TR"), eq("en"));
+    }
+
+    @Test
+    void answer_ShouldNotRateLimitRuleBasedQuestionsUnderTheDefaultLimits() throws Exception {
+        // Given - the default /api/chat limits and 300 distinct rule-based questions
+        ChatBatchService defaults = new ChatBatchService(holidayAiService, lane, new ChatRateLimiter(10, 5, 120, 30, 4), 500, 4, 2);
+        when(holidayAiService.requiresModel(any(Analysis.class))).thenReturn(false);
+        when(holidayAiService.processHolidayQuery(any(Analysis.class), eq("TR"), eq("en"))).thenReturn("No holidays then.");
+        List<ChatBatchService.Item> items = IntStream.range(0, 300)
+            .mapToObj(day -> new ChatBatchService.Item("Is day " + day + " a holiday?", "TR", "en"))
+            .toList();
+
+        // When
+        List<JsonNode> lines;
+        try {
+            lines = answer(defaults, items);
+        } finally {
+            defaults.shutdown();
+        }
+
+        // Then
+        assertThat(lines).hasSize(300);
+        assertThat(lines).allSatisfy(line -> assertThat(line.get("reply").asText()).isEqualTo("No holidays then."));
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidLimits() {
+        assertThatThrownBy(() -> new ChatBatchService(holidayAiService, lane, new ChatRateLimiter(1000, 1000, 1000, 1000, 10), 0, 2, 2))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Analysis text(String message) {
+        return argThat(analysis -> analysis != null && message.equals(analysis.text()));
+    }
+
+    private List<JsonNode> answer(List<ChatBatchService.Item> items) throws Exception {
+        return answer(batches, items);
+    }
+
+    private List<JsonNode> answer(ChatBatchService service, List<ChatBatchService.Item> items) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.answer(items, null, "ip:127.0.0.1", out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
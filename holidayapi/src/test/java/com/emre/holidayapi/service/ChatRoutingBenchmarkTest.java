@@ -0,0 +1,262 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.config.ModelCircuitBreaker;
+import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.model.HolidayDefinition;
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.repository.HolidayAudienceRepository;
+import com.emre.holidayapi.repository.TranslationRepository;
+import com.emre.holidayapi.service.HolidayAiService.QueryIntent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// Replays the labelled corpus in src/test/resources/benchmark through processHolidayQuery with a stub
+// ChatClient and stubbed data, and prints per-intent routing accuracy, the most common misroutes,
+// throughput and latency percentiles. Model answers come back instantly, so the timings cover routing
+// and the rule-based handlers only. Excluded from the normal build; run it with
+//   mvn -Pbenchmark test
+// and -Dbenchmark.variants (messages per template, default 40) or -Dbenchmark.rounds (default 3).
+@Tag("benchmark")
+class ChatRoutingBenchmarkTest {
+    private static final String CORPUS = "/benchmark/chat-routing-corpus.tsv";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final Map<String, Map<String, List<String>>> SLOTS = Map.of(
+        "en", Map.of(
+            "holiday", List.of("Republic Day", "Victory Day", "New Year's Day", "Labour Day", "Ramadan Feast",
+                "Sacrifice Feast", "Children's Day", "Youth and Sports Day", "Democracy Day", "Christmas", "Easter"),
+            "month", List.of("January", "February", "March", "April", "May", "June", "July", "August",
+                "September", "October", "November", "December"),
+            "audience", List.of("students", "government employees", "private sector employees", "teachers", "general public"),
+            "type", List.of("religious", "official", "cultural", "national"),
+            "name", List.of("Company Day", "Team Offsite", "Founders Day", "Ordinary Day at Internship"),
+            "country", List.of("Turkey", "Germany", "the US")),
+        "tr", Map.of(
+            "holiday", List.of("Cumhuriyet Bayramı", "Zafer Bayramı", "Yılbaşı", "Emek ve Dayanışma Günü", "Ramazan Bayramı",
+                "Kurban Bayramı", "Ulusal Egemenlik ve Çocuk Bayramı", "Gençlik ve Spor Bayramı", "Demokrasi ve Milli Birlik Günü"),
+            "month", List.of("Ocak", "Şubat", "Mart", "Nisan", "Mayıs", "Haziran", "Temmuz", "Ağustos",
+                "Eylül", "Ekim", "Kasım", "Aralık"),
+            "audience", List.of("öğrenciler", "devlet memurları", "özel sektör çalışanları", "öğretmenler"),
+            "type", List.of("dini", "resmi", "kültürel", "ulusal"),
+            "name", List.of("Şirket Günü", "Ekip Günü", "Kuruluş Günü"),
+            "country", List.of("Türkiye", "Almanya")));
+
+    @Test
+    void replayCorpus() throws IOException {
+        int variants = Integer.getInteger("benchmark.variants", 40);
+        int rounds = Integer.getInteger("benchmark.rounds", 3);
+        List<Message> corpus = expand(readTemplates(), variants);
+        HolidayAiService service = stubbedService();
+
+        // Warm-up so the measured rounds run compiled code
+        for (Message message : corpus) {
+            service.processHolidayQuery(message.text(), "TR", message.language());
+        }
+
+        long[] latencies = new long[corpus.size() * rounds];
+        int measured = 0;
+        long started = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (Message message : corpus) {
+                long start = System.nanoTime();
+                String reply = service.processHolidayQuery(message.text(), "TR", message.language());
+                latencies[measured++] = System.nanoTime() - start;
+                assertThat(reply).isNotBlank();
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Map<QueryIntent, int[]> byIntent = new EnumMap<>(QueryIntent.class);
+        Map<String, int[]> byLanguage = new TreeMap<>();
+        Map<String, Integer> misroutes = new TreeMap<>();
+        for (Message message : corpus) {
+            QueryIntent routed = service.intentOf(message.text(), message.language());
+            boolean correct = routed == message.intent();
+            tally(byIntent.computeIfAbsent(message.intent(), intent -> new int[2]), correct);
+            tally(byLanguage.computeIfAbsent(message.language(), language -> new int[2]), correct);
+            if (!correct) {
+                misroutes.merge(message.intent() + " -> " + routed, 1, Integer::sum);
+            }
+        }
+
+        Arrays.sort(latencies);
+        StringBuilder report = new StringBuilder("Chat routing benchmark: ")
+            .append(corpus.size()).append(" messages x ").append(rounds).append(" rounds\n");
+        int correct = byIntent.values().stream().mapToInt(counts -> counts[0]).sum();
+        report.append(String.format("Accuracy: %.1f%% (%d/%d)%n", 100.0 * correct / corpus.size(), correct, corpus.size()));
+        byLanguage.forEach((language, counts) -> report.append(line("  " + language, counts)));
+        byIntent.forEach((intent, counts) -> report.append(line("  " + intent, counts)));
+        report.append("Most common misroutes:\n");
+        misroutes.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(10)
+            .forEach(entry -> report.append(String.format("  %-45s %5d%n", entry.getKey(), entry.getValue())));
+        report.append(String.format("Throughput: %.0f messages/s%n", measured / (elapsed / 1e9)));
+        report.append(String.format("Latency: p50 %s, p90 %s, p99 %s, max %s%n",
+            micros(latencies, 0.50), micros(latencies, 0.90), micros(latencies, 0.99), micros(latencies, 1.0)));
+        System.out.print(report);
+
+        assertThat(byIntent).containsOnlyKeys(QueryIntent.values());
+    }
+
+    private static void tally(int[] counts, boolean correct) {
+        counts[0] += correct ? 1 : 0;
+        counts[1]++;
+    }
+
+    private static String line(String label, int[] counts) {
+        return String.format("%-26s %5.1f%% (%d/%d)%n", label, 100.0 * counts[0] / counts[1], counts[0], counts[1]);
+    }
+
+    private static String micros(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return String.format("%.1f µs", sorted[Math.max(0, index)] / 1_000.0);
+    }
+
+    private static List<Template> readTemplates() throws IOException {
+        List<Template> templates = new ArrayList<>();
+        try (InputStream in = ChatRoutingBenchmarkTest.class.getResourceAsStream(CORPUS)) {
+            assertThat(in).as(CORPUS).isNotNull();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t");
+                templates.add(new Template(QueryIntent.valueOf(columns[0]), columns[1], columns[2]));
+            }
+        }
+        return templates;
+    }
+
+    // Each template is filled up to `variants` times from its own seed; templates without slots yield one message
+    private static List<Message> expand(List<Template> templates, int variants) {
+        List<Message> messages = new ArrayList<>();
+        for (int t = 0; t < templates.size(); t++) {
+            Template template = templates.get(t);
+            Random random = new Random(t);
+            Set<String> texts = new LinkedHashSet<>();
+            for (int i = 0; i < variants; i++) {
+                texts.add(fill(template.text(), SLOTS.get(template.language()), random));
+            }
+            texts.forEach(text -> messages.add(new Message(template.intent(), template.language(), text)));
+        }
+        return messages;
+    }
+
+    private static String fill(String template, Map<String, List<String>> slots, Random random) {
+        LocalDate date = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(4 * 365));
+        int month = random.nextInt(11);
+        String text = template
+            .replace("{date}", date.format(DATE))
+            .replace("{date2}", date.plusDays(1 + random.nextInt(60)).format(DATE))
+            .replace("{year}", String.valueOf(2024 + random.nextInt(7)))
+            .replace("{days}", String.valueOf(1 + random.nextInt(15)))
+            .replace("{month}", slots.get("month").get(month))
+            .replace("{month2}", slots.get("month").get(month + 1 + random.nextInt(11 - month)));
+        for (String slot : List.of("holiday", "audience", "type", "name", "country")) {
+            List<String> values = slots.get(slot);
+            text = text.replace("{" + slot + "}", values.get(random.nextInt(values.size())));
+        }
+        return text;
+    }
+
+    // Mocks are stub-only so thousands of calls don't pile up recorded invocations
+    private static HolidayAiService stubbedService() {
+        ChatClient.Builder chatClientBuilder = stub(ChatClient.Builder.class);
+        ChatClient chatClient = stub(ChatClient.class);
+        ChatClient.ChatClientRequestSpec requestSpec = stub(ChatClient.ChatClientRequestSpec.class);
+        ChatClient.CallResponseSpec callSpec = stub(ChatClient.CallResponseSpec.class);
+        when(chatClientBuilder.build()).thenReturn(chatClient);
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(callSpec);
+        when(callSpec.content()).thenReturn("Stub model answer.");
+
+        ReferenceDataRegistry referenceData = stub(ReferenceDataRegistry.class);
+        List<AudienceDto> audiences = List.of(new AudienceDto("general", "General Public"),
+            new AudienceDto("student", "Students"), new AudienceDto("government", "Government Employees"));
+        when(referenceData.audiences(anyString())).thenReturn(audiences);
+        when(referenceData.countryName(anyString())).thenReturn("Turkey");
+
+        HolidayService holidayService = stub(HolidayService.class);
+        List<HolidayDefinition> year = calendar();
+        when(holidayService.getHolidaysByDateRange(any(LocalDate.class), any(LocalDate.class), anyString())).thenReturn(year);
+        when(holidayService.getHolidaysByDate(any(LocalDate.class), anyString())).thenReturn(year.subList(0, 1));
+        when(holidayService.getHolidaysByDateRangeAndAudience(any(LocalDate.class), any(LocalDate.class), anyString(), anyString()))
+            .thenReturn(year.subList(0, 3));
+        when(holidayService.createHoliday(any(HolidayDefinition.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        HolidayTemplateService holidayTemplateService = stub(HolidayTemplateService.class);
+        when(holidayTemplateService.createTemplate(any(HolidayTemplate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        HolidayAudienceRepository holidayAudienceRepository = stub(HolidayAudienceRepository.class);
+        when(holidayAudienceRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        return new HolidayAiService(chatClientBuilder, holidayService, holidayTemplateService, stub(AudienceService.class),
+            referenceData, stub(TranslationRepository.class), holidayAudienceRepository, stub(ChangeEventBus.class),
+            stub(HolidayCalendarIndex.class), stub(HolidayNameIndex.class), new MessageAnalyzer(referenceData),
+            new PromptBuilder(1200, new SimpleMeterRegistry()), stub(HolidayRetrievalIndex.class),
+            new ModelCircuitBreaker(20, 5, 50, Duration.ofSeconds(20), 80, Duration.ofSeconds(30), 2, Duration.ofSeconds(60), 4));
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    // A year of holidays like Turkey's, so handlers format realistic answers
+    private static List<HolidayDefinition> calendar() {
+        String[][] rows = {
+            {"2025-01-01", "New Year's Day", "Official"}, {"2025-03-30", "Ramadan Feast", "Religious"},
+            {"2025-03-31", "Ramadan Feast", "Religious"}, {"2025-04-23", "Children's Day", "Official"},
+            {"2025-05-01", "Labour Day", "Official"}, {"2025-05-19", "Youth and Sports Day", "Official"},
+            {"2025-06-06", "Sacrifice Feast", "Religious"}, {"2025-06-07", "Sacrifice Feast", "Religious"},
+            {"2025-07-15", "Democracy Day", "Official"}, {"2025-08-30", "Victory Day", "Official"},
+            {"2025-10-29", "Republic Day", "Official"}};
+        List<HolidayDefinition> holidays = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            HolidayTemplate template = new HolidayTemplate();
+            template.setId((long) i + 1);
+            template.setCode(rows[i][1].toLowerCase().replace(' ', '_'));
+            template.setDefaultName(rows[i][1]);
+            template.setType(rows[i][2]);
+            HolidayDefinition holiday = new HolidayDefinition();
+            holiday.setId((long) i + 1);
+            holiday.setHolidayDate(LocalDate.parse(rows[i][0]));
+            holiday.setTemplate(template);
+            holidays.add(holiday);
+        }
+        return holidays;
+    }
+
+    private record Template(QueryIntent intent, String language, String text) {
+    }
+
+    private record Message(QueryIntent intent, String language, String text) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.emre.holidayapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatSessionStoreTest {
+
+    private final AtomicLong clock = new AtomicLong(1);
+
+    @Test
+    void open_ShouldReturnTheSameSessionUntilItExpires() {
+        // Given
+        ChatSessionStore store = new ChatSessionStore(Duration.ofMinutes(30), 10, clock::get);
+        ChatSession session = store.open(null, "US");
+
+        // When
+        clock.addAndGet(Duration.ofMinutes(20).toNanos());
+        ChatSession continued = store.open(session.id(), null);
+        clock.addAndGet(Duration.ofMinutes(31).toNanos());
+        ChatSession expired = store.open(session.id(), null);
+
+        // Then
+        assertThat(continued).isSameAs(session);
+        assertThat(continued.countryCode()).isEqualTo("US");
+        assertThat(expired).isNotSameAs(session);
+        assertThat(expired.countryCode()).isEqualTo(ChatSessionStore.DEFAULT_COUNTRY);
+    }
+
+    @Test
+    void open_ShouldDropTheLeastRecentlyUsedSessionWhenFull() {
+        // Given
+        ChatSessionStore store = new ChatSessionStore(Duration.ofMinutes(30), 2, clock::get);
+        ChatSession first = store.open(null, "TR");
+        ChatSession second = store.open(null, "TR");
+        store.open(first.id(), null);
+
+        // When
+        store.open(null, "DE");
+
+        // Then
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.open(first.id(), null)).isSameAs(first);
+        assertThat(store.open(second.id(), null)).isNotSameAs(second);
+    }
+
+    @Test
+    void evictExpired_ShouldRemoveOnlyIdleSessions() {
+        // Given
+        ChatSessionStore store = new ChatSessionStore(Duration.ofMinutes(30), 10, clock::get);
+        store.open(null, "TR");
+        clock.addAndGet(Duration.ofMinutes(20).toNanos());
+        ChatSession recent = store.open(null, "TR");
+        clock.addAndGet(Duration.ofMinutes(15).toNanos());
+
+        // When
+        store.evictExpired();
+
+        // Then
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.open(recent.id(), null)).isSameAs(recent);
+    }
+
+    @Test
+    void remember_ShouldKeepOnlyTheLastCondensedTurns() {
+        // Given
+        ChatSession session = new ChatSession("session-1", "TR");
+
+        // When
+        for (int i = 0; i < ChatSession.MAX_TURNS + 2; i++) {
+            session.remember("question " + i, "answer\n" + "x".repeat(500));
+        }
+
+        // Then
+        assertThat(session.turns()).hasSize(ChatSession.MAX_TURNS);
+        assertThat(session.turns().get(0)).startsWith("User: question 2 | Assistant: answer xxx");
+        assertThat(session.turns().get(0)).endsWith("...").hasSizeLessThan(200);
+    }
+
+    @Test
+    void constructor_ShouldRejectNonPositiveLimits() {
+        assertThatThrownBy(() -> new ChatSessionStore(Duration.ZERO, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
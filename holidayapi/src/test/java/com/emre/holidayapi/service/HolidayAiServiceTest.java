@@ -1,21 +1,27 @@
 package com.emre.holidayapi.service;
 
+import com.emre.holidayapi.config.ModelCircuitBreaker;
 import com.emre.holidayapi.dto.AudienceDto;
 import com.emre.holidayapi.model.*;
 import com.emre.holidayapi.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -40,7 +46,7 @@ class HolidayAiServiceTest {
     private AudienceService audienceService;
 
     @Mock
-    private CountryRepository countryRepository;
+    private ReferenceDataRegistry referenceData;
 
     @Mock
     private TranslationRepository translationRepository;
@@ -48,6 +54,18 @@ class HolidayAiServiceTest {
     @Mock
     private HolidayAudienceRepository holidayAudienceRepository;
 
+    @Mock
+    private ChangeEventBus changeEventBus;
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    @Mock
+    private HolidayNameIndex holidayNameIndex;
+
+    @Mock
+    private HolidayRetrievalIndex holidayRetrievalIndex;
+
     @InjectMocks
     private HolidayAiService holidayAiService;
 
@@ -62,7 +80,8 @@ class HolidayAiServiceTest {
         when(chatClientBuilder.build()).thenReturn(chatClient);
         
         // Initialize HolidayAiService with mocked dependencies
-        holidayAiService = new HolidayAiService(chatClientBuilder, holidayService, holidayTemplateService, audienceService, countryRepository, translationRepository, holidayAudienceRepository);
+        holidayAiService = new HolidayAiService(chatClientBuilder, holidayService, holidayTemplateService, audienceService, referenceData, translationRepository, holidayAudienceRepository, changeEventBus, holidayCalendarIndex, holidayNameIndex, new MessageAnalyzer(referenceData), new PromptBuilder(1200, new SimpleMeterRegistry()), holidayRetrievalIndex,
+            new ModelCircuitBreaker(20, 5, 50, Duration.ofSeconds(20), 80, Duration.ofSeconds(30), 2, Duration.ofSeconds(60), 4));
 
         // Setup test data
         holidayTemplate = new HolidayTemplate();
@@ -168,7 +187,7 @@ class HolidayAiServiceTest {
         String language = "en";
         
         List<AudienceDto> audiences = Arrays.asList(new AudienceDto("government", "Government"));
-        when(audienceService.getAllAudiencesTranslated(anyString())).thenReturn(audiences);
+        when(referenceData.audiences(anyString())).thenReturn(audiences);
 
         // When
         String response = holidayAiService.processHolidayQuery(userMessage, countryCode, language);
@@ -176,27 +195,86 @@ class HolidayAiServiceTest {
         // Then
         assertThat(response).isNotNull();
         assertThat(response).isNotEmpty();
-        verify(audienceService).getAllAudiencesTranslated(eq(language));
+        verify(referenceData).audiences(eq(language));
     }
 
     @Test
-    void processHolidayQuery_WithGeneralQuery_ShouldReturnGeneralResponse() {
+    void processHolidayQuery_WithGeneralQuery_ShouldSendACompactPromptToTheModel() {
         // Given
-        String userMessage = "Tell me about holidays";
-        String countryCode = "TR";
-        String language = "en";
-        
-        List<HolidayDefinition> holidays = Arrays.asList(holidayDefinition);
-        // Use lenient to avoid unnecessary stubbing warnings
-        lenient().when(holidayService.getHolidaysByCountry(anyString())).thenReturn(holidays);
-        when(holidayService.getHolidaysByDateRange(any(LocalDate.class), any(LocalDate.class), anyString())).thenReturn(holidays);
+        String userMessage = "Why do people celebrate holidays with family?";
+        ChatClient.ChatClientRequestSpec requestSpec = mock(ChatClient.ChatClientRequestSpec.class);
+        ChatClient.CallResponseSpec callSpec = mock(ChatClient.CallResponseSpec.class);
+        when(referenceData.countryName("TR")).thenReturn("Turkey");
+        when(holidayCalendarIndex.range(eq("TR"), eq(AudienceFilter.NONE), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of());
+        when(holidayRetrievalIndex.retrieve(any(MessageAnalyzer.Analysis.class), eq("TR"))).thenReturn(List.of(
+            new HolidayCalendarIndex.CalendarEntry("TR", 30L, LocalDate.of(2025, 10, 29),
+                new HolidayCalendarIndex.TemplateInfo(3L, "republic_day", "Republic Day", "Official"))));
+        when(holidayCalendarIndex.nameOf(any(HolidayCalendarIndex.TemplateInfo.class), eq("en"))).thenReturn("Republic Day");
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(callSpec);
+        when(callSpec.content()).thenReturn("Holidays bring families together.");
 
         // When
-        String response = holidayAiService.processHolidayQuery(userMessage, countryCode, language);
+        String response = holidayAiService.processHolidayQuery(userMessage, "TR", "en");
 
         // Then
-        assertThat(response).isNotNull();
-        assertThat(response).isNotEmpty();
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatClient).prompt(prompt.capture());
+        assertThat(response).isEqualTo("Holidays bring families together.");
+        assertThat(prompt.getValue().getContents())
+            .contains("holiday assistant for Turkey", "Holidays in " + LocalDate.now().getYear() + ": 0",
+                "2025-10-29|Republic Day|Official")
+            .endsWith("User question: " + userMessage)
+            .doesNotContain("Audiences:");
+    }
+
+    @Test
+    void processHolidayQuery_WithGeneralQuery_WhenModelFails_ShouldListRetrievedHolidays() {
+        // Given
+        String userMessage = "Why do people celebrate holidays with family?";
+        when(referenceData.countryName("TR")).thenReturn("Turkey");
+        when(holidayCalendarIndex.range(eq("TR"), eq(AudienceFilter.NONE), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of());
+        when(holidayRetrievalIndex.retrieve(any(MessageAnalyzer.Analysis.class), eq("TR"))).thenReturn(List.of(
+            new HolidayCalendarIndex.CalendarEntry("TR", 30L, LocalDate.of(2025, 10, 29),
+                new HolidayCalendarIndex.TemplateInfo(3L, "republic_day", "Republic Day", "Official"))));
+        when(holidayCalendarIndex.nameOf(any(HolidayCalendarIndex.TemplateInfo.class), eq("en"))).thenReturn("Republic Day");
+        when(chatClient.prompt(any(Prompt.class))).thenThrow(new RuntimeException("Connection refused"));
+
+        // When
+        String response = holidayAiService.processHolidayQuery(userMessage, "TR", "en");
+
+        // Then
+        assertThat(response)
+            .startsWith("The AI assistant is unavailable right now")
+            .contains("• 29/10/2025 - Republic Day (Official)")
+            .doesNotContain("Connection refused");
+    }
+
+    @Test
+    void processHolidayQuery_WithGeneralQuery_WhenModelFailsLater_ShouldReplayTheEarlierAnswer() {
+        // Given
+        String userMessage = "Why do people celebrate holidays with family?";
+        ChatClient.ChatClientRequestSpec requestSpec = mock(ChatClient.ChatClientRequestSpec.class);
+        ChatClient.CallResponseSpec callSpec = mock(ChatClient.CallResponseSpec.class);
+        when(referenceData.countryName("TR")).thenReturn("Turkey");
+        when(holidayCalendarIndex.range(eq("TR"), eq(AudienceFilter.NONE), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of());
+        when(holidayRetrievalIndex.retrieve(any(MessageAnalyzer.Analysis.class), eq("TR"))).thenReturn(List.of());
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(callSpec);
+        when(callSpec.content())
+            .thenReturn("Holidays bring families together.")
+            .thenThrow(new RuntimeException("Read timed out"));
+
+        // When
+        String first = holidayAiService.processHolidayQuery(userMessage, "TR", "en");
+        String second = holidayAiService.processHolidayQuery("why do people celebrate holidays with family", "TR", "en");
+
+        // Then
+        assertThat(first).isEqualTo("Holidays bring families together.");
+        assertThat(second).isEqualTo("Holidays bring families together.");
     }
 
     @Test
@@ -243,16 +321,18 @@ class HolidayAiServiceTest {
         String countryCode = "US";
         String language = "en";
         
-        List<HolidayDefinition> holidays = Arrays.asList(holidayDefinition);
-        lenient().when(holidayService.getHolidaysByCountry(anyString())).thenReturn(holidays);
-        when(holidayService.getHolidaysByDateRange(any(LocalDate.class), any(LocalDate.class), anyString())).thenReturn(holidays);
+        HolidayCalendarIndex.TemplateInfo template = new HolidayCalendarIndex.TemplateInfo(3L, "christmas", "Christmas Day", "Official");
+        HolidayCalendarIndex.CalendarEntry entry = new HolidayCalendarIndex.CalendarEntry("US", 30L, LocalDate.of(2025, 12, 25), template);
+        when(holidayNameIndex.search(eq("christmas"), eq("US"), any(LocalDate.class), any(LocalDate.class), anyInt()))
+            .thenReturn(List.of(entry));
+        when(holidayCalendarIndex.nameOf(template, "en")).thenReturn("Christmas Day");
 
         // When
         String response = holidayAiService.processHolidayQuery(userMessage, countryCode, language);
 
         // Then
-        assertThat(response).isNotNull();
-        assertThat(response).isNotEmpty();
+        assertThat(response).startsWith("Christmas Day is on 25/12/2025");
+        verify(holidayService, never()).getHolidaysByDateRange(any(), any(), any());
     }
 
     @Test
@@ -458,4 +538,60 @@ class HolidayAiServiceTest {
         verify(holidayService, times(1)).createHoliday(any(HolidayDefinition.class));
         verify(holidayTemplateService, times(1)).createTemplate(any(HolidayTemplate.class));
     }
+
+    @Test
+    void processHolidayQuery_WithSession_ShouldAnswerVacationFollowUpWithoutReclassifying() {
+        // Given
+        ChatSession session = new ChatSession("session-1", "TR");
+        int year = LocalDate.now().getYear();
+        when(holidayService.getHolidaysByDateRange(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), "TR"))
+            .thenReturn(List.of(holidayDefinition));
+
+        // When
+        String question = holidayAiService.processHolidayQuery("How can I optimize my vacation days?", session, "en");
+        boolean followUpUsesModel = holidayAiService.requiresModel("5", session);
+        String answer = holidayAiService.processHolidayQuery("5", session, "en");
+
+        // Then
+        assertThat(question).contains("How many vacation days can you take?");
+        assertThat(followUpUsesModel).isFalse();
+        assertThat(answer).startsWith("Based on your 5 available vacation days");
+        assertThat(session.pending()).isEqualTo(ChatSession.PendingQuestion.NONE);
+        assertThat(session.turns()).hasSize(2);
+        assertThat(holidayAiService.requiresModel("5", session)).isTrue();
+    }
+
+    @Test
+    void processHolidayQuery_WithSession_ShouldNotPlanAnUnboundedNumberOfVacationDays() {
+        // Given
+        ChatSession session = new ChatSession("session-1", "TR");
+        holidayAiService.processHolidayQuery("How can I optimize my vacation days?", session, "en");
+
+        // When
+        String answer = holidayAiService.processHolidayQuery("999999999", session, "en");
+
+        // Then
+        assertThat(answer).contains("between 1 and " + HolidayAiService.MAX_VACATION_DAYS);
+        verify(holidayService, never()).getHolidaysByDateRange(any(LocalDate.class), any(LocalDate.class), anyString());
+    }
+
+    @Test
+    void planVacation_ShouldRejectDaysAndYearsOutsideTheLimits() {
+        assertThatThrownBy(() -> holidayAiService.planVacation(2026, HolidayAiService.MAX_VACATION_DAYS + 1, "TR", "en"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Vacation days must be between 1 and " + HolidayAiService.MAX_VACATION_DAYS);
+        assertThatThrownBy(() -> holidayAiService.planVacation(1_000_000_000, 5, "TR", "en"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Year must be between");
+        verifyNoInteractions(holidayService);
+    }
+
+    @Test
+    void requiresModel_ShouldOnlyBeTrueForGeneralQuestions() {
+        // When & Then
+        assertThat(holidayAiService.requiresModel("Is there a holiday today?")).isFalse();
+        assertThat(holidayAiService.requiresModel("What holidays are there between 01/01/2025 and 31/01/2025?")).isFalse();
+        assertThat(holidayAiService.requiresModel("Why do people celebrate?")).isTrue();
+        assertThat(holidayAiService.requiresModel(null)).isFalse();
+    }
 }
@@ -0,0 +1,158 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.repository.HolidayAudienceRepository;
+import com.emre.holidayapi.repository.HolidayDefinitionRepository;
+import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.repository.TranslationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayCalendarIndexTest {
+
+    @Mock
+    private HolidayDefinitionRepository holidayDefinitionRepository;
+
+    @Mock
+    private HolidayTemplateRepository holidayTemplateRepository;
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private HolidayAudienceRepository holidayAudienceRepository;
+
+    private HolidayCalendarIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new HolidayCalendarIndex(holidayDefinitionRepository, holidayTemplateRepository,
+            translationRepository, holidayAudienceRepository, new CalendarSnapshotStore(""));
+
+        HolidayTemplate template = new HolidayTemplate();
+        template.setId(10L);
+        template.setCode("republic_day");
+        template.setDefaultName("Republic Day");
+        template.setType("Official");
+
+        when(holidayTemplateRepository.findAll()).thenReturn(List.of(template));
+        when(translationRepository.findAllNames())
+            .thenReturn(List.<Object[]>of(new Object[]{10L, "tr", "Cumhuriyet Bayramı"}));
+        when(holidayAudienceRepository.findAllAudienceCodes())
+            .thenReturn(List.<Object[]>of(new Object[]{2L, "government"}));
+        when(holidayDefinitionRepository.findCalendarRows()).thenReturn(List.of(
+            new Object[]{"DE", 5L, LocalDate.of(2025, 10, 3), 10L},
+            new Object[]{"TR", 1L, LocalDate.of(2024, 10, 29), 10L},
+            new Object[]{"TR", 2L, LocalDate.of(2025, 4, 23), 10L},
+            new Object[]{"TR", 3L, LocalDate.of(2025, 10, 29), 10L}
+        ));
+    }
+
+    @Test
+    void next_ShouldIncludeHolidayOnFromDate() {
+        // When
+        List<HolidayCalendarIndex.CalendarEntry> result = index.next("TR", null, LocalDate.of(2025, 4, 23), 5);
+
+        // Then
+        assertThat(result).extracting(HolidayCalendarIndex.CalendarEntry::definitionId).containsExactly(2L, 3L);
+        assertThat(result.get(0).countryCode()).isEqualTo("TR");
+    }
+
+    @Test
+    void previous_ShouldReturnLatestFirstAndExcludeFromDate() {
+        // When
+        List<HolidayCalendarIndex.CalendarEntry> result = index.previous("TR", null, LocalDate.of(2025, 10, 29), 5);
+
+        // Then
+        assertThat(result).extracting(HolidayCalendarIndex.CalendarEntry::definitionId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void next_ShouldFilterByAudience() {
+        // When
+        List<HolidayCalendarIndex.CalendarEntry> result = index.next("TR", "government", LocalDate.of(2024, 1, 1), 5);
+
+        // Then
+        assertThat(result).extracting(HolidayCalendarIndex.CalendarEntry::definitionId).containsExactly(2L);
+    }
+
+    @Test
+    void next_ShouldClampCountToAtLeastOne() {
+        // When
+        List<HolidayCalendarIndex.CalendarEntry> result = index.next("TR", null, LocalDate.of(2024, 1, 1), 0);
+
+        // Then
+        assertThat(result).hasSize(1);
+    }
+
+    @Test
+    void next_ShouldReturnEmptyForUnknownCountry() {
+        // When
+        List<HolidayCalendarIndex.CalendarEntry> result = index.next("XX", null, LocalDate.of(2024, 1, 1), 5);
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void nameOf_ShouldFallBackToDefaultName() {
+        // Given
+        HolidayCalendarIndex.CalendarEntry entry = index.next("TR", null, LocalDate.of(2024, 1, 1), 1).get(0);
+
+        // When & Then
+        assertThat(index.nameOf(entry.template(), "tr")).isEqualTo("Cumhuriyet Bayramı");
+        assertThat(index.nameOf(entry.template(), "de")).isEqualTo("Republic Day");
+    }
+
+    @Test
+    void onHolidayChanged_ShouldReloadSnapshot() {
+        // Given
+        index.entries("TR");
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"TR", 9L, LocalDate.of(2026, 1, 1), 10L});
+        when(holidayDefinitionRepository.findCalendarRows()).thenReturn(rows);
+
+        // When
+        index.onHolidayChanged(DomainChangeEvent.of(DomainChangeEvent.EntityType.TEMPLATE, Set.of("10")));
+
+        // Then
+        assertThat(index.entries("TR")).extracting(HolidayCalendarIndex.CalendarEntry::definitionId).containsExactly(9L);
+        verify(holidayDefinitionRepository, times(2)).findCalendarRows();
+    }
+
+    @Test
+    void onHolidayChanged_ShouldRefreshOnlyAffectedCountries() {
+        // Given
+        CalendarSnapshot.CountryCalendar germany = index.current().countries().get("DE");
+        when(holidayDefinitionRepository.findCalendarRowsByCountryCodes(Set.of("TR"))).thenReturn(List.of(
+            new Object[]{"TR", 2L, LocalDate.of(2025, 4, 23), 10L},
+            new Object[]{"TR", 4L, LocalDate.of(2025, 5, 19), 10L}
+        ));
+        when(holidayAudienceRepository.findAudienceCodesByDefinitionIds(Set.of(4L)))
+            .thenReturn(List.<Object[]>of(new Object[]{4L, "students"}));
+
+        // When
+        index.onHolidayChanged(new DomainChangeEvent(DomainChangeEvent.EntityType.HOLIDAY, Set.of("4"), Set.of("TR"),
+            LocalDate.of(2025, 5, 19), LocalDate.of(2025, 5, 19)));
+
+        // Then
+        assertThat(index.entries("TR")).extracting(HolidayCalendarIndex.CalendarEntry::definitionId).containsExactly(2L, 4L);
+        assertThat(index.next("TR", "students", LocalDate.of(2025, 1, 1), 5))
+            .extracting(HolidayCalendarIndex.CalendarEntry::definitionId).containsExactly(4L);
+        assertThat(index.current().countries().get("DE")).isSameAs(germany);
+        verify(holidayDefinitionRepository, times(1)).findCalendarRows();
+        verify(holidayTemplateRepository, times(1)).findAll();
+    }
+}
@@ -1,10 +1,14 @@
 package com.emre.holidayapi.service;
 
+import com.emre.holidayapi.config.ModelCircuitBreaker;
+import com.emre.holidayapi.dto.AudienceDto;
 import com.emre.holidayapi.model.*;
 import com.emre.holidayapi.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.client.ChatClient;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
 
@@ -21,9 +25,13 @@ public class HolidayCreationDebugTest {
         HolidayService holidayService = mock(HolidayService.class);
         HolidayTemplateService holidayTemplateService = mock(HolidayTemplateService.class);
         AudienceService audienceService = mock(AudienceService.class);
-        CountryRepository countryRepository = mock(CountryRepository.class);
+        ReferenceDataRegistry referenceData = mock(ReferenceDataRegistry.class);
         TranslationRepository translationRepository = mock(TranslationRepository.class);
         HolidayAudienceRepository holidayAudienceRepository = mock(HolidayAudienceRepository.class);
+        ChangeEventBus changeEventBus = mock(ChangeEventBus.class);
+        HolidayCalendarIndex holidayCalendarIndex = mock(HolidayCalendarIndex.class);
+        HolidayNameIndex holidayNameIndex = mock(HolidayNameIndex.class);
+        HolidayRetrievalIndex holidayRetrievalIndex = mock(HolidayRetrievalIndex.class);
 
         when(chatClientBuilder.build()).thenReturn(chatClient);
 
@@ -47,13 +55,17 @@ public class HolidayCreationDebugTest {
         when(holidayTemplateService.findByCode("ordinary_day_at_internship")).thenReturn(null);
         when(holidayTemplateService.createTemplate(any(HolidayTemplate.class))).thenReturn(template);
         when(holidayService.createHoliday(any(HolidayDefinition.class))).thenReturn(holiday);
-        when(audienceService.getAllAudiences()).thenReturn(Arrays.asList(audience));
+        when(referenceData.audiences("en")).thenReturn(Arrays.asList(new AudienceDto("general", "General Public")));
+        when(audienceService.getReference("general")).thenReturn(audience);
         when(holidayAudienceRepository.save(any(HolidayAudience.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Create service
         HolidayAiService service = new HolidayAiService(
             chatClientBuilder, holidayService, holidayTemplateService, 
-            audienceService, countryRepository, translationRepository, holidayAudienceRepository
+            audienceService, referenceData, translationRepository, holidayAudienceRepository, changeEventBus,
+            holidayCalendarIndex, holidayNameIndex, new MessageAnalyzer(referenceData),
+            new PromptBuilder(1200, new SimpleMeterRegistry()), holidayRetrievalIndex,
+            new ModelCircuitBreaker(20, 5, 50, Duration.ofSeconds(20), 80, Duration.ofSeconds(30), 2, Duration.ofSeconds(60), 4)
         );
 
         // Test holiday creation
@@ -69,6 +81,7 @@ public class HolidayCreationDebugTest {
             verify(holidayTemplateService).createTemplate(any(HolidayTemplate.class));
             verify(holidayService).createHoliday(any(HolidayDefinition.class));
             verify(holidayAudienceRepository).save(any(HolidayAudience.class));
+            verify(changeEventBus).publish(any(DomainChangeEvent.class));
             
         } catch (Exception e) {
             System.err.println("Exception during holiday creation: " + e.getMessage());
@@ -0,0 +1,122 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.dto.HolidayDto;
+import com.emre.holidayapi.model.Audience;
+import com.emre.holidayapi.model.HolidayDefinition;
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.repository.AudienceRepository;
+import com.emre.holidayapi.repository.CountryRepository;
+import com.emre.holidayapi.repository.HolidayAudienceRepository;
+import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.repository.TranslationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayDtoMapperTest {
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private HolidayAudienceRepository holidayAudienceRepository;
+
+    @Mock
+    private AudienceRepository audienceRepository;
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private HolidayTemplateRepository holidayTemplateRepository;
+
+    private HolidayDtoMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new HolidayDtoMapper(translationRepository, holidayAudienceRepository,
+            new ReferenceDataRegistry(countryRepository, audienceRepository, holidayTemplateRepository));
+    }
+
+    @Test
+    void toDtos_ShouldResolveNamesAndAudiencesWithOneQueryEach() {
+        // Given
+        HolidayTemplate template = new HolidayTemplate();
+        template.setId(10L);
+        template.setDefaultName("Teachers' Day");
+        template.setType("Observance");
+        Map<String, List<HolidayDefinition>> byCountry = new LinkedHashMap<>();
+        byCountry.put("TR", List.of(definition(1L, template)));
+        byCountry.put("AZ", List.of(definition(2L, template)));
+        when(translationRepository.findNamesByTemplateIdsAndLanguage(Set.of(10L), "tr"))
+            .thenReturn(List.<Object[]>of(new Object[]{10L, "Öğretmenler Günü"}));
+        when(holidayAudienceRepository.findAudienceCodesByDefinitionIds(Set.of(1L, 2L)))
+            .thenReturn(List.<Object[]>of(new Object[]{1L, "educational"}, new Object[]{1L, "teachers"}));
+        when(audienceRepository.findAll()).thenReturn(List.of(audience("teachers", "Teachers")));
+
+        // When
+        Map<String, List<HolidayDto>> result = mapper.toDtos(byCountry, "tr");
+
+        // Then
+        assertThat(result).containsOnlyKeys("TR", "AZ");
+        HolidayDto turkey = result.get("TR").get(0);
+        assertThat(turkey.name).isEqualTo("Öğretmenler Günü");
+        assertThat(turkey.audiences).containsExactly("Eğitim", "Teachers");
+        assertThat(result.get("AZ").get(0).audiences).isEmpty();
+        verify(translationRepository, never()).findByTemplateIdAndLanguageCode(any(), any());
+    }
+
+    @Test
+    void toDtos_ShouldSplitLargeIdListsIntoBatches() {
+        // Given - 250 holidays on 250 templates
+        List<HolidayDefinition> defs = LongStream.rangeClosed(1, 250)
+            .mapToObj(id -> {
+                HolidayTemplate template = new HolidayTemplate();
+                template.setId(id);
+                template.setDefaultName("Holiday " + id);
+                return definition(id, template);
+            })
+            .toList();
+        when(translationRepository.findNamesByTemplateIdsAndLanguage(any(), eq("tr"))).thenReturn(List.of());
+        when(holidayAudienceRepository.findAudienceCodesByDefinitionIds(any())).thenReturn(List.of());
+
+        // When
+        List<HolidayDto> result = mapper.toDtos(defs, "TR", "tr");
+
+        // Then
+        assertThat(result).hasSize(250);
+        verify(translationRepository, times(3)).findNamesByTemplateIdsAndLanguage(argThat(ids -> ids.size() <= 100), eq("tr"));
+        verify(holidayAudienceRepository, times(3)).findAudienceCodesByDefinitionIds(argThat(ids -> ids.size() <= 100));
+    }
+
+    private static HolidayDefinition definition(Long id, HolidayTemplate template) {
+        HolidayDefinition definition = new HolidayDefinition();
+        definition.setId(id);
+        definition.setTemplate(template);
+        definition.setHolidayDate(LocalDate.of(2025, 11, 24));
+        return definition;
+    }
+
+    private static Audience audience(String code, String name) {
+        Audience audience = new Audience();
+        audience.setCode(code);
+        audience.setAudienceName(name);
+        return audience;
+    }
+}
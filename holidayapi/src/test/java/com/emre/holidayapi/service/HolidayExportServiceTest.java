@@ -0,0 +1,85 @@
+package com.emre.holidayapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HolidayExportServiceTest {
+
+    private EmbeddedDatabase database;
+    private HolidayExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE countries (country_code VARCHAR(10) PRIMARY KEY, country_name VARCHAR(100))");
+        jdbcTemplate.execute("CREATE TABLE holiday_templates (id BIGINT PRIMARY KEY, code VARCHAR(100), default_name VARCHAR(150), type VARCHAR(50))");
+        jdbcTemplate.execute("CREATE TABLE holiday_definitions (id BIGINT PRIMARY KEY, template_id BIGINT, holiday_date DATE)");
+        jdbcTemplate.execute("CREATE TABLE country_holidays (id BIGINT PRIMARY KEY, country_code VARCHAR(10), template_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE translations (id BIGINT PRIMARY KEY, template_id BIGINT, language_code VARCHAR(10), translated_name VARCHAR(200))");
+        jdbcTemplate.execute("CREATE TABLE holiday_audiences (id BIGINT PRIMARY KEY, definition_id BIGINT, audience_code VARCHAR(50))");
+
+        jdbcTemplate.update("INSERT INTO countries VALUES ('TR', 'Turkey'), ('DE', 'Germany')");
+        jdbcTemplate.update("INSERT INTO holiday_templates VALUES (1, 'new_year', 'New Year', 'Official'), (2, 'republic_day', 'Republic Day, TR', 'Official')");
+        jdbcTemplate.update("INSERT INTO holiday_definitions VALUES (10, 1, DATE '2025-01-01'), (11, 2, DATE '2025-10-29')");
+        jdbcTemplate.update("INSERT INTO country_holidays VALUES (1, 'TR', 1), (2, 'DE', 1), (3, 'TR', 2)");
+        jdbcTemplate.update("INSERT INTO translations VALUES (1, 1, 'tr', 'Yılbaşı'), (2, 1, 'de', 'Neujahr')");
+        jdbcTemplate.update("INSERT INTO holiday_audiences VALUES (1, 10, 'general'), (2, 10, 'government')");
+
+        exportService = new HolidayExportService(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void export_Csv_ShouldWriteOneRowPerDefinitionAndCountry() throws Exception {
+        // When
+        String[] lines = export("csv", null, null).split("\r\n");
+
+        // Then
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).isEqualTo("definition_id,holiday_date,country_code,country_name,template_code,default_name,type,audiences,translations");
+        assertThat(lines[1]).isEqualTo("10,2025-01-01,DE,Germany,new_year,New Year,Official,general|government,de=Neujahr|tr=Yılbaşı");
+        assertThat(lines[2]).startsWith("10,2025-01-01,TR,Turkey,");
+        assertThat(lines[3]).isEqualTo("11,2025-10-29,TR,Turkey,republic_day,\"Republic Day, TR\",Official,,");
+    }
+
+    @Test
+    void export_Ndjson_ShouldFilterByDateRange() throws Exception {
+        // When
+        String[] lines = export("ndjson", LocalDate.of(2025, 6, 1), LocalDate.of(2025, 12, 31)).split("\n");
+
+        // Then
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"definitionId\":11", "\"countryCode\":\"TR\"", "\"audiences\":[]", "\"translations\":{}");
+    }
+
+    @Test
+    void export_ShouldRejectUnknownFormat() {
+        assertThatThrownBy(() -> export("xml", null, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String export(String format, LocalDate from, LocalDate to) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(format, from, to, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.repository.HolidayAudienceRepository;
+import com.emre.holidayapi.repository.HolidayDefinitionRepository;
+import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.repository.TranslationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayFeedServiceTest {
+
+    @Mock
+    private HolidayDefinitionRepository holidayDefinitionRepository;
+
+    @Mock
+    private HolidayTemplateRepository holidayTemplateRepository;
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private HolidayAudienceRepository holidayAudienceRepository;
+
+    private HolidayCalendarIndex index;
+    private HolidayFeedService feedService;
+
+    @BeforeEach
+    void setUp() {
+        index = new HolidayCalendarIndex(holidayDefinitionRepository, holidayTemplateRepository,
+            translationRepository, holidayAudienceRepository, new CalendarSnapshotStore(""));
+        feedService = new HolidayFeedService(index);
+
+        HolidayTemplate template = new HolidayTemplate();
+        template.setId(10L);
+        template.setCode("republic_day");
+        template.setDefaultName("Republic Day");
+        template.setType("Official");
+
+        when(holidayTemplateRepository.findAll()).thenReturn(List.of(template));
+        when(translationRepository.findAllNames())
+            .thenReturn(List.<Object[]>of(new Object[]{10L, "tr", "Cumhuriyet Bayramı, 29 Ekim"}));
+        when(holidayAudienceRepository.findAllAudienceCodes()).thenReturn(List.of());
+        when(holidayDefinitionRepository.findCalendarRows()).thenReturn(List.of(
+            new Object[]{"TR", 1L, LocalDate.of(2025, 10, 29), 10L},
+            new Object[]{"TR", 2L, LocalDate.of(2026, 10, 29), 10L}
+        ));
+    }
+
+    @Test
+    void getFeed_ShouldRenderOneEventPerHolidayInRequestedYears() {
+        // When
+        String body = new String(feedService.getFeed("TR", null, "tr", Set.of(2025)).body(), StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(body).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(body).contains("DTSTART;VALUE=DATE:20251029\r\n", "DTEND;VALUE=DATE:20251030\r\n");
+        assertThat(body).contains("SUMMARY:Cumhuriyet Bayramı\\, 29 Ekim\r\n");
+        assertThat(body).doesNotContain("20261029");
+    }
+
+    @Test
+    void getFeed_ShouldServeCachedBytesUntilReload() {
+        // Given
+        HolidayFeedService.Feed first = feedService.getFeed("TR", null, "en", null);
+
+        // When
+        HolidayFeedService.Feed second = feedService.getFeed("TR", null, "en", null);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        verify(holidayDefinitionRepository, times(1)).findCalendarRows();
+    }
+
+    @Test
+    void getFeed_ShouldKeepEtagWhenReloadDoesNotChangeContent() {
+        // Given
+        HolidayFeedService.Feed first = feedService.getFeed("TR", null, "en", null);
+
+        // When
+        index.reload();
+        HolidayFeedService.Feed second = feedService.getFeed("TR", null, "en", null);
+
+        // Then
+        assertThat(second.etag()).isEqualTo(first.etag());
+    }
+
+    @Test
+    void getFeed_ShouldChangeEtagWhenHolidaysChange() {
+        // Given
+        HolidayFeedService.Feed first = feedService.getFeed("TR", null, "en", null);
+        when(holidayDefinitionRepository.findCalendarRows()).thenReturn(List.<Object[]>of(
+            new Object[]{"TR", 1L, LocalDate.of(2025, 10, 29), 10L}));
+
+        // When
+        index.reload();
+        HolidayFeedService.Feed second = feedService.getFeed("TR", null, "en", null);
+
+        // Then
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void getFeed_ShouldOnlyCacheByCodesThatChangeTheFeed() {
+        // Given
+        HolidayFeedService.Feed english = feedService.getFeed("TR", null, "en", null);
+
+        // When
+        HolidayFeedService.Feed german = feedService.getFeed("TR", null, "de", null);
+        feedService.getFeed("XX", null, "en", null);
+        feedService.getFeed("TR", "nobody", "en", null);
+
+        // Then - untranslated languages share the default-name feed; unknown codes aren't cached
+        assertThat(german).isSameAs(english);
+        assertThat(feedService.cachedFeeds()).isEqualTo(1);
+    }
+
+    @Test
+    void getFeed_ShouldNotCacheYearsOutsideTheCalendar() {
+        // Given
+        feedService.getFeed("TR", null, "en", Set.of(2025, 2026));
+
+        // When
+        for (int year = 3000; year < 3100; year++) {
+            feedService.getFeed("TR", null, "en", Set.of(2025, year));
+        }
+        String body = new String(feedService.getFeed("TR", null, "en", Set.of(1999)).body(), StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(body).doesNotContain("BEGIN:VEVENT");
+        assertThat(feedService.cachedFeeds()).isEqualTo(1);
+    }
+}
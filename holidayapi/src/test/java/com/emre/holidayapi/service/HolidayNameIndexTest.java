@@ -0,0 +1,108 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayNameIndexTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    private HolidayNameIndex nameIndex;
+
+    @BeforeEach
+    void setUp() {
+        nameIndex = new HolidayNameIndex(holidayCalendarIndex);
+    }
+
+    @Test
+    void fold_ShouldApplyTurkishCaseRulesAndDropDiacritics() {
+        assertThat(HolidayNameIndex.fold("CUMHURİYET BAYRAMI")).isEqualTo("cumhuriyet bayrami");
+        assertThat(HolidayNameIndex.fold("Kurban Bayramı")).isEqualTo("kurban bayrami");
+        assertThat(HolidayNameIndex.fold("  Atatürk'ü Anma, Gençlik ve Spor Bayramı ")).isEqualTo("ataturk u anma genclik ve spor bayrami");
+    }
+
+    @Test
+    void search_ShouldMatchTranslationsRegardlessOfCaseAndDiacritics() {
+        // Given
+        when(holidayCalendarIndex.current()).thenReturn(snapshot(Map.of(
+            2L, Map.of("tr", "Ramazan Bayramı"),
+            3L, Map.of("tr", "Cumhuriyet Bayramı"))));
+
+        // When
+        List<CalendarEntry> ramadan = nameIndex.search("ramazan bayrami", "TR", START, END, 10);
+        List<CalendarEntry> republic = nameIndex.search("CUMHURIYET", null, START, END, 10);
+        List<CalendarEntry> typo = nameIndex.search("ramazn bayrami", "TR", START, END, 10);
+
+        // Then
+        assertThat(ramadan).extracting(CalendarEntry::definitionId).containsExactly(20L);
+        assertThat(republic).extracting(CalendarEntry::definitionId).containsExactly(31L, 30L);
+        assertThat(typo).extracting(CalendarEntry::definitionId).startsWith(20L);
+    }
+
+    @Test
+    void search_ShouldRankCloserNamesFirst() {
+        // Given
+        when(holidayCalendarIndex.current()).thenReturn(snapshot(Map.of()));
+
+        // When
+        List<CalendarEntry> result = nameIndex.search("republic day", "TR", START, END, 10);
+
+        // Then - the eve is earlier in the year but its name only contains the query
+        assertThat(result).extracting(CalendarEntry::definitionId).containsExactly(30L, 40L);
+        assertThat(nameIndex.search("republic day", "TR", START, END, 1)).hasSize(1);
+        assertThat(nameIndex.search("xyz", "TR", START, END, 10)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldRebuildWhenTranslationsChange() {
+        // Given
+        when(holidayCalendarIndex.current())
+            .thenReturn(snapshot(Map.of()))
+            .thenReturn(snapshot(Map.of(2L, Map.of("tr", "Şeker Bayramı"))));
+
+        // When
+        List<CalendarEntry> before = nameIndex.search("seker", "TR", START, END, 10);
+        List<CalendarEntry> after = nameIndex.search("seker", "TR", START, END, 10);
+
+        // Then
+        assertThat(before).isEmpty();
+        assertThat(after).extracting(CalendarEntry::definitionId).containsExactly(20L);
+    }
+
+    private static CalendarSnapshot snapshot(Map<Long, Map<String, String>> translations) {
+        CalendarSnapshot.CountryCalendar turkey = new CalendarSnapshot.CountryCalendar(
+            new int[]{day(3, 30), day(10, 28), day(10, 29)},
+            new long[]{20L, 40L, 30L},
+            new long[]{2L, 4L, 3L});
+        CalendarSnapshot.CountryCalendar cyprus = new CalendarSnapshot.CountryCalendar(
+            new int[]{day(10, 29)},
+            new long[]{31L},
+            new long[]{3L});
+        return new CalendarSnapshot(Map.of("TR", turkey, "CY", cyprus),
+            Map.of(2L, new TemplateInfo(2L, "eid_al_fitr", "Eid al-Fitr", "Religious"),
+                3L, new TemplateInfo(3L, "republic_day", "Republic Day", "Official"),
+                4L, new TemplateInfo(4L, "republic_day_eve", "Republic Day Eve", "Observance")),
+            translations, Map.of());
+    }
+
+    private static int day(int month, int dayOfMonth) {
+        return (int) LocalDate.of(2025, month, dayOfMonth).toEpochDay();
+    }
+}
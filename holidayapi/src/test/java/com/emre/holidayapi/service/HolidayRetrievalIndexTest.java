@@ -0,0 +1,148 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayRetrievalIndexTest {
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    private MessageAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        analyzer = new MessageAnalyzer(referenceData);
+    }
+
+    @Test
+    void retrieve_ShouldRankHolidaysByTheirNamesInAnyLanguage() {
+        // Given
+        when(holidayCalendarIndex.current()).thenReturn(snapshot());
+        HolidayRetrievalIndex index = new HolidayRetrievalIndex(holidayCalendarIndex, Optional.empty(), 0.5, 8);
+        MessageAnalyzer.Analysis question = analyzer.analyze("What do people do on Şeker Bayramı in 2025?", "en");
+
+        // When
+        List<CalendarEntry> all = index.retrieve(question, "TR");
+        List<CalendarEntry> top = index.retrieve(question, "TR", 1);
+
+        // Then - the rest of the year follows in date order
+        assertThat(all).extracting(CalendarEntry::definitionId).containsExactly(20L, 40L, 30L);
+        assertThat(top).extracting(CalendarEntry::definitionId).containsExactly(20L);
+    }
+
+    @Test
+    void retrieve_ShouldKeepToTheMonthsAndAudiencesInTheQuestion() {
+        // Given
+        when(holidayCalendarIndex.current()).thenReturn(snapshot());
+        HolidayRetrievalIndex index = new HolidayRetrievalIndex(holidayCalendarIndex, Optional.empty(), 0.5, 8);
+
+        // When
+        List<CalendarEntry> october = index.retrieve(analyzer.analyze("Which holidays are in October 2025?", "en"), "TR");
+        List<CalendarEntry> students = index.retrieve(analyzer.analyze("Is there a break for students in 2025?", "en"), "TR");
+
+        // Then
+        assertThat(october).extracting(CalendarEntry::definitionId).containsExactly(40L, 30L);
+        assertThat(students).extracting(CalendarEntry::definitionId).containsExactly(30L, 20L, 40L);
+    }
+
+    @Test
+    void retrieve_ShouldPreferNearbyHolidaysWhenTheQuestionHasNoDates() {
+        // Given
+        LocalDate today = LocalDate.now();
+        CalendarSnapshot.CountryCalendar turkey = new CalendarSnapshot.CountryCalendar(
+            new int[]{(int) today.minusDays(20).toEpochDay(), (int) today.plusDays(10).toEpochDay(), (int) today.plusDays(200).toEpochDay()},
+            new long[]{1L, 2L, 3L},
+            new long[]{3L, 3L, 3L});
+        when(holidayCalendarIndex.current()).thenReturn(new CalendarSnapshot(Map.of("TR", turkey),
+            Map.of(3L, new TemplateInfo(3L, "republic_day", "Republic Day", "Official")), Map.of(), Map.of()));
+        HolidayRetrievalIndex index = new HolidayRetrievalIndex(holidayCalendarIndex, Optional.empty(), 0.5, 8);
+
+        // When
+        List<CalendarEntry> result = index.retrieve(analyzer.analyze("Anything coming up?", "en"), "TR");
+
+        // Then - past holidays count as twice as far away
+        assertThat(result).extracting(CalendarEntry::definitionId).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void retrieve_ShouldBlendEmbeddingSimilarityWithLexicalScores() {
+        // Given
+        when(holidayCalendarIndex.current()).thenReturn(snapshot());
+        HolidayEmbedder embedder = text -> text.contains("Eid") || text.contains("sweets") ? new float[]{1, 0} : new float[]{0, 1};
+        HolidayRetrievalIndex index = new HolidayRetrievalIndex(holidayCalendarIndex, Optional.of(embedder), 0.5, 8);
+
+        // When
+        List<CalendarEntry> result = index.retrieve(analyzer.analyze("Where can I buy sweets in 2025?", "en"), "TR", 1);
+
+        // Then - no name shares a word with the question
+        assertThat(result).extracting(CalendarEntry::definitionId).containsExactly(20L);
+    }
+
+    @Test
+    void retrieve_ShouldFallBackToLexicalScoresWhenTheEmbedderFails() {
+        // Given
+        when(holidayCalendarIndex.current()).thenReturn(snapshot());
+        HolidayEmbedder embedder = text -> {
+            throw new IllegalStateException("Embedding model unavailable");
+        };
+        HolidayRetrievalIndex index = new HolidayRetrievalIndex(holidayCalendarIndex, Optional.of(embedder), 0.5, 8);
+
+        // When
+        List<CalendarEntry> result = index.retrieve(analyzer.analyze("When is the republic celebrated in 2025?", "en"), "TR");
+
+        // Then
+        assertThat(result).extracting(CalendarEntry::definitionId).containsExactly(30L, 40L, 20L);
+    }
+
+    @Test
+    void hashingEmbedder_ShouldPlaceSimilarNamesCloseTogether() {
+        // Given
+        HashingEmbedder embedder = new HashingEmbedder();
+
+        // When
+        double sameName = HolidayRetrievalIndex.cosine(embedder.embed("Kurban Bayramı"), embedder.embed("KURBAN BAYRAMI"));
+        double sharedWord = HolidayRetrievalIndex.cosine(embedder.embed("Ramazan Bayramı"), embedder.embed("Kurban Bayramı"));
+        double unrelated = HolidayRetrievalIndex.cosine(embedder.embed("Ramazan Bayramı"), embedder.embed("Republic Day"));
+
+        // Then
+        assertThat(sameName).isCloseTo(1.0, within(1e-6));
+        assertThat(sharedWord).isGreaterThan(unrelated + 0.3);
+    }
+
+    private static CalendarSnapshot snapshot() {
+        CalendarSnapshot.CountryCalendar turkey = new CalendarSnapshot.CountryCalendar(
+            new int[]{day(3, 30), day(10, 28), day(10, 29)},
+            new long[]{20L, 40L, 30L},
+            new long[]{2L, 4L, 3L});
+        return new CalendarSnapshot(Map.of("TR", turkey),
+            Map.of(2L, new TemplateInfo(2L, "eid_al_fitr", "Eid al-Fitr", "Religious"),
+                3L, new TemplateInfo(3L, "republic_day", "Republic Day", "Official"),
+                4L, new TemplateInfo(4L, "republic_day_eve", "Republic Day Eve", "Observance")),
+            Map.of(2L, Map.of("tr", "Şeker Bayramı")),
+            Map.of(30L, Set.of("students")));
+    }
+
+    private static int day(int month, int dayOfMonth) {
+        return (int) LocalDate.of(2025, month, dayOfMonth).toEpochDay();
+    }
+}
@@ -13,7 +13,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +28,9 @@ class HolidayServiceTest {
     @Mock
     private HolidayDefinitionRepository repository;
 
+    @Mock
+    private ChangeEventBus changeEventBus;
+
     @InjectMocks
     private HolidayService holidayService;
 
@@ -201,6 +207,42 @@ class HolidayServiceTest {
         verify(repository).deleteById(holidayId);
     }
 
+    @Test
+    void updateHoliday_ShouldPublishChangeForOldAndNewDatesAndCountries() {
+        // Given
+        Long holidayId = 1L;
+        HolidayTemplate otherTemplate = new HolidayTemplate();
+        otherTemplate.setId(2L);
+        HolidayDefinition updatedHoliday = new HolidayDefinition();
+        updatedHoliday.setTemplate(otherTemplate);
+        updatedHoliday.setHolidayDate(LocalDate.of(2025, 12, 25));
+        when(repository.findById(holidayId)).thenReturn(Optional.of(holidayDefinition));
+        when(repository.findCountryCodesByTemplateId(1L)).thenReturn(List.of("TR"));
+        when(repository.findCountryCodesByTemplateId(2L)).thenReturn(List.of("US"));
+        when(repository.save(updatedHoliday)).thenReturn(updatedHoliday);
+
+        // When
+        holidayService.updateHoliday(holidayId, updatedHoliday);
+
+        // Then
+        verify(changeEventBus).publish(new DomainChangeEvent(DomainChangeEvent.EntityType.HOLIDAY,
+            Set.of("1"), Set.of("TR", "US"), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 25)));
+    }
+
+    @Test
+    void deleteHoliday_ShouldPublishChangeForDeletedDateAndCountries() {
+        // Given
+        when(repository.findById(1L)).thenReturn(Optional.of(holidayDefinition));
+        when(repository.findCountryCodesByTemplateId(1L)).thenReturn(List.of("TR"));
+
+        // When
+        holidayService.deleteHoliday(1L);
+
+        // Then
+        verify(changeEventBus).publish(new DomainChangeEvent(DomainChangeEvent.EntityType.HOLIDAY,
+            Set.of("1"), Set.of("TR"), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1)));
+    }
+
     @Test
     void getHolidaysByDate_ShouldReturnHolidaysForSpecificDate() {
         // Given
@@ -318,6 +360,75 @@ class HolidayServiceTest {
         verify(repository).findByCountryCodeDateRangeAndAudience(countryCode, start, end, audienceCode);
     }
 
+    @Test
+    void getHolidaysByCountriesAndDateRange_ShouldGroupByCountryInRequestedOrder() {
+        // Given
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        List<String> countryCodes = Arrays.asList("US", "TR", "DE");
+        List<Object[]> rows = List.of(new Object[]{"TR", holidayDefinition}, new Object[]{"US", holidayDefinition});
+        when(repository.findByCountryCodesAndDateRange(countryCodes, start, end)).thenReturn(rows);
+
+        // When
+        Map<String, List<HolidayDefinition>> result = holidayService.getHolidaysByCountriesAndDateRange(countryCodes, start, end, null);
+
+        // Then
+        assertThat(result.keySet()).containsExactly("US", "TR", "DE");
+        assertThat(result.get("TR")).containsExactly(holidayDefinition);
+        assertThat(result.get("US")).containsExactly(holidayDefinition);
+        assertThat(result.get("DE")).isEmpty();
+    }
+
+    @Test
+    void getHolidaysByCountriesAndDateRange_WithAudience_ShouldUseAudienceQuery() {
+        // Given
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        List<String> countryCodes = Arrays.asList("TR");
+        List<Object[]> rows = List.<Object[]>of(new Object[]{"TR", holidayDefinition});
+        when(repository.findByCountryCodesDateRangeAndAudience(countryCodes, start, end, "general")).thenReturn(rows);
+
+        // When
+        Map<String, List<HolidayDefinition>> result = holidayService.getHolidaysByCountriesAndDateRange(countryCodes, start, end, "general");
+
+        // Then
+        assertThat(result.get("TR")).containsExactly(holidayDefinition);
+        verify(repository, never()).findByCountryCodesAndDateRange(any(), any(), any());
+    }
+
+    @Test
+    void getHolidaysByCountriesAndDateRange_WithManyCountries_ShouldQueryInBatches() {
+        // Given
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        List<String> countryCodes = IntStream.range(0, HolidayService.COUNTRY_BATCH_SIZE + 1)
+            .mapToObj(i -> "C" + i)
+            .toList();
+        when(repository.findByCountryCodesAndDateRange(any(), eq(start), eq(end))).thenReturn(List.of());
+
+        // When
+        Map<String, List<HolidayDefinition>> result = holidayService.getHolidaysByCountriesAndDateRange(countryCodes, start, end, null);
+
+        // Then
+        assertThat(result).hasSize(countryCodes.size());
+        verify(repository, times(2)).findByCountryCodesAndDateRange(any(), eq(start), eq(end));
+    }
+
+    @Test
+    void getHolidaysWithCountryInRange_ShouldAttributeEachHolidayToItsCountry() {
+        // Given
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+        List<Object[]> rows = List.of(new Object[]{"TR", holidayDefinition}, new Object[]{"DE", holidayDefinition});
+        when(repository.findWithCountryByDateRange(start, end)).thenReturn(rows);
+
+        // When
+        Map<String, List<HolidayDefinition>> result = holidayService.getHolidaysWithCountryInRange(start, end);
+
+        // Then
+        assertThat(result.keySet()).containsExactly("TR", "DE");
+    }
+
     @Test
     void addHolidayCondition_ShouldReturnNull() {
         // Given
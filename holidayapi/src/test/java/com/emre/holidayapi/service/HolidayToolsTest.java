@@ -0,0 +1,139 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.model.HolidayDefinition;
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayToolsTest {
+
+    @Mock
+    private HolidayService holidayService;
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    @Mock
+    private HolidayAiService holidayAiService;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    private HolidayTools tools;
+
+    @BeforeEach
+    void setUp() {
+        tools = new HolidayTools(holidayService, holidayCalendarIndex, holidayAiService, referenceData);
+    }
+
+    @Test
+    void workingDays_ShouldOnlySubtractHolidaysOnWeekdaysOnce() {
+        // Given - 2025-04-23 is a Wednesday listed twice, 2025-04-26 a Saturday
+        when(holidayService.getHolidaysByDateRange(LocalDate.of(2025, 4, 21), LocalDate.of(2025, 4, 27), "TR"))
+            .thenReturn(List.of(holiday(LocalDate.of(2025, 4, 23), "Children's Day"),
+                holiday(LocalDate.of(2025, 4, 23), "Sovereignty Day"),
+                holiday(LocalDate.of(2025, 4, 26), "Weekend Festival")));
+
+        // When
+        HolidayTools.WorkingDays result = tools.workingDays(new HolidayTools.DateRange("2025-04-21", "2025-04-27"), "TR");
+
+        // Then
+        assertThat(result.error()).isNull();
+        assertThat(result.calendarDays()).isEqualTo(7);
+        assertThat(result.weekendDays()).isEqualTo(2);
+        assertThat(result.holidaysOnWeekdays()).isEqualTo(1);
+        assertThat(result.workingDays()).isEqualTo(4);
+    }
+
+    @Test
+    void holidaysInRange_ShouldListTheEarliestHolidaysInTheLanguage() {
+        // Given
+        List<HolidayDefinition> definitions = new ArrayList<>();
+        for (int day = HolidayTools.MAX_HOLIDAYS + 5; day > 0; day--) {
+            definitions.add(holiday(LocalDate.of(2025, 1, 1).plusDays(day - 1), "Holiday " + day));
+        }
+        when(holidayService.getHolidaysByDateRange(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31), "TR"))
+            .thenReturn(definitions);
+        when(holidayCalendarIndex.nameOf(any(TemplateInfo.class), eq("tr")))
+            .thenAnswer(invocation -> invocation.<TemplateInfo>getArgument(0).defaultName() + " (tr)");
+
+        // When
+        HolidayTools.Holidays result = tools.holidaysInRange(new HolidayTools.DateRange("2025-01-01", "2025-03-31"), "TR", "tr");
+
+        // Then
+        assertThat(result.holidays()).hasSize(HolidayTools.MAX_HOLIDAYS);
+        assertThat(result.holidays().get(0)).isEqualTo(new HolidayTools.Holiday("2025-01-01", "Holiday 1 (tr)", "Official"));
+        assertThat(result.truncated()).isTrue();
+    }
+
+    @Test
+    void holidaysInRange_ShouldReportBadArgumentsToTheModel() {
+        // When
+        HolidayTools.Holidays reversed = tools.holidaysInRange(new HolidayTools.DateRange("2025-02-01", "2025-01-01"), "TR", "en");
+        HolidayTools.Holidays tooLong = tools.holidaysInRange(new HolidayTools.DateRange("2025-01-01", "2026-06-01"), "TR", "en");
+        HolidayTools.Holidays notADate = tools.holidaysInRange(new HolidayTools.DateRange("January 1st", "2025-01-31"), "TR", "en");
+
+        // Then
+        assertThat(reversed.error()).isEqualTo("to must not be before from");
+        assertThat(tooLong.error()).contains("at most " + HolidayTools.MAX_RANGE_DAYS + " days");
+        assertThat(notADate.error()).isEqualTo("from must be an ISO date such as 2025-01-31");
+        verifyNoInteractions(holidayService);
+    }
+
+    @Test
+    void nextHolidays_ShouldCapTheCountAndDefaultToToday() {
+        // Given
+        TemplateInfo republicDay = new TemplateInfo(3L, "republic_day", "Republic Day", "Official");
+        when(holidayCalendarIndex.next("TR", null, LocalDate.now(), 10))
+            .thenReturn(List.of(new CalendarEntry("TR", 30L, LocalDate.of(2025, 10, 29), republicDay)));
+        when(holidayCalendarIndex.nameOf(republicDay, "en")).thenReturn("Republic Day");
+
+        // When
+        HolidayTools.Holidays result = tools.nextHolidays(new HolidayTools.NextHolidays(null, 25), "TR", "en");
+
+        // Then
+        assertThat(result.holidays()).containsExactly(new HolidayTools.Holiday("2025-10-29", "Republic Day", "Official"));
+    }
+
+    @Test
+    void vacationPlan_ShouldUseTheRuleBasedPlanner() {
+        // Given
+        when(holidayAiService.planVacation(2026, 5, "TR", "en")).thenReturn("Option 1");
+        when(holidayAiService.planVacation(2026, 0, "TR", "en")).thenThrow(new IllegalArgumentException("Vacation days must be between 1 and 366"));
+        when(holidayAiService.planVacation(2026, 5, "TR", "tr")).thenThrow(new DateTimeException("Invalid value for Year"));
+
+        // When & Then
+        assertThat(tools.vacationPlan(new HolidayTools.VacationRequest(5, 2026), "TR", "en").plan()).isEqualTo("Option 1");
+        assertThat(tools.vacationPlan(new HolidayTools.VacationRequest(0, 2026), "TR", "en").error())
+            .isEqualTo("Vacation days must be between 1 and 366");
+        assertThat(tools.vacationPlan(new HolidayTools.VacationRequest(5, 2026), "TR", "tr").error())
+            .isEqualTo("Invalid value for Year");
+    }
+
+    private static HolidayDefinition holiday(LocalDate date, String name) {
+        HolidayTemplate template = new HolidayTemplate();
+        template.setId((long) name.hashCode());
+        template.setCode(name.toLowerCase().replace(' ', '_'));
+        template.setDefaultName(name);
+        template.setType("Official");
+        HolidayDefinition definition = new HolidayDefinition();
+        definition.setHolidayDate(date);
+        definition.setTemplate(template);
+        return definition;
+    }
+}
@@ -0,0 +1,147 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.config.ModelCircuitBreaker;
+import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.model.HolidayDefinition;
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.repository.TranslationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.function.FunctionCallback;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IntelligentHolidayAiServiceTest {
+
+    @Mock
+    private ChatClient.Builder chatClientBuilder;
+
+    @Mock
+    private ChatClient chatClient;
+
+    @Mock
+    private ChatClient.ChatClientRequestSpec requestSpec;
+
+    @Mock
+    private ChatClient.CallResponseSpec callSpec;
+
+    @Mock
+    private HolidayService holidayService;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    @Mock
+    private HolidayRetrievalIndex holidayRetrievalIndex;
+
+    @Mock
+    private HolidayAiService holidayAiService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(chatClientBuilder.build()).thenReturn(chatClient);
+    }
+
+    @Test
+    void processHolidayQuery_InToolsMode_ShouldLetTheModelLookUpHolidays() {
+        // Given
+        when(referenceData.countryName("TR")).thenReturn("Turkey");
+        when(referenceData.audiences("en")).thenReturn(List.of(new AudienceDto("general", "General Public")));
+        when(holidayService.getHolidaysByDateRange(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), "TR"))
+            .thenReturn(List.of(newYear()));
+        when(holidayCalendarIndex.nameOf(any(HolidayCalendarIndex.TemplateInfo.class), eq("en"))).thenReturn("New Year");
+        List<FunctionCallback> registered = new ArrayList<>();
+        when(chatClient.prompt(any(Prompt.class))).thenReturn(requestSpec);
+        when(requestSpec.functions(any(FunctionCallback[].class))).thenAnswer(invocation -> {
+            registered.addAll(Arrays.asList((FunctionCallback[]) invocation.getRawArguments()[0]));
+            return requestSpec;
+        });
+        when(requestSpec.call()).thenReturn(callSpec);
+        // Stands in for a tool-calling model: asks for January's holidays and answers with what it got back
+        when(callSpec.content()).thenAnswer(invocation -> "Found " + registered.stream()
+            .filter(tool -> tool.getName().equals(HolidayTools.HOLIDAYS_IN_RANGE))
+            .findFirst()
+            .orElseThrow()
+            .call("{\"from\":\"2025-01-01\",\"to\":\"2025-01-31\"}"));
+
+        // When
+        String response = service("tools").processHolidayQuery("Which holidays are in January 2025?", "TR", "en");
+
+        // Then
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatClient).prompt(prompt.capture());
+        assertThat(registered).extracting(FunctionCallback::getName).containsExactly(HolidayTools.HOLIDAYS_IN_RANGE,
+            HolidayTools.WORKING_DAYS, HolidayTools.NEXT_HOLIDAYS, HolidayTools.VACATION_PLAN, HolidayTools.HOLIDAYS_FOR_AUDIENCE);
+        assertThat(response).startsWith("Found").contains("2025-01-01", "New Year");
+        assertThat(prompt.getValue().getContents())
+            .contains("Use the holiday tools")
+            .endsWith("User question: Which holidays are in January 2025?")
+            .doesNotContain("(date|name|type)");
+        verifyNoInteractions(holidayRetrievalIndex);
+    }
+
+    @Test
+    void processHolidayQuery_InToolsMode_WhenModelFails_ShouldAnswerWithoutIt() {
+        // Given
+        when(referenceData.countryName("TR")).thenReturn("Turkey");
+        when(referenceData.audiences("en")).thenReturn(List.of());
+        when(chatClient.prompt(any(Prompt.class))).thenThrow(new RuntimeException("Connection refused"));
+        when(holidayAiService.answerWithoutModel("Is today a holiday?", "TR", "en")).thenReturn("No holidays today.");
+
+        // When
+        String response = service("tools").processHolidayQuery("Is today a holiday?", "TR", "en");
+
+        // Then
+        assertThat(response).isEqualTo("No holidays today.");
+    }
+
+    @Test
+    void constructor_ShouldRejectUnknownModes() {
+        assertThatThrownBy(() -> service("functions"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("context or tools");
+    }
+
+    private IntelligentHolidayAiService service(String mode) {
+        return new IntelligentHolidayAiService(chatClientBuilder, holidayService, referenceData, translationRepository,
+            holidayCalendarIndex, new PromptBuilder(1200, new SimpleMeterRegistry()), new MessageAnalyzer(referenceData),
+            holidayRetrievalIndex, new ModelCircuitBreaker(20, 5, 50, Duration.ofSeconds(20), 80, Duration.ofSeconds(30), 2, Duration.ofSeconds(60), 4),
+            holidayAiService, new HolidayTools(holidayService, holidayCalendarIndex, holidayAiService, referenceData), mode);
+    }
+
+    private static HolidayDefinition newYear() {
+        HolidayTemplate template = new HolidayTemplate();
+        template.setId(1L);
+        template.setCode("new_year");
+        template.setDefaultName("New Year");
+        template.setType("Official");
+        HolidayDefinition definition = new HolidayDefinition();
+        definition.setId(1L);
+        definition.setHolidayDate(LocalDate.of(2025, 1, 1));
+        definition.setTemplate(template);
+        return definition;
+    }
+}
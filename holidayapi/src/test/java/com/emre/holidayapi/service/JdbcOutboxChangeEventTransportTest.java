@@ -0,0 +1,117 @@
+package com.emre.holidayapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JdbcOutboxChangeEventTransportTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+    private static final DomainChangeEvent EVENT = new DomainChangeEvent(DomainChangeEvent.EntityType.HOLIDAY,
+        Set.of("7"), Set.of("TR"), LocalDate.of(2025, 10, 29), LocalDate.of(2025, 10, 29));
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE change_event_outbox (id VARCHAR(36) PRIMARY KEY, created_at TIMESTAMP NOT NULL, payload CLOB NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void send_ShouldDeliverLocallyOnceAndToOtherNodesOnPoll() {
+        // Given
+        ApplicationEventPublisher nodeA = mock(ApplicationEventPublisher.class);
+        ApplicationEventPublisher nodeB = mock(ApplicationEventPublisher.class);
+        JdbcOutboxChangeEventTransport transportA = transport(nodeA, NOW);
+        JdbcOutboxChangeEventTransport transportB = transport(nodeB, NOW);
+
+        // When
+        transportA.send(EVENT);
+        transportA.poll();
+        transportB.poll();
+        transportB.poll();
+
+        // Then
+        verify(nodeA, times(1)).publishEvent(EVENT);
+        verify(nodeB, times(1)).publishEvent(EVENT);
+    }
+
+    @Test
+    void skipBacklog_ShouldIgnoreEventsWrittenBeforeStartup() {
+        // Given
+        transport(mock(ApplicationEventPublisher.class), NOW).send(EVENT);
+        ApplicationEventPublisher late = mock(ApplicationEventPublisher.class);
+        JdbcOutboxChangeEventTransport lateTransport = transport(late, NOW);
+
+        // When
+        lateTransport.skipBacklog();
+        lateTransport.poll();
+
+        // Then
+        verifyNoInteractions(late);
+    }
+
+    @Test
+    void poll_ShouldSkipUnreadablePayloads() {
+        // Given
+        jdbcTemplate.update("INSERT INTO change_event_outbox (id, created_at, payload) VALUES ('broken', ?, ?)",
+            Timestamp.valueOf(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC)), "not json");
+        transport(mock(ApplicationEventPublisher.class), NOW).send(EVENT);
+        ApplicationEventPublisher other = mock(ApplicationEventPublisher.class);
+
+        // When
+        transport(other, NOW).poll();
+
+        // Then
+        verify(other).publishEvent(EVENT);
+        verifyNoMoreInteractions(other);
+    }
+
+    @Test
+    void prune_ShouldDeleteRowsOlderThanRetention() {
+        // Given
+        transport(mock(ApplicationEventPublisher.class), NOW).send(EVENT);
+        transport(mock(ApplicationEventPublisher.class), NOW.plus(Duration.ofMinutes(90))).send(EVENT);
+
+        // When
+        transport(mock(ApplicationEventPublisher.class), NOW.plus(Duration.ofMinutes(120))).prune();
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM change_event_outbox", Integer.class)).isEqualTo(1);
+    }
+
+    private JdbcOutboxChangeEventTransport transport(ApplicationEventPublisher publisher, Instant now) {
+        return new JdbcOutboxChangeEventTransport(jdbcTemplate, publisher, objectMapper,
+            Duration.ofSeconds(30), Duration.ofHours(1), Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,93 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.service.MessageAnalyzer.Analysis;
+import com.emre.holidayapi.service.MessageAnalyzer.Quantity;
+import com.emre.holidayapi.service.MessageAnalyzer.RelativeWord;
+import com.emre.holidayapi.service.MessageAnalyzer.Unit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageAnalyzerTest {
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    private MessageAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        analyzer = new MessageAnalyzer(referenceData);
+    }
+
+    @Test
+    void analyze_ShouldExtractDatesYearsAndMonthsInOnePass() {
+        // When
+        Analysis analysis = analyzer.analyze(
+            "Religious holidays between 01/06/2025 and 31/08/2025, maybe June to August 2026?", "en");
+
+        // Then
+        assertThat(analysis.dates()).containsExactly(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 8, 31));
+        assertThat(analysis.years()).containsExactly(2026);
+        assertThat(analysis.monthRange()).containsExactly(6, 8);
+        assertThat(analysis.requestedYear()).isEqualTo(2026);
+        assertThat(analyzer.analyze("Haziranda ve ağustosta hangi tatiller var?", "tr").months()).containsExactly(6, 8);
+    }
+
+    @Test
+    void analyze_ShouldReadVacationDayLimits() {
+        // When
+        Analysis maximum = analyzer.analyze("With 3 days off next year, maximum 10 vacation days", "en");
+        Analysis turkish = analyzer.analyze("Seneye 5 izin günü kullanabilirim", "tr");
+        Analysis bare = analyzer.analyze("I can take 4", "en");
+
+        // Then
+        assertThat(maximum.quantities()).containsExactly(new Quantity(3, Unit.DAY, false), new Quantity(10, Unit.DAY, true));
+        assertThat(maximum.vacationDays()).isEqualTo(10);
+        assertThat(maximum.has(RelativeWord.NEXT_YEAR)).isTrue();
+        assertThat(maximum.requestedYear()).isEqualTo(LocalDate.now().getYear() + 1);
+        assertThat(turkish.vacationDays()).isEqualTo(5);
+        assertThat(bare.vacationDays()).isEqualTo(4);
+        assertThat(analyzer.analyze("How can I optimize my vacation days?", "en").vacationDays()).isEqualTo(-1);
+    }
+
+    @Test
+    void analyze_ShouldReadHolidayCreationRequests() {
+        // Given
+        when(referenceData.audiences("en")).thenReturn(List.of(
+            new AudienceDto("general", "General Public"), new AudienceDto("teachers", "Teachers")));
+
+        // When
+        Analysis quoted = analyzer.analyze(
+            "add a holiday called \"Teachers' Day Off\" to today for only \"general public\" audience", "en");
+        Analysis called = analyzer.analyze("create a holiday for tomorrow called Test Day", "en");
+
+        // Then
+        assertThat(quoted.quotedNames()).containsExactly("Teachers' Day Off", "general public");
+        assertThat(quoted.creationName()).isEqualTo("Teachers' Day Off");
+        assertThat(quoted.creationDate()).isEqualTo(LocalDate.now());
+        assertThat(quoted.audienceCodes()).containsExactly("general", "teachers");
+        assertThat(called.creationName()).isEqualTo("Test Day");
+        assertThat(called.creationDate()).isEqualTo(LocalDate.now().plusDays(1));
+        assertThat(called.audience()).isNull();
+    }
+
+    @Test
+    void analyze_ShouldFindTheHolidayAQuestionIsAbout() {
+        assertThat(analyzer.analyze("When is Kurban Bayramı?", "en").holidayName()).isEqualTo("kurban bayramı");
+        assertThat(analyzer.analyze("Ramazan Bayramı kaç gün sürer?", "tr").holidayName()).isEqualTo("ramazan bayramı");
+        assertThat(analyzer.analyze("Is Christmas a day off for students?", "en").holidayName()).isEqualTo("christmas");
+        assertThat(analyzer.analyze("Is Christmas a day off for students?", "en").audience()).isEqualTo("students");
+        assertThat(analyzer.analyze("Why do people celebrate?", "en").holidayName()).isNull();
+    }
+}
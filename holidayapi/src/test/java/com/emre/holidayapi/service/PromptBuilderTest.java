@@ -0,0 +1,109 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.HolidayCalendarIndex.CalendarEntry;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PromptBuilderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void estimateTokens_ShouldCountNonAsciiLettersAsHalfTokens() {
+        assertThat(PromptBuilder.estimateTokens("")).isZero();
+        assertThat(PromptBuilder.estimateTokens("Republic Day")).isEqualTo(3);
+        assertThat(PromptBuilder.estimateTokens("Ramazan Bayramı")).isEqualTo(5);
+    }
+
+    @Test
+    void build_ShouldKeepEverythingWithinBudget() {
+        // Given
+        PromptBuilder builder = new PromptBuilder(1000, meterRegistry);
+
+        // When
+        PromptBuilder.Result result = builder.draft("general")
+            .required("Answer briefly.")
+            .section("Upcoming holidays (date|name|type):", List.of("2025-10-29|Republic Day|Official"))
+            .section("Audiences:", List.of())
+            .required("User question: When is the next holiday?")
+            .build();
+
+        // Then
+        assertThat(result.text()).isEqualTo("""
+            Answer briefly.
+
+            Upcoming holidays (date|name|type):
+            2025-10-29|Republic Day|Official
+
+            User question: When is the next holiday?""");
+        assertThat(result.trimmed()).isFalse();
+        assertThat(result.tokens()).isGreaterThanOrEqualTo(PromptBuilder.estimateTokens(result.text()));
+        assertThat(meterRegistry.get("holiday.ai.prompt.tokens").tag("purpose", "general").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void build_ShouldTrimTheLastSectionsFirstAndKeepRequiredParts() {
+        // Given
+        PromptBuilder builder = new PromptBuilder(30, meterRegistry);
+
+        // When
+        PromptBuilder.Result result = builder.draft("general")
+            .required("Answer briefly.")
+            .section("Context:", List.of("Country: Turkey (TR)", "Holidays in 2025: 16"))
+            .section("Upcoming:", List.of("2025-10-29|Republic Day|Official", "2025-12-31|New Year's Eve|Observance"))
+            .history("Earlier turns:", List.of("User: first | Assistant: one", "User: second | Assistant: two"))
+            .required("User question: What next?")
+            .build();
+
+        // Then
+        assertThat(result.trimmed()).isTrue();
+        assertThat(result.tokens()).isLessThanOrEqualTo(30);
+        assertThat(result.text())
+            .startsWith("Answer briefly.")
+            .contains("Country: Turkey (TR)")
+            .doesNotContain("Upcoming:", "Earlier turns:")
+            .endsWith("User question: What next?");
+        assertThat(meterRegistry.get("holiday.ai.prompt.trimmed").tag("purpose", "general").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void build_ShouldDropTheOldestTurnsFirst() {
+        // Given
+        PromptBuilder builder = new PromptBuilder(25, meterRegistry);
+
+        // When
+        PromptBuilder.Result result = builder.draft("general")
+            .history("Earlier turns:", List.of("User: oldest question | Assistant: reply", "User: latest question | Assistant: reply"))
+            .required("User question: And then?")
+            .build();
+
+        // Then
+        assertThat(result.text()).contains("latest question").doesNotContain("oldest question");
+    }
+
+    @Test
+    void holidayRows_ShouldRenderOneCompactRowPerHoliday() {
+        // Given
+        CalendarEntry republicDay = new CalendarEntry("TR", 30L, LocalDate.of(2025, 10, 29),
+            new TemplateInfo(3L, "republic_day", "Republic Day", "Official"));
+
+        // When
+        List<String> rows = PromptBuilder.holidayRows(List.of(republicDay), h -> "Cumhuriyet Bayramı");
+
+        // Then
+        assertThat(rows).containsExactly("2025-10-29|Cumhuriyet Bayramı|Official");
+    }
+
+    @Test
+    void constructor_ShouldRejectAnEmptyBudget() {
+        assertThatThrownBy(() -> new PromptBuilder(0, meterRegistry))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
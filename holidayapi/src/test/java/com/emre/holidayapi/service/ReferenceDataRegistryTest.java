@@ -0,0 +1,102 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.dto.AudienceDto;
+import com.emre.holidayapi.model.Audience;
+import com.emre.holidayapi.model.Country;
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.repository.AudienceRepository;
+import com.emre.holidayapi.repository.CountryRepository;
+import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataRegistryTest {
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private AudienceRepository audienceRepository;
+
+    @Mock
+    private HolidayTemplateRepository holidayTemplateRepository;
+
+    private ReferenceDataRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ReferenceDataRegistry(countryRepository, audienceRepository, holidayTemplateRepository);
+
+        Country turkey = new Country();
+        turkey.setCountryCode("TR");
+        turkey.setCountryName("Turkey");
+        when(countryRepository.findAll()).thenReturn(List.of(turkey));
+        when(audienceRepository.findAll()).thenReturn(List.of(audience("general", "General Public")));
+        when(holidayTemplateRepository.findAll()).thenReturn(List.of(
+            template(1L, "republic_day", "Official"), template(2L, "eid_al_fitr", "Religious"), template(3L, "victory_day", "Official")));
+    }
+
+    @Test
+    void lookups_ShouldBeServedFromOneSnapshot() {
+        // When
+        String country = registry.countryName("TR");
+        String unknownCountry = registry.countryName("XX");
+        List<AudienceDto> turkish = registry.audiences("tr");
+        List<AudienceDto> english = registry.audiences("en");
+
+        // Then
+        assertThat(country).isEqualTo("Turkey");
+        assertThat(unknownCountry).isEqualTo("XX");
+        assertThat(turkish).extracting(AudienceDto::getName).containsExactly("Genel Halk");
+        assertThat(english).extracting(AudienceDto::getName).containsExactly("General Public");
+        assertThat(registry.templateByCode("eid_al_fitr").id()).isEqualTo(2L);
+        assertThat(registry.templateById(3L).code()).isEqualTo("victory_day");
+        assertThat(registry.types()).containsExactly("Official", "Religious");
+        verify(countryRepository, times(1)).findAll();
+        verify(audienceRepository, times(1)).findAll();
+        verify(holidayTemplateRepository, times(1)).findAll();
+    }
+
+    @Test
+    void onReferenceDataChanged_ShouldSwapInRebuiltSnapshot() {
+        // Given
+        registry.audiences("en");
+        when(audienceRepository.findAll()).thenReturn(List.of(
+            audience("general", "General Public"), audience("students", "Students")));
+
+        // When
+        registry.onReferenceDataChanged(DomainChangeEvent.of(DomainChangeEvent.EntityType.HOLIDAY, Set.of("1")));
+        List<AudienceDto> beforeAudienceChange = registry.audiences("tr");
+        registry.onReferenceDataChanged(DomainChangeEvent.of(DomainChangeEvent.EntityType.AUDIENCE, Set.of("students")));
+
+        // Then
+        assertThat(beforeAudienceChange).hasSize(1);
+        assertThat(registry.audiences("tr")).extracting(AudienceDto::getName).containsExactly("Genel Halk", "Öğrenciler");
+        verify(audienceRepository, times(2)).findAll();
+    }
+
+    private static Audience audience(String code, String name) {
+        Audience audience = new Audience();
+        audience.setCode(code);
+        audience.setAudienceName(name);
+        return audience;
+    }
+
+    private static HolidayTemplate template(Long id, String code, String type) {
+        HolidayTemplate template = new HolidayTemplate();
+        template.setId(id);
+        template.setCode(code);
+        template.setType(type);
+        return template;
+    }
+}
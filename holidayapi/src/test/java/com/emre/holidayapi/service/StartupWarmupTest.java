@@ -0,0 +1,108 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.service.HolidayAiService.QueryIntent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmupTest {
+
+    @Mock
+    private HolidayService holidayService;
+
+    @Mock
+    private HolidayCalendarIndex holidayCalendarIndex;
+
+    @Mock
+    private TodayHolidayIndex todayHolidayIndex;
+
+    @Mock
+    private ReferenceDataRegistry referenceData;
+
+    @Mock
+    private ObjectProvider<HolidayAiService> holidayAiServiceProvider;
+
+    @Mock
+    private HolidayAiService holidayAiService;
+
+    @Test
+    void warmUp_ShouldLoadEachCountryOnceAndOnlyAskRuleBasedQuestions() {
+        // Given
+        when(holidayAiServiceProvider.getIfAvailable()).thenReturn(holidayAiService);
+        when(holidayAiService.intentOf(anyString(), eq("en"))).thenReturn(QueryIntent.TODAY);
+        when(holidayAiService.intentOf("When is Republic Day?", "en")).thenReturn(QueryIntent.GENERAL);
+        when(holidayAiService.intentOf("Which month has the most holidays?", "en")).thenReturn(QueryIntent.CREATE_HOLIDAY);
+        StartupWarmup warmup = warmup(" tr, us ,TR", 2, Duration.ofSeconds(60), () -> 0L);
+
+        // When
+        StartupWarmup.Report report = warmup.warmUp(null);
+
+        // Then
+        assertThat(report.rounds()).isEqualTo(2);
+        assertThat(report.timedOut()).isFalse();
+        assertThat(report.requests()).isZero();
+        assertThat(report.failures()).isZero();
+        verify(holidayService).getHolidaysByCountry("TR");
+        verify(holidayService).getHolidaysByCountry("US");
+        verify(holidayCalendarIndex).entries("TR");
+        verify(todayHolidayIndex).getTodayHolidaysMatching("US", AudienceFilter.NONE, "en");
+        verify(holidayAiService, times(2)).processHolidayQuery("Is today a holiday?", "TR", "en");
+        verify(holidayAiService, times(2)).processHolidayQuery("Is today a holiday?", "US", "en");
+        verify(holidayAiService, never()).processHolidayQuery(eq("When is Republic Day?"), anyString(), anyString());
+        verify(holidayAiService, never()).processHolidayQuery(eq("Which month has the most holidays?"), anyString(), anyString());
+    }
+
+    @Test
+    void warmUp_ShouldStopAtMaxDuration() {
+        // Given - every clock read advances a second
+        AtomicLong clock = new AtomicLong();
+        StartupWarmup warmup = warmup("TR", 100, Duration.ofSeconds(3), () -> clock.getAndAdd(1_000_000_000L));
+
+        // When
+        StartupWarmup.Report report = warmup.warmUp(null);
+
+        // Then
+        assertThat(report.timedOut()).isTrue();
+        assertThat(report.rounds()).isLessThan(100);
+    }
+
+    @Test
+    void warmUp_ShouldCarryOnWhenAStepFails() {
+        // Given
+        when(holidayService.getHolidaysByCountry("TR")).thenThrow(new RuntimeException("ORA-12541: no listener"));
+        StartupWarmup warmup = warmup("TR", 1, Duration.ofSeconds(60), () -> 0L);
+
+        // When
+        StartupWarmup.Report report = warmup.warmUp(null);
+
+        // Then
+        assertThat(report.failures()).isEqualTo(1);
+        assertThat(report.rounds()).isEqualTo(1);
+        verify(holidayCalendarIndex).entries("TR");
+    }
+
+    @Test
+    void constructor_ShouldRejectAnEmptyCountryList() {
+        assertThatThrownBy(() -> warmup(" , ", 1, Duration.ofSeconds(60), () -> 0L))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("at least one country");
+    }
+
+    private StartupWarmup warmup(String countries, int rounds, Duration maxDuration, LongSupplier clock) {
+        return new StartupWarmup(holidayService, holidayCalendarIndex, todayHolidayIndex, referenceData,
+            holidayAiServiceProvider, true, countries, "en", rounds, maxDuration, clock);
+    }
+}
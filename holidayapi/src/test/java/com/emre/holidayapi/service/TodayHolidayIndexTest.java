@@ -0,0 +1,202 @@
+package com.emre.holidayapi.service;
+
+import com.emre.holidayapi.dto.HolidayDto;
+import com.emre.holidayapi.model.Audience;
+import com.emre.holidayapi.model.HolidayTemplate;
+import com.emre.holidayapi.repository.AudienceRepository;
+import com.emre.holidayapi.repository.CountryRepository;
+import com.emre.holidayapi.repository.HolidayAudienceRepository;
+import com.emre.holidayapi.repository.HolidayDefinitionRepository;
+import com.emre.holidayapi.repository.HolidayTemplateRepository;
+import com.emre.holidayapi.repository.TranslationRepository;
+import com.emre.holidayapi.service.CalendarSnapshot.CountryCalendar;
+import com.emre.holidayapi.service.HolidayCalendarIndex.TemplateInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodayHolidayIndexTest {
+
+    @Mock
+    private HolidayDefinitionRepository holidayDefinitionRepository;
+
+    @Mock
+    private HolidayTemplateRepository holidayTemplateRepository;
+
+    @Mock
+    private HolidayAudienceRepository holidayAudienceRepository;
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private AudienceRepository audienceRepository;
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private HolidayCalendarIndex calendarIndex;
+    private TodayHolidayIndex index;
+
+    @BeforeEach
+    void setUp() {
+        calendarIndex = new HolidayCalendarIndex(holidayDefinitionRepository, holidayTemplateRepository,
+            translationRepository, holidayAudienceRepository,
+            new CalendarSnapshotStore(tempDir.resolve("calendar.snapshot").toString()));
+        index = new TodayHolidayIndex(calendarIndex, mapper());
+    }
+
+    @Test
+    void getTodayHolidays_ShouldResolveTranslationsAndAudiences() {
+        // Given
+        stubDatabase();
+        Audience audience = new Audience();
+        audience.setCode("government");
+        audience.setAudienceName("Government");
+        when(audienceRepository.findAll()).thenReturn(List.of(audience));
+
+        // When
+        List<HolidayDto> turkish = index.getTodayHolidays("TR", null, "tr");
+        List<HolidayDto> english = index.getTodayHolidays("TR", "", "en");
+        List<HolidayDto> government = index.getTodayHolidays("TR", "government", "tr");
+        List<HolidayDto> students = index.getTodayHolidays("TR", "students", "tr");
+
+        // Then
+        assertThat(turkish).extracting(dto -> dto.name).containsExactly("Yılbaşı");
+        assertThat(english).extracting(dto -> dto.name).containsExactly("New Year");
+        assertThat(english.get(0).countryCode).isEqualTo("TR");
+        assertThat(english.get(0).date).isEqualTo(LocalDate.now().toString());
+        assertThat(government).hasSize(1);
+        assertThat(government.get(0).audiences).containsExactly("Devlet");
+        assertThat(english.get(0).audiences).containsExactly("Government");
+        assertThat(students).isEmpty();
+        assertThat(index.getTodayHolidays("DE", null, "en")).isEmpty();
+    }
+
+    @Test
+    void getTodayHolidaysMatching_ShouldCombineAudienceLists() {
+        // Given
+        stubDatabase();
+
+        // When
+        List<HolidayDto> any = index.getTodayHolidaysMatching("TR",
+            AudienceFilter.parse(null, "government,students", "any"), "en");
+        List<HolidayDto> all = index.getTodayHolidaysMatching("TR",
+            AudienceFilter.parse(null, "government,students", "all"), "en");
+
+        // Then
+        assertThat(any).extracting(dto -> dto.name).containsExactly("New Year");
+        assertThat(all).isEmpty();
+    }
+
+    @Test
+    void getTodayHolidays_ShouldBuildSnapshotOnceForRepeatedReads() {
+        // Given
+        stubDatabase();
+
+        // When
+        List<HolidayDto> first = index.getTodayHolidays("TR", null, "en");
+        index.getTodayHolidays("TR", null, "tr");
+        index.getTodayHolidays("DE", null, "en");
+        List<HolidayDto> again = index.getTodayHolidays("TR", null, "en");
+
+        // Then
+        assertThat(again).isSameAs(first);
+        verify(holidayDefinitionRepository, times(1)).findCalendarRows();
+        verify(translationRepository, never()).findByTemplateIdAndLanguageCode(any(), any());
+    }
+
+    @Test
+    void getTodayHolidays_ShouldRebuildWhenTheCalendarIsReloaded() {
+        // Given
+        stubDatabase();
+        List<HolidayDto> before = index.getTodayHolidays("TR", null, "en");
+        when(holidayDefinitionRepository.findCalendarRows()).thenReturn(List.of());
+
+        // When
+        calendarIndex.reload();
+
+        // Then
+        assertThat(before).hasSize(1);
+        assertThat(index.getTodayHolidays("TR", null, "en")).isEmpty();
+    }
+
+    @Test
+    void getTodayHolidays_ShouldServeFromSavedSnapshotWithoutDatabase() {
+        // Given - a snapshot left behind by an earlier run
+        new CalendarSnapshotStore(tempDir.resolve("calendar.snapshot").toString()).save(new CalendarSnapshot(
+            Map.of("TR", new CountryCalendar(new int[]{(int) LocalDate.now().toEpochDay()}, new long[]{1L}, new long[]{10L})),
+            Map.of(10L, new TemplateInfo(10L, "new_year", "New Year", "Official")),
+            Map.of(10L, Map.of("tr", "Yılbaşı")),
+            Map.of(1L, Set.of("government"))));
+        calendarIndex.warmStart();
+
+        // When
+        List<HolidayDto> turkish = index.getTodayHolidays("TR", "government", "tr");
+
+        // Then
+        assertThat(turkish).extracting(dto -> dto.name).containsExactly("Yılbaşı");
+        verifyNoInteractions(holidayDefinitionRepository, holidayAudienceRepository);
+        verify(translationRepository, never()).findAllNames();
+    }
+
+    @Test
+    void getTodayHolidays_ShouldTranslateAudiencesWhenHolidayNamesHaveNoTranslation() {
+        // Given - no holiday name is translated into Turkish today, but audience names are
+        new CalendarSnapshotStore(tempDir.resolve("calendar.snapshot").toString()).save(new CalendarSnapshot(
+            Map.of("TR", new CountryCalendar(new int[]{(int) LocalDate.now().toEpochDay()}, new long[]{1L}, new long[]{10L})),
+            Map.of(10L, new TemplateInfo(10L, "new_year", "New Year", "Official")),
+            Map.of(),
+            Map.of(1L, Set.of("government"))));
+        calendarIndex.warmStart();
+
+        // When
+        List<HolidayDto> turkish = index.getTodayHolidays("TR", null, "tr");
+        List<HolidayDto> german = index.getTodayHolidays("TR", null, "de");
+
+        // Then
+        assertThat(turkish).extracting(dto -> dto.name).containsExactly("New Year");
+        assertThat(turkish.get(0).audiences).containsExactly("Devlet");
+        assertThat(german.get(0).audiences).containsExactly("government");
+    }
+
+    private void stubDatabase() {
+        HolidayTemplate template = new HolidayTemplate();
+        template.setId(10L);
+        template.setCode("new_year");
+        template.setDefaultName("New Year");
+        template.setType("Official");
+
+        when(holidayTemplateRepository.findAll()).thenReturn(List.of(template));
+        when(translationRepository.findAllNames())
+            .thenReturn(List.<Object[]>of(new Object[]{10L, "tr", "Yılbaşı"}));
+        when(holidayAudienceRepository.findAllAudienceCodes())
+            .thenReturn(List.<Object[]>of(new Object[]{1L, "government"}));
+        when(holidayDefinitionRepository.findCalendarRows()).thenReturn(List.<Object[]>of(
+            new Object[]{"TR", 1L, LocalDate.now(), 10L},
+            new Object[]{"TR", 2L, LocalDate.now().plusDays(3), 10L}
+        ));
+    }
+
+    private HolidayDtoMapper mapper() {
+        return new HolidayDtoMapper(translationRepository, holidayAudienceRepository,
+            new ReferenceDataRegistry(countryRepository, audienceRepository, holidayTemplateRepository));
+    }
+}